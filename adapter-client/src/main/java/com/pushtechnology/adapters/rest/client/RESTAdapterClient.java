@@ -124,7 +124,7 @@ public final class RESTAdapterClient {
     /**
      * Factory method for {@link RESTAdapterClient}.
      * @param modelStore the configuration store to use
-     * @param executor executor to use to schedule poll requests
+     * @param executor executor to use to schedule metrics reporting
      * @return a new {@link RESTAdapterClient}
      */
     public static RESTAdapterClient create(
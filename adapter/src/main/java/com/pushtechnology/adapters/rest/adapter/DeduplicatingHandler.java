@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.adapter;
+
+import java.util.function.BiConsumer;
+
+import com.pushtechnology.adapters.rest.polling.EndpointResponse;
+import com.pushtechnology.adapters.rest.polling.ResponseChangeListener;
+import com.pushtechnology.adapters.rest.publication.UpdateContext;
+
+/**
+ * A {@link BiConsumer} that drops responses that duplicate the last response published by an {@link UpdateContext}
+ * and delegates to another {@link BiConsumer}.
+ * <p>
+ * This avoids transforming and publishing the response when the endpoint has not changed. The result of the check is
+ * reported to a {@link ResponseChangeListener} so the response does not need to be compared again.
+ *
+ * @author Push Technology Limited
+ */
+/*package*/ final class DeduplicatingHandler implements BiConsumer<EndpointResponse, Throwable> {
+    private final UpdateContext<?> updateContext;
+    private final BiConsumer<EndpointResponse, Throwable> delegate;
+    private final ResponseChangeListener changeListener;
+
+    /**
+     * Constructor.
+     */
+    DeduplicatingHandler(
+            UpdateContext<?> updateContext,
+            BiConsumer<EndpointResponse, Throwable> delegate,
+            ResponseChangeListener changeListener) {
+        this.updateContext = updateContext;
+        this.delegate = delegate;
+        this.changeListener = changeListener;
+    }
+
+    @Override
+    public void accept(EndpointResponse response, Throwable throwable) {
+        if (response != null) {
+            final boolean isDuplicate = updateContext.isDuplicate(response);
+            changeListener.onResponseHandled(!isDuplicate);
+            if (isDuplicate) {
+                return;
+            }
+        }
+
+        delegate.accept(response, throwable);
+    }
+}
@@ -19,10 +19,14 @@ import java.util.function.BiConsumer;
 
 import com.pushtechnology.adapters.rest.endpoints.EndpointType;
 import com.pushtechnology.adapters.rest.model.latest.EndpointConfig;
+import com.pushtechnology.adapters.rest.model.latest.FanOutConfig;
 import com.pushtechnology.adapters.rest.model.latest.ServiceConfig;
 import com.pushtechnology.adapters.rest.polling.EndpointPollHandlerFactory;
 import com.pushtechnology.adapters.rest.polling.EndpointResponse;
+import com.pushtechnology.adapters.rest.polling.ResponseChangeListener;
 import com.pushtechnology.adapters.rest.publication.PublishingClient;
+import com.pushtechnology.adapters.rest.publication.UpdateContext;
+import com.pushtechnology.adapters.rest.topic.management.TopicManagementClient;
 
 /**
  * Implementation of {@link EndpointPollHandlerFactory}.
@@ -30,33 +34,60 @@ import com.pushtechnology.adapters.rest.publication.PublishingClient;
  * @author Push Technology Limited
  */
 public final class EndpointPollHandlerFactoryImpl implements EndpointPollHandlerFactory {
+    private static final ResponseChangeListener NO_CHANGE_LISTENER = isChanged -> { };
     private final PublishingClient publishingClient;
+    private final TopicManagementClient topicManagementClient;
 
     /**
      * Constructor.
      */
-    public EndpointPollHandlerFactoryImpl(PublishingClient publishingClient) {
+    public EndpointPollHandlerFactoryImpl(
+            PublishingClient publishingClient,
+            TopicManagementClient topicManagementClient) {
         this.publishingClient = publishingClient;
+        this.topicManagementClient = topicManagementClient;
     }
 
     @Override
     public BiConsumer<EndpointResponse, Throwable> create(ServiceConfig serviceConfig, EndpointConfig endpointConfig) {
+        return create(serviceConfig, endpointConfig, NO_CHANGE_LISTENER);
+    }
+
+    @Override
+    public BiConsumer<EndpointResponse, Throwable> create(
+            ServiceConfig serviceConfig,
+            EndpointConfig endpointConfig,
+            ResponseChangeListener changeListener) {
+        final FanOutConfig fanOut = endpointConfig.getFanOut();
+        if (fanOut != null) {
+            return new FanOutHandler(
+                serviceConfig,
+                endpointConfig,
+                EndpointType.getFanOutParser(fanOut.getKeyField(), endpointConfig.getProjection()),
+                topicManagementClient,
+                publishingClient,
+                changeListener);
+        }
+
         final EndpointType<?> endpointType = EndpointType.from(endpointConfig.getProduces());
-        return create(serviceConfig, endpointConfig, endpointType);
+        return create(serviceConfig, endpointConfig, endpointType, changeListener);
     }
 
     private <T> BiConsumer<EndpointResponse, Throwable> create(
             ServiceConfig serviceConfig,
             EndpointConfig endpointConfig,
-            EndpointType<T> endpointType) {
-        return new TransformingHandler<>(
-            endpointType.getParser(),
-            new PublicationHandler<>(
-                endpointConfig,
-                publishingClient.createUpdateContext(
-                    serviceConfig,
-                    endpointConfig,
-                    endpointType.getValueType(),
-                    endpointType.getDataType())));
+            EndpointType<T> endpointType,
+            ResponseChangeListener changeListener) {
+        final UpdateContext<T> updateContext = publishingClient.createUpdateContext(
+            serviceConfig,
+            endpointConfig,
+            endpointType.getValueType(),
+            endpointType.getDataType());
+        return new DeduplicatingHandler(
+            updateContext,
+            new TransformingHandler<>(
+                endpointType.getParser(endpointConfig.getProjection()),
+                new PublicationHandler<>(endpointConfig, updateContext)),
+            changeListener);
     }
 }
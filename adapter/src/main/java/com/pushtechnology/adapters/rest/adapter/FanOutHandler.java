@@ -0,0 +1,216 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.adapter;
+
+import static com.pushtechnology.adapters.rest.endpoints.EndpointType.JSON_ENDPOINT_TYPE;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.pushtechnology.adapters.rest.model.latest.EndpointConfig;
+import com.pushtechnology.adapters.rest.model.latest.ServiceConfig;
+import com.pushtechnology.adapters.rest.polling.EndpointResponse;
+import com.pushtechnology.adapters.rest.polling.ResponseChangeListener;
+import com.pushtechnology.adapters.rest.publication.PublishingClient;
+import com.pushtechnology.adapters.rest.publication.UpdateContext;
+import com.pushtechnology.adapters.rest.topic.management.TopicManagementClient;
+import com.pushtechnology.diffusion.datatype.json.JSON;
+import com.pushtechnology.diffusion.transform.transformer.UnsafeTransformer;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Handler for the responses of a fan-out endpoint.
+ * <p>
+ * Each element of a response is published to its own topic below the topic path of the endpoint. The topic of an
+ * element is added when the element first appears and removed when it is no longer in a response. An element is
+ * only published when its value changes. The key of an element is used as a segment of the topic path, elements
+ * with keys that are empty or contain a {@code /} or control character are skipped. Whether a response added, removed or changed any element is reported to a
+ * {@link ResponseChangeListener}.
+ *
+ * @author Push Technology Limited
+ */
+@ThreadSafe
+/*package*/ final class FanOutHandler implements BiConsumer<EndpointResponse, Throwable> {
+    private static final Logger LOG = LoggerFactory.getLogger(FanOutHandler.class);
+    private final ServiceConfig serviceConfig;
+    private final EndpointConfig endpointConfig;
+    private final UnsafeTransformer<EndpointResponse, Map<String, JSON>> parser;
+    private final TopicManagementClient topicManagementClient;
+    private final PublishingClient publishingClient;
+    private final ResponseChangeListener changeListener;
+    @GuardedBy("this")
+    private final Map<String, Element> elements = new HashMap<>();
+
+    /**
+     * Constructor.
+     */
+    /*package*/ FanOutHandler(
+            ServiceConfig serviceConfig,
+            EndpointConfig endpointConfig,
+            UnsafeTransformer<EndpointResponse, Map<String, JSON>> parser,
+            TopicManagementClient topicManagementClient,
+            PublishingClient publishingClient,
+            ResponseChangeListener changeListener) {
+        this.serviceConfig = serviceConfig;
+        this.endpointConfig = endpointConfig;
+        this.parser = parser;
+        this.topicManagementClient = topicManagementClient;
+        this.publishingClient = publishingClient;
+        this.changeListener = changeListener;
+    }
+
+    @Override
+    public void accept(EndpointResponse response, Throwable throwable) {
+        if (throwable != null) {
+            LOG.warn("Failed to poll endpoint {}", endpointConfig, throwable);
+            return;
+        }
+
+        final Map<String, JSON> values;
+        try {
+            values = parser.transform(response);
+        }
+        // CHECKSTYLE.OFF: IllegalCatch
+        catch (Exception e) {
+            LOG.warn("Failed to poll endpoint {}", endpointConfig, e);
+            return;
+        }
+        // CHECKSTYLE.ON: IllegalCatch
+
+        changeListener.onResponseHandled(update(values));
+    }
+
+    /**
+     * @return if any element was added, removed or changed
+     */
+    private synchronized boolean update(Map<String, JSON> values) {
+        boolean isChanged = false;
+        final Iterator<Map.Entry<String, Element>> iterator = elements.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Element element = iterator.next().getValue();
+            if (!values.containsKey(element.key)) {
+                iterator.remove();
+                LOG.debug("Element {} of endpoint {} removed", element.key, endpointConfig);
+                topicManagementClient.removeEndpoint(serviceConfig, element.elementConfig);
+                isChanged = true;
+            }
+        }
+
+        for (final Map.Entry<String, JSON> entry : values.entrySet()) {
+            if (!isValidKey(entry.getKey())) {
+                LOG.warn("Element \"{}\" of endpoint {} skipped, the key is not a valid topic path segment",
+                    entry.getKey(), endpointConfig);
+                continue;
+            }
+
+            final Element element = elements.get(entry.getKey());
+            if (element == null) {
+                addElement(entry.getKey(), entry.getValue());
+                isChanged = true;
+            }
+            else if (element.publish(entry.getValue())) {
+                isChanged = true;
+            }
+        }
+        return isChanged;
+    }
+
+    private static boolean isValidKey(String key) {
+        return !key.isEmpty() && key.indexOf('/') < 0 && key.chars().noneMatch(Character::isISOControl);
+    }
+
+    @GuardedBy("this")
+    private void addElement(String key, JSON value) {
+        final Element element = new Element(key, value);
+        elements.put(key, element);
+
+        LOG.debug("Element {} of endpoint {} added", key, endpointConfig);
+        topicManagementClient
+            .addEndpoint(serviceConfig, element.elementConfig)
+            .thenRun(() -> publishingClient.forService(serviceConfig, () -> onTopicAdded(element)))
+            .exceptionally(ex -> {
+                LOG.warn("Topic creation failed for element {} of {} because {}", key, endpointConfig, ex.getMessage());
+                synchronized (this) {
+                    // Allow the next response to try again
+                    elements.remove(key, element);
+                }
+                return null;
+            });
+    }
+
+    private synchronized void onTopicAdded(Element element) {
+        if (elements.get(element.key) != element) {
+            // The element was removed while its topic was being added
+            topicManagementClient.removeEndpoint(serviceConfig, element.elementConfig);
+            return;
+        }
+
+        element.updateContext = publishingClient.createUpdateContext(
+            serviceConfig,
+            element.elementConfig,
+            JSON_ENDPOINT_TYPE.getValueType(),
+            JSON_ENDPOINT_TYPE.getDataType());
+        element.updateContext.publish(element.value);
+    }
+
+    /**
+     * An element of the responses and its topic.
+     */
+    private final class Element {
+        private final String key;
+        private final EndpointConfig elementConfig;
+        @GuardedBy("FanOutHandler.this")
+        private JSON value;
+        @GuardedBy("FanOutHandler.this")
+        private UpdateContext<JSON> updateContext;
+
+        Element(String key, JSON value) {
+            this.key = key;
+            this.value = value;
+            elementConfig = EndpointConfig
+                .builder()
+                .name(endpointConfig.getName() + "/" + key)
+                .url(endpointConfig.getUrl())
+                .topicPath(endpointConfig.getTopicPath() + "/" + key)
+                .produces(JSON_ENDPOINT_TYPE.getIdentifier())
+                .deltas(endpointConfig.getDeltas())
+                .build();
+        }
+
+        /**
+         * @return if the value of the element changed
+         */
+        @GuardedBy("FanOutHandler.this")
+        boolean publish(JSON newValue) {
+            if (newValue.equals(value)) {
+                return false;
+            }
+
+            value = newValue;
+            if (updateContext != null) {
+                updateContext.publish(newValue);
+            }
+            return true;
+        }
+    }
+}
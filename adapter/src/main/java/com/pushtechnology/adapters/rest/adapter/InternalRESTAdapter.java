@@ -22,6 +22,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 
 import javax.net.ssl.SSLContext;
 
@@ -32,11 +33,24 @@ import com.pushtechnology.adapters.rest.metrics.event.listeners.ServiceEventList
 import com.pushtechnology.adapters.rest.model.latest.DiffusionConfig;
 import com.pushtechnology.adapters.rest.model.latest.MetricsConfig;
 import com.pushtechnology.adapters.rest.model.latest.Model;
+import com.pushtechnology.adapters.rest.model.latest.PublicationConfig;
+import com.pushtechnology.adapters.rest.model.latest.ResponseCacheConfig;
 import com.pushtechnology.adapters.rest.model.latest.ServiceConfig;
+import com.pushtechnology.adapters.rest.polling.CachingEndpointClient;
+import com.pushtechnology.adapters.rest.polling.EndpointClient;
 import com.pushtechnology.adapters.rest.polling.EndpointClientImpl;
+import com.pushtechnology.adapters.rest.polling.Http2EndpointClientImpl;
 import com.pushtechnology.adapters.rest.polling.HttpClientFactory;
+import com.pushtechnology.adapters.rest.polling.VersionSelectingEndpointClient;
+import com.pushtechnology.adapters.rest.publication.PublicationPipeline;
 import com.pushtechnology.adapters.rest.publication.PublishingClientImpl;
+import com.pushtechnology.adapters.rest.publication.RecoveryBuffer;
+import com.pushtechnology.adapters.rest.services.BlockingPollExecutor;
+import com.pushtechnology.adapters.rest.services.HashedWheelPollScheduler;
+import com.pushtechnology.adapters.rest.services.PollScheduler;
 import com.pushtechnology.adapters.rest.services.ServiceSessionFactoryImpl;
+import com.pushtechnology.adapters.rest.services.ShardedExecutor;
+import com.pushtechnology.adapters.rest.services.ThreadPerShardExecutor;
 import com.pushtechnology.adapters.rest.session.management.DiffusionSessionFactory;
 import com.pushtechnology.adapters.rest.session.management.EventedSessionListener;
 import com.pushtechnology.adapters.rest.session.management.SSLContextFactory;
@@ -69,7 +83,13 @@ public final class InternalRESTAdapter implements RESTAdapterListener, AutoClose
     @GuardedBy("this")
     private Model currentModel;
     @GuardedBy("this")
-    private EndpointClientImpl endpointClient;
+    private EndpointClient endpointClient;
+    @GuardedBy("this")
+    private PollScheduler pollScheduler;
+    @GuardedBy("this")
+    private ShardedExecutor workers;
+    @GuardedBy("this")
+    private BlockingPollExecutor blockingPolls;
     @GuardedBy("this")
     private SSLContext sslContext;
     @GuardedBy("this")
@@ -77,6 +97,10 @@ public final class InternalRESTAdapter implements RESTAdapterListener, AutoClose
     @GuardedBy("this")
     private PublishingClientImpl publishingClient;
     @GuardedBy("this")
+    private PublicationPipeline publicationPipeline;
+    @GuardedBy("this")
+    private RecoveryBuffer recoveryBuffer;
+    @GuardedBy("this")
     private State state = State.INIT;
     @GuardedBy("this")
     private Session diffusionSession;
@@ -148,7 +172,8 @@ public final class InternalRESTAdapter implements RESTAdapterListener, AutoClose
             connectSession(model);
         }
         else if (state == State.STANDBY ||
-                state == State.ACTIVE && (hasServiceSecurityChanged(model) || haveServicesChanged(model))) {
+                state == State.ACTIVE &&
+                (hasServiceSecurityChanged(model) || haveServicesChanged(model) || hasExecutionChanged(model))) {
             if (haveMetricsChanged(model)) {
                 reconfigureMetricsReporting();
             }
@@ -184,6 +209,9 @@ public final class InternalRESTAdapter implements RESTAdapterListener, AutoClose
         if (state == State.ACTIVE) {
             serviceManager.close();
             endpointClient.close();
+            pollScheduler.close();
+            workers.close();
+            closeBlockingPolls(blockingPolls);
         }
     }
 
@@ -191,6 +219,7 @@ public final class InternalRESTAdapter implements RESTAdapterListener, AutoClose
         shutdownPolling();
 
         if (state == State.ACTIVE || state == State.STANDBY) {
+            closePublication();
             diffusionSession.close();
         }
     }
@@ -207,37 +236,63 @@ public final class InternalRESTAdapter implements RESTAdapterListener, AutoClose
             diffusionSession = session;
             topicManagementClient = new TopicManagementClientImpl(
                 metricsDispatcher,
-                diffusionSession);
+                diffusionSession,
+                currentModel.getPublication());
+            publicationPipeline = createPublicationPipeline();
+            recoveryBuffer = new RecoveryBuffer(
+                diffusionSession,
+                currentModel.getPublication(),
+                executor,
+                metricsDispatcher);
             publishingClient = new PublishingClientImpl(
                 diffusionSession,
                 eventedSessionListener,
-                metricsDispatcher);
+                metricsDispatcher,
+                recoveryBuffer,
+                publicationPipeline);
             state = State.STANDBY;
         }
         else {
             diffusionSession = session;
             topicManagementClient = new TopicManagementClientImpl(
                 metricsDispatcher,
-                diffusionSession);
+                diffusionSession,
+                currentModel.getPublication());
+            publicationPipeline = createPublicationPipeline();
+            recoveryBuffer = new RecoveryBuffer(
+                diffusionSession,
+                currentModel.getPublication(),
+                executor,
+                metricsDispatcher);
             publishingClient = new PublishingClientImpl(
                 diffusionSession,
                 eventedSessionListener,
-                metricsDispatcher);
+                metricsDispatcher,
+                recoveryBuffer,
+                publicationPipeline);
             reconfigureServiceManager();
             state = State.ACTIVE;
         }
     }
 
     private void reconfigureServiceManager() {
-        endpointClient = new EndpointClientImpl(
-            currentModel,
-            sslContext,
-            httpClientFactory,
-            metricsDispatcher);
+        final PollScheduler previousPollScheduler = pollScheduler;
+        final ShardedExecutor previousWorkers = workers;
+        final BlockingPollExecutor previousBlockingPolls = blockingPolls;
+        final EndpointClient previousEndpointClient = endpointClient;
+        final int workerThreads = currentModel.getWorkerThreads();
+        pollScheduler = new HashedWheelPollScheduler();
+        workers = new ThreadPerShardExecutor(
+            workerThreads > 0 ? workerThreads : Runtime.getRuntime().availableProcessors());
+        blockingPolls = currentModel.isBlockingPolls() ? new BlockingPollExecutor(currentModel) : null;
+        endpointClient = createEndpointClient();
         final ServiceSessionFactoryImpl serviceSessionFactory = new ServiceSessionFactoryImpl(
-            executor,
+            pollScheduler,
+            workers,
+            blockingPolls,
+            currentModel.getMaxConcurrentPolls() > 0 ? new Semaphore(currentModel.getMaxConcurrentPolls()) : null,
             endpointClient,
-            new EndpointPollHandlerFactoryImpl(publishingClient),
+            new EndpointPollHandlerFactoryImpl(publishingClient, topicManagementClient),
             topicManagementClient,
             publishingClient,
             metricsDispatcher);
@@ -247,6 +302,68 @@ public final class InternalRESTAdapter implements RESTAdapterListener, AutoClose
 
         endpointClient.start();
         serviceManager.reconfigure(serviceManagerContext, currentModel);
+
+        if (previousPollScheduler != null) {
+            // The services polled by the previous scheduler have been closed by the reconfiguration
+            previousPollScheduler.close();
+        }
+        if (previousWorkers != null) {
+            previousWorkers.close();
+        }
+        closeBlockingPolls(previousBlockingPolls);
+        if (previousEndpointClient != null) {
+            // Release the connections, threads and cached responses of the previous client
+            previousEndpointClient.close();
+        }
+    }
+
+    private EndpointClient createEndpointClient() {
+        final EndpointClient client = new VersionSelectingEndpointClient(
+            new EndpointClientImpl(
+                currentModel,
+                sslContext,
+                httpClientFactory,
+                executor,
+                metricsDispatcher),
+            new Http2EndpointClientImpl(
+                currentModel,
+                sslContext,
+                metricsDispatcher));
+        final ResponseCacheConfig responseCacheConfig = currentModel.getResponseCache();
+        if (responseCacheConfig == null) {
+            return client;
+        }
+        else {
+            return new CachingEndpointClient(client, responseCacheConfig, metricsDispatcher);
+        }
+    }
+
+    private PublicationPipeline createPublicationPipeline() {
+        final PublicationConfig publicationConfig = currentModel.getPublication();
+        if (publicationConfig == null) {
+            return null;
+        }
+
+        final PublicationPipeline pipeline = new PublicationPipeline(publicationConfig, executor);
+        pipeline.start();
+        return pipeline;
+    }
+
+    private void closePublication() {
+        if (recoveryBuffer != null) {
+            recoveryBuffer.close();
+            recoveryBuffer = null;
+        }
+        if (publicationPipeline != null) {
+            publicationPipeline.close();
+            publicationPipeline = null;
+        }
+    }
+
+    private static void closeBlockingPolls(BlockingPollExecutor executor) {
+        if (executor != null) {
+            executor.close();
+        }
     }
 
     private void reconfigureMetricsReporting() {
@@ -312,7 +429,8 @@ public final class InternalRESTAdapter implements RESTAdapterListener, AutoClose
     private boolean hasDiffusionChanged(Model model) {
         final DiffusionConfig diffusionConfig = model.getDiffusion();
 
-        return !currentModel.getDiffusion().equals(diffusionConfig);
+        return !currentModel.getDiffusion().equals(diffusionConfig) ||
+            !Objects.equals(currentModel.getPublication(), model.getPublication());
     }
 
     private boolean haveServicesChanged(Model model) {
@@ -322,6 +440,14 @@ public final class InternalRESTAdapter implements RESTAdapterListener, AutoClose
         return !oldServices.equals(newServices);
     }
 
+    private boolean hasExecutionChanged(Model model) {
+        return currentModel.getWorkerThreads() != model.getWorkerThreads() ||
+            currentModel.isBlockingPolls() != model.isBlockingPolls() ||
+            currentModel.getMaxConcurrentPolls() != model.getMaxConcurrentPolls() ||
+            currentModel.getMaxConnections() != model.getMaxConnections() ||
+            !Objects.equals(currentModel.getResponseCache(), model.getResponseCache());
+    }
+
     private boolean haveMetricsChanged(Model model) {
         final MetricsConfig newMetrics = model.getMetrics();
         final MetricsConfig oldMetrics = currentModel.getMetrics();
@@ -338,12 +464,16 @@ public final class InternalRESTAdapter implements RESTAdapterListener, AutoClose
         if (state == State.ACTIVE) {
             serviceManager.release();
             endpointClient.close();
+            pollScheduler.close();
+            workers.close();
+            closeBlockingPolls(blockingPolls);
         }
 
         if (state == State.ACTIVE || state == State.STANDBY) {
             if (metricsProvider != null) {
                 metricsProvider.close();
             }
+            closePublication();
             diffusionSession.close();
         }
 
@@ -18,16 +18,22 @@ package com.pushtechnology.adapters.rest.adapter;
 import java.util.ArrayList;
 import java.util.Collection;
 
+import com.pushtechnology.adapters.rest.metrics.ConnectionPoolEvent;
 import com.pushtechnology.adapters.rest.metrics.PollFailedEvent;
+import com.pushtechnology.adapters.rest.metrics.PollNotModifiedEvent;
 import com.pushtechnology.adapters.rest.metrics.PollRequestEvent;
 import com.pushtechnology.adapters.rest.metrics.PollSuccessEvent;
+import com.pushtechnology.adapters.rest.metrics.PublicationConflatedEvent;
+import com.pushtechnology.adapters.rest.metrics.PublicationDeltaEvent;
 import com.pushtechnology.adapters.rest.metrics.PublicationFailedEvent;
 import com.pushtechnology.adapters.rest.metrics.PublicationRequestEvent;
 import com.pushtechnology.adapters.rest.metrics.PublicationSuccessEvent;
+import com.pushtechnology.adapters.rest.metrics.PublicationSuppressedEvent;
 import com.pushtechnology.adapters.rest.metrics.TopicCreationFailedEvent;
 import com.pushtechnology.adapters.rest.metrics.TopicCreationRequestEvent;
 import com.pushtechnology.adapters.rest.metrics.TopicCreationSuccessEvent;
 import com.pushtechnology.adapters.rest.metrics.event.listeners.PollEventDispatcher;
+import com.pushtechnology.adapters.rest.metrics.event.listeners.CircuitBreakerState;
 import com.pushtechnology.adapters.rest.metrics.event.listeners.PollEventListener;
 import com.pushtechnology.adapters.rest.metrics.event.listeners.PublicationEventDispatcher;
 import com.pushtechnology.adapters.rest.metrics.event.listeners.PublicationEventListener;
@@ -36,6 +42,8 @@ import com.pushtechnology.adapters.rest.metrics.event.listeners.TopicCreationEve
 import com.pushtechnology.adapters.rest.metrics.event.listeners.TopicCreationEventListener;
 import com.pushtechnology.adapters.rest.metrics.listeners.PollListener;
 import com.pushtechnology.adapters.rest.metrics.listeners.PublicationListener;
+import com.pushtechnology.adapters.rest.metrics.listeners.RecoveryListener;
+import com.pushtechnology.adapters.rest.metrics.listeners.ResponseCacheListener;
 import com.pushtechnology.adapters.rest.metrics.listeners.TopicCreationListener;
 import com.pushtechnology.adapters.rest.model.latest.EndpointConfig;
 import com.pushtechnology.adapters.rest.model.latest.ServiceConfig;
@@ -54,7 +62,9 @@ public final class MetricsDispatcher implements
         PollListener,
         PublicationListener,
         TopicCreationListener,
-        ServiceEventListener {
+        ServiceEventListener,
+        ResponseCacheListener,
+        RecoveryListener {
 
     @GuardedBy("this")
     private final Collection<PollEventListener> pollListeners;
@@ -64,6 +74,10 @@ public final class MetricsDispatcher implements
     private final Collection<TopicCreationEventListener> topicCreationListeners;
     @GuardedBy("this")
     private final Collection<ServiceEventListener> serviceListeners;
+    @GuardedBy("this")
+    private final Collection<ResponseCacheListener> responseCacheListeners;
+    @GuardedBy("this")
+    private final Collection<RecoveryListener> recoveryListeners;
 
     private final PollEventDispatcher pollEventDispatcher;
     private final PublicationEventDispatcher publicationEventDispatcher;
@@ -77,6 +91,8 @@ public final class MetricsDispatcher implements
         publicationListeners = new ArrayList<>();
         topicCreationListeners = new ArrayList<>();
         serviceListeners = new ArrayList<>();
+        responseCacheListeners = new ArrayList<>();
+        recoveryListeners = new ArrayList<>();
 
         pollEventDispatcher = new PollEventDispatcher(new PollHandler());
         publicationEventDispatcher = new PublicationEventDispatcher(new PublicationHandler());
@@ -111,11 +127,30 @@ public final class MetricsDispatcher implements
         serviceListeners.add(serviceEventListener);
     }
 
+    /**
+     * Add a response cache listener.
+     */
+    public synchronized void addResponseCacheListener(ResponseCacheListener responseCacheListener) {
+        responseCacheListeners.add(responseCacheListener);
+    }
+
+    /**
+     * Add a recovery listener.
+     */
+    public synchronized void addRecoveryListener(RecoveryListener recoveryListener) {
+        recoveryListeners.add(recoveryListener);
+    }
+
     @Override
     public PollCompletionListener onPollRequest(ServiceConfig serviceConfig, EndpointConfig endpointConfig) {
         return pollEventDispatcher.onPollRequest(serviceConfig, endpointConfig);
     }
 
+    @Override
+    public void onConnectionPool(ServiceConfig serviceConfig, int leased, int pending, int available) {
+        pollEventDispatcher.onConnectionPool(serviceConfig, leased, pending, available);
+    }
+
     @Override
     public TopicCreationCompletionListener onTopicCreationRequest(String path, TopicType topicType) {
         return topicCreationEventDispatcher.onTopicCreationRequest(path, topicType);
@@ -126,6 +161,16 @@ public final class MetricsDispatcher implements
         return publicationEventDispatcher.onPublicationRequest(path, size);
     }
 
+    @Override
+    public void onPublicationSuppressed(String path, int responseLength) {
+        publicationEventDispatcher.onPublicationSuppressed(path, responseLength);
+    }
+
+    @Override
+    public void onPublicationDelta(String path, int deltaLength, int valueLength) {
+        publicationEventDispatcher.onPublicationDelta(path, deltaLength, valueLength);
+    }
+
     @Override
     public synchronized void onActive(ServiceConfig serviceConfig) {
         serviceListeners.forEach(listener -> listener.onActive(serviceConfig));
@@ -156,6 +201,59 @@ public final class MetricsDispatcher implements
         serviceListeners.forEach(listener -> listener.onEndpointRemove(serviceConfig, endpointConfig, wasActive));
     }
 
+    @Override
+    public synchronized void onEndpointCircuitBreaker(
+            ServiceConfig serviceConfig,
+            EndpointConfig endpointConfig,
+            CircuitBreakerState state) {
+        serviceListeners.forEach(listener -> listener.onEndpointCircuitBreaker(serviceConfig, endpointConfig, state));
+    }
+
+    @Override
+    public synchronized void onServiceCircuitBreaker(ServiceConfig serviceConfig, CircuitBreakerState state) {
+        serviceListeners.forEach(listener -> listener.onServiceCircuitBreaker(serviceConfig, state));
+    }
+
+    @Override
+    public synchronized void onPollSkipped(ServiceConfig serviceConfig, EndpointConfig endpointConfig) {
+        serviceListeners.forEach(listener -> listener.onPollSkipped(serviceConfig, endpointConfig));
+    }
+
+    @Override
+    public synchronized void onPollCoalesced(ServiceConfig serviceConfig, EndpointConfig endpointConfig) {
+        serviceListeners.forEach(listener -> listener.onPollCoalesced(serviceConfig, endpointConfig));
+    }
+
+    @Override
+    public synchronized void onResponseCacheHit(ServiceConfig serviceConfig, EndpointConfig endpointConfig) {
+        responseCacheListeners.forEach(listener -> listener.onResponseCacheHit(serviceConfig, endpointConfig));
+    }
+
+    @Override
+    public synchronized void onResponseCacheMiss(ServiceConfig serviceConfig, EndpointConfig endpointConfig) {
+        responseCacheListeners.forEach(listener -> listener.onResponseCacheMiss(serviceConfig, endpointConfig));
+    }
+
+    @Override
+    public synchronized void onResponseCacheEviction(int responseLength) {
+        responseCacheListeners.forEach(listener -> listener.onResponseCacheEviction(responseLength));
+    }
+
+    @Override
+    public synchronized void onRecoveryBufferChange(long bufferedBytes) {
+        recoveryListeners.forEach(listener -> listener.onRecoveryBufferChange(bufferedBytes));
+    }
+
+    @Override
+    public synchronized void onRecoveryBufferEviction(int length) {
+        recoveryListeners.forEach(listener -> listener.onRecoveryBufferEviction(length));
+    }
+
+    @Override
+    public synchronized void onRecoveryReplay(int updates, long duration) {
+        recoveryListeners.forEach(listener -> listener.onRecoveryReplay(updates, duration));
+    }
+
     private final class PollHandler implements PollEventListener {
         @Override
         public void onPollRequest(PollRequestEvent event) {
@@ -171,12 +269,26 @@ public final class MetricsDispatcher implements
             }
         }
 
+        @Override
+        public void onPollNotModified(PollNotModifiedEvent event) {
+            synchronized (MetricsDispatcher.this) {
+                pollListeners.forEach(listener -> listener.onPollNotModified(event));
+            }
+        }
+
         @Override
         public void onPollFailed(PollFailedEvent event) {
             synchronized (MetricsDispatcher.this) {
                 pollListeners.forEach(listener -> listener.onPollFailed(event));
             }
         }
+
+        @Override
+        public void onConnectionPool(ConnectionPoolEvent event) {
+            synchronized (MetricsDispatcher.this) {
+                pollListeners.forEach(listener -> listener.onConnectionPool(event));
+            }
+        }
     }
 
     private final class PublicationHandler implements PublicationEventListener {
@@ -196,6 +308,27 @@ public final class MetricsDispatcher implements
         public void onPublicationFailed(PublicationFailedEvent event) {
             publicationListeners.forEach(listener -> listener.onPublicationFailed(event));
         }
+
+        @Override
+        public void onPublicationSuppressed(PublicationSuppressedEvent event) {
+            synchronized (MetricsDispatcher.this) {
+                publicationListeners.forEach(listener -> listener.onPublicationSuppressed(event));
+            }
+        }
+
+        @Override
+        public void onPublicationDelta(PublicationDeltaEvent event) {
+            synchronized (MetricsDispatcher.this) {
+                publicationListeners.forEach(listener -> listener.onPublicationDelta(event));
+            }
+        }
+
+        @Override
+        public void onPublicationConflated(PublicationConflatedEvent event) {
+            synchronized (MetricsDispatcher.this) {
+                publicationListeners.forEach(listener -> listener.onPublicationConflated(event));
+            }
+        }
     }
 
     private final class TopicCreationHandler implements TopicCreationEventListener {
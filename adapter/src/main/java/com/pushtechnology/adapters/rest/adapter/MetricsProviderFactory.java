@@ -102,6 +102,8 @@ public final class MetricsProviderFactory {
             metricsDispatcher.addPublicationEventListener(listener);
             metricsDispatcher.addTopicCreationEventListener(listener);
             metricsDispatcher.addServiceEventListener(listener);
+            metricsDispatcher.addResponseCacheListener(listener);
+            metricsDispatcher.addRecoveryListener(listener);
 
             startTasks.add(reporter::start);
             stopTasks.add(reporter::close);
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.adapter;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.util.function.BiConsumer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import com.pushtechnology.adapters.rest.polling.EndpointResponse;
+import com.pushtechnology.adapters.rest.polling.ResponseChangeListener;
+import com.pushtechnology.adapters.rest.publication.UpdateContext;
+
+/**
+ * Unit tests for {@link DeduplicatingHandler}.
+ *
+ * @author Push Technology Limited
+ */
+public final class DeduplicatingHandlerTest {
+    @Mock
+    private UpdateContext<String> updateContext;
+    @Mock
+    private BiConsumer<EndpointResponse, Throwable> delegate;
+    @Mock
+    private EndpointResponse response;
+    @Mock
+    private ResponseChangeListener changeListener;
+
+    private DeduplicatingHandler handler;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+
+        handler = new DeduplicatingHandler(updateContext, delegate, changeListener);
+    }
+
+    @After
+    public void postConditions() {
+        verifyNoMoreInteractions(updateContext, delegate, changeListener);
+    }
+
+    @Test
+    public void changed() {
+        when(updateContext.isDuplicate(response)).thenReturn(false);
+
+        handler.accept(response, null);
+
+        verify(updateContext).isDuplicate(response);
+        verify(changeListener).onResponseHandled(true);
+        verify(delegate).accept(response, null);
+    }
+
+    @Test
+    public void duplicate() {
+        when(updateContext.isDuplicate(response)).thenReturn(true);
+
+        handler.accept(response, null);
+
+        verify(updateContext).isDuplicate(response);
+        verify(changeListener).onResponseHandled(false);
+    }
+
+    @Test
+    public void failed() {
+        final Exception e = new Exception("Intentionally created for test");
+
+        handler.accept(null, e);
+
+        verify(delegate).accept(null, e);
+    }
+}
@@ -30,10 +30,13 @@ import org.junit.Test;
 import org.mockito.Mock;
 
 import com.pushtechnology.adapters.rest.model.latest.EndpointConfig;
+import com.pushtechnology.adapters.rest.model.latest.FanOutConfig;
 import com.pushtechnology.adapters.rest.model.latest.ServiceConfig;
 import com.pushtechnology.adapters.rest.polling.EndpointResponse;
 import com.pushtechnology.adapters.rest.polling.PollHandlerFactory;
+import com.pushtechnology.adapters.rest.polling.ResponseChangeListener;
 import com.pushtechnology.adapters.rest.publication.PublishingClient;
+import com.pushtechnology.adapters.rest.topic.management.TopicManagementClient;
 import com.pushtechnology.diffusion.datatype.binary.Binary;
 import com.pushtechnology.diffusion.datatype.json.JSON;
 
@@ -45,6 +48,10 @@ import com.pushtechnology.diffusion.datatype.json.JSON;
 public final class EndpointPollHandlerFactoryTest {
     @Mock
     private PublishingClient publishingClient;
+    @Mock
+    private TopicManagementClient topicManagementClient;
+    @Mock
+    private ResponseChangeListener changeListener;
 
     private final EndpointConfig jsonEndpoint = EndpointConfig
         .builder()
@@ -74,6 +81,14 @@ public final class EndpointPollHandlerFactoryTest {
         .url("/a/url/text")
         .produces("text/xml")
         .build();
+    private final EndpointConfig fanOutEndpoint = EndpointConfig
+        .builder()
+        .name("endpoint-4")
+        .topicPath("path")
+        .url("/a/url/json")
+        .produces("json")
+        .fanOut(FanOutConfig.builder().keyField("id").build())
+        .build();
     private final ServiceConfig serviceConfig = ServiceConfig
         .builder()
         .name("service")
@@ -90,27 +105,44 @@ public final class EndpointPollHandlerFactoryTest {
     public void setUp() {
         initMocks(this);
 
-        pollHandlerFactory = new EndpointPollHandlerFactoryImpl(publishingClient);
+        pollHandlerFactory = new EndpointPollHandlerFactoryImpl(publishingClient, topicManagementClient);
     }
 
     @After
     public void postConditions() {
-        verifyNoMoreInteractions(publishingClient);
+        verifyNoMoreInteractions(publishingClient, topicManagementClient);
     }
 
     @Test
     public void createJson() {
         final BiConsumer<EndpointResponse, Throwable> callback = pollHandlerFactory.create(serviceConfig, jsonEndpoint);
 
-        assertTrue(callback instanceof TransformingHandler);
+        assertTrue(callback instanceof DeduplicatingHandler);
+        verify(publishingClient).createUpdateContext(serviceConfig, jsonEndpoint, JSON.class, dataTypes().json());
+    }
+
+    @Test
+    public void createJsonWithChangeListener() {
+        final BiConsumer<EndpointResponse, Throwable> callback = new EndpointPollHandlerFactoryImpl(
+            publishingClient,
+            topicManagementClient).create(serviceConfig, jsonEndpoint, changeListener);
+
+        assertTrue(callback instanceof DeduplicatingHandler);
         verify(publishingClient).createUpdateContext(serviceConfig, jsonEndpoint, JSON.class, dataTypes().json());
     }
 
+    @Test
+    public void createFanOut() {
+        final BiConsumer<EndpointResponse, Throwable> callback = pollHandlerFactory.create(serviceConfig, fanOutEndpoint);
+
+        assertTrue(callback instanceof FanOutHandler);
+    }
+
     @Test
     public void createBinary() {
         final BiConsumer<EndpointResponse, Throwable> callback = pollHandlerFactory.create(serviceConfig, binaryEndpoint);
 
-        assertTrue(callback instanceof TransformingHandler);
+        assertTrue(callback instanceof DeduplicatingHandler);
         verify(publishingClient).createUpdateContext(serviceConfig, binaryEndpoint, Binary.class, dataTypes().binary());
     }
 
@@ -118,7 +150,7 @@ public final class EndpointPollHandlerFactoryTest {
     public void createPlainText() {
         final BiConsumer<EndpointResponse, Throwable> callback = pollHandlerFactory.create(serviceConfig, plainTextEndpoint);
 
-        assertTrue(callback instanceof TransformingHandler);
+        assertTrue(callback instanceof DeduplicatingHandler);
         verify(publishingClient).createUpdateContext(serviceConfig, plainTextEndpoint, String.class, dataTypes().string());
     }
 
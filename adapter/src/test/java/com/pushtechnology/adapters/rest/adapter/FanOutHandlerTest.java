@@ -0,0 +1,247 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.adapter;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatcher;
+import org.mockito.Mock;
+
+import com.pushtechnology.adapters.rest.model.latest.EndpointConfig;
+import com.pushtechnology.adapters.rest.model.latest.FanOutConfig;
+import com.pushtechnology.adapters.rest.model.latest.ServiceConfig;
+import com.pushtechnology.adapters.rest.polling.EndpointResponse;
+import com.pushtechnology.adapters.rest.polling.ResponseChangeListener;
+import com.pushtechnology.adapters.rest.publication.PublishingClient;
+import com.pushtechnology.adapters.rest.publication.UpdateContext;
+import com.pushtechnology.adapters.rest.topic.management.TopicManagementClient;
+import com.pushtechnology.diffusion.client.Diffusion;
+import com.pushtechnology.diffusion.datatype.json.JSON;
+import com.pushtechnology.diffusion.transform.transformer.UnsafeTransformer;
+
+/**
+ * Unit tests for {@link FanOutHandler}.
+ *
+ * @author Push Technology Limited
+ */
+public final class FanOutHandlerTest {
+    @Mock
+    private UnsafeTransformer<EndpointResponse, Map<String, JSON>> parser;
+    @Mock
+    private TopicManagementClient topicManagementClient;
+    @Mock
+    private PublishingClient publishingClient;
+    @Mock
+    private UpdateContext<JSON> updateContext;
+    @Mock
+    private EndpointResponse response;
+    @Mock
+    private JSON value0;
+    @Mock
+    private JSON value1;
+    @Mock
+    private ResponseChangeListener changeListener;
+
+    private final EndpointConfig endpointConfig = EndpointConfig
+        .builder()
+        .name("endpoint-0")
+        .topicPath("path")
+        .url("/a/url/json")
+        .produces("json")
+        .fanOut(FanOutConfig.builder().keyField("id").build())
+        .build();
+    private final ServiceConfig serviceConfig = ServiceConfig
+        .builder()
+        .name("service")
+        .host("localhost")
+        .port(80)
+        .pollPeriod(5000L)
+        .topicPathRoot("topic")
+        .endpoints(singletonList(endpointConfig))
+        .build();
+
+    private FanOutHandler handler;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+
+        when(topicManagementClient.addEndpoint(eq(serviceConfig), any())).thenReturn(completedFuture(null));
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        }).when(publishingClient).forService(eq(serviceConfig), any());
+        when(publishingClient.createUpdateContext(
+            eq(serviceConfig),
+            any(),
+            eq(JSON.class),
+            eq(Diffusion.dataTypes().json()))).thenReturn(updateContext);
+
+        handler = new FanOutHandler(
+            serviceConfig,
+            endpointConfig,
+            parser,
+            topicManagementClient,
+            publishingClient,
+            changeListener);
+    }
+
+    @After
+    public void postConditions() {
+        verifyNoMoreInteractions(topicManagementClient, publishingClient, updateContext, changeListener);
+    }
+
+    @Test
+    public void addElement() throws Exception {
+        when(parser.transform(response)).thenReturn(singletonMap("a", value0));
+
+        handler.accept(response, null);
+
+        verifyElementAdded("a");
+        verify(updateContext).publish(value0);
+        verify(changeListener).onResponseHandled(true);
+    }
+
+    @Test
+    public void publishChangedElement() throws Exception {
+        when(parser.transform(response))
+            .thenReturn(singletonMap("a", value0))
+            .thenReturn(singletonMap("a", value0))
+            .thenReturn(singletonMap("a", value1));
+
+        handler.accept(response, null);
+        verifyElementAdded("a");
+        verify(updateContext).publish(value0);
+
+        handler.accept(response, null);
+        verify(changeListener).onResponseHandled(false);
+
+        handler.accept(response, null);
+        verify(updateContext).publish(value1);
+        verify(changeListener, times(2)).onResponseHandled(true);
+    }
+
+    @Test
+    public void removeElement() throws Exception {
+        when(parser.transform(response))
+            .thenReturn(singletonMap("a", value0))
+            .thenReturn(emptyMap());
+
+        handler.accept(response, null);
+        verifyElementAdded("a");
+        verify(updateContext).publish(value0);
+
+        handler.accept(response, null);
+        verify(topicManagementClient).removeEndpoint(eq(serviceConfig), argThat(isElement("a")));
+        verify(changeListener, times(2)).onResponseHandled(true);
+    }
+
+    @Test
+    public void retryFailedTopicCreation() throws Exception {
+        final CompletableFuture<Void> failure = new CompletableFuture<>();
+        failure.completeExceptionally(new Exception("Intentional for test"));
+        when(topicManagementClient.addEndpoint(eq(serviceConfig), any()))
+            .thenReturn(failure)
+            .thenReturn(completedFuture(null));
+        when(parser.transform(response)).thenReturn(singletonMap("a", value0));
+
+        handler.accept(response, null);
+        verify(topicManagementClient).addEndpoint(eq(serviceConfig), argThat(isElement("a")));
+
+        handler.accept(response, null);
+        verify(topicManagementClient, times(2)).addEndpoint(eq(serviceConfig), argThat(isElement("a")));
+        verify(publishingClient).forService(eq(serviceConfig), any());
+        verify(publishingClient).createUpdateContext(
+            eq(serviceConfig),
+            argThat(isElement("a")),
+            eq(JSON.class),
+            eq(Diffusion.dataTypes().json()));
+        verify(updateContext).publish(value0);
+        verify(changeListener, times(2)).onResponseHandled(true);
+    }
+
+    @Test
+    public void skipKeyWithSlash() throws Exception {
+        final Map<String, JSON> values = new HashMap<>();
+        values.put("a", value0);
+        values.put("b/c", value1);
+        when(parser.transform(response)).thenReturn(values);
+
+        handler.accept(response, null);
+
+        verifyElementAdded("a");
+        verify(updateContext).publish(value0);
+        verify(changeListener).onResponseHandled(true);
+    }
+
+    @Test
+    public void skipEmptyKey() throws Exception {
+        when(parser.transform(response)).thenReturn(singletonMap("", value0));
+
+        handler.accept(response, null);
+
+        verify(changeListener).onResponseHandled(false);
+    }
+
+    @Test
+    public void failedPoll() {
+        handler.accept(null, new Exception("Intentional for test"));
+    }
+
+    @Test
+    public void failedParse() throws Exception {
+        when(parser.transform(response)).thenThrow(new IOException("Intentional for test"));
+
+        handler.accept(response, null);
+    }
+
+    private void verifyElementAdded(String key) {
+        verify(topicManagementClient).addEndpoint(eq(serviceConfig), argThat(isElement(key)));
+        verify(publishingClient).forService(eq(serviceConfig), any());
+        verify(publishingClient).createUpdateContext(
+            eq(serviceConfig),
+            argThat(isElement(key)),
+            eq(JSON.class),
+            eq(Diffusion.dataTypes().json()));
+    }
+
+    private static ArgumentMatcher<EndpointConfig> isElement(String key) {
+        return elementConfig -> elementConfig != null &&
+            ("path/" + key).equals(elementConfig.getTopicPath()) &&
+            "json".equals(elementConfig.getProduces()) &&
+            elementConfig.getFanOut() == null;
+    }
+}
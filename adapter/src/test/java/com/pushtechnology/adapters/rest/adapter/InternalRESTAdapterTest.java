@@ -20,20 +20,25 @@ import static com.pushtechnology.diffusion.client.session.SessionAttributes.Tran
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.ArgumentMatchers.isNotNull;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 
 import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
@@ -47,6 +52,7 @@ import com.pushtechnology.adapters.rest.model.latest.DiffusionConfig;
 import com.pushtechnology.adapters.rest.model.latest.EndpointConfig;
 import com.pushtechnology.adapters.rest.model.latest.MetricsConfig;
 import com.pushtechnology.adapters.rest.model.latest.Model;
+import com.pushtechnology.adapters.rest.model.latest.ResponseCacheConfig;
 import com.pushtechnology.adapters.rest.model.latest.ServiceConfig;
 import com.pushtechnology.adapters.rest.polling.HttpClientFactory;
 import com.pushtechnology.adapters.rest.session.management.SessionLossHandler;
@@ -80,6 +86,8 @@ public final class InternalRESTAdapterTest {
     @Mock
     private HttpClientFactory httpClientFactory;
     @Mock
+    private PoolingNHttpClientConnectionManager connectionManager;
+    @Mock
     private CloseableHttpAsyncClient httpClient;
     @Mock
     private TopicControl topicControl;
@@ -179,6 +187,7 @@ public final class InternalRESTAdapterTest {
         when(sessionFactory.password(isNotNull())).thenReturn(sessionFactory);
         when(sessionFactory.openAsync()).thenReturn(completedFuture(session));
 
+        when(httpClientFactory.createConnectionManager(isNotNull(), any())).thenReturn(connectionManager);
         when(httpClientFactory.create(isNotNull(), any())).thenReturn(httpClient);
 
         when(session.feature(TopicControl.class)).thenReturn(topicControl);
@@ -230,7 +239,9 @@ public final class InternalRESTAdapterTest {
         verify(sessionFactory).password("password");
         verify(sessionFactory).openAsync();
 
-        verify(httpClientFactory).create(model0, null);
+        verify(httpClientFactory).createConnectionManager(model0, null);
+        verify(httpClientFactory).create(model0, connectionManager);
+        verify(executorService).scheduleAtFixedRate(isA(Runnable.class), eq(1000L), eq(1000L), eq(MILLISECONDS));
         verify(httpClient).start();
 
         verify(session).lock("service-0", UNLOCK_ON_CONNECTION_LOSS);
@@ -292,7 +303,9 @@ public final class InternalRESTAdapterTest {
         verify(sessionFactory).password("password");
         verify(sessionFactory).openAsync();
 
-        verify(httpClientFactory).create(model0, null);
+        verify(httpClientFactory).createConnectionManager(model0, null);
+        verify(httpClientFactory).create(model0, connectionManager);
+        verify(executorService).scheduleAtFixedRate(isA(Runnable.class), eq(1000L), eq(1000L), eq(MILLISECONDS));
         verify(httpClient).start();
 
         verify(session).lock("service-0", UNLOCK_ON_CONNECTION_LOSS);
@@ -300,13 +313,126 @@ public final class InternalRESTAdapterTest {
 
         restAdapter.onReconfiguration(model1);
 
-        verify(httpClientFactory).create(model1, null);
+        verify(httpClientFactory).createConnectionManager(model1, null);
+        verify(httpClientFactory).create(model1, connectionManager);
+        verify(executorService, times(2)).scheduleAtFixedRate(isA(Runnable.class), eq(1000L), eq(1000L), eq(MILLISECONDS));
         verify(httpClient, times(2)).start();
+        // The previous endpoint client is closed
+        verify(httpClient).close();
 
         verify(session).lock("service-1", UNLOCK_ON_CONNECTION_LOSS);
         verify(serviceListener).onStandby(model1.getServices().get(0));
     }
 
+    @Test
+    public void startConnectAndReconfigureWorkerThreads() throws Exception {
+        final Model workerThreadsModel = Model
+            .builder()
+            .active(true)
+            .diffusion(diffusionConfig)
+            .services(singletonList(serviceConfig0))
+            .metrics(MetricsConfig.builder().logging(false).build())
+            .workerThreads(4)
+            .build();
+
+        startAndReconfigureExecution(workerThreadsModel);
+    }
+
+    @Test
+    public void startConnectAndReconfigureBlockingPolls() throws Exception {
+        final Model blockingPollsModel = Model
+            .builder()
+            .active(true)
+            .diffusion(diffusionConfig)
+            .services(singletonList(serviceConfig0))
+            .metrics(MetricsConfig.builder().logging(false).build())
+            .blockingPolls(true)
+            .build();
+
+        startAndReconfigureExecution(blockingPollsModel);
+    }
+
+    @Test
+    public void startConnectAndReconfigureMaxConcurrentPolls() throws Exception {
+        final Model maxConcurrentPollsModel = Model
+            .builder()
+            .active(true)
+            .diffusion(diffusionConfig)
+            .services(singletonList(serviceConfig0))
+            .metrics(MetricsConfig.builder().logging(false).build())
+            .maxConcurrentPolls(10)
+            .build();
+
+        startAndReconfigureExecution(maxConcurrentPollsModel);
+    }
+
+    @Test
+    public void startConnectAndReconfigureMaxConnections() throws Exception {
+        final Model maxConnectionsModel = Model
+            .builder()
+            .active(true)
+            .diffusion(diffusionConfig)
+            .services(singletonList(serviceConfig0))
+            .metrics(MetricsConfig.builder().logging(false).build())
+            .maxConnections(10)
+            .build();
+
+        startAndReconfigureExecution(maxConnectionsModel);
+    }
+
+    @Test
+    public void startConnectAndReconfigureResponseCache() throws Exception {
+        final Model responseCacheModel = Model
+            .builder()
+            .active(true)
+            .diffusion(diffusionConfig)
+            .services(singletonList(serviceConfig0))
+            .metrics(MetricsConfig.builder().logging(false).build())
+            .responseCache(ResponseCacheConfig.builder().build())
+            .build();
+
+        startAndReconfigureExecution(responseCacheModel);
+    }
+
+    private void startAndReconfigureExecution(Model executionModel) throws IOException {
+        restAdapter.onReconfiguration(model0);
+
+        verify(sessionFactory).serverHost("localhost");
+        verify(sessionFactory).serverPort(8080);
+        verify(sessionFactory).transports(WEBSOCKET);
+        verify(sessionFactory).secureTransport(false);
+        verify(sessionFactory).connectionTimeout(10000);
+        verify(sessionFactory).reconnectionTimeout(10000);
+        verify(sessionFactory).maximumMessageSize(32000);
+        verify(sessionFactory).inputBufferSize(32000);
+        verify(sessionFactory).outputBufferSize(32000);
+        verify(sessionFactory).recoveryBufferSize(256);
+        verify(sessionFactory).listener(isNotNull());
+        verify(sessionFactory).principal("control");
+        verify(sessionFactory).password("password");
+        verify(sessionFactory).openAsync();
+
+        verify(httpClientFactory).createConnectionManager(model0, null);
+        verify(httpClientFactory).create(model0, connectionManager);
+        verify(executorService).scheduleAtFixedRate(isA(Runnable.class), eq(1000L), eq(1000L), eq(MILLISECONDS));
+        verify(httpClient).start();
+
+        verify(session).lock("service-0", UNLOCK_ON_CONNECTION_LOSS);
+        verify(serviceListener).onStandby(serviceConfig0);
+
+        restAdapter.onReconfiguration(executionModel);
+
+        verify(httpClientFactory).createConnectionManager(executionModel, null);
+        verify(httpClientFactory).create(executionModel, connectionManager);
+        verify(executorService, times(2)).scheduleAtFixedRate(isA(Runnable.class), eq(1000L), eq(1000L), eq(MILLISECONDS));
+        verify(httpClient, times(2)).start();
+        // The previous endpoint client is closed
+        verify(httpClient).close();
+
+        verify(session, times(2)).lock("service-0", UNLOCK_ON_CONNECTION_LOSS);
+        verify(serviceListener, times(2)).onStandby(serviceConfig0);
+    }
+
     @Test
     public void startReconfigureAndConnect() throws Exception {
         final CompletableFuture<Session> sessionFuture = new CompletableFuture<>();
@@ -333,7 +459,9 @@ public final class InternalRESTAdapterTest {
 
         sessionFuture.complete(session);
 
-        verify(httpClientFactory).create(model1, null);
+        verify(httpClientFactory).createConnectionManager(model1, null);
+        verify(httpClientFactory).create(model1, connectionManager);
+        verify(executorService).scheduleAtFixedRate(isA(Runnable.class), eq(1000L), eq(1000L), eq(MILLISECONDS));
         verify(httpClient).start();
 
         verify(session).lock("service-1", UNLOCK_ON_CONNECTION_LOSS);
@@ -379,7 +507,9 @@ public final class InternalRESTAdapterTest {
         verify(sessionFactory).password("password");
         verify(sessionFactory).openAsync();
 
-        verify(httpClientFactory).create(model0, null);
+        verify(httpClientFactory).createConnectionManager(model0, null);
+        verify(httpClientFactory).create(model0, connectionManager);
+        verify(executorService).scheduleAtFixedRate(isA(Runnable.class), eq(1000L), eq(1000L), eq(MILLISECONDS));
         verify(httpClient).start();
 
         verify(session).lock("service-0", UNLOCK_ON_CONNECTION_LOSS);
@@ -436,7 +566,9 @@ public final class InternalRESTAdapterTest {
         verify(sessionFactory).password("password");
         verify(sessionFactory).openAsync();
 
-        verify(httpClientFactory).create(model0, null);
+        verify(httpClientFactory).createConnectionManager(model0, null);
+        verify(httpClientFactory).create(model0, connectionManager);
+        verify(executorService).scheduleAtFixedRate(isA(Runnable.class), eq(1000L), eq(1000L), eq(MILLISECONDS));
         verify(httpClient).start();
 
         verify(session).lock("service-0", UNLOCK_ON_CONNECTION_LOSS);
@@ -31,6 +31,7 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 
+import com.pushtechnology.adapters.rest.metrics.event.listeners.CircuitBreakerState;
 import com.pushtechnology.adapters.rest.metrics.event.listeners.PollEventListener;
 import com.pushtechnology.adapters.rest.metrics.event.listeners.PublicationEventListener;
 import com.pushtechnology.adapters.rest.metrics.event.listeners.ServiceEventListener;
@@ -39,6 +40,8 @@ import com.pushtechnology.adapters.rest.metrics.listeners.PollListener;
 import com.pushtechnology.adapters.rest.metrics.listeners.PollListener.PollCompletionListener;
 import com.pushtechnology.adapters.rest.metrics.listeners.PublicationListener;
 import com.pushtechnology.adapters.rest.metrics.listeners.PublicationListener.PublicationCompletionListener;
+import com.pushtechnology.adapters.rest.metrics.listeners.RecoveryListener;
+import com.pushtechnology.adapters.rest.metrics.listeners.ResponseCacheListener;
 import com.pushtechnology.adapters.rest.metrics.listeners.TopicCreationListener;
 import com.pushtechnology.adapters.rest.metrics.listeners.TopicCreationListener.TopicCreationCompletionListener;
 import com.pushtechnology.adapters.rest.model.latest.EndpointConfig;
@@ -98,6 +101,14 @@ public final class MetricsDispatcherTest {
     private ServiceEventListener serviceEventListener0;
     @Mock
     private ServiceEventListener serviceEventListener1;
+    @Mock
+    private ResponseCacheListener responseCacheListener0;
+    @Mock
+    private ResponseCacheListener responseCacheListener1;
+    @Mock
+    private RecoveryListener recoveryListener0;
+    @Mock
+    private RecoveryListener recoveryListener1;
 
     private final EndpointConfig endpointConfig = EndpointConfig
         .builder()
@@ -148,6 +159,11 @@ public final class MetricsDispatcherTest {
 
         verify(pollEventListener0).onPollFailed(isNotNull());
         verify(pollEventListener1).onPollFailed(isNotNull());
+
+        dispatcher.onConnectionPool(serviceConfig, 1, 0, 1);
+
+        verify(pollEventListener0).onConnectionPool(isNotNull());
+        verify(pollEventListener1).onConnectionPool(isNotNull());
     }
 
     @Test
@@ -225,9 +241,65 @@ public final class MetricsDispatcherTest {
         verify(serviceEventListener0).onEndpointRemove(serviceConfig, endpointConfig, true);
         verify(serviceEventListener1).onEndpointRemove(serviceConfig, endpointConfig, true);
 
+        dispatcher.onEndpointCircuitBreaker(serviceConfig, endpointConfig, CircuitBreakerState.OPEN);
+        verify(serviceEventListener0).onEndpointCircuitBreaker(serviceConfig, endpointConfig, CircuitBreakerState.OPEN);
+        verify(serviceEventListener1).onEndpointCircuitBreaker(serviceConfig, endpointConfig, CircuitBreakerState.OPEN);
+
+        dispatcher.onServiceCircuitBreaker(serviceConfig, CircuitBreakerState.OPEN);
+        verify(serviceEventListener0).onServiceCircuitBreaker(serviceConfig, CircuitBreakerState.OPEN);
+        verify(serviceEventListener1).onServiceCircuitBreaker(serviceConfig, CircuitBreakerState.OPEN);
+
+        dispatcher.onPollSkipped(serviceConfig, endpointConfig);
+        verify(serviceEventListener0).onPollSkipped(serviceConfig, endpointConfig);
+        verify(serviceEventListener1).onPollSkipped(serviceConfig, endpointConfig);
+
+        dispatcher.onPollCoalesced(serviceConfig, endpointConfig);
+        verify(serviceEventListener0).onPollCoalesced(serviceConfig, endpointConfig);
+        verify(serviceEventListener1).onPollCoalesced(serviceConfig, endpointConfig);
+
         dispatcher.onRemove(serviceConfig, true);
 
         verify(serviceEventListener0).onRemove(serviceConfig, true);
         verify(serviceEventListener1).onRemove(serviceConfig, true);
     }
+
+    @Test
+    public void responseCacheListenerDispatch() {
+        final MetricsDispatcher dispatcher = new MetricsDispatcher();
+
+        dispatcher.addResponseCacheListener(responseCacheListener0);
+        dispatcher.addResponseCacheListener(responseCacheListener1);
+
+        dispatcher.onResponseCacheHit(serviceConfig, endpointConfig);
+        verify(responseCacheListener0).onResponseCacheHit(serviceConfig, endpointConfig);
+        verify(responseCacheListener1).onResponseCacheHit(serviceConfig, endpointConfig);
+
+        dispatcher.onResponseCacheMiss(serviceConfig, endpointConfig);
+        verify(responseCacheListener0).onResponseCacheMiss(serviceConfig, endpointConfig);
+        verify(responseCacheListener1).onResponseCacheMiss(serviceConfig, endpointConfig);
+
+        dispatcher.onResponseCacheEviction(100);
+        verify(responseCacheListener0).onResponseCacheEviction(100);
+        verify(responseCacheListener1).onResponseCacheEviction(100);
+    }
+
+    @Test
+    public void recoveryListenerDispatch() {
+        final MetricsDispatcher dispatcher = new MetricsDispatcher();
+
+        dispatcher.addRecoveryListener(recoveryListener0);
+        dispatcher.addRecoveryListener(recoveryListener1);
+
+        dispatcher.onRecoveryBufferChange(100L);
+        verify(recoveryListener0).onRecoveryBufferChange(100L);
+        verify(recoveryListener1).onRecoveryBufferChange(100L);
+
+        dispatcher.onRecoveryBufferEviction(10);
+        verify(recoveryListener0).onRecoveryBufferEviction(10);
+        verify(recoveryListener1).onRecoveryBufferEviction(10);
+
+        dispatcher.onRecoveryReplay(5, 200L);
+        verify(recoveryListener0).onRecoveryReplay(5, 200L);
+        verify(recoveryListener1).onRecoveryReplay(5, 200L);
+    }
 }
@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.model.latest;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Adaptive polling configuration. Version 15.
+ * <p>
+ * Description of how the poll period of the endpoints of a REST service adapts to how often they change.
+ *
+ * @author Push Technology Limited
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class AdaptivePollingConfig {
+    /**
+     * The shortest time in milliseconds between polls. Defaults to the poll period of the endpoint.
+     */
+    Long minPollPeriod;
+
+    /**
+     * The longest time in milliseconds between polls. Defaults to ten times the poll period of the endpoint.
+     */
+    Long maxPollPeriod;
+
+    /**
+     * The number of polls in a row that find the endpoint unchanged before the time between polls is doubled.
+     * Defaults to 3.
+     */
+    Integer unchangedPolls;
+}
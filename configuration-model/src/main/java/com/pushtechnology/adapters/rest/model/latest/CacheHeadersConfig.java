@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.model.latest;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Cache headers configuration. Version 15.
+ * <p>
+ * Description of how the caching and {@code Retry-After} headers of the responses of a REST service delay the
+ * polls of its endpoints.
+ *
+ * @author Push Technology Limited
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class CacheHeadersConfig {
+    /**
+     * The shortest time in milliseconds a poll can be delayed by a response. Defaults to 0.
+     */
+    Long minPollDelay;
+
+    /**
+     * The longest time in milliseconds a poll can be delayed by a response. Defaults to no limit.
+     */
+    Long maxPollDelay;
+}
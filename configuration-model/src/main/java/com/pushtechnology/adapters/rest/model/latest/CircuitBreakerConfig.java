@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.model.latest;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Circuit breaker configuration. Version 15.
+ * <p>
+ * Description of how failing polls of a REST service are backed off. Each endpoint and the host of the service have
+ * a circuit breaker that opens after consecutive failures and allows a probe once its backoff has expired.
+ *
+ * @author Push Technology Limited
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class CircuitBreakerConfig {
+    /**
+     * The number of consecutive failures that open a circuit breaker. Defaults to 5.
+     */
+    Integer failureThreshold;
+
+    /**
+     * The time in milliseconds a circuit breaker stays open the first time it opens. It is doubled each time the
+     * breaker opens again without closing. Defaults to 5000.
+     */
+    Long initialBackoff;
+
+    /**
+     * The longest time in milliseconds a circuit breaker stays open. Defaults to 300000.
+     */
+    Long maxBackoff;
+}
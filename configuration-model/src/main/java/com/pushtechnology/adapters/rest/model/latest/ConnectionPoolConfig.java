@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.model.latest;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Connection pool configuration. Version 15.
+ * <p>
+ * Description of how the HTTP connections to a REST service are pooled.
+ *
+ * @author Push Technology Limited
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class ConnectionPoolConfig {
+    /**
+     * The maximum number of concurrent connections to the service. Defaults to 2.
+     */
+    Integer maxConnections;
+
+    /**
+     * The time in milliseconds to wait for a connection to be established. Defaults to no timeout.
+     */
+    Integer connectTimeout;
+
+    /**
+     * The time in milliseconds to wait for data once connected. Defaults to no timeout.
+     */
+    Integer socketTimeout;
+
+    /**
+     * The time in milliseconds to wait for a connection to be leased from the pool. Defaults to no timeout.
+     */
+    Integer connectionRequestTimeout;
+
+    /**
+     * The time in milliseconds an idle connection is kept alive. Defaults to the duration requested by the
+     * Keep-Alive header of the service or indefinitely if there is none.
+     */
+    Long keepAlive;
+}
@@ -15,6 +15,8 @@
 
 package com.pushtechnology.adapters.rest.model.latest;
 
+import java.util.List;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.NonNull;
@@ -71,4 +73,19 @@ public class EndpointConfig {
      * poll period.
      */
     Long pollPeriod;
+    /**
+     * The parts of a JSON response to publish. Each part is a JSON Pointer, or a path of field names separated by
+     * dots. The parts not selected are skipped when parsing the response. If not set the whole response is published.
+     */
+    List<String> projection;
+    /**
+     * Publish each element of a JSON response to its own topic. If a projection is set it is applied to each element.
+     * If not set the whole response is published to the topic of the endpoint.
+     */
+    FanOutConfig fanOut;
+    /**
+     * Compare each JSON value with the last value published to the topic. Values that have not changed are not
+     * published and the size of the difference is reported for those that have. Defaults to false.
+     */
+    Boolean deltas;
 }
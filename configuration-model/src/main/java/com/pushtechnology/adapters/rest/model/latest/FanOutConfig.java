@@ -0,0 +1,40 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.model.latest;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Fan-out configuration. Version 15.
+ * <p>
+ * Description of how the response of a JSON endpoint is split into elements. Each element of the array or object
+ * returned by the endpoint is published to its own topic below the topic path of the endpoint.
+ *
+ * @author Push Technology Limited
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class FanOutConfig {
+    /**
+     * The field of each element that identifies it. The value of the field is the name of the topic of the element.
+     * If not set the elements of an object are identified by their member names and the elements of an array by their
+     * indices.
+     */
+    String keyField;
+}
@@ -76,4 +76,38 @@ public class Model implements AnyModel {
      * location on the file system.
      */
     String truststore;
+
+    /**
+     * The number of threads used to handle the responses from the REST services. If not positive the number of
+     * available processors is used.
+     */
+    int workerThreads;
+
+    /**
+     * If each poll should run as a blocking request, parse and publish on its own thread. Virtual threads are used if
+     * the JVM supports them. Defaults to false.
+     */
+    boolean blockingPolls;
+
+    /**
+     * The maximum number of polls of all the services that can be in flight at the same time. If not positive the
+     * number is not limited. Defaults to 0.
+     */
+    int maxConcurrentPolls;
+
+    /**
+     * The maximum number of HTTP/1.1 connections to all the services. If not positive the sum of the maximum number of
+     * connections of each service is used. Defaults to 0.
+     */
+    int maxConnections;
+
+    /**
+     * The cache of responses shared by all the services. If not set responses are not cached.
+     */
+    ResponseCacheConfig responseCache;
+
+    /**
+     * How updates are sent to the Diffusion server. If not set updates are sent as soon as they are published.
+     */
+    PublicationConfig publication;
 }
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.model.latest;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Publication configuration. Version 15.
+ * <p>
+ * Description of how updates are sent to the Diffusion server. The number of updates sent but not yet completed is
+ * limited and polling is paused while too many updates are waiting. The updates published while the session is
+ * recovering are held and replayed after it reconnects. The number of topics being added at the same time is limited.
+ *
+ * @author Push Technology Limited
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class PublicationConfig {
+    /**
+     * The maximum number of updates sent to the Diffusion server that have not completed. Polling is paused while
+     * this many updates are sent or waiting to be sent. Defaults to 1000.
+     */
+    Integer maxOutstandingUpdates;
+
+    /**
+     * The time in milliseconds between sending the updates waiting to be sent as a batch. If 0 updates are sent as
+     * soon as the number of outstanding updates allows. Defaults to 0.
+     */
+    Long flushInterval;
+
+    /**
+     * If only the latest update waiting to be sent to each topic is kept. Earlier updates waiting to be sent to the
+     * topic are superseded. Defaults to true.
+     */
+    Boolean conflate;
+
+    /**
+     * The maximum number of updates waiting to be sent if updates are not conflated. An update published while this
+     * many updates are waiting fails. Defaults to 10000.
+     */
+    Integer maxWaitingUpdates;
+
+    /**
+     * The maximum number of bytes of updates held while the session is recovering. Only the latest update to each
+     * topic is held, when the limit is exceeded the oldest updates are discarded. Defaults to 16777216.
+     */
+    Long maxRecoveryBytes;
+
+    /**
+     * The maximum number of held updates replayed each second after the session reconnects. Defaults to 1000.
+     */
+    Integer replayRate;
+
+    /**
+     * The maximum number of topics being added to the Diffusion server at the same time. The remaining topics wait
+     * until earlier topics have been added. Defaults to 100.
+     */
+    Integer maxOutstandingTopics;
+}
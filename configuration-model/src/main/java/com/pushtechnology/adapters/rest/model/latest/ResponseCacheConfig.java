@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.model.latest;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Response cache configuration. Version 15.
+ * <p>
+ * Description of the in-memory cache of responses shared by all the services. A fresh cached response is used
+ * instead of polling the same resource again.
+ *
+ * @author Push Technology Limited
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class ResponseCacheConfig {
+    /**
+     * The time in milliseconds a cached response stays fresh. Defaults to 1000.
+     */
+    Long timeToLive;
+
+    /**
+     * The maximum total length in bytes of the cached responses. The least recently used responses are evicted when
+     * it is exceeded. Defaults to 16777216.
+     */
+    Long maxBytes;
+}
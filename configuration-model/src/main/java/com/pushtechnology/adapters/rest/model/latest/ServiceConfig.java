@@ -61,6 +61,11 @@ public class ServiceConfig {
     @Builder.Default
     boolean secure = true;
 
+    /**
+     * If HTTP/2 should be used to poll the service. Defaults to false.
+     */
+    boolean http2;
+
     /**
      * The endpoints the service makes available. Defaults to an empty list.
      */
@@ -74,6 +79,41 @@ public class ServiceConfig {
     @Builder.Default
     long pollPeriod = 60000;
 
+    /**
+     * The maximum time in milliseconds added at random to the delay before the first poll of each endpoint.
+     * Defaults to 0.
+     */
+    long pollJitter;
+
+    /**
+     * The maximum number of polls of the service that can be in flight at the same time. If not positive the number
+     * is not limited. Defaults to 0.
+     */
+    int maxConcurrentPolls;
+
+    /**
+     * What to do when a poll of an endpoint is due while the previous poll of the endpoint is still in flight. One of
+     * {@code overlap}, {@code skip}, {@code coalesce} or {@code cancel}. Defaults to {@code overlap}.
+     */
+    String inFlightPolicy;
+
+    /**
+     * The adaptive polling configuration for the service. If not set the poll period of the endpoints is fixed.
+     */
+    AdaptivePollingConfig adaptivePolling;
+
+    /**
+     * The cache headers configuration for the service. If set the polls of an endpoint are delayed until the last
+     * response expires and {@code Retry-After} headers are honoured.
+     */
+    CacheHeadersConfig cacheHeaders;
+
+    /**
+     * The circuit breaker configuration for the service. If set failing polls are backed off and endpoints that fail
+     * to initialise are retried.
+     */
+    CircuitBreakerConfig circuitBreaker;
+
     /**
      * The topic path that is the root of the service.
      */
@@ -84,4 +124,15 @@ public class ServiceConfig {
      * The security configuration for the service.
      */
     SecurityConfig security;
+
+    /**
+     * The connection pool configuration for the service.
+     */
+    ConnectionPoolConfig connectionPool;
+
+    /**
+     * The removal policy of the topics of the service, as the value of the Diffusion topic removal property. Defaults
+     * to removing the topics a minute after no session has the principal of the adapter.
+     */
+    String topicRemoval;
 }
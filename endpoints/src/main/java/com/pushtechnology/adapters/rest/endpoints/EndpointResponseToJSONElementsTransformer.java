@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.endpoints;
+
+import static com.fasterxml.jackson.core.JsonToken.END_ARRAY;
+import static com.fasterxml.jackson.core.JsonToken.END_OBJECT;
+import static com.fasterxml.jackson.core.JsonToken.FIELD_NAME;
+import static com.fasterxml.jackson.core.JsonToken.START_ARRAY;
+import static com.fasterxml.jackson.core.JsonToken.START_OBJECT;
+import static java.util.Collections.emptyMap;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.filter.FilteringParserDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.pushtechnology.adapters.rest.endpoints.EndpointResponseToJSONTransformer.CBORBuffer;
+import com.pushtechnology.adapters.rest.polling.EndpointResponse;
+import com.pushtechnology.diffusion.datatype.json.JSON;
+import com.pushtechnology.diffusion.transform.transformer.UnsafeTransformer;
+
+/**
+ * Transformer from {@link EndpointResponse} to the elements of the {@link JSON} array or object it contains.
+ * <p>
+ * The response is read token by token and each element is transcoded to CBOR as it is read, the whole response is
+ * never held as a single value. Each element is identified by the value of a key field or, if there is no key field,
+ * by its member name or index. Elements without a key are dropped. A projection is applied to each element.
+ *
+ * @author Push Technology Limited
+ */
+/*package*/ final class EndpointResponseToJSONElementsTransformer
+        implements UnsafeTransformer<EndpointResponse, Map<String, JSON>> {
+    private static final int ELEMENT_SIZE = 256;
+    private final String keyField;
+    private final TokenFilter elementFilter;
+
+    private EndpointResponseToJSONElementsTransformer(String keyField, TokenFilter elementFilter) {
+        this.keyField = keyField;
+        this.elementFilter = elementFilter;
+    }
+
+    /**
+     * Create a transformer that splits the response into its elements.
+     *
+     * @param keyField the field of each element that identifies it, may be null
+     * @param projection JSON Pointers or paths of field names separated by dots applied to each element, may be null
+     * @return the transformer
+     * @throws IllegalArgumentException if a JSON Pointer is not valid
+     */
+    static UnsafeTransformer<EndpointResponse, Map<String, JSON>> create(String keyField, List<String> projection) {
+        if (projection == null || projection.isEmpty()) {
+            return new EndpointResponseToJSONElementsTransformer(keyField, null);
+        }
+
+        final List<String> elementProjection = new ArrayList<>(projection);
+        if (keyField != null) {
+            // The key field is needed to identify the element
+            elementProjection.add("/" + keyField.replace("~", "~0").replace("/", "~1"));
+        }
+        return new EndpointResponseToJSONElementsTransformer(keyField, JsonPointersFilter.create(elementProjection));
+    }
+
+    @Override
+    public Map<String, JSON> transform(EndpointResponse response) throws IOException {
+        try (JsonParser source = EndpointResponseToJSONTransformer.createParser(response)) {
+            final ElementsFilter rootFilter = elementFilter == null ? null : new ElementsFilter(elementFilter);
+            final JsonParser parser = rootFilter == null ?
+                source :
+                new FilteringParserDelegate(source, rootFilter, true, true);
+
+            final JsonToken token = parser.nextToken();
+            if (token == null && (rootFilter == null || rootFilter.rootValues == 0)) {
+                throw new JsonParseException(source, "No JSON value in response");
+            }
+            else if (token != null && token != START_ARRAY && token != START_OBJECT) {
+                throw new JsonParseException(source, "Response is not a JSON array or object");
+            }
+
+            // If the projection selected nothing the parser has reached the end of the response
+            final Map<String, JSON> elements = token == null ? emptyMap() : split(parser, rootFilter, token);
+            if (token != null) {
+                source.nextToken();
+            }
+            if (source.currentToken() != null || rootFilter != null && rootFilter.rootValues > 1) {
+                throw new JsonParseException(source, "Unexpected content after JSON value in response");
+            }
+            return elements;
+        }
+    }
+
+    private Map<String, JSON> split(JsonParser parser, ElementsFilter rootFilter, JsonToken start) throws IOException {
+        final Map<String, JSON> elements = new HashMap<>();
+        final JsonToken end = start == START_OBJECT ? END_OBJECT : END_ARRAY;
+        int index = 0;
+        for (JsonToken token = parser.nextToken(); token != end; token = parser.nextToken()) {
+            final String memberName;
+            if (token == FIELD_NAME) {
+                memberName = parser.getCurrentName();
+                parser.nextToken();
+            }
+            else {
+                // Elements may have been dropped by the projection so use the index the filter saw
+                memberName = Integer.toString(rootFilter == null ? index : rootFilter.elementIndex);
+            }
+            index += 1;
+
+            final CBORBuffer buffer = new CBORBuffer(ELEMENT_SIZE);
+            final String key;
+            try (CBORGenerator generator = buffer.createGenerator()) {
+                if (keyField == null) {
+                    generator.copyCurrentStructure(parser);
+                    key = memberName;
+                }
+                else {
+                    key = copyElement(parser, generator);
+                }
+            }
+            if (key != null) {
+                elements.put(key, buffer.toJSON());
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * Copy an element and find the value of its key field.
+     *
+     * @return the value of the key field or null if the element does not have one
+     */
+    private String copyElement(JsonParser parser, CBORGenerator generator) throws IOException {
+        if (parser.currentToken() != START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+
+        String key = null;
+        generator.writeStartObject();
+        while (parser.nextToken() == FIELD_NAME) {
+            final String fieldName = parser.getCurrentName();
+            final JsonToken value = parser.nextToken();
+            if (key == null && keyField.equals(fieldName) && value.isScalarValue()) {
+                key = parser.getValueAsString();
+            }
+            generator.writeFieldName(fieldName);
+            generator.copyCurrentStructure(parser);
+        }
+        generator.writeEndObject();
+        return key;
+    }
+
+    /**
+     * Filter that counts the values at the root of the response and applies the projection to each element of them.
+     */
+    private static final class ElementsFilter extends TokenFilter {
+        private final TokenFilter elementFilter;
+        private int rootValues;
+        private int elementIndex;
+
+        ElementsFilter(TokenFilter elementFilter) {
+            this.elementFilter = elementFilter;
+        }
+
+        @Override
+        public TokenFilter includeRootValue(int index) {
+            rootValues += 1;
+            return this;
+        }
+
+        @Override
+        public TokenFilter includeElement(int index) {
+            elementIndex = index;
+            return elementFilter;
+        }
+
+        @Override
+        public TokenFilter includeProperty(String name) {
+            return elementFilter;
+        }
+
+        @Override
+        protected boolean _includeScalar() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.endpoints;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.filter.FilteringParserDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.pushtechnology.adapters.rest.polling.EndpointResponse;
+import com.pushtechnology.diffusion.client.Diffusion;
+import com.pushtechnology.diffusion.datatype.json.JSON;
+import com.pushtechnology.diffusion.datatype.json.JSONDataType;
+import com.pushtechnology.diffusion.transform.transformer.UnsafeTransformer;
+
+/**
+ * Transformer from {@link EndpointResponse} to {@link JSON}.
+ * <p>
+ * Diffusion holds JSON values as CBOR. The response body is transcoded from JSON to CBOR token by token. When the
+ * body is UTF-8 it is read directly from the bytes without decoding it to a {@link String}. A body is assumed to be
+ * UTF-8 if no charset is declared.
+ * <p>
+ * A transformer for a projection filters the tokens as they are parsed. Only the parts of the body selected by the
+ * projection are transcoded, along with the objects and arrays that contain them.
+ *
+ * @author Push Technology Limited
+ */
+/*package*/ final class EndpointResponseToJSONTransformer implements UnsafeTransformer<EndpointResponse, JSON> {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final CBORFactory CBOR_FACTORY = new CBORFactory();
+    private static final JSONDataType JSON_DATA_TYPE = Diffusion.dataTypes().json();
+    /**
+     * Instance of the transformer.
+     */
+    static final UnsafeTransformer<EndpointResponse, JSON> INSTANCE = new EndpointResponseToJSONTransformer(null);
+
+    private final TokenFilter filter;
+
+    private EndpointResponseToJSONTransformer(TokenFilter filter) {
+        this.filter = filter;
+    }
+
+    /**
+     * Create a transformer that only transcodes the parts of the response selected by a projection.
+     *
+     * @param projection JSON Pointers or paths of field names separated by dots
+     * @return the transformer
+     * @throws IllegalArgumentException if a JSON Pointer is not valid
+     */
+    static UnsafeTransformer<EndpointResponse, JSON> create(List<String> projection) {
+        final TokenFilter projectionFilter = JsonPointersFilter.create(projection);
+        return projectionFilter == null ? INSTANCE : new EndpointResponseToJSONTransformer(projectionFilter);
+    }
+
+    @Override
+    public JSON transform(EndpointResponse response) throws IOException {
+        try (JsonParser parser = createParser(response)) {
+            return transcode(parser, response.getResponseLength());
+        }
+    }
+
+    /**
+     * Create a parser for the body of a response.
+     */
+    /*package*/ static JsonParser createParser(EndpointResponse response) throws IOException {
+        final Charset charset = EndpointResponseToStringTransformer.getDeclaredCharset(response);
+        if (charset == null || UTF_8.equals(charset) || US_ASCII.equals(charset)) {
+            return JSON_FACTORY.createParser(response.getResponseStream());
+        }
+        else {
+            return JSON_FACTORY.createParser(response.getResponseText(charset));
+        }
+    }
+
+    private JSON transcode(JsonParser parser, int responseLength) throws IOException {
+        // Presize the buffer from the length of the response, it grows if the CBOR encoding is longer
+        final CBORBuffer buffer = new CBORBuffer(responseLength);
+        try (CBORGenerator generator = buffer.createGenerator()) {
+            if (filter == null) {
+                copyValue(parser, generator);
+            }
+            else {
+                copyProjection(parser, generator);
+            }
+        }
+        return buffer.toJSON();
+    }
+
+    private static void copyValue(JsonParser parser, CBORGenerator generator) throws IOException {
+        if (parser.nextToken() == null) {
+            throw new JsonParseException(parser, "No JSON value in response");
+        }
+        generator.copyCurrentStructure(parser);
+        if (parser.nextToken() != null) {
+            throw new JsonParseException(parser, "Unexpected content after JSON value in response");
+        }
+    }
+
+    private void copyProjection(JsonParser parser, CBORGenerator generator) throws IOException {
+        final RootValueFilter rootFilter = new RootValueFilter(filter);
+        final JsonParser filteredParser = new FilteringParserDelegate(parser, rootFilter, true, true);
+        if (filteredParser.nextToken() == null) {
+            // The parser has reached the end of the response without any part of it being selected
+            if (rootFilter.rootValues == 0) {
+                throw new JsonParseException(parser, "No JSON value in response");
+            }
+            generator.writeNull();
+        }
+        else {
+            generator.copyCurrentStructure(filteredParser);
+            parser.nextToken();
+        }
+        if (rootFilter.rootValues > 1 || parser.currentToken() != null) {
+            throw new JsonParseException(parser, "Unexpected content after JSON value in response");
+        }
+    }
+
+    /**
+     * Filter that counts the values at the root of the response and applies the projection to them.
+     */
+    private static final class RootValueFilter extends TokenFilter {
+        private final TokenFilter projectionFilter;
+        private int rootValues;
+
+        RootValueFilter(TokenFilter projectionFilter) {
+            this.projectionFilter = projectionFilter;
+        }
+
+        @Override
+        public TokenFilter includeRootValue(int index) {
+            rootValues += 1;
+            return projectionFilter;
+        }
+    }
+
+    /**
+     * Output buffer that creates the {@link JSON} value from its contents without copying them first.
+     */
+    /*package*/ static final class CBORBuffer extends ByteArrayOutputStream {
+        private static final int MINIMUM_SIZE = 32;
+
+        /*package*/ CBORBuffer(int size) {
+            super(Math.max(size, MINIMUM_SIZE));
+        }
+
+        /*package*/ CBORGenerator createGenerator() throws IOException {
+            return CBOR_FACTORY.createGenerator(this);
+        }
+
+        /*package*/ JSON toJSON() {
+            return JSON_DATA_TYPE.readValue(buf, 0, count);
+        }
+    }
+}
@@ -41,10 +41,14 @@ import com.pushtechnology.diffusion.transform.transformer.UnsafeTransformer;
 
     @Override
     public String transform(EndpointResponse response) throws UnsupportedCharsetException {
-        return new String(response.getResponse(), getResponseCharset(response));
+        final Charset charset = getDeclaredCharset(response);
+        return response.getResponseText(charset == null ? StandardCharsets.ISO_8859_1 : charset);
     }
 
-    private Charset getResponseCharset(EndpointResponse response) throws UnsupportedCharsetException {
+    /**
+     * @return the charset declared by the content type of the response or null if there is none
+     */
+    /*package*/ static Charset getDeclaredCharset(EndpointResponse response) throws UnsupportedCharsetException {
         final String contentType = response.getContentType();
         if (contentType != null) {
             final Matcher matcher = CHARSET_PATTERN.matcher(contentType);
@@ -55,6 +59,6 @@ import com.pushtechnology.diffusion.transform.transformer.UnsafeTransformer;
             }
         }
 
-        return StandardCharsets.ISO_8859_1;
+        return null;
     }
 }
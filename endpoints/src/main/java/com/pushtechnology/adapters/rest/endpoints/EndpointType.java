@@ -20,8 +20,10 @@ import static java.util.Arrays.asList;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 import com.pushtechnology.adapters.rest.polling.EndpointResponse;
@@ -48,11 +50,8 @@ public final class EndpointType<T> {
         TopicType.JSON,
         JSON.class,
         Diffusion.dataTypes().json(),
-        Transformers
-            .builder(EndpointResponse.class)
-            .unsafeTransform(EndpointResponseToStringTransformer.INSTANCE)
-            .unsafeTransform(Transformers.parseJSON())
-            .buildUnsafe(),
+        EndpointResponseToJSONTransformer.INSTANCE,
+        EndpointResponseToJSONTransformer::create,
         contentType ->
             contentType != null && (contentType.startsWith("application/json") || contentType.startsWith("text/json")));
     /**
@@ -67,6 +66,7 @@ public final class EndpointType<T> {
             .builder(EndpointResponse.class)
             .unsafeTransform(EndpointResponseToStringTransformer.INSTANCE)
             .buildUnsafe(),
+        null,
         contentType ->
             contentType != null && (contentType.startsWith("text/plain") || JSON_ENDPOINT_TYPE.canHandle(contentType)));
     /**
@@ -82,6 +82,7 @@ public final class EndpointType<T> {
             .unsafeTransform(EndpointResponse::getResponse)
             .transform(byteArrayToBinary())
             .buildUnsafe(),
+        null,
             contentType -> true);
 
     private static final Map<String, EndpointType> IDENTIFIER_LOOKUP = new HashMap<>();
@@ -104,6 +105,7 @@ public final class EndpointType<T> {
     private final Class<T> valueType;
     private final DataType<T> dataType;
     private final UnsafeTransformer<EndpointResponse, T> parser;
+    private final Function<List<String>, UnsafeTransformer<EndpointResponse, T>> projectingParser;
     private final Predicate<String> canHandle;
 
     /**
@@ -115,6 +117,7 @@ public final class EndpointType<T> {
         Class<T> valueType,
         DataType<T> dataType,
         UnsafeTransformer<EndpointResponse, T> parser,
+        Function<List<String>, UnsafeTransformer<EndpointResponse, T>> projectingParser,
         Predicate<String> canHandle) {
 
         this.identifiers = identifiers;
@@ -122,6 +125,7 @@ public final class EndpointType<T> {
         this.valueType = valueType;
         this.dataType = dataType;
         this.parser = parser;
+        this.projectingParser = projectingParser;
         this.canHandle = canHandle;
     }
 
@@ -160,6 +164,32 @@ public final class EndpointType<T> {
         return parser;
     }
 
+    /**
+     * @param projection the parts of the response to parse, may be null
+     * @return parser for endpoints that only parses the parts of the response selected by the projection, the
+     * projection is ignored if the endpoint type does not support it
+     * @throws IllegalArgumentException if the projection is not valid
+     */
+    public UnsafeTransformer<EndpointResponse, T> getParser(List<String> projection) {
+        if (projection == null || projection.isEmpty() || projectingParser == null) {
+            return parser;
+        }
+        return projectingParser.apply(projection);
+    }
+
+    /**
+     * @param keyField the field of each element that identifies it, may be null
+     * @param projection the parts of each element to parse, may be null
+     * @return parser for fan-out endpoints that splits a JSON response into its elements, keyed by the value of the key
+     * field or by their member names or indices if there is no key field
+     * @throws IllegalArgumentException if the projection is not valid
+     */
+    public static UnsafeTransformer<EndpointResponse, Map<String, JSON>> getFanOutParser(
+            String keyField,
+            List<String> projection) {
+        return EndpointResponseToJSONElementsTransformer.create(keyField, projection);
+    }
+
     /**
      * @return if the content type if valid for the endpoint type
      */
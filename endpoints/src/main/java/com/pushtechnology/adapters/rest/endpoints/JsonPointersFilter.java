@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.endpoints;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+
+/**
+ * Filter that includes the parts of a JSON value selected by a set of JSON Pointers.
+ * <p>
+ * The filter is applied while the value is being parsed, a subtree that no pointer can select is skipped without
+ * being read into memory.
+ *
+ * @author Push Technology Limited
+ */
+/*package*/ final class JsonPointersFilter extends TokenFilter {
+    private final Collection<JsonPointer> pointers;
+
+    private JsonPointersFilter(Collection<JsonPointer> pointers) {
+        this.pointers = pointers;
+    }
+
+    @Override
+    public TokenFilter includeProperty(String name) {
+        return match(pointer -> pointer.matchProperty(name));
+    }
+
+    @Override
+    public TokenFilter includeElement(int index) {
+        return match(pointer -> pointer.matchElement(index));
+    }
+
+    @Override
+    protected boolean _includeScalar() {
+        // A scalar reached before the end of every pointer is not selected
+        return false;
+    }
+
+    private TokenFilter match(Function<JsonPointer, JsonPointer> matcher) {
+        final List<JsonPointer> remainingPointers = new ArrayList<>();
+        for (final JsonPointer pointer : pointers) {
+            final JsonPointer remainingPointer = matcher.apply(pointer);
+            if (remainingPointer != null && remainingPointer.matches()) {
+                return TokenFilter.INCLUDE_ALL;
+            }
+            else if (remainingPointer != null) {
+                remainingPointers.add(remainingPointer);
+            }
+        }
+        return remainingPointers.isEmpty() ? null : new JsonPointersFilter(remainingPointers);
+    }
+
+    /**
+     * Create a filter for a projection.
+     *
+     * @param projection JSON Pointers or paths of field names separated by dots
+     * @return the filter or null if the projection selects the whole value
+     * @throws IllegalArgumentException if a JSON Pointer is not valid
+     */
+    /*package*/ static TokenFilter create(Collection<String> projection) {
+        final List<JsonPointer> pointers = new ArrayList<>();
+        for (final String expression : projection) {
+            final JsonPointer pointer = toPointer(expression);
+            if (pointer.matches()) {
+                return null;
+            }
+            pointers.add(pointer);
+        }
+        return new JsonPointersFilter(pointers);
+    }
+
+    private static JsonPointer toPointer(String expression) {
+        if (expression.isEmpty() || expression.charAt(0) == '/') {
+            return JsonPointer.compile(expression);
+        }
+
+        final StringBuilder pointer = new StringBuilder();
+        for (final String fieldName : expression.split("\\.", -1)) {
+            pointer.append('/').append(fieldName.replace("~", "~0").replace("/", "~1"));
+        }
+        return JsonPointer.compile(pointer.toString());
+    }
+}
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.endpoints;
+
+import static com.pushtechnology.adapters.rest.endpoints.EndpointResponseToJSONElementsTransformer.create;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.pushtechnology.adapters.rest.polling.EndpointResponse;
+import com.pushtechnology.diffusion.datatype.json.JSON;
+
+/**
+ * Unit tests for {@link EndpointResponseToJSONElementsTransformer}.
+ *
+ * @author Push Technology Limited
+ */
+public final class EndpointResponseToJSONElementsTransformerTest {
+
+    @Mock
+    private EndpointResponse endpointResponse;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        when(endpointResponse.getContentType()).thenCallRealMethod();
+        when(endpointResponse.getResponseStream()).thenCallRealMethod();
+        when(endpointResponse.getResponseText(any())).thenCallRealMethod();
+    }
+
+    @Test
+    public void testArrayByKeyField() throws Exception {
+        givenResponse("[{\"id\":\"a\",\"value\":1},{\"id\":2,\"value\":[2,3]},{\"value\":4},5]");
+        final Map<String, JSON> elements = create("id", null).transform(endpointResponse);
+        assertEquals(2, elements.size());
+        assertEquals("{\"id\":\"a\",\"value\":1}", elements.get("a").toJsonString());
+        assertEquals("{\"id\":2,\"value\":[2,3]}", elements.get("2").toJsonString());
+    }
+
+    @Test
+    public void testArrayByIndex() throws Exception {
+        givenResponse("[{\"value\":1},\"two\",3]");
+        final Map<String, JSON> elements = create(null, null).transform(endpointResponse);
+        assertEquals(3, elements.size());
+        assertEquals("{\"value\":1}", elements.get("0").toJsonString());
+        assertEquals("\"two\"", elements.get("1").toJsonString());
+        assertEquals("3", elements.get("2").toJsonString());
+    }
+
+    @Test
+    public void testObjectByMemberName() throws Exception {
+        givenResponse("{\"a\":{\"value\":1},\"b\":[2]}");
+        final Map<String, JSON> elements = create(null, null).transform(endpointResponse);
+        assertEquals(2, elements.size());
+        assertEquals("{\"value\":1}", elements.get("a").toJsonString());
+        assertEquals("[2]", elements.get("b").toJsonString());
+    }
+
+    @Test
+    public void testProjectionByKeyField() throws Exception {
+        givenResponse("[{\"id\":\"a\",\"value\":1,\"other\":{\"x\":1}},{\"id\":\"b\",\"other\":2}]");
+        final Map<String, JSON> elements = create("id", singletonList("value")).transform(endpointResponse);
+        assertEquals(2, elements.size());
+        assertEquals("{\"id\":\"a\",\"value\":1}", elements.get("a").toJsonString());
+        assertEquals("{\"id\":\"b\"}", elements.get("b").toJsonString());
+    }
+
+    @Test
+    public void testProjectionByIndex() throws Exception {
+        givenResponse("[{\"other\":1},{\"value\":2,\"other\":3}]");
+        final Map<String, JSON> elements = create(null, singletonList("/value")).transform(endpointResponse);
+        assertEquals(1, elements.size());
+        assertEquals("{\"value\":2}", elements.get("1").toJsonString());
+    }
+
+    @Test
+    public void testProjectionSelectsNothing() throws Exception {
+        givenResponse("[{\"other\":1}]");
+        final Map<String, JSON> elements = create(null, singletonList("/value")).transform(endpointResponse);
+        assertTrue(elements.isEmpty());
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void testScalar() throws Exception {
+        givenResponse("5");
+        create(null, null).transform(endpointResponse);
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void testEmpty() throws Exception {
+        givenResponse("");
+        create("id", singletonList("/value")).transform(endpointResponse);
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void testTrailingContent() throws Exception {
+        givenResponse("[] []");
+        create(null, null).transform(endpointResponse);
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void testProjectionTrailingContent() throws Exception {
+        givenResponse("[{\"value\":1}] []");
+        create(null, singletonList("/value")).transform(endpointResponse);
+    }
+
+    private void givenResponse(String content) {
+        final byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        when(endpointResponse.getHeader("content-type")).thenReturn("application/json");
+        when(endpointResponse.getResponse()).thenReturn(bytes);
+        when(endpointResponse.getResponseLength()).thenReturn(bytes.length);
+    }
+}
@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.endpoints;
+
+import static com.pushtechnology.adapters.rest.endpoints.EndpointResponseToJSONTransformer.INSTANCE;
+import static com.pushtechnology.adapters.rest.endpoints.EndpointResponseToJSONTransformer.create;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.pushtechnology.adapters.rest.polling.EndpointResponse;
+import com.pushtechnology.diffusion.datatype.json.JSON;
+
+/**
+ * Unit tests for {@link EndpointResponseToJSONTransformer}.
+ *
+ * @author Push Technology Limited
+ */
+public final class EndpointResponseToJSONTransformerTest {
+
+    @Mock
+    private EndpointResponse endpointResponse;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        when(endpointResponse.getContentType()).thenCallRealMethod();
+        when(endpointResponse.getResponseStream()).thenCallRealMethod();
+        when(endpointResponse.getResponseText(any())).thenCallRealMethod();
+    }
+
+    @Test
+    public void testTransformation() throws Exception {
+        givenResponse("application/json", "{\"foo\":[\"bar\",1,true,null]}".getBytes(StandardCharsets.UTF_8));
+        final JSON value = INSTANCE.transform(endpointResponse);
+        assertEquals("{\"foo\":[\"bar\",1,true,null]}", value.toJsonString());
+    }
+
+    @Test
+    public void testTransformationUTF8() throws Exception {
+        givenResponse("application/json; charset=UTF-8", "{\"foo\":\"bär\"}".getBytes(StandardCharsets.UTF_8));
+        final JSON value = INSTANCE.transform(endpointResponse);
+        assertEquals("{\"foo\":\"bär\"}", value.toJsonString());
+    }
+
+    @Test
+    public void testTransformationOtherCharset() throws Exception {
+        givenResponse("application/json; charset=ISO-8859-1", "{\"foo\":\"bär\"}".getBytes(StandardCharsets.ISO_8859_1));
+        final JSON value = INSTANCE.transform(endpointResponse);
+        assertEquals("{\"foo\":\"bär\"}", value.toJsonString());
+    }
+
+    @Test
+    public void testScalar() throws Exception {
+        givenResponse("application/json", "5".getBytes(StandardCharsets.UTF_8));
+        final JSON value = INSTANCE.transform(endpointResponse);
+        assertEquals("5", value.toJsonString());
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void testEmpty() throws Exception {
+        givenResponse("application/json", new byte[0]);
+        INSTANCE.transform(endpointResponse);
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void testTrailingContent() throws Exception {
+        givenResponse("application/json", "{} {}".getBytes(StandardCharsets.UTF_8));
+        INSTANCE.transform(endpointResponse);
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void testInvalid() throws Exception {
+        givenResponse("application/json", "{\"foo\":}".getBytes(StandardCharsets.UTF_8));
+        INSTANCE.transform(endpointResponse);
+    }
+
+    @Test
+    public void testProjection() throws Exception {
+        givenResponse(
+            "application/json",
+            "{\"a\":{\"b\":1,\"c\":[2,3]},\"d\":[4,5],\"e\":\"f\"}".getBytes(StandardCharsets.UTF_8));
+        final JSON value = create(asList("/a/b", "e")).transform(endpointResponse);
+        assertEquals("{\"a\":{\"b\":1},\"e\":\"f\"}", value.toJsonString());
+    }
+
+    @Test
+    public void testProjectionOfElement() throws Exception {
+        givenResponse("application/json", "[{\"a\":1},{\"a\":2,\"b\":3}]".getBytes(StandardCharsets.UTF_8));
+        final JSON value = create(singletonList("/1/a")).transform(endpointResponse);
+        assertEquals("[{\"a\":2}]", value.toJsonString());
+    }
+
+    @Test
+    public void testProjectionOfSubtree() throws Exception {
+        givenResponse("application/json", "{\"a\":{\"b\":{\"c\":[1,2]}}}".getBytes(StandardCharsets.UTF_8));
+        final JSON value = create(singletonList("a.b")).transform(endpointResponse);
+        assertEquals("{\"a\":{\"b\":{\"c\":[1,2]}}}", value.toJsonString());
+    }
+
+    @Test
+    public void testProjectionSelectsNothing() throws Exception {
+        givenResponse("application/json", "{\"a\":1}".getBytes(StandardCharsets.UTF_8));
+        final JSON value = create(singletonList("/b")).transform(endpointResponse);
+        assertEquals("null", value.toJsonString());
+    }
+
+    @Test
+    public void testProjectionOfWholeValue() {
+        assertSame(INSTANCE, create(singletonList("")));
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void testProjectionOfEmpty() throws Exception {
+        givenResponse("application/json", new byte[0]);
+        create(singletonList("/a")).transform(endpointResponse);
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void testProjectionTrailingContent() throws Exception {
+        givenResponse("application/json", "{\"a\":1} {}".getBytes(StandardCharsets.UTF_8));
+        create(singletonList("/a")).transform(endpointResponse);
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void testProjectionTrailingSelectedContent() throws Exception {
+        givenResponse("application/json", "{} {\"a\":1}".getBytes(StandardCharsets.UTF_8));
+        create(singletonList("/a")).transform(endpointResponse);
+    }
+
+    private void givenResponse(String contentType, byte[] content) {
+        when(endpointResponse.getHeader("content-type")).thenReturn(contentType);
+        when(endpointResponse.getResponse()).thenReturn(content);
+        when(endpointResponse.getResponseLength()).thenReturn(content.length);
+    }
+}
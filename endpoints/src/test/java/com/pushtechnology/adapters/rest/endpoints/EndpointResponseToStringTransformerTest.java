@@ -17,6 +17,7 @@ package com.pushtechnology.adapters.rest.endpoints;
 
 import static com.pushtechnology.adapters.rest.endpoints.EndpointResponseToStringTransformer.INSTANCE;
 import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
@@ -45,6 +46,7 @@ public final class EndpointResponseToStringTransformerTest {
     public void setUp() {
         initMocks(this);
         when(endpointResponse.getContentType()).thenCallRealMethod();
+        when(endpointResponse.getResponseText(any())).thenCallRealMethod();
     }
 
     @Test
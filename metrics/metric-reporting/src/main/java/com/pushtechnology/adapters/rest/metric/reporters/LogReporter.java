@@ -69,9 +69,10 @@ public final class LogReporter implements MetricsReporter {
         loggingTask = executor.scheduleAtFixedRate(
             () -> {
                 LOG.info(
-                    "Poll requests {}, successes {}, failures {}, received bytes {}",
+                    "Poll requests {}, successes {}, not modified {}, failures {}, received bytes {}",
                     pollEventCounter.getRequests(),
                     pollEventCounter.getSuccesses(),
+                    pollEventCounter.getNotModified(),
                     pollEventCounter.getFailures(),
                     pollEventCounter.getTotalPollResponseBytes());
                 LOG.info(
@@ -80,14 +81,20 @@ public final class LogReporter implements MetricsReporter {
                     topicCreationEventCounter.getSuccesses(),
                     topicCreationEventCounter.getFailures());
                 LOG.info(
-                    "Update requests {}, successes {}, failures {}, " +
-                        "requested bytes {}, successful bytes {}, failed bytes {}",
+                    "Update requests {}, successes {}, failures {}, suppressed {}, conflated {}, " +
+                        "requested bytes {}, successful bytes {}, failed bytes {}, " +
+                        "deltas {}, delta bytes {}, full value bytes {}",
                     publicationEventCounter.getRequests(),
                     publicationEventCounter.getSuccesses(),
                     publicationEventCounter.getFailures(),
+                    publicationEventCounter.getSuppressed(),
+                    publicationEventCounter.getConflated(),
                     publicationEventCounter.getTotalRequestBytes(),
                     publicationEventCounter.getTotalSuccessBytes(),
-                    publicationEventCounter.getTotalFailedBytes());
+                    publicationEventCounter.getTotalFailedBytes(),
+                    publicationEventCounter.getDeltas(),
+                    publicationEventCounter.getTotalDeltaBytes(),
+                    publicationEventCounter.getTotalDeltaValueBytes());
             },
             1,
             1,
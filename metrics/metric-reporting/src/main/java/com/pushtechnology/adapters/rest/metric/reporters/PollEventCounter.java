@@ -15,9 +15,12 @@
 
 package com.pushtechnology.adapters.rest.metric.reporters;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
+import com.pushtechnology.adapters.rest.metrics.ConnectionPoolEvent;
 import com.pushtechnology.adapters.rest.metrics.PollFailedEvent;
+import com.pushtechnology.adapters.rest.metrics.PollNotModifiedEvent;
 import com.pushtechnology.adapters.rest.metrics.PollRequestEvent;
 import com.pushtechnology.adapters.rest.metrics.PollSuccessEvent;
 import com.pushtechnology.adapters.rest.metrics.event.listeners.PollEventListener;
@@ -29,6 +32,7 @@ import com.pushtechnology.adapters.rest.metrics.event.listeners.PollEventListene
  */
 public final class PollEventCounter extends AbstractEventCounter implements PollEventListener {
     private final AtomicLong responseBodyBytes = new AtomicLong();
+    private final AtomicInteger notModified = new AtomicInteger();
 
     @Override
     public void onPollRequest(PollRequestEvent event) {
@@ -41,15 +45,32 @@ public final class PollEventCounter extends AbstractEventCounter implements Poll
         responseBodyBytes.addAndGet(event.getResponseLength());
     }
 
+    @Override
+    public void onPollNotModified(PollNotModifiedEvent event) {
+        onSuccess();
+        notModified.incrementAndGet();
+    }
+
     @Override
     public void onPollFailed(PollFailedEvent event) {
         onFailure();
     }
 
+    @Override
+    public void onConnectionPool(ConnectionPoolEvent event) {
+    }
+
     /**
      * @return the total number of bytes in the response bodies received
      */
     public long getTotalPollResponseBytes() {
         return responseBodyBytes.get();
     }
+
+    /**
+     * @return the number of successful polls that found the resource unmodified
+     */
+    public int getNotModified() {
+        return notModified.get();
+    }
 }
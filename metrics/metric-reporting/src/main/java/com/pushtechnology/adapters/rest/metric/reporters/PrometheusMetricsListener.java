@@ -15,19 +15,27 @@
 
 package com.pushtechnology.adapters.rest.metric.reporters;
 
+import com.pushtechnology.adapters.rest.metrics.ConnectionPoolEvent;
 import com.pushtechnology.adapters.rest.metrics.PollFailedEvent;
+import com.pushtechnology.adapters.rest.metrics.PollNotModifiedEvent;
 import com.pushtechnology.adapters.rest.metrics.PollRequestEvent;
 import com.pushtechnology.adapters.rest.metrics.PollSuccessEvent;
+import com.pushtechnology.adapters.rest.metrics.PublicationConflatedEvent;
+import com.pushtechnology.adapters.rest.metrics.PublicationDeltaEvent;
 import com.pushtechnology.adapters.rest.metrics.PublicationFailedEvent;
 import com.pushtechnology.adapters.rest.metrics.PublicationRequestEvent;
 import com.pushtechnology.adapters.rest.metrics.PublicationSuccessEvent;
+import com.pushtechnology.adapters.rest.metrics.PublicationSuppressedEvent;
 import com.pushtechnology.adapters.rest.metrics.TopicCreationFailedEvent;
 import com.pushtechnology.adapters.rest.metrics.TopicCreationRequestEvent;
 import com.pushtechnology.adapters.rest.metrics.TopicCreationSuccessEvent;
+import com.pushtechnology.adapters.rest.metrics.event.listeners.CircuitBreakerState;
 import com.pushtechnology.adapters.rest.metrics.event.listeners.PollEventListener;
 import com.pushtechnology.adapters.rest.metrics.event.listeners.PublicationEventListener;
 import com.pushtechnology.adapters.rest.metrics.event.listeners.ServiceEventListener;
 import com.pushtechnology.adapters.rest.metrics.event.listeners.TopicCreationEventListener;
+import com.pushtechnology.adapters.rest.metrics.listeners.RecoveryListener;
+import com.pushtechnology.adapters.rest.metrics.listeners.ResponseCacheListener;
 import com.pushtechnology.adapters.rest.model.latest.EndpointConfig;
 import com.pushtechnology.adapters.rest.model.latest.ServiceConfig;
 
@@ -40,12 +48,23 @@ import io.prometheus.client.Gauge;
  * @author Push Technology Limited
  */
 public final class PrometheusMetricsListener
-        implements PollEventListener, PublicationEventListener, TopicCreationEventListener, ServiceEventListener {
+        implements
+            PollEventListener,
+            PublicationEventListener,
+            TopicCreationEventListener,
+            ServiceEventListener,
+            ResponseCacheListener,
+            RecoveryListener {
     private static final Counter POLL_REQUESTS = Counter
         .build()
         .name("poll_requests_total")
         .help("The number of successful poll requests.")
         .register();
+    private static final Counter POLL_NOT_MODIFIED = Counter
+        .build()
+        .name("poll_requests_not_modified_total")
+        .help("The number of successful poll requests that found the resource unmodified.")
+        .register();
     private static final Counter POLL_FAILURES = Counter
         .build()
         .name("poll_requests_failed_total")
@@ -62,6 +81,24 @@ public final class PrometheusMetricsListener
         .name("poll_requests_duration_milliseconds")
         .help("The milliseconds to receive a poll response.")
         .register();
+    private static final Gauge CONNECTIONS_LEASED = Gauge
+        .build()
+        .name("poll_connections_leased")
+        .labelNames("host")
+        .help("The number of connections to a host in use by poll requests.")
+        .register();
+    private static final Gauge CONNECTIONS_PENDING = Gauge
+        .build()
+        .name("poll_connections_pending")
+        .labelNames("host")
+        .help("The number of poll requests waiting for a connection to a host.")
+        .register();
+    private static final Gauge CONNECTIONS_AVAILABLE = Gauge
+        .build()
+        .name("poll_connections_available")
+        .labelNames("host")
+        .help("The number of idle connections to a host kept alive for poll requests.")
+        .register();
     private static final Counter PUBLICATION_REQUESTS = Counter
         .build()
         .name("updates_published_total")
@@ -78,6 +115,31 @@ public final class PrometheusMetricsListener
         .name("update_bytes_total")
         .help("The total bytes of updates published.")
         .register();
+    private static final Counter PUBLICATION_SUPPRESSED = Counter
+        .build()
+        .name("updates_suppressed_total")
+        .help("The number of topic updates suppressed because they duplicate the last update.")
+        .register();
+    private static final Counter PUBLICATION_CONFLATED = Counter
+        .build()
+        .name("updates_conflated_total")
+        .help("The number of topic updates superseded by a later update to the topic before they were sent.")
+        .register();
+    private static final Counter PUBLICATION_DELTAS = Counter
+        .build()
+        .name("update_deltas_total")
+        .help("The number of topic updates published as a difference from the last update.")
+        .register();
+    private static final Counter PUBLICATION_DELTA_BYTES = Counter
+        .build()
+        .name("update_delta_bytes_total")
+        .help("The total bytes of the deltas of topic updates published as a difference from the last update.")
+        .register();
+    private static final Counter PUBLICATION_DELTA_VALUE_BYTES = Counter
+        .build()
+        .name("update_delta_value_bytes_total")
+        .help("The total bytes of the values of topic updates published as a difference from the last update.")
+        .register();
     private static final Counter PUBLICATION_DURATION = Counter
         .build()
         .name("update_duration_milliseconds")
@@ -112,6 +174,77 @@ public final class PrometheusMetricsListener
         .labelNames("state")
         .help("The current number of endpoints.")
         .register();
+    private static final Counter POLLS_SKIPPED = Counter
+        .build()
+        .name("poll_requests_skipped_total")
+        .labelNames("service")
+        .help("The number of polls skipped because of the polls already in flight.")
+        .register();
+    private static final Counter POLLS_COALESCED = Counter
+        .build()
+        .name("poll_requests_coalesced_total")
+        .labelNames("service")
+        .help("The number of polls coalesced with the poll already in flight.")
+        .register();
+    private static final Gauge ENDPOINT_CIRCUIT_BREAKERS = Gauge
+        .build()
+        .name("endpoint_circuit_breaker_state")
+        .labelNames("service", "endpoint")
+        .help("The state of the circuit breaker of an endpoint. 0 is closed, 1 is half-open and 2 is open.")
+        .register();
+    private static final Gauge SERVICE_CIRCUIT_BREAKERS = Gauge
+        .build()
+        .name("service_circuit_breaker_state")
+        .labelNames("service")
+        .help("The state of the circuit breaker of the host of a service. 0 is closed, 1 is half-open and 2 is open.")
+        .register();
+    private static final Counter RESPONSE_CACHE_HITS = Counter
+        .build()
+        .name("response_cache_hits_total")
+        .labelNames("service")
+        .help("The number of polls served from the response cache.")
+        .register();
+    private static final Counter RESPONSE_CACHE_MISSES = Counter
+        .build()
+        .name("response_cache_misses_total")
+        .labelNames("service")
+        .help("The number of polls that could not be served from the response cache.")
+        .register();
+    private static final Counter RESPONSE_CACHE_EVICTIONS = Counter
+        .build()
+        .name("response_cache_evictions_total")
+        .help("The number of responses evicted from the response cache.")
+        .register();
+    private static final Counter RESPONSE_CACHE_EVICTED_BYTES = Counter
+        .build()
+        .name("response_cache_evicted_bytes_total")
+        .help("The number of bytes of responses evicted from the response cache.")
+        .register();
+    private static final Gauge RECOVERY_BUFFER_BYTES = Gauge
+        .build()
+        .name("recovery_buffer_bytes")
+        .help("The number of bytes of updates held while the session is recovering.")
+        .register();
+    private static final Counter RECOVERY_BUFFER_EVICTIONS = Counter
+        .build()
+        .name("recovery_buffer_evictions_total")
+        .help("The number of updates evicted from the recovery buffer.")
+        .register();
+    private static final Counter RECOVERY_REPLAYS = Counter
+        .build()
+        .name("recovery_replays_total")
+        .help("The number of times the updates held during recovery have been replayed.")
+        .register();
+    private static final Counter RECOVERY_REPLAYED_UPDATES = Counter
+        .build()
+        .name("recovery_replayed_updates_total")
+        .help("The number of updates held during recovery that have been replayed.")
+        .register();
+    private static final Counter RECOVERY_REPLAY_DURATION = Counter
+        .build()
+        .name("recovery_replay_duration_milliseconds")
+        .help("The milliseconds spent replaying the updates held during recovery.")
+        .register();
 
     @Override
     public void onPollRequest(PollRequestEvent event) {
@@ -124,11 +257,24 @@ public final class PrometheusMetricsListener
         POLL_DURATION.inc(event.getRequestTime());
     }
 
+    @Override
+    public void onPollNotModified(PollNotModifiedEvent event) {
+        POLL_NOT_MODIFIED.inc();
+        POLL_DURATION.inc(event.getRequestTime());
+    }
+
     @Override
     public void onPollFailed(PollFailedEvent event) {
         POLL_FAILURES.labels(event.getException().getMessage()).inc();
     }
 
+    @Override
+    public void onConnectionPool(ConnectionPoolEvent event) {
+        CONNECTIONS_LEASED.labels(event.getUri()).set(event.getLeased());
+        CONNECTIONS_PENDING.labels(event.getUri()).set(event.getPending());
+        CONNECTIONS_AVAILABLE.labels(event.getUri()).set(event.getAvailable());
+    }
+
     @Override
     public void onPublicationRequest(PublicationRequestEvent event) {
     }
@@ -145,6 +291,23 @@ public final class PrometheusMetricsListener
         PUBLICATION_FAILURES.labels(event.getErrorReason().getDescription()).inc();
     }
 
+    @Override
+    public void onPublicationSuppressed(PublicationSuppressedEvent event) {
+        PUBLICATION_SUPPRESSED.inc();
+    }
+
+    @Override
+    public void onPublicationDelta(PublicationDeltaEvent event) {
+        PUBLICATION_DELTAS.inc();
+        PUBLICATION_DELTA_BYTES.inc(event.getDeltaLength());
+        PUBLICATION_DELTA_VALUE_BYTES.inc(event.getValueLength());
+    }
+
+    @Override
+    public void onPublicationConflated(PublicationConflatedEvent event) {
+        PUBLICATION_CONFLATED.inc();
+    }
+
     @Override
     public void onTopicCreationRequest(TopicCreationRequestEvent event) {
     }
@@ -200,4 +363,60 @@ public final class PrometheusMetricsListener
             CURRENT_ENDPOINTS.labels("failed").dec();
         }
     }
+
+    @Override
+    public void onEndpointCircuitBreaker(
+            ServiceConfig serviceConfig,
+            EndpointConfig endpointConfig,
+            CircuitBreakerState state) {
+        ENDPOINT_CIRCUIT_BREAKERS.labels(serviceConfig.getName(), endpointConfig.getName()).set(state.ordinal());
+    }
+
+    @Override
+    public void onServiceCircuitBreaker(ServiceConfig serviceConfig, CircuitBreakerState state) {
+        SERVICE_CIRCUIT_BREAKERS.labels(serviceConfig.getName()).set(state.ordinal());
+    }
+
+    @Override
+    public void onPollSkipped(ServiceConfig serviceConfig, EndpointConfig endpointConfig) {
+        POLLS_SKIPPED.labels(serviceConfig.getName()).inc();
+    }
+
+    @Override
+    public void onPollCoalesced(ServiceConfig serviceConfig, EndpointConfig endpointConfig) {
+        POLLS_COALESCED.labels(serviceConfig.getName()).inc();
+    }
+
+    @Override
+    public void onResponseCacheHit(ServiceConfig serviceConfig, EndpointConfig endpointConfig) {
+        RESPONSE_CACHE_HITS.labels(serviceConfig.getName()).inc();
+    }
+
+    @Override
+    public void onResponseCacheMiss(ServiceConfig serviceConfig, EndpointConfig endpointConfig) {
+        RESPONSE_CACHE_MISSES.labels(serviceConfig.getName()).inc();
+    }
+
+    @Override
+    public void onResponseCacheEviction(int responseLength) {
+        RESPONSE_CACHE_EVICTIONS.inc();
+        RESPONSE_CACHE_EVICTED_BYTES.inc(responseLength);
+    }
+
+    @Override
+    public void onRecoveryBufferChange(long bufferedBytes) {
+        RECOVERY_BUFFER_BYTES.set(bufferedBytes);
+    }
+
+    @Override
+    public void onRecoveryBufferEviction(int length) {
+        RECOVERY_BUFFER_EVICTIONS.inc();
+    }
+
+    @Override
+    public void onRecoveryReplay(int updates, long duration) {
+        RECOVERY_REPLAYS.inc();
+        RECOVERY_REPLAYED_UPDATES.inc(updates);
+        RECOVERY_REPLAY_DURATION.inc(duration);
+    }
 }
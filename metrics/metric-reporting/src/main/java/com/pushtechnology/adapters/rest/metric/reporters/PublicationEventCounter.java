@@ -16,10 +16,14 @@
 package com.pushtechnology.adapters.rest.metric.reporters;
 
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+import com.pushtechnology.adapters.rest.metrics.PublicationConflatedEvent;
+import com.pushtechnology.adapters.rest.metrics.PublicationDeltaEvent;
 import com.pushtechnology.adapters.rest.metrics.PublicationFailedEvent;
 import com.pushtechnology.adapters.rest.metrics.PublicationRequestEvent;
 import com.pushtechnology.adapters.rest.metrics.PublicationSuccessEvent;
+import com.pushtechnology.adapters.rest.metrics.PublicationSuppressedEvent;
 import com.pushtechnology.adapters.rest.metrics.event.listeners.PublicationEventListener;
 
 /**
@@ -31,6 +35,11 @@ public final class PublicationEventCounter extends AbstractEventCounter implemen
     private final AtomicInteger requestBytes = new AtomicInteger();
     private final AtomicInteger successBytes = new AtomicInteger();
     private final AtomicInteger failedBytes = new AtomicInteger();
+    private final AtomicInteger suppressed = new AtomicInteger();
+    private final AtomicInteger deltas = new AtomicInteger();
+    private final AtomicLong deltaBytes = new AtomicLong();
+    private final AtomicLong deltaValueBytes = new AtomicLong();
+    private final AtomicInteger conflated = new AtomicInteger();
 
     @Override
     public void onPublicationRequest(PublicationRequestEvent event) {
@@ -50,6 +59,23 @@ public final class PublicationEventCounter extends AbstractEventCounter implemen
         failedBytes.addAndGet(event.getRequestEvent().getUpdateLength());
     }
 
+    @Override
+    public void onPublicationSuppressed(PublicationSuppressedEvent event) {
+        suppressed.incrementAndGet();
+    }
+
+    @Override
+    public void onPublicationDelta(PublicationDeltaEvent event) {
+        deltas.incrementAndGet();
+        deltaBytes.addAndGet(event.getDeltaLength());
+        deltaValueBytes.addAndGet(event.getValueLength());
+    }
+
+    @Override
+    public void onPublicationConflated(PublicationConflatedEvent event) {
+        conflated.incrementAndGet();
+    }
+
     /**
      * @return the requested publication bytes
      */
@@ -70,4 +96,39 @@ public final class PublicationEventCounter extends AbstractEventCounter implemen
     public int getTotalFailedBytes() {
         return failedBytes.get();
     }
+
+    /**
+     * @return the number of suppressed publications
+     */
+    public int getSuppressed() {
+        return suppressed.get();
+    }
+
+    /**
+     * @return the number of publications made as a difference from the last update
+     */
+    public int getDeltas() {
+        return deltas.get();
+    }
+
+    /**
+     * @return the bytes of the deltas published
+     */
+    public long getTotalDeltaBytes() {
+        return deltaBytes.get();
+    }
+
+    /**
+     * @return the bytes of the full values the deltas were published for
+     */
+    public long getTotalDeltaValueBytes() {
+        return deltaValueBytes.get();
+    }
+
+    /**
+     * @return the number of publications superseded before they were sent
+     */
+    public int getConflated() {
+        return conflated.get();
+    }
 }
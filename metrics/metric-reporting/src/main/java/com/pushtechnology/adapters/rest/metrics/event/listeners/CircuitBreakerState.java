@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.metrics.event.listeners;
+
+/**
+ * The state of a circuit breaker protecting a host or an endpoint.
+ *
+ * @author Push Technology Limited
+ */
+public enum CircuitBreakerState {
+    /**
+     * Requests are allowed.
+     */
+    CLOSED,
+    /**
+     * The backoff has expired and requests are allowed to probe the host or endpoint.
+     */
+    HALF_OPEN,
+    /**
+     * Requests are suppressed until the backoff has expired.
+     */
+    OPEN
+}
@@ -15,7 +15,9 @@
 
 package com.pushtechnology.adapters.rest.metrics.event.listeners;
 
+import com.pushtechnology.adapters.rest.metrics.ConnectionPoolEvent;
 import com.pushtechnology.adapters.rest.metrics.PollFailedEvent;
+import com.pushtechnology.adapters.rest.metrics.PollNotModifiedEvent;
 import com.pushtechnology.adapters.rest.metrics.PollRequestEvent;
 import com.pushtechnology.adapters.rest.metrics.PollSuccessEvent;
 import com.pushtechnology.adapters.rest.metrics.listeners.PollListener;
@@ -41,17 +43,29 @@ public final class PollEventDispatcher implements PollListener {
     @Override
     public PollCompletionListener onPollRequest(ServiceConfig serviceConfig, EndpointConfig endpointConfig) {
         final PollRequestEvent pollRequestEvent = PollRequestEvent.Factory.create(
-            (serviceConfig.isSecure() ? "https://" : "http://") +
-                serviceConfig.getHost() +
-                ":" +
-                serviceConfig.getPort() +
-                endpointConfig.getUrl());
+            getHostUri(serviceConfig) + endpointConfig.getUrl());
 
         pollEventListener.onPollRequest(pollRequestEvent);
 
         return new CompletionListener(pollRequestEvent, pollEventListener);
     }
 
+    @Override
+    public void onConnectionPool(ServiceConfig serviceConfig, int leased, int pending, int available) {
+        pollEventListener.onConnectionPool(ConnectionPoolEvent.Factory.create(
+            getHostUri(serviceConfig),
+            leased,
+            pending,
+            available));
+    }
+
+    private static String getHostUri(ServiceConfig serviceConfig) {
+        return (serviceConfig.isSecure() ? "https://" : "http://") +
+            serviceConfig.getHost() +
+            ":" +
+            serviceConfig.getPort();
+    }
+
     /**
      * Implementation of {@link PollListener.PollCompletionListener} that notifies a
      * {@link PollEventListener} of events.
@@ -73,6 +87,11 @@ public final class PollEventDispatcher implements PollListener {
                 response.getResponseLength()));
         }
 
+        @Override
+        public void onPollNotModified() {
+            pollEventListener.onPollNotModified(PollNotModifiedEvent.Factory.create(pollRequestEvent));
+        }
+
         @Override
         public void onPollFailure(Exception exception) {
             pollEventListener.onPollFailed(PollFailedEvent.Factory.create(pollRequestEvent, exception));
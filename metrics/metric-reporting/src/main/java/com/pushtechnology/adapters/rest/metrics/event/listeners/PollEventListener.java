@@ -15,7 +15,9 @@
 
 package com.pushtechnology.adapters.rest.metrics.event.listeners;
 
+import com.pushtechnology.adapters.rest.metrics.ConnectionPoolEvent;
 import com.pushtechnology.adapters.rest.metrics.PollFailedEvent;
+import com.pushtechnology.adapters.rest.metrics.PollNotModifiedEvent;
 import com.pushtechnology.adapters.rest.metrics.PollRequestEvent;
 import com.pushtechnology.adapters.rest.metrics.PollSuccessEvent;
 
@@ -39,10 +41,24 @@ public interface PollEventListener {
      */
     void onPollSuccess(PollSuccessEvent event);
 
+    /**
+     * Notified when a poll completes without the resource being modified.
+     *
+     * @param event the event
+     */
+    void onPollNotModified(PollNotModifiedEvent event);
+
     /**
      * Notified when a poll fails.
      *
      * @param event the event
      */
     void onPollFailed(PollFailedEvent event);
+
+    /**
+     * Notified of the state of the pool of connections to a host.
+     *
+     * @param event the event
+     */
+    void onConnectionPool(ConnectionPoolEvent event);
 }
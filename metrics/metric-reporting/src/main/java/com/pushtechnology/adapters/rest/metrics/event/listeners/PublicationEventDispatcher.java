@@ -15,9 +15,12 @@
 
 package com.pushtechnology.adapters.rest.metrics.event.listeners;
 
+import com.pushtechnology.adapters.rest.metrics.PublicationConflatedEvent;
+import com.pushtechnology.adapters.rest.metrics.PublicationDeltaEvent;
 import com.pushtechnology.adapters.rest.metrics.PublicationFailedEvent;
 import com.pushtechnology.adapters.rest.metrics.PublicationRequestEvent;
 import com.pushtechnology.adapters.rest.metrics.PublicationSuccessEvent;
+import com.pushtechnology.adapters.rest.metrics.PublicationSuppressedEvent;
 import com.pushtechnology.adapters.rest.metrics.listeners.PublicationListener;
 import com.pushtechnology.diffusion.client.callbacks.ErrorReason;
 
@@ -45,6 +48,17 @@ public final class PublicationEventDispatcher implements PublicationListener {
         return new CompletionListener(publicationRequestEvent, publicationEventListener);
     }
 
+    @Override
+    public void onPublicationSuppressed(String path, int responseLength) {
+        publicationEventListener.onPublicationSuppressed(PublicationSuppressedEvent.Factory.create(path, responseLength));
+    }
+
+    @Override
+    public void onPublicationDelta(String path, int deltaLength, int valueLength) {
+        publicationEventListener
+            .onPublicationDelta(PublicationDeltaEvent.Factory.create(path, deltaLength, valueLength));
+    }
+
     /**
      * Implementation of {@link PublicationCompletionListener} that notifies a
      * {@link PublicationEventListener} of events.
@@ -71,5 +85,11 @@ public final class PublicationEventDispatcher implements PublicationListener {
             publicationEventListener
                 .onPublicationFailed(PublicationFailedEvent.Factory.create(publicationRequestEvent, reason));
         }
+
+        @Override
+        public void onPublicationConflated() {
+            publicationEventListener
+                .onPublicationConflated(PublicationConflatedEvent.Factory.create(publicationRequestEvent));
+        }
     }
 }
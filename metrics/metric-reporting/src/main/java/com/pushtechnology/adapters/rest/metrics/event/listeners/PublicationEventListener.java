@@ -15,9 +15,12 @@
 
 package com.pushtechnology.adapters.rest.metrics.event.listeners;
 
+import com.pushtechnology.adapters.rest.metrics.PublicationConflatedEvent;
+import com.pushtechnology.adapters.rest.metrics.PublicationDeltaEvent;
 import com.pushtechnology.adapters.rest.metrics.PublicationFailedEvent;
 import com.pushtechnology.adapters.rest.metrics.PublicationRequestEvent;
 import com.pushtechnology.adapters.rest.metrics.PublicationSuccessEvent;
+import com.pushtechnology.adapters.rest.metrics.PublicationSuppressedEvent;
 
 /**
  * Listener for events about publication.
@@ -45,4 +48,25 @@ public interface PublicationEventListener {
      * @param event the event
      */
     void onPublicationFailed(PublicationFailedEvent event);
+
+    /**
+     * Notified when a publication is suppressed because it duplicates the last update.
+     *
+     * @param event the event
+     */
+    void onPublicationSuppressed(PublicationSuppressedEvent event);
+
+    /**
+     * Notified when a publication is made as a difference from the last update.
+     *
+     * @param event the event
+     */
+    void onPublicationDelta(PublicationDeltaEvent event);
+
+    /**
+     * Notified when a publication is superseded by a later publication to the same topic before it was sent.
+     *
+     * @param event the event
+     */
+    void onPublicationConflated(PublicationConflatedEvent event);
 }
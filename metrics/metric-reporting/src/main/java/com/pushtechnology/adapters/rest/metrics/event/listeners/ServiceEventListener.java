@@ -51,6 +51,25 @@ public interface ServiceEventListener {
         @Override
         public void onEndpointRemove(ServiceConfig serviceConfig, EndpointConfig endpointConfig, boolean wasActive) {
         }
+
+        @Override
+        public void onEndpointCircuitBreaker(
+                ServiceConfig serviceConfig,
+                EndpointConfig endpointConfig,
+                CircuitBreakerState state) {
+        }
+
+        @Override
+        public void onServiceCircuitBreaker(ServiceConfig serviceConfig, CircuitBreakerState state) {
+        }
+
+        @Override
+        public void onPollSkipped(ServiceConfig serviceConfig, EndpointConfig endpointConfig) {
+        }
+
+        @Override
+        public void onPollCoalesced(ServiceConfig serviceConfig, EndpointConfig endpointConfig) {
+        }
     };
 
     /**
@@ -82,4 +101,27 @@ public interface ServiceEventListener {
      * Notification that an endpoint was removed.
      */
     void onEndpointRemove(ServiceConfig serviceConfig, EndpointConfig endpointConfig, boolean wasActive);
+
+    /**
+     * Notification that the circuit breaker of an endpoint changed state.
+     */
+    void onEndpointCircuitBreaker(
+        ServiceConfig serviceConfig,
+        EndpointConfig endpointConfig,
+        CircuitBreakerState state);
+
+    /**
+     * Notification that the circuit breaker of the host of a service changed state.
+     */
+    void onServiceCircuitBreaker(ServiceConfig serviceConfig, CircuitBreakerState state);
+
+    /**
+     * Notification that a poll of an endpoint was skipped because of the polls already in flight.
+     */
+    void onPollSkipped(ServiceConfig serviceConfig, EndpointConfig endpointConfig);
+
+    /**
+     * Notification that a poll of an endpoint was coalesced with the poll of the endpoint already in flight.
+     */
+    void onPollCoalesced(ServiceConfig serviceConfig, EndpointConfig endpointConfig);
 }
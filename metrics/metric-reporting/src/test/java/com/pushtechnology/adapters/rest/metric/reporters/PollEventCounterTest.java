@@ -19,6 +19,7 @@ import static org.junit.Assert.assertEquals;
 
 import org.junit.Test;
 
+import com.pushtechnology.adapters.rest.metrics.PollNotModifiedEvent;
 import com.pushtechnology.adapters.rest.metrics.PollRequestEvent;
 import com.pushtechnology.adapters.rest.metrics.PollSuccessEvent;
 
@@ -53,6 +54,21 @@ public final class PollEventCounterTest {
         assertEquals(10, counter.getTotalPollResponseBytes());
     }
 
+    @Test
+    public void onNotModified() throws Exception {
+        final PollEventCounter counter = new PollEventCounter();
+
+        counter.onPollRequest(null);
+        counter.onPollNotModified(PollNotModifiedEvent.Factory.create(PollRequestEvent.Factory.create("")));
+
+        assertEquals(1, counter.getRequests());
+        assertEquals(1, counter.getSuccesses());
+        assertEquals(1, counter.getNotModified());
+        assertEquals(0, counter.getFailures());
+
+        assertEquals(0, counter.getTotalPollResponseBytes());
+    }
+
     @Test
     public void onFailure() throws Exception {
         final PollEventCounter counter = new PollEventCounter();
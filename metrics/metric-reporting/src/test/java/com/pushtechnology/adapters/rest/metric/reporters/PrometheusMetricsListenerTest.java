@@ -23,15 +23,21 @@ import java.util.Enumeration;
 
 import org.junit.Test;
 
+import com.pushtechnology.adapters.rest.metrics.ConnectionPoolEvent;
 import com.pushtechnology.adapters.rest.metrics.PollFailedEvent;
+import com.pushtechnology.adapters.rest.metrics.PollNotModifiedEvent;
 import com.pushtechnology.adapters.rest.metrics.PollRequestEvent;
 import com.pushtechnology.adapters.rest.metrics.PollSuccessEvent;
+import com.pushtechnology.adapters.rest.metrics.PublicationConflatedEvent;
+import com.pushtechnology.adapters.rest.metrics.PublicationDeltaEvent;
 import com.pushtechnology.adapters.rest.metrics.PublicationFailedEvent;
 import com.pushtechnology.adapters.rest.metrics.PublicationRequestEvent;
 import com.pushtechnology.adapters.rest.metrics.PublicationSuccessEvent;
+import com.pushtechnology.adapters.rest.metrics.PublicationSuppressedEvent;
 import com.pushtechnology.adapters.rest.metrics.TopicCreationFailedEvent;
 import com.pushtechnology.adapters.rest.metrics.TopicCreationRequestEvent;
 import com.pushtechnology.adapters.rest.metrics.TopicCreationSuccessEvent;
+import com.pushtechnology.adapters.rest.metrics.event.listeners.CircuitBreakerState;
 import com.pushtechnology.adapters.rest.model.latest.EndpointConfig;
 import com.pushtechnology.adapters.rest.model.latest.ServiceConfig;
 import com.pushtechnology.diffusion.client.callbacks.ErrorReason;
@@ -67,6 +73,17 @@ public final class PrometheusMetricsListenerTest {
         assertEquals(getCurrentValue("polled_bytes_total"), 5.0, 0.01);
     }
 
+    @Test
+    public void onPollNotModified() {
+        final PrometheusMetricsListener listener = new PrometheusMetricsListener();
+
+        assertEquals(getCurrentValue("poll_requests_not_modified_total"), 0.0, 0.01);
+
+        listener.onPollNotModified(PollNotModifiedEvent.Factory.create(PollRequestEvent.Factory.create("")));
+
+        assertEquals(getCurrentValue("poll_requests_not_modified_total"), 1.0, 0.01);
+    }
+
     @Test
     public void onPollFailed() {
         final PrometheusMetricsListener listener = new PrometheusMetricsListener();
@@ -78,6 +95,17 @@ public final class PrometheusMetricsListenerTest {
         assertEquals(getCurrentValue("poll_requests_failed_total", "exceptionMessage", "test"), 1.0, 0.01);
     }
 
+    @Test
+    public void onConnectionPool() {
+        final PrometheusMetricsListener listener = new PrometheusMetricsListener();
+
+        listener.onConnectionPool(ConnectionPoolEvent.Factory.create("http://localhost:8080", 2, 1, 0));
+
+        assertEquals(getCurrentValue("poll_connections_leased", "host", "http://localhost:8080"), 2.0, 0.01);
+        assertEquals(getCurrentValue("poll_connections_pending", "host", "http://localhost:8080"), 1.0, 0.01);
+        assertEquals(getCurrentValue("poll_connections_available", "host", "http://localhost:8080"), 0.0, 0.01);
+    }
+
     @Test
     public void onPublicationRequest() {
         final PrometheusMetricsListener listener = new PrometheusMetricsListener();
@@ -113,6 +141,44 @@ public final class PrometheusMetricsListenerTest {
         assertEquals(getCurrentValue("updates_failed_total", "errorReason", "Access denied"), 1.0, 0.01);
     }
 
+    @Test
+    public void onPublicationSuppressed() {
+        final PrometheusMetricsListener listener = new PrometheusMetricsListener();
+
+        assertEquals(getCurrentValue("updates_suppressed_total"), 0.0, 0.01);
+
+        listener.onPublicationSuppressed(PublicationSuppressedEvent.Factory.create("", 10));
+
+        assertEquals(getCurrentValue("updates_suppressed_total"), 1.0, 0.01);
+    }
+
+    @Test
+    public void onPublicationConflated() {
+        final PrometheusMetricsListener listener = new PrometheusMetricsListener();
+
+        assertEquals(getCurrentValue("updates_conflated_total"), 0.0, 0.01);
+
+        listener.onPublicationConflated(
+            PublicationConflatedEvent.Factory.create(PublicationRequestEvent.Factory.create("", 10)));
+
+        assertEquals(getCurrentValue("updates_conflated_total"), 1.0, 0.01);
+    }
+
+    @Test
+    public void onPublicationDelta() {
+        final PrometheusMetricsListener listener = new PrometheusMetricsListener();
+
+        assertEquals(getCurrentValue("update_deltas_total"), 0.0, 0.01);
+        assertEquals(getCurrentValue("update_delta_bytes_total"), 0.0, 0.01);
+        assertEquals(getCurrentValue("update_delta_value_bytes_total"), 0.0, 0.01);
+
+        listener.onPublicationDelta(PublicationDeltaEvent.Factory.create("", 10, 100));
+
+        assertEquals(getCurrentValue("update_deltas_total"), 1.0, 0.01);
+        assertEquals(getCurrentValue("update_delta_bytes_total"), 10.0, 0.01);
+        assertEquals(getCurrentValue("update_delta_value_bytes_total"), 100.0, 0.01);
+    }
+
     @Test
     public void onTopicCreationRequest() {
         final PrometheusMetricsListener listener = new PrometheusMetricsListener();
@@ -246,6 +312,133 @@ public final class PrometheusMetricsListenerTest {
         assertEquals(0.0, getCurrentValue("endpoints_current", "state", "active"), 0.01);
     }
 
+    @Test
+    public void onCircuitBreakerEvents() {
+        final PrometheusMetricsListener listener = new PrometheusMetricsListener();
+
+        final EndpointConfig endpointConfig = EndpointConfig
+            .builder()
+            .name("endpoint-0")
+            .topicPath("topic")
+            .url("http://localhost/json")
+            .produces("json")
+            .build();
+
+        final ServiceConfig serviceConfig = ServiceConfig
+            .builder()
+            .name("service")
+            .host("localhost")
+            .port(8080)
+            .pollPeriod(60000)
+            .endpoints(singletonList(endpointConfig))
+            .topicPathRoot("a")
+            .build();
+
+        listener.onEndpointCircuitBreaker(serviceConfig, endpointConfig, CircuitBreakerState.OPEN);
+        assertEquals(2.0, CollectorRegistry.defaultRegistry.getSampleValue(
+            "endpoint_circuit_breaker_state",
+            new String[]{"service", "endpoint"},
+            new String[]{"service", "endpoint-0"}), 0.01);
+
+        listener.onEndpointCircuitBreaker(serviceConfig, endpointConfig, CircuitBreakerState.CLOSED);
+        assertEquals(0.0, CollectorRegistry.defaultRegistry.getSampleValue(
+            "endpoint_circuit_breaker_state",
+            new String[]{"service", "endpoint"},
+            new String[]{"service", "endpoint-0"}), 0.01);
+
+        listener.onServiceCircuitBreaker(serviceConfig, CircuitBreakerState.HALF_OPEN);
+        assertEquals(1.0, getCurrentValue("service_circuit_breaker_state", "service", "service"), 0.01);
+    }
+
+    @Test
+    public void onPollSkippedCoalesced() {
+        final PrometheusMetricsListener listener = new PrometheusMetricsListener();
+
+        final EndpointConfig endpointConfig = EndpointConfig
+            .builder()
+            .name("endpoint-0")
+            .topicPath("topic")
+            .url("http://localhost/json")
+            .produces("json")
+            .build();
+
+        final ServiceConfig serviceConfig = ServiceConfig
+            .builder()
+            .name("in-flight-service")
+            .host("localhost")
+            .port(8080)
+            .pollPeriod(60000)
+            .endpoints(singletonList(endpointConfig))
+            .topicPathRoot("a")
+            .build();
+
+        listener.onPollSkipped(serviceConfig, endpointConfig);
+        listener.onPollCoalesced(serviceConfig, endpointConfig);
+        listener.onPollCoalesced(serviceConfig, endpointConfig);
+
+        assertEquals(1.0, getCurrentValue("poll_requests_skipped_total", "service", "in-flight-service"), 0.01);
+        assertEquals(2.0, getCurrentValue("poll_requests_coalesced_total", "service", "in-flight-service"), 0.01);
+    }
+
+    @Test
+    public void onResponseCache() {
+        final PrometheusMetricsListener listener = new PrometheusMetricsListener();
+
+        final EndpointConfig endpointConfig = EndpointConfig
+            .builder()
+            .name("endpoint-0")
+            .topicPath("topic")
+            .url("http://localhost/json")
+            .produces("json")
+            .build();
+
+        final ServiceConfig serviceConfig = ServiceConfig
+            .builder()
+            .name("cached-service")
+            .host("localhost")
+            .endpoints(singletonList(endpointConfig))
+            .topicPathRoot("a")
+            .build();
+
+        final double evictions = getCurrentValue("response_cache_evictions_total");
+        final double evictedBytes = getCurrentValue("response_cache_evicted_bytes_total");
+
+        listener.onResponseCacheMiss(serviceConfig, endpointConfig);
+        listener.onResponseCacheHit(serviceConfig, endpointConfig);
+        listener.onResponseCacheHit(serviceConfig, endpointConfig);
+        listener.onResponseCacheEviction(100);
+
+        assertEquals(2.0, getCurrentValue("response_cache_hits_total", "service", "cached-service"), 0.01);
+        assertEquals(1.0, getCurrentValue("response_cache_misses_total", "service", "cached-service"), 0.01);
+        assertEquals(evictions + 1.0, getCurrentValue("response_cache_evictions_total"), 0.01);
+        assertEquals(evictedBytes + 100.0, getCurrentValue("response_cache_evicted_bytes_total"), 0.01);
+    }
+
+    @Test
+    public void onRecovery() {
+        final PrometheusMetricsListener listener = new PrometheusMetricsListener();
+
+        final double evictions = getCurrentValue("recovery_buffer_evictions_total");
+        final double replays = getCurrentValue("recovery_replays_total");
+        final double replayedUpdates = getCurrentValue("recovery_replayed_updates_total");
+        final double replayDuration = getCurrentValue("recovery_replay_duration_milliseconds_total");
+
+        listener.onRecoveryBufferChange(300L);
+        listener.onRecoveryBufferEviction(100);
+        listener.onRecoveryBufferChange(200L);
+
+        assertEquals(200.0, getCurrentValue("recovery_buffer_bytes"), 0.01);
+        assertEquals(evictions + 1.0, getCurrentValue("recovery_buffer_evictions_total"), 0.01);
+
+        listener.onRecoveryReplay(5, 250L);
+        listener.onRecoveryBufferChange(0L);
+
+        assertEquals(0.0, getCurrentValue("recovery_buffer_bytes"), 0.01);
+        assertEquals(replays + 1.0, getCurrentValue("recovery_replays_total"), 0.01);
+        assertEquals(replayedUpdates + 5.0, getCurrentValue("recovery_replayed_updates_total"), 0.01);
+        assertEquals(replayDuration + 250.0, getCurrentValue("recovery_replay_duration_milliseconds_total"), 0.01);
+    }
+
     private static double getCurrentValue(String name) {
         return CollectorRegistry.defaultRegistry.getSampleValue(name);
     }
@@ -20,9 +20,12 @@ import static org.junit.Assert.assertEquals;
 
 import org.junit.Test;
 
+import com.pushtechnology.adapters.rest.metrics.PublicationConflatedEvent;
+import com.pushtechnology.adapters.rest.metrics.PublicationDeltaEvent;
 import com.pushtechnology.adapters.rest.metrics.PublicationFailedEvent;
 import com.pushtechnology.adapters.rest.metrics.PublicationRequestEvent;
 import com.pushtechnology.adapters.rest.metrics.PublicationSuccessEvent;
+import com.pushtechnology.adapters.rest.metrics.PublicationSuppressedEvent;
 
 /**
  * Unit tests for {@link PublicationEventCounter}.
@@ -79,4 +82,41 @@ public final class PublicationEventCounterTest {
         assertEquals(0, counter.getTotalSuccessBytes());
         assertEquals(5, counter.getTotalFailedBytes());
     }
+
+    @Test
+    public void onSuppressed() throws Exception {
+        final PublicationEventCounter counter = new PublicationEventCounter();
+
+        counter.onPublicationSuppressed(PublicationSuppressedEvent.Factory.create("", 5));
+
+        assertEquals(0, counter.getRequests());
+        assertEquals(1, counter.getSuppressed());
+        assertEquals(0, counter.getTotalRequestBytes());
+    }
+
+    @Test
+    public void onConflated() throws Exception {
+        final PublicationEventCounter counter = new PublicationEventCounter();
+
+        final PublicationRequestEvent requestEvent = PublicationRequestEvent.Factory.create("", 5);
+        counter.onPublicationRequest(requestEvent);
+        counter.onPublicationConflated(PublicationConflatedEvent.Factory.create(requestEvent));
+
+        assertEquals(1, counter.getRequests());
+        assertEquals(0, counter.getSuccesses());
+        assertEquals(0, counter.getFailures());
+        assertEquals(1, counter.getConflated());
+    }
+
+    @Test
+    public void onDelta() throws Exception {
+        final PublicationEventCounter counter = new PublicationEventCounter();
+
+        counter.onPublicationDelta(PublicationDeltaEvent.Factory.create("", 5, 50));
+
+        assertEquals(0, counter.getRequests());
+        assertEquals(1, counter.getDeltas());
+        assertEquals(5, counter.getTotalDeltaBytes());
+        assertEquals(50, counter.getTotalDeltaValueBytes());
+    }
 }
@@ -31,7 +31,9 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 
+import com.pushtechnology.adapters.rest.metrics.ConnectionPoolEvent;
 import com.pushtechnology.adapters.rest.metrics.PollFailedEvent;
+import com.pushtechnology.adapters.rest.metrics.PollNotModifiedEvent;
 import com.pushtechnology.adapters.rest.metrics.PollRequestEvent;
 import com.pushtechnology.adapters.rest.metrics.PollSuccessEvent;
 import com.pushtechnology.adapters.rest.model.latest.EndpointConfig;
@@ -53,7 +55,11 @@ public final class PollEventDispatcherTest {
     @Captor
     private ArgumentCaptor<PollSuccessEvent> successCaptor;
     @Captor
+    private ArgumentCaptor<PollNotModifiedEvent> notModifiedCaptor;
+    @Captor
     private ArgumentCaptor<PollFailedEvent> failedCaptor;
+    @Captor
+    private ArgumentCaptor<ConnectionPoolEvent> connectionPoolCaptor;
 
     @Rule
     public MockitoRule mockitoRule = MockitoJUnit.rule();
@@ -111,6 +117,18 @@ public final class PollEventDispatcherTest {
         assertEquals(10, value.getResponseLength());
     }
 
+    @Test
+    public void onPollNotModified() throws Exception {
+        final PollEventDispatcher dispatcher = new PollEventDispatcher(pollEventListener);
+
+        dispatcher.onPollRequest(serviceConfig, endpointConfig).onPollNotModified();
+
+        verify(pollEventListener).onPollRequest(requestCaptor.capture());
+        verify(pollEventListener).onPollNotModified(notModifiedCaptor.capture());
+        final PollNotModifiedEvent value = notModifiedCaptor.getValue();
+        assertEquals(requestCaptor.getValue(), value.getRequestEvent());
+    }
+
     @Test
     public void onPollFailure() throws Exception {
         final PollEventDispatcher dispatcher = new PollEventDispatcher(pollEventListener);
@@ -123,4 +141,18 @@ public final class PollEventDispatcherTest {
         final PollFailedEvent value = failedCaptor.getValue();
         assertEquals(exception, value.getException());
     }
+
+    @Test
+    public void onConnectionPool() throws Exception {
+        final PollEventDispatcher dispatcher = new PollEventDispatcher(pollEventListener);
+
+        dispatcher.onConnectionPool(serviceConfig, 2, 1, 0);
+
+        verify(pollEventListener).onConnectionPool(connectionPoolCaptor.capture());
+        final ConnectionPoolEvent value = connectionPoolCaptor.getValue();
+        assertEquals("https://localhost:443", value.getUri());
+        assertEquals(2, value.getLeased());
+        assertEquals(1, value.getPending());
+        assertEquals(0, value.getAvailable());
+    }
 }
@@ -16,6 +16,7 @@
 package com.pushtechnology.adapters.rest.metrics.event.listeners;
 
 import static com.pushtechnology.diffusion.client.callbacks.ErrorReason.ACCESS_DENIED;
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
@@ -28,9 +29,12 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 
+import com.pushtechnology.adapters.rest.metrics.PublicationConflatedEvent;
+import com.pushtechnology.adapters.rest.metrics.PublicationDeltaEvent;
 import com.pushtechnology.adapters.rest.metrics.PublicationFailedEvent;
 import com.pushtechnology.adapters.rest.metrics.PublicationRequestEvent;
 import com.pushtechnology.adapters.rest.metrics.PublicationSuccessEvent;
+import com.pushtechnology.adapters.rest.metrics.PublicationSuppressedEvent;
 
 /**
  * Unit tests for {@link PublicationEventDispatcher}.
@@ -46,6 +50,12 @@ public final class PublicationEventDispatcherTest {
     private ArgumentCaptor<PublicationSuccessEvent> successCaptor;
     @Captor
     private ArgumentCaptor<PublicationFailedEvent> failedCaptor;
+    @Captor
+    private ArgumentCaptor<PublicationSuppressedEvent> suppressedCaptor;
+    @Captor
+    private ArgumentCaptor<PublicationDeltaEvent> deltaCaptor;
+    @Captor
+    private ArgumentCaptor<PublicationConflatedEvent> conflatedCaptor;
 
     @Rule
     public MockitoRule mockitoRule = MockitoJUnit.rule();
@@ -87,4 +97,40 @@ public final class PublicationEventDispatcherTest {
         verify(publicationEventListener).onPublicationRequest(requestCaptor.capture());
         verify(publicationEventListener).onPublicationFailed(failedCaptor.capture());
     }
+
+    @Test
+    public void onPublicationConflated() throws Exception {
+        final PublicationEventDispatcher dispatcher = new PublicationEventDispatcher(publicationEventListener);
+
+        dispatcher.onPublicationRequest("service/endpoint", 10).onPublicationConflated();
+
+        verify(publicationEventListener).onPublicationRequest(requestCaptor.capture());
+        verify(publicationEventListener).onPublicationConflated(conflatedCaptor.capture());
+        assertEquals(requestCaptor.getValue(), conflatedCaptor.getValue().getRequestEvent());
+    }
+
+    @Test
+    public void onPublicationSuppressed() throws Exception {
+        final PublicationEventDispatcher dispatcher = new PublicationEventDispatcher(publicationEventListener);
+
+        dispatcher.onPublicationSuppressed("service/endpoint", 10);
+
+        verify(publicationEventListener).onPublicationSuppressed(suppressedCaptor.capture());
+        final PublicationSuppressedEvent event = suppressedCaptor.getValue();
+        assertEquals("service/endpoint", event.getPath());
+        assertEquals(10, event.getResponseLength());
+    }
+
+    @Test
+    public void onPublicationDelta() throws Exception {
+        final PublicationEventDispatcher dispatcher = new PublicationEventDispatcher(publicationEventListener);
+
+        dispatcher.onPublicationDelta("service/endpoint", 10, 100);
+
+        verify(publicationEventListener).onPublicationDelta(deltaCaptor.capture());
+        final PublicationDeltaEvent event = deltaCaptor.getValue();
+        assertEquals("service/endpoint", event.getPath());
+        assertEquals(10, event.getDeltaLength());
+        assertEquals(100, event.getValueLength());
+    }
 }
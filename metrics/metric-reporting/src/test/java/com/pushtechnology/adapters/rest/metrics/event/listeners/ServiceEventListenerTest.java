@@ -56,4 +56,24 @@ public final class ServiceEventListenerTest {
     public void onEndpointRemove() {
         ServiceEventListener.NULL_LISTENER.onEndpointRemove(null, null, false);
     }
+
+    @Test
+    public void onEndpointCircuitBreaker() {
+        ServiceEventListener.NULL_LISTENER.onEndpointCircuitBreaker(null, null, CircuitBreakerState.OPEN);
+    }
+
+    @Test
+    public void onServiceCircuitBreaker() {
+        ServiceEventListener.NULL_LISTENER.onServiceCircuitBreaker(null, CircuitBreakerState.OPEN);
+    }
+
+    @Test
+    public void onPollSkipped() {
+        ServiceEventListener.NULL_LISTENER.onPollSkipped(null, null);
+    }
+
+    @Test
+    public void onPollCoalesced() {
+        ServiceEventListener.NULL_LISTENER.onPollCoalesced(null, null);
+    }
 }
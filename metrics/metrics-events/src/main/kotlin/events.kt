@@ -296,6 +296,50 @@ private data class PollSuccessEventImpl(
         get() = successTimestamp - requestEvent.requestTimestamp
 }
 
+/**
+ * Event describing a poll request answered with 304 Not Modified.
+ *
+ * @author Push Technology Limited
+ */
+interface PollNotModifiedEvent : SuccessEvent {
+    /**
+     * @return the poll request event
+     */
+    val requestEvent: PollRequestEvent
+
+    /**
+     * Factory for {@link PollNotModifiedEvent}.
+     */
+    companion object Factory {
+        /**
+         * @return a new instance of {@link PollNotModifiedEvent}
+         */
+        fun create(requestEvent: PollRequestEvent): PollNotModifiedEvent {
+            return PollNotModifiedEventImpl(requestEvent, System.currentTimeMillis())
+        }
+
+        /**
+         * @return a new instance of {@link PollNotModifiedEvent}
+         */
+        fun create(requestEvent: PollRequestEvent, timestamp: Long): PollNotModifiedEvent {
+            return PollNotModifiedEventImpl(requestEvent, timestamp)
+        }
+    }
+}
+
+/**
+ * Event describing a poll request answered with 304 Not Modified.
+ *
+ * @author Push Technology Limited
+ */
+private data class PollNotModifiedEventImpl(
+        override val requestEvent: PollRequestEvent,
+        override val successTimestamp: Long) : PollNotModifiedEvent {
+
+    override val requestTime: Long
+        get() = successTimestamp - requestEvent.requestTimestamp
+}
+
 /**
  * Event describing a failed poll.
  *
@@ -345,6 +389,65 @@ private data class PollFailedEventImpl(
         get() = failedTimestamp - requestEvent.requestTimestamp
 }
 
+/**
+ * Event describing the state of the pool of connections to a host.
+ *
+ * @author Push Technology Limited
+ */
+interface ConnectionPoolEvent {
+    /**
+     * @return the URI of the host
+     */
+    val uri: String
+    /**
+     * @return the number of connections leased from the pool
+     */
+    val leased: Int
+    /**
+     * @return the number of requests waiting for a connection
+     */
+    val pending: Int
+    /**
+     * @return the number of idle connections in the pool
+     */
+    val available: Int
+    /**
+     * @return the timestamp the state was sampled
+     */
+    val timestamp: Long
+
+    /**
+     * Factory for {@link ConnectionPoolEvent}.
+     */
+    companion object Factory {
+        /**
+         * @return a new instance of {@link ConnectionPoolEvent}
+         */
+        fun create(uri: String, leased: Int, pending: Int, available: Int): ConnectionPoolEvent {
+            return ConnectionPoolEventImpl(uri, leased, pending, available, System.currentTimeMillis())
+        }
+
+        /**
+         * @return a new instance of {@link ConnectionPoolEvent}
+         */
+        fun create(uri: String, leased: Int, pending: Int, available: Int, timestamp: Long): ConnectionPoolEvent {
+            return ConnectionPoolEventImpl(uri, leased, pending, available, timestamp)
+        }
+    }
+}
+
+/**
+ * Implementation of {@link ConnectionPoolEvent}.
+ *
+ * @author Push Technology Limited
+ */
+private data class ConnectionPoolEventImpl(
+        override val uri: String,
+        override val leased: Int,
+        override val pending: Int,
+        override val available: Int,
+        override val timestamp: Long) : ConnectionPoolEvent
+
 /**
  * Event describing a publication request.
  *
@@ -491,3 +594,150 @@ private data class PublicationFailedEventImpl(
     override val requestTime: Long
         get() = failedTimestamp - requestEvent.requestTimestamp
 }
+
+/**
+ * Event describing a publication suppressed because it duplicates the last update.
+ *
+ * @author Push Technology Limited
+ */
+interface PublicationSuppressedEvent {
+    /**
+     * @return the topic path
+     */
+    val path: String
+    /**
+     * @return the length of the response the update would have been produced from
+     */
+    val responseLength: Int
+    /**
+     * @return the suppression timestamp
+     */
+    val suppressedTimestamp: Long
+
+    /**
+     * Factory for {@link PublicationSuppressedEvent}.
+     */
+    companion object Factory {
+        /**
+         * @return a new instance of {@link PublicationSuppressedEvent}
+         */
+        fun create(path: String, responseLength: Int): PublicationSuppressedEvent {
+            return PublicationSuppressedEventImpl(path, responseLength, System.currentTimeMillis())
+        }
+
+        /**
+         * @return a new instance of {@link PublicationSuppressedEvent}
+         */
+        fun create(path: String, responseLength: Int, timestamp: Long): PublicationSuppressedEvent {
+            return PublicationSuppressedEventImpl(path, responseLength, timestamp)
+        }
+    }
+}
+
+/**
+ * Event describing a suppressed publication.
+ *
+ * @author Push Technology Limited
+ */
+private data class PublicationSuppressedEventImpl(
+        override val path: String,
+        override val responseLength: Int,
+        override val suppressedTimestamp: Long) : PublicationSuppressedEvent
+
+/**
+ * Event describing a publication of the difference from the last update.
+ *
+ * @author Push Technology Limited
+ */
+interface PublicationDeltaEvent {
+    /**
+     * @return the topic path
+     */
+    val path: String
+    /**
+     * @return the length of the binary delta from the last update
+     */
+    val deltaLength: Int
+    /**
+     * @return the length of the full value
+     */
+    val valueLength: Int
+    /**
+     * @return the delta timestamp
+     */
+    val deltaTimestamp: Long
+
+    /**
+     * Factory for {@link PublicationDeltaEvent}.
+     */
+    companion object Factory {
+        /**
+         * @return a new instance of {@link PublicationDeltaEvent}
+         */
+        fun create(path: String, deltaLength: Int, valueLength: Int): PublicationDeltaEvent {
+            return PublicationDeltaEventImpl(path, deltaLength, valueLength, System.currentTimeMillis())
+        }
+
+        /**
+         * @return a new instance of {@link PublicationDeltaEvent}
+         */
+        fun create(path: String, deltaLength: Int, valueLength: Int, timestamp: Long): PublicationDeltaEvent {
+            return PublicationDeltaEventImpl(path, deltaLength, valueLength, timestamp)
+        }
+    }
+}
+
+/**
+ * Event describing a publication of the difference from the last update.
+ *
+ * @author Push Technology Limited
+ */
+private data class PublicationDeltaEventImpl(
+        override val path: String,
+        override val deltaLength: Int,
+        override val valueLength: Int,
+        override val deltaTimestamp: Long) : PublicationDeltaEvent
+
+/**
+ * Event describing a publication superseded by a later publication to the same topic before it was sent.
+ *
+ * @author Push Technology Limited
+ */
+interface PublicationConflatedEvent {
+    /**
+     * @return the publication request event
+     */
+    val requestEvent: PublicationRequestEvent
+    /**
+     * @return the conflation timestamp
+     */
+    val conflatedTimestamp: Long
+
+    /**
+     * Factory for {@link PublicationConflatedEvent}.
+     */
+    companion object Factory {
+        /**
+         * @return a new instance of {@link PublicationConflatedEvent}
+         */
+        fun create(requestEvent: PublicationRequestEvent): PublicationConflatedEvent {
+            return PublicationConflatedEventImpl(requestEvent, System.currentTimeMillis())
+        }
+
+        /**
+         * @return a new instance of {@link PublicationConflatedEvent}
+         */
+        fun create(requestEvent: PublicationRequestEvent, timestamp: Long): PublicationConflatedEvent {
+            return PublicationConflatedEventImpl(requestEvent, timestamp)
+        }
+    }
+}
+
+/**
+ * Event describing a conflated publication.
+ *
+ * @author Push Technology Limited
+ */
+private data class PublicationConflatedEventImpl(
+        override val requestEvent: PublicationRequestEvent,
+        override val conflatedTimestamp: Long) : PublicationConflatedEvent
@@ -34,6 +34,17 @@ public interface PollListener {
      */
     PollCompletionListener onPollRequest(ServiceConfig serviceConfig, EndpointConfig endpointConfig);
 
+    /**
+     * Notified periodically of the state of the pool of connections to the host of a service. Services that share a
+     * host share the connections, the state is reported once for one of them.
+     *
+     * @param serviceConfig a service of the host
+     * @param leased the number of connections leased from the pool
+     * @param pending the number of requests waiting for a connection
+     * @param available the number of idle connections in the pool
+     */
+    void onConnectionPool(ServiceConfig serviceConfig, int leased, int pending, int available);
+
     /**
      * Listener for the completion of a poll request.
      */
@@ -45,6 +56,11 @@ public interface PollListener {
          */
         void onPollResponse(EndpointResponse response);
 
+        /**
+         * Notified when an endpoint reports that it has not been modified since the last response.
+         */
+        void onPollNotModified();
+
         /**
          * Notified when an attempt to poll an endpoint fails.
          *
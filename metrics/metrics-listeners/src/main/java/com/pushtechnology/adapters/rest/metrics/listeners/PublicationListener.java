@@ -32,6 +32,23 @@ public interface PublicationListener {
      */
     PublicationCompletionListener onPublicationRequest(String path, int size);
 
+    /**
+     * Notified when an update to a Diffusion topic is suppressed because it duplicates the last update.
+     *
+     * @param path the path that would have been updated
+     * @param responseLength the length of the response the update would have been produced from
+     */
+    void onPublicationSuppressed(String path, int responseLength);
+
+    /**
+     * Notified when an update to a Diffusion topic is published as a difference from the last update.
+     *
+     * @param path the path being updated
+     * @param deltaLength the length of the binary delta from the last update
+     * @param valueLength the length of the full value
+     */
+    void onPublicationDelta(String path, int deltaLength, int valueLength);
+
     /**
      * Listener for the completion of a publication request.
      */
@@ -47,5 +64,11 @@ public interface PublicationListener {
          * @param reason the cause of failure
          */
         void onPublicationFailed(ErrorReason reason);
+
+        /**
+         * Notified when a value is not published to a Diffusion topic because a later value for the topic superseded
+         * it before it was sent.
+         */
+        void onPublicationConflated();
     }
 }
@@ -0,0 +1,45 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.metrics.listeners;
+
+/**
+ * Listener for events of the buffer of updates published while the session is recovering.
+ *
+ * @author Push Technology Limited
+ */
+public interface RecoveryListener {
+    /**
+     * Notified when the number of bytes held by the recovery buffer changes.
+     *
+     * @param bufferedBytes the number of bytes held
+     */
+    void onRecoveryBufferChange(long bufferedBytes);
+
+    /**
+     * Notified when an update is evicted from the recovery buffer to make room for another update.
+     *
+     * @param length the length of the evicted update
+     */
+    void onRecoveryBufferEviction(int length);
+
+    /**
+     * Notified when the updates held by the recovery buffer have been replayed after the session reconnected.
+     *
+     * @param updates the number of updates replayed
+     * @param duration the time taken to replay the updates in milliseconds
+     */
+    void onRecoveryReplay(int updates, long duration);
+}
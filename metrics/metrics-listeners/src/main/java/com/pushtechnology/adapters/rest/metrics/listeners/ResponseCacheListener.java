@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.metrics.listeners;
+
+import com.pushtechnology.adapters.rest.model.latest.EndpointConfig;
+import com.pushtechnology.adapters.rest.model.latest.ServiceConfig;
+
+/**
+ * Listener for response cache events.
+ *
+ * @author Push Technology Limited
+ */
+public interface ResponseCacheListener {
+    /**
+     * Notified when a poll of an endpoint is served from the response cache.
+     *
+     * @param serviceConfig the service
+     * @param endpointConfig the endpoint
+     */
+    void onResponseCacheHit(ServiceConfig serviceConfig, EndpointConfig endpointConfig);
+
+    /**
+     * Notified when a poll of an endpoint cannot be served from the response cache.
+     *
+     * @param serviceConfig the service
+     * @param endpointConfig the endpoint
+     */
+    void onResponseCacheMiss(ServiceConfig serviceConfig, EndpointConfig endpointConfig);
+
+    /**
+     * Notified when a response is evicted from the response cache to make room for another response.
+     *
+     * @param responseLength the length of the evicted response
+     */
+    void onResponseCacheEviction(int responseLength);
+}
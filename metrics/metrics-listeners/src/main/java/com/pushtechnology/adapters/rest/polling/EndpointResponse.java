@@ -15,6 +15,11 @@
 
 package com.pushtechnology.adapters.rest.polling;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
 /**
  * Response to a request to an endpoint.
  * @author Push Technology Limited
@@ -26,15 +31,37 @@ public interface EndpointResponse {
     int getStatusCode();
 
     /**
-     * @return an HTTP response header value
+     * @return an HTTP response header value or null if the header is not present
      */
     String getHeader(String headerName);
 
     /**
-     * @return the response body
+     * @return a copy of the response body
      */
     byte[] getResponse();
 
+    /**
+     * @return a read-only view of the response body
+     */
+    default ByteBuffer getResponseBuffer() {
+        return ByteBuffer.wrap(getResponse()).asReadOnlyBuffer();
+    }
+
+    /**
+     * @return a stream that reads the response body
+     */
+    default InputStream getResponseStream() {
+        return new ByteArrayInputStream(getResponse());
+    }
+
+    /**
+     * @param charset the character set of the response body
+     * @return the response body decoded as text
+     */
+    default String getResponseText(Charset charset) {
+        return new String(getResponse(), charset);
+    }
+
     /**
      * @return the response length
      */
@@ -46,4 +73,11 @@ public interface EndpointResponse {
     default String getContentType() {
         return getHeader("content-type");
     }
+
+    /**
+     * @return if the response indicates the endpoint has not been modified since the last response
+     */
+    default boolean isNotModified() {
+        return getStatusCode() == 304;
+    }
 }
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.polling;
+
+import static java.time.format.DateTimeFormatter.RFC_1123_DATE_TIME;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interpretation of the HTTP caching and {@code Retry-After} headers.
+ *
+ * @author Push Technology Limited
+ */
+public final class CacheHeaders {
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int SERVICE_UNAVAILABLE = 503;
+
+    private CacheHeaders() {
+    }
+
+    /**
+     * Get how long a response remains fresh for. The {@code max-age} directive of the {@code Cache-Control} header
+     * takes precedence over the {@code Expires} header. Responses that must be revalidated before use have no freshness.
+     *
+     * @param response the response
+     * @return the remaining freshness of the response in milliseconds or empty if the response does not declare one
+     */
+    public static OptionalLong getFreshness(EndpointResponse response) {
+        final String cacheControl = response.getHeader("cache-control");
+        if (cacheControl != null) {
+            final OptionalLong maxAge = getMaxAge(cacheControl);
+            if (maxAge.isPresent()) {
+                final long age = TimeUnit.SECONDS.toMillis(parseSeconds(response.getHeader("age")).orElse(0L));
+                return OptionalLong.of(Math.max(maxAge.getAsLong() - age, 0L));
+            }
+        }
+
+        final String expires = response.getHeader("expires");
+        if (expires != null) {
+            final OptionalLong expiresAt = parseDate(expires);
+            if (!expiresAt.isPresent()) {
+                // Invalid dates represent a time in the past
+                return OptionalLong.of(0L);
+            }
+            final long date = parseDate(response.getHeader("date")).orElse(System.currentTimeMillis());
+            return OptionalLong.of(Math.max(expiresAt.getAsLong() - date, 0L));
+        }
+
+        return OptionalLong.empty();
+    }
+
+    /**
+     * Get how long a service asked for a request to be delayed by. Only responses that report the service is
+     * unavailable or has received too many requests are considered.
+     *
+     * @param statusCode the status code of the response
+     * @param retryAfter the value of the {@code Retry-After} header, may be null
+     * @return the delay in milliseconds or empty if there is none
+     */
+    public static OptionalLong getRetryAfter(int statusCode, String retryAfter) {
+        if (retryAfter == null || statusCode != TOO_MANY_REQUESTS && statusCode != SERVICE_UNAVAILABLE) {
+            return OptionalLong.empty();
+        }
+
+        final OptionalLong seconds = parseSeconds(retryAfter);
+        if (seconds.isPresent()) {
+            return OptionalLong.of(TimeUnit.SECONDS.toMillis(seconds.getAsLong()));
+        }
+
+        final OptionalLong date = parseDate(retryAfter);
+        if (date.isPresent()) {
+            return OptionalLong.of(Math.max(date.getAsLong() - System.currentTimeMillis(), 0L));
+        }
+
+        return OptionalLong.empty();
+    }
+
+    private static OptionalLong getMaxAge(String cacheControl) {
+        long maxAge = -1L;
+        for (final String directive : cacheControl.toLowerCase(Locale.ROOT).split(",")) {
+            final String trimmed = directive.trim();
+            if ("no-cache".equals(trimmed) || "no-store".equals(trimmed)) {
+                return OptionalLong.of(0L);
+            }
+            else if (trimmed.startsWith("max-age=")) {
+                maxAge = parseSeconds(trimmed.substring("max-age=".length())).orElse(0L);
+            }
+        }
+        return maxAge < 0L ? OptionalLong.empty() : OptionalLong.of(TimeUnit.SECONDS.toMillis(maxAge));
+    }
+
+    private static OptionalLong parseSeconds(String value) {
+        if (value == null) {
+            return OptionalLong.empty();
+        }
+
+        try {
+            final long seconds = Long.parseLong(value.trim().replace("\"", ""));
+            return seconds < 0L ? OptionalLong.empty() : OptionalLong.of(seconds);
+        }
+        catch (NumberFormatException e) {
+            return OptionalLong.empty();
+        }
+    }
+
+    private static OptionalLong parseDate(String value) {
+        if (value == null) {
+            return OptionalLong.empty();
+        }
+
+        try {
+            return OptionalLong.of(ZonedDateTime.parse(value.trim(), RFC_1123_DATE_TIME).toInstant().toEpochMilli());
+        }
+        catch (DateTimeParseException e) {
+            return OptionalLong.empty();
+        }
+    }
+}
@@ -0,0 +1,329 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.polling;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
+
+import com.pushtechnology.adapters.rest.metrics.listeners.ResponseCacheListener;
+import com.pushtechnology.adapters.rest.model.latest.EndpointConfig;
+import com.pushtechnology.adapters.rest.model.latest.ResponseCacheConfig;
+import com.pushtechnology.adapters.rest.model.latest.SecurityConfig;
+import com.pushtechnology.adapters.rest.model.latest.ServiceConfig;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.Immutable;
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Implementation of {@link EndpointClient} that serves requests from an in-memory cache of responses.
+ * <p>
+ * Responses are cached by the resource they were requested from so endpoints of different services that poll the
+ * same resource share them. A cached response is fresh for a fixed time to live, or less if the response declares a
+ * shorter freshness. The cache is bounded by the total length of the cached responses, the least recently used
+ * responses are evicted first. Expired responses are evicted when they are replaced and by a purge of the cache made
+ * at most once each time to live.
+ * <p>
+ * A conditional request for a cached response that the endpoint has already received is answered with a not
+ * modified response.
+ *
+ * @author Push Technology Limited
+ */
+@ThreadSafe
+public final class CachingEndpointClient implements EndpointClient {
+    private static final long DEFAULT_TIME_TO_LIVE = 1000L;
+    private static final long DEFAULT_MAX_BYTES = 16L * 1024L * 1024L;
+    private final EndpointClient delegate;
+    private final ResponseCacheListener listener;
+    private final LongSupplier clock;
+    private final long timeToLive;
+    private final long maxBytes;
+    @GuardedBy("this")
+    private final Map<CacheKey, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    @GuardedBy("this")
+    private long totalBytes;
+    @GuardedBy("this")
+    private long nextPurge;
+
+    /**
+     * Constructor.
+     */
+    public CachingEndpointClient(
+            EndpointClient delegate,
+            ResponseCacheConfig responseCacheConfig,
+            ResponseCacheListener listener) {
+        this(delegate, responseCacheConfig, listener, System::nanoTime);
+    }
+
+    /**
+     * Constructor.
+     */
+    /*package*/ CachingEndpointClient(
+            EndpointClient delegate,
+            ResponseCacheConfig responseCacheConfig,
+            ResponseCacheListener listener,
+            LongSupplier clock) {
+        this.delegate = delegate;
+        this.listener = listener;
+        this.clock = clock;
+        timeToLive = MILLISECONDS.toNanos(responseCacheConfig.getTimeToLive() == null ?
+            DEFAULT_TIME_TO_LIVE :
+            responseCacheConfig.getTimeToLive());
+        maxBytes = responseCacheConfig.getMaxBytes() == null ?
+            DEFAULT_MAX_BYTES :
+            responseCacheConfig.getMaxBytes();
+        nextPurge = clock.getAsLong() + timeToLive;
+    }
+
+    @Override
+    public CompletableFuture<EndpointResponse> request(
+            ServiceConfig serviceConfig,
+            EndpointConfig endpointConfig) {
+        return request(serviceConfig, endpointConfig, false);
+    }
+
+    @Override
+    public CompletableFuture<EndpointResponse> conditionalRequest(
+            ServiceConfig serviceConfig,
+            EndpointConfig endpointConfig) {
+        return request(serviceConfig, endpointConfig, true);
+    }
+
+    private CompletableFuture<EndpointResponse> request(
+            ServiceConfig serviceConfig,
+            EndpointConfig endpointConfig,
+            boolean conditional) {
+        final CacheKey key = new CacheKey(serviceConfig, endpointConfig);
+        final Object receiver = Map.entry(serviceConfig.getName(), endpointConfig.getName());
+
+        final EndpointResponse cachedResponse = get(key, receiver, conditional);
+        if (cachedResponse != null) {
+            listener.onResponseCacheHit(serviceConfig, endpointConfig);
+            return completedFuture(cachedResponse);
+        }
+
+        listener.onResponseCacheMiss(serviceConfig, endpointConfig);
+        final CompletableFuture<EndpointResponse> result = conditional ?
+            delegate.conditionalRequest(serviceConfig, endpointConfig) :
+            delegate.request(serviceConfig, endpointConfig);
+        result.thenAccept(response -> {
+            final long freshness = getFreshness(response);
+            if (freshness > 0L) {
+                put(key, receiver, response, freshness).forEach(listener::onResponseCacheEviction);
+            }
+        });
+        return result;
+    }
+
+    private synchronized EndpointResponse get(CacheKey key, Object receiver, boolean conditional) {
+        final CacheEntry entry = entries.get(key);
+        if (entry == null || entry.isExpired(clock.getAsLong())) {
+            // An expired entry is evicted when it is replaced or purged
+            return null;
+        }
+
+        final boolean received = !entry.receivers.add(receiver);
+        return conditional && received ? new NotModifiedResponse(entry.response) : entry.response;
+    }
+
+    private synchronized List<Integer> put(
+            CacheKey key,
+            Object receiver,
+            EndpointResponse response,
+            long freshness) {
+        final long now = clock.getAsLong();
+        final List<Integer> evictions = new ArrayList<>();
+        if (now - nextPurge >= 0L) {
+            purgeExpired(now, evictions);
+            nextPurge = now + timeToLive;
+        }
+
+        final CacheEntry previousEntry = entries.put(key, new CacheEntry(response, receiver, now, freshness));
+        if (previousEntry != null) {
+            totalBytes -= previousEntry.response.getResponseLength();
+            if (previousEntry.isExpired(now)) {
+                evictions.add(previousEntry.response.getResponseLength());
+            }
+        }
+        totalBytes += response.getResponseLength();
+
+        final Iterator<CacheEntry> iterator = entries.values().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            final CacheEntry eldestEntry = iterator.next();
+            iterator.remove();
+            totalBytes -= eldestEntry.response.getResponseLength();
+            evictions.add(eldestEntry.response.getResponseLength());
+        }
+        return evictions;
+    }
+
+    @GuardedBy("this")
+    private void purgeExpired(long now, List<Integer> evictions) {
+        final Iterator<CacheEntry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            final CacheEntry entry = iterator.next();
+            if (entry.isExpired(now)) {
+                iterator.remove();
+                totalBytes -= entry.response.getResponseLength();
+                evictions.add(entry.response.getResponseLength());
+            }
+        }
+    }
+
+    /**
+     * @return how long in nanoseconds the response can be cached for, zero if it cannot be cached
+     */
+    private long getFreshness(EndpointResponse response) {
+        final int statusCode = response.getStatusCode();
+        if (statusCode < 200 || statusCode >= 300 || response.getResponseLength() > maxBytes) {
+            return 0L;
+        }
+
+        final OptionalLong declaredFreshness = CacheHeaders.getFreshness(response);
+        return declaredFreshness.isPresent() ?
+            Math.min(timeToLive, MILLISECONDS.toNanos(declaredFreshness.getAsLong())) :
+            timeToLive;
+    }
+
+    /**
+     * @return the total length of the cached responses
+     */
+    /*package*/ synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    @Override
+    public void start() {
+        delegate.start();
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            entries.clear();
+            totalBytes = 0L;
+        }
+        delegate.close();
+    }
+
+    /**
+     * A cached response and the endpoints that have received it.
+     */
+    private static final class CacheEntry {
+        private final EndpointResponse response;
+        private final Set<Object> receivers;
+        private final long cachedAt;
+        private final long freshness;
+
+        CacheEntry(EndpointResponse response, Object receiver, long cachedAt, long freshness) {
+            this.response = response;
+            this.receivers = new HashSet<>(Collections.singleton(receiver));
+            this.cachedAt = cachedAt;
+            this.freshness = freshness;
+        }
+
+        boolean isExpired(long now) {
+            return now - cachedAt >= freshness;
+        }
+    }
+
+    /**
+     * Identifies the resource a response was requested from.
+     */
+    @Immutable
+    private static final class CacheKey {
+        private final String host;
+        private final int port;
+        private final boolean secure;
+        private final SecurityConfig security;
+        private final String url;
+
+        CacheKey(ServiceConfig serviceConfig, EndpointConfig endpointConfig) {
+            host = serviceConfig.getHost();
+            port = serviceConfig.getPort();
+            secure = serviceConfig.isSecure();
+            security = serviceConfig.getSecurity();
+            url = endpointConfig.getUrl();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final CacheKey that = (CacheKey) o;
+            return port == that.port &&
+                secure == that.secure &&
+                host.equals(that.host) &&
+                Objects.equals(security, that.security) &&
+                url.equals(that.url);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(host, port, secure, security, url);
+        }
+    }
+
+    /**
+     * Not modified response to a conditional request for a cached response the endpoint has already received.
+     */
+    @Immutable
+    private static final class NotModifiedResponse implements EndpointResponse {
+        private static final byte[] EMPTY_CONTENT = new byte[0];
+        private final EndpointResponse cachedResponse;
+
+        NotModifiedResponse(EndpointResponse cachedResponse) {
+            this.cachedResponse = cachedResponse;
+        }
+
+        @Override
+        public int getStatusCode() {
+            return 304;
+        }
+
+        @Override
+        public String getHeader(String headerName) {
+            return cachedResponse.getHeader(headerName);
+        }
+
+        @Override
+        public byte[] getResponse() {
+            return EMPTY_CONTENT.clone();
+        }
+
+        @Override
+        public int getResponseLength() {
+            return 0;
+        }
+    }
+}
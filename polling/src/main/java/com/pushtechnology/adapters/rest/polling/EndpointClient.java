@@ -37,6 +37,21 @@ public interface EndpointClient extends AutoCloseable {
         ServiceConfig serviceConfig,
         EndpointConfig endpointConfig);
 
+    /**
+     * Poll an endpoint using the client, revalidating the last response received for the endpoint.
+     * <p>
+     * If the endpoint has provided an entity tag or last modified date the request is made conditional on the
+     * resource having changed. If the endpoint reports the resource has not been modified the response will have
+     * no body and {@link EndpointResponse#isNotModified()} will be true.
+     * @param serviceConfig the service
+     * @param endpointConfig the endpoint
+     * @return handle to asynchronous request
+     * @throws IllegalStateException if the client is not running
+     */
+    CompletableFuture<EndpointResponse> conditionalRequest(
+        ServiceConfig serviceConfig,
+        EndpointConfig endpointConfig);
+
     /**
      * Start component.
      */
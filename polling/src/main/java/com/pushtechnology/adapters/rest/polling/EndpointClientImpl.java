@@ -15,22 +15,37 @@
 
 package com.pushtechnology.adapters.rest.polling;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toMap;
+
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 
 import javax.net.ssl.SSLContext;
 
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpHost;
 import org.apache.http.HttpResponse;
 import org.apache.http.StatusLine;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.conn.routing.HttpRoute;
 import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.pushtechnology.adapters.rest.metrics.listeners.PollListener;
 import com.pushtechnology.adapters.rest.metrics.listeners.PollListener.PollCompletionListener;
+import com.pushtechnology.adapters.rest.model.latest.ConnectionPoolConfig;
 import com.pushtechnology.adapters.rest.model.latest.EndpointConfig;
 import com.pushtechnology.adapters.rest.model.latest.Model;
 import com.pushtechnology.adapters.rest.model.latest.ServiceConfig;
@@ -39,17 +54,29 @@ import net.jcip.annotations.ThreadSafe;
 
 /**
  * Implementation of {@link EndpointClient}.
+ * <p>
+ * Conditional requests and the collapsing of concurrent requests for the same URL of a host are handled by
+ * {@link EndpointRequests}.
+ * <p>
+ * The state of the connection pool is reported periodically for each host polled, so it is reported while no requests
+ * are being made.
  *
  * @author Push Technology Limited
  */
 @ThreadSafe
 public final class EndpointClientImpl implements EndpointClient {
     private static final Logger LOG = LoggerFactory.getLogger(EndpointClientImpl.class);
+    private static final long POOL_REPORTING_PERIOD = 1000L;
     private final Model model;
     private final SSLContext sslContext;
     private final HttpClientFactory clientFactory;
+    private final ScheduledExecutorService executor;
     private final PollListener pollListener;
+    private final EndpointRequests requests = new EndpointRequests();
+    private final Map<HttpRoute, ServiceConfig> routes;
+    private volatile PoolingNHttpClientConnectionManager connectionManager;
     private volatile CloseableHttpAsyncClient client;
+    private volatile Future<?> poolReportingTask;
 
     /**
      * Constructor.
@@ -58,40 +85,99 @@ public final class EndpointClientImpl implements EndpointClient {
             Model model,
             SSLContext sslContext,
             HttpClientFactory clientFactory,
+            ScheduledExecutorService executor,
             PollListener pollListener) {
         this.model = model;
         this.sslContext = sslContext;
         this.clientFactory = clientFactory;
+        this.executor = executor;
         this.pollListener = pollListener;
+        routes = model
+            .getServices()
+            .stream()
+            .collect(toMap(
+                EndpointClientImpl::getRoute,
+                serviceConfig -> serviceConfig,
+                (first, second) -> first,
+                LinkedHashMap::new));
     }
 
     @Override
     public CompletableFuture<EndpointResponse> request(
             ServiceConfig serviceConfig,
             EndpointConfig endpointConfig) {
+        return execute(serviceConfig, endpointConfig, false);
+    }
+
+    @Override
+    public CompletableFuture<EndpointResponse> conditionalRequest(
+            ServiceConfig serviceConfig,
+            EndpointConfig endpointConfig) {
+        return execute(serviceConfig, endpointConfig, true);
+    }
+
+    private CompletableFuture<EndpointResponse> execute(
+            ServiceConfig serviceConfig,
+            EndpointConfig endpointConfig,
+            boolean conditional) {
 
         if (client == null) {
             throw new IllegalStateException("Client not running");
         }
 
+        final HttpHost host = getHost(serviceConfig);
+        return requests.execute(
+            serviceConfig,
+            endpointConfig,
+            conditional,
+            requestValidators -> send(serviceConfig, endpointConfig, host, requestValidators));
+    }
+
+    private CompletableFuture<EndpointResponse> send(
+            ServiceConfig serviceConfig,
+            EndpointConfig endpointConfig,
+            HttpHost host,
+            Validators requestValidators) {
+
         final PollCompletionListener completionListener = pollListener.onPollRequest(serviceConfig, endpointConfig);
 
+        final HttpGet request = new HttpGet(endpointConfig.getUrl());
+        final ConnectionPoolConfig connectionPool = serviceConfig.getConnectionPool();
+        if (connectionPool != null) {
+            request.setConfig(getRequestConfig(connectionPool));
+        }
+        if (requestValidators != null) {
+            requestValidators.applyTo(request::setHeader);
+        }
+
         final CompletableFuture<EndpointResponse> result = new CompletableFuture<>();
-        client.execute(
-            new HttpHost(serviceConfig.getHost(), serviceConfig.getPort(), serviceConfig.isSecure() ? "https" : "http"),
-            new HttpGet(endpointConfig.getUrl()),
+        final Future<HttpResponse> execution = client.execute(
+            host,
+            request,
             new FutureCallback<HttpResponse>() {
                 @Override
                 public void completed(HttpResponse httpResponse) {
                     final StatusLine statusLine = httpResponse.getStatusLine();
                     if (statusLine.getStatusCode() >= 400) {
-                        result.completeExceptionally(new Exception("Received response " + statusLine));
+                        final Header retryAfterHeader = httpResponse.getFirstHeader(HttpHeaders.RETRY_AFTER);
+                        final OptionalLong retryAfter = CacheHeaders.getRetryAfter(
+                            statusLine.getStatusCode(),
+                            retryAfterHeader == null ? null : retryAfterHeader.getValue());
+                        final String message = "Received response " + statusLine;
+                        result.completeExceptionally(retryAfter.isPresent() ?
+                            new RetryAfterException(message, retryAfter.getAsLong()) :
+                            new Exception(message));
                         return;
                     }
 
                     try {
                         final EndpointResponse response = EndpointResponseImpl.create(httpResponse);
-                        completionListener.onPollResponse(response);
+                        if (response.isNotModified()) {
+                            completionListener.onPollNotModified();
+                        }
+                        else {
+                            completionListener.onPollResponse(response);
+                        }
                         result.complete(response);
                     }
                     catch (IOException e) {
@@ -111,21 +197,77 @@ public final class EndpointClientImpl implements EndpointClient {
                     result.cancel(false);
                 }
             });
+        // Abort the request if the poll is cancelled so it does not hold a connection
+        result.whenComplete((endpointResponse, e) -> {
+            if (result.isCancelled()) {
+                execution.cancel(true);
+            }
+        });
         return result;
     }
 
+    private void reportConnectionPools() {
+        routes.forEach((route, serviceConfig) -> {
+            final PoolStats poolStats = connectionManager.getStats(route);
+            pollListener.onConnectionPool(
+                serviceConfig,
+                poolStats.getLeased(),
+                poolStats.getPending(),
+                poolStats.getAvailable());
+        });
+    }
+
+    private static HttpHost getHost(ServiceConfig serviceConfig) {
+        return new HttpHost(
+            serviceConfig.getHost(),
+            serviceConfig.getPort(),
+            serviceConfig.isSecure() ? "https" : "http");
+    }
+
+    private static HttpRoute getRoute(ServiceConfig serviceConfig) {
+        return new HttpRoute(getHost(serviceConfig), null, serviceConfig.isSecure());
+    }
+
+    private static RequestConfig getRequestConfig(ConnectionPoolConfig connectionPool) {
+        final RequestConfig.Builder builder = RequestConfig.custom();
+        if (connectionPool.getConnectTimeout() != null) {
+            builder.setConnectTimeout(connectionPool.getConnectTimeout());
+        }
+        if (connectionPool.getSocketTimeout() != null) {
+            builder.setSocketTimeout(connectionPool.getSocketTimeout());
+        }
+        if (connectionPool.getConnectionRequestTimeout() != null) {
+            builder.setConnectionRequestTimeout(connectionPool.getConnectionRequestTimeout());
+        }
+        return builder.build();
+    }
+
     @Override
     public void start() {
         LOG.debug("Opening endpoint client");
-        final CloseableHttpAsyncClient newClient = clientFactory.create(model, sslContext);
+        final PoolingNHttpClientConnectionManager newConnectionManager =
+            clientFactory.createConnectionManager(model, sslContext);
+        final CloseableHttpAsyncClient newClient = clientFactory.create(model, newConnectionManager);
         newClient.start();
+        connectionManager = newConnectionManager;
         client = newClient;
+        if (!routes.isEmpty()) {
+            poolReportingTask = executor.scheduleAtFixedRate(
+                this::reportConnectionPools,
+                POOL_REPORTING_PERIOD,
+                POOL_REPORTING_PERIOD,
+                MILLISECONDS);
+        }
         LOG.debug("Opened endpoint client");
     }
 
     @Override
     public void close() {
         LOG.debug("Closing endpoint client");
+        final Future<?> reportingTask = poolReportingTask;
+        if (reportingTask != null) {
+            reportingTask.cancel(false);
+        }
         try {
             client.close();
         }
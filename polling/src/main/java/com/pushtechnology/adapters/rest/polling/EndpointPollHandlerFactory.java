@@ -27,4 +27,13 @@ import com.pushtechnology.adapters.rest.model.latest.ServiceConfig;
 public interface EndpointPollHandlerFactory extends PollHandlerFactory<EndpointResponse> {
     @Override
     BiConsumer<EndpointResponse, Throwable> create(ServiceConfig serviceConfig, EndpointConfig endpointConfig);
+
+    /**
+     * @return a handler for the result of polling an endpoint that notifies the listener if each response it handles
+     * has changed
+     */
+    BiConsumer<EndpointResponse, Throwable> create(
+        ServiceConfig serviceConfig,
+        EndpointConfig endpointConfig,
+        ResponseChangeListener changeListener);
 }
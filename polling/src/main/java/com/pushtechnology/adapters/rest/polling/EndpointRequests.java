@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.polling;
+
+import java.net.URI;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import com.pushtechnology.adapters.rest.model.latest.ConnectionPoolConfig;
+import com.pushtechnology.adapters.rest.model.latest.EndpointConfig;
+import com.pushtechnology.adapters.rest.model.latest.SecurityConfig;
+import com.pushtechnology.adapters.rest.model.latest.ServiceConfig;
+
+import net.jcip.annotations.Immutable;
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * The requests made to endpoints by an {@link EndpointClient}.
+ * <p>
+ * The validators provided by the last response from each endpoint of a service are kept and sent by conditional
+ * requests. The same URI may be polled by several services and the validators of one service are not used by
+ * another. Concurrent requests for the same URI, made with the same credentials, connection pool settings and
+ * validators, are collapsed into a single request. The response is passed to every endpoint that requested it.
+ *
+ * @author Push Technology Limited
+ */
+@ThreadSafe
+/*package*/ final class EndpointRequests {
+    private final ConcurrentMap<ValidatorKey, Validators> validators = new ConcurrentHashMap<>();
+    private final SingleFlight<RequestKey, EndpointResponse> requests = new SingleFlight<>();
+
+    /**
+     * Make a request or wait for the same request already in flight.
+     *
+     * @param serviceConfig the service of the endpoint
+     * @param endpointConfig the endpoint
+     * @param conditional if the validators of the last response should be sent
+     * @param send sends the request with the validators, which may be null
+     * @return the response
+     */
+    /*package*/ CompletableFuture<EndpointResponse> execute(
+            ServiceConfig serviceConfig,
+            EndpointConfig endpointConfig,
+            boolean conditional,
+            Function<Validators, CompletableFuture<EndpointResponse>> send) {
+
+        final URI uri = getUri(serviceConfig, endpointConfig);
+        final ValidatorKey validatorKey = new ValidatorKey(serviceConfig.getName(), uri);
+        final Validators requestValidators = conditional ? validators.get(validatorKey) : null;
+        final RequestKey requestKey = new RequestKey(
+            uri,
+            serviceConfig.getSecurity(),
+            serviceConfig.getConnectionPool(),
+            requestValidators);
+
+        final CompletableFuture<EndpointResponse> call =
+            requests.execute(requestKey, () -> send.apply(requestValidators));
+
+        final CompletableFuture<EndpointResponse> result = new CompletableFuture<>();
+        call.whenComplete((response, throwable) -> {
+            if (throwable instanceof CancellationException) {
+                result.cancel(false);
+            }
+            else if (throwable != null) {
+                result.completeExceptionally(throwable);
+            }
+            else {
+                if (!response.isNotModified()) {
+                    updateValidators(validatorKey, response);
+                }
+                result.complete(response);
+            }
+        });
+        result.whenComplete((response, throwable) -> {
+            if (result.isCancelled()) {
+                call.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    private void updateValidators(ValidatorKey validatorKey, EndpointResponse response) {
+        final Validators responseValidators = Validators.from(response);
+        if (responseValidators == null) {
+            validators.remove(validatorKey);
+        }
+        else {
+            validators.put(validatorKey, responseValidators);
+        }
+    }
+
+    /**
+     * @return the URI of the endpoint
+     */
+    /*package*/ static URI getUri(ServiceConfig serviceConfig, EndpointConfig endpointConfig) {
+        return URI.create((serviceConfig.isSecure() ? "https://" : "http://") +
+            serviceConfig.getHost() +
+            ":" +
+            serviceConfig.getPort() +
+            endpointConfig.getUrl());
+    }
+
+    /**
+     * Identifies an endpoint of a service.
+     */
+    @Immutable
+    private static final class ValidatorKey {
+        private final String serviceName;
+        private final URI uri;
+
+        ValidatorKey(String serviceName, URI uri) {
+            this.serviceName = serviceName;
+            this.uri = uri;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final ValidatorKey that = (ValidatorKey) o;
+            return serviceName.equals(that.serviceName) && uri.equals(that.uri);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * serviceName.hashCode() + uri.hashCode();
+        }
+    }
+
+    /**
+     * Identifies the requests that can be collapsed into a single request.
+     */
+    @Immutable
+    private static final class RequestKey {
+        private final URI uri;
+        private final SecurityConfig security;
+        private final ConnectionPoolConfig connectionPool;
+        private final Validators validators;
+
+        RequestKey(URI uri, SecurityConfig security, ConnectionPoolConfig connectionPool, Validators validators) {
+            this.uri = uri;
+            this.security = security;
+            this.connectionPool = connectionPool;
+            this.validators = validators;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final RequestKey that = (RequestKey) o;
+            return uri.equals(that.uri) &&
+                Objects.equals(security, that.security) &&
+                Objects.equals(connectionPool, that.connectionPool) &&
+                Objects.equals(validators, that.validators);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(uri, security, connectionPool, validators);
+        }
+    }
+}
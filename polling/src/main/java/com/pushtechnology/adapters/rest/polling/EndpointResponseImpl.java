@@ -15,11 +15,14 @@
 
 package com.pushtechnology.adapters.rest.polling;
 
-import java.io.ByteArrayOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.util.Arrays;
 
+import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 
@@ -32,6 +35,8 @@ import net.jcip.annotations.Immutable;
  */
 @Immutable
 public final class EndpointResponseImpl implements EndpointResponse {
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final int MAX_CONTENT_LENGTH = Integer.MAX_VALUE - 8;
     private final HttpResponse httpResponse;
     private final byte[] content;
 
@@ -40,17 +45,48 @@ public final class EndpointResponseImpl implements EndpointResponse {
      */
     public static EndpointResponse create(HttpResponse httpResponse) throws IOException {
         final HttpEntity entity = httpResponse.getEntity();
+        if (entity == null) {
+            return new EndpointResponseImpl(httpResponse, new byte[0]);
+        }
 
-        final InputStream contentStream = entity.getContent();
-        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-
-        int next = contentStream.read();
-        while (next != -1) {
-            baos.write(next);
-            next = contentStream.read();
+        try (InputStream contentStream = entity.getContent()) {
+            return new EndpointResponseImpl(httpResponse, readContent(contentStream, entity.getContentLength()));
         }
+    }
 
-        return new EndpointResponseImpl(httpResponse, baos.toByteArray());
+    /**
+     * Read the content using bulk reads. The buffer is sized from the content length when it is known so the content
+     * is normally read into a single array of the exact size.
+     */
+    private static byte[] readContent(InputStream contentStream, long contentLength) throws IOException {
+        byte[] buffer = new byte[contentLength >= 0 && contentLength <= MAX_CONTENT_LENGTH ?
+            (int) contentLength :
+            DEFAULT_BUFFER_SIZE];
+        int length = 0;
+
+        while (true) {
+            if (length == buffer.length) {
+                // Check for the end of the content before growing the buffer
+                final int next = contentStream.read();
+                if (next == -1) {
+                    return buffer;
+                }
+                if (length == MAX_CONTENT_LENGTH) {
+                    throw new IOException("Response content is too large");
+                }
+                buffer = Arrays.copyOf(buffer, (int) Math.min(
+                    Math.max(2L * length, DEFAULT_BUFFER_SIZE),
+                    MAX_CONTENT_LENGTH));
+                buffer[length] = (byte) next;
+                length += 1;
+            }
+
+            final int read = contentStream.read(buffer, length, buffer.length - length);
+            if (read == -1) {
+                return length == buffer.length ? buffer : Arrays.copyOf(buffer, length);
+            }
+            length += read;
+        }
     }
 
     private EndpointResponseImpl(HttpResponse httpResponse, byte[] content) {
@@ -65,7 +101,8 @@ public final class EndpointResponseImpl implements EndpointResponse {
 
     @Override
     public String getHeader(String headerName) {
-        return httpResponse.getFirstHeader(headerName).getValue();
+        final Header header = httpResponse.getFirstHeader(headerName);
+        return header == null ? null : header.getValue();
     }
 
     @Override
@@ -73,6 +110,21 @@ public final class EndpointResponseImpl implements EndpointResponse {
         return Arrays.copyOf(content, content.length);
     }
 
+    @Override
+    public ByteBuffer getResponseBuffer() {
+        return ByteBuffer.wrap(content).asReadOnlyBuffer();
+    }
+
+    @Override
+    public InputStream getResponseStream() {
+        return new ByteArrayInputStream(content);
+    }
+
+    @Override
+    public String getResponseText(Charset charset) {
+        return new String(content, charset);
+    }
+
     @Override
     public int getResponseLength() {
         return content.length;
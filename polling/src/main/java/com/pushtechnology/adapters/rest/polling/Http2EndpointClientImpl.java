@@ -0,0 +1,284 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.polling;
+
+import static java.util.stream.Collectors.toMap;
+
+import java.net.Authenticator;
+import java.net.PasswordAuthentication;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.net.ssl.SSLContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.pushtechnology.adapters.rest.metrics.listeners.PollListener;
+import com.pushtechnology.adapters.rest.metrics.listeners.PollListener.PollCompletionListener;
+import com.pushtechnology.adapters.rest.model.latest.BasicAuthenticationConfig;
+import com.pushtechnology.adapters.rest.model.latest.ConnectionPoolConfig;
+import com.pushtechnology.adapters.rest.model.latest.EndpointConfig;
+import com.pushtechnology.adapters.rest.model.latest.Model;
+import com.pushtechnology.adapters.rest.model.latest.ServiceConfig;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Implementation of {@link EndpointClient} that polls services over HTTP/2.
+ * <p>
+ * Uses the JDK HTTP client. Secure services negotiate HTTP/2 using ALPN, insecure services upgrade to h2c. All the
+ * endpoints of a host are multiplexed over a single connection. Services that do not support HTTP/2 are polled over
+ * HTTP/1.1. Conditional requests and the collapsing of concurrent requests for the same URI are handled by
+ * {@link EndpointRequests}. Basic authentication credentials are sent to secure services when they are challenged
+ * for, as the {@link EndpointClientImpl} does. The JDK HTTP client does not expose the state of its connections so no
+ * connection pool metrics are reported.
+ * <p>
+ * The connect timeout of a service is set on the JDK HTTP client so services with different connect timeouts use
+ * different clients. The socket timeout of a service bounds the wait for the response.
+ *
+ * @author Push Technology Limited
+ */
+@ThreadSafe
+public final class Http2EndpointClientImpl implements EndpointClient {
+    private static final Logger LOG = LoggerFactory.getLogger(Http2EndpointClientImpl.class);
+    private final Model model;
+    private final SSLContext sslContext;
+    private final PollListener pollListener;
+    private final Authenticator authenticator;
+    private final EndpointRequests requests = new EndpointRequests();
+    private final ConcurrentMap<Integer, HttpClient> connectTimeoutClients = new ConcurrentHashMap<>();
+    private volatile ExecutorService executor;
+    private volatile HttpClient client;
+
+    /**
+     * Constructor.
+     */
+    public Http2EndpointClientImpl(Model model, SSLContext sslContext, PollListener pollListener) {
+        this.model = model;
+        this.sslContext = sslContext;
+        this.pollListener = pollListener;
+        this.authenticator = new ServiceAuthenticator(model);
+    }
+
+    @Override
+    public CompletableFuture<EndpointResponse> request(
+            ServiceConfig serviceConfig,
+            EndpointConfig endpointConfig) {
+        return execute(serviceConfig, endpointConfig, false);
+    }
+
+    @Override
+    public CompletableFuture<EndpointResponse> conditionalRequest(
+            ServiceConfig serviceConfig,
+            EndpointConfig endpointConfig) {
+        return execute(serviceConfig, endpointConfig, true);
+    }
+
+    private CompletableFuture<EndpointResponse> execute(
+            ServiceConfig serviceConfig,
+            EndpointConfig endpointConfig,
+            boolean conditional) {
+
+        if (client == null) {
+            throw new IllegalStateException("Client not running");
+        }
+
+        final URI uri = EndpointRequests.getUri(serviceConfig, endpointConfig);
+        return requests.execute(
+            serviceConfig,
+            endpointConfig,
+            conditional,
+            requestValidators -> send(serviceConfig, endpointConfig, uri, requestValidators));
+    }
+
+    private CompletableFuture<EndpointResponse> send(
+            ServiceConfig serviceConfig,
+            EndpointConfig endpointConfig,
+            URI uri,
+            Validators requestValidators) {
+
+        final PollCompletionListener completionListener = pollListener.onPollRequest(serviceConfig, endpointConfig);
+
+        final HttpRequest.Builder request = HttpRequest.newBuilder(uri).GET();
+        final ConnectionPoolConfig connectionPool = serviceConfig.getConnectionPool();
+        if (connectionPool != null && connectionPool.getSocketTimeout() != null) {
+            request.timeout(Duration.ofMillis(connectionPool.getSocketTimeout()));
+        }
+        if (requestValidators != null) {
+            requestValidators.applyTo(request::header);
+        }
+
+        final CompletableFuture<EndpointResponse> result = new CompletableFuture<>();
+        final CompletableFuture<HttpResponse<byte[]>> execution = getClient(connectionPool)
+            .sendAsync(request.build(), BodyHandlers.ofByteArray());
+        execution.whenComplete((httpResponse, throwable) -> {
+            if (throwable instanceof CancellationException) {
+                result.cancel(false);
+                return;
+            }
+            if (throwable != null) {
+                final Exception e = toException(throwable);
+                completionListener.onPollFailure(e);
+                result.completeExceptionally(e);
+                return;
+            }
+
+            if (httpResponse.statusCode() >= 400) {
+                final OptionalLong retryAfter = CacheHeaders.getRetryAfter(
+                    httpResponse.statusCode(),
+                    httpResponse.headers().firstValue("retry-after").orElse(null));
+                final String message =
+                    "Received response " + httpResponse.version() + " " + httpResponse.statusCode();
+                result.completeExceptionally(retryAfter.isPresent() ?
+                    new RetryAfterException(message, retryAfter.getAsLong()) :
+                    new Exception(message));
+                return;
+            }
+
+            final EndpointResponse response = new Http2EndpointResponseImpl(httpResponse);
+            if (response.isNotModified()) {
+                completionListener.onPollNotModified();
+            }
+            else {
+                completionListener.onPollResponse(response);
+            }
+            result.complete(response);
+        });
+        // Abort the request if the poll is cancelled
+        result.whenComplete((endpointResponse, e) -> {
+            if (result.isCancelled()) {
+                execution.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private HttpClient getClient(ConnectionPoolConfig connectionPool) {
+        final HttpClient currentClient = client;
+        if (currentClient == null || connectionPool == null || connectionPool.getConnectTimeout() == null) {
+            return currentClient;
+        }
+
+        return connectTimeoutClients.computeIfAbsent(
+            connectionPool.getConnectTimeout(),
+            connectTimeout -> newClient(executor, Duration.ofMillis(connectTimeout)));
+    }
+
+    private HttpClient newClient(ExecutorService clientExecutor, Duration connectTimeout) {
+        final HttpClient.Builder builder = HttpClient
+            .newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .executor(clientExecutor)
+            .authenticator(authenticator);
+        if (connectTimeout != null) {
+            builder.connectTimeout(connectTimeout);
+        }
+        if (sslContext != null) {
+            builder.sslContext(sslContext);
+        }
+        return builder.build();
+    }
+
+    private static Exception toException(Throwable throwable) {
+        final Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ?
+            throwable.getCause() :
+            throwable;
+        return cause instanceof Exception ? (Exception) cause : new Exception(cause);
+    }
+
+    @Override
+    public void start() {
+        if (model.getServices().stream().noneMatch(ServiceConfig::isHttp2)) {
+            LOG.debug("No services use HTTP/2, HTTP/2 endpoint client not opened");
+            return;
+        }
+
+        LOG.debug("Opening HTTP/2 endpoint client");
+        final ExecutorService newExecutor = Executors.newCachedThreadPool(new HttpClientThreadFactory());
+        executor = newExecutor;
+        client = newClient(newExecutor, null);
+        LOG.debug("Opened HTTP/2 endpoint client");
+    }
+
+    @Override
+    public void close() {
+        if (client == null) {
+            return;
+        }
+
+        LOG.debug("Closing HTTP/2 endpoint client");
+        // The JDK HTTP client cannot be closed, its connections are released when it is no longer referenced
+        client = null;
+        connectTimeoutClients.clear();
+        executor.shutdown();
+        LOG.debug("Closed HTTP/2 endpoint client");
+    }
+
+    /**
+     * Authenticator that answers challenges from the secure services with their Basic authentication credentials.
+     */
+    @ThreadSafe
+    private static final class ServiceAuthenticator extends Authenticator {
+        private final Map<String, PasswordAuthentication> credentials;
+
+        ServiceAuthenticator(Model model) {
+            credentials = model
+                .getServices()
+                .stream()
+                .filter(ServiceConfig::isSecure)
+                .filter(serviceConfig -> serviceConfig.getSecurity() != null)
+                .filter(serviceConfig -> serviceConfig.getSecurity().getBasic() != null)
+                .collect(toMap(
+                    serviceConfig -> getAuthority(serviceConfig.getHost(), serviceConfig.getPort()),
+                    serviceConfig -> getCredentials(serviceConfig.getSecurity().getBasic()),
+                    (first, second) -> first));
+        }
+
+        @Override
+        protected PasswordAuthentication getPasswordAuthentication() {
+            if (getRequestorType() != RequestorType.SERVER) {
+                return null;
+            }
+            return credentials.get(getAuthority(getRequestingHost(), getRequestingPort()));
+        }
+
+        private static String getAuthority(String host, int port) {
+            return host.toLowerCase(Locale.ROOT) + ":" + port;
+        }
+
+        private static PasswordAuthentication getCredentials(BasicAuthenticationConfig basicAuthenticationConfig) {
+            return new PasswordAuthentication(
+                basicAuthenticationConfig.getUserid(),
+                basicAuthenticationConfig.getPassword().toCharArray());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.polling;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import net.jcip.annotations.Immutable;
+
+/**
+ * Implementation of {@link EndpointResponse} for a {@link HttpResponse} received by the JDK HTTP client.
+ *
+ * @author Push Technology Limited
+ */
+@Immutable
+/*package*/ final class Http2EndpointResponseImpl implements EndpointResponse {
+    private static final byte[] EMPTY_CONTENT = new byte[0];
+    private final HttpResponse<byte[]> httpResponse;
+    private final byte[] content;
+
+    /**
+     * Constructor.
+     */
+    /*package*/ Http2EndpointResponseImpl(HttpResponse<byte[]> httpResponse) {
+        this.httpResponse = httpResponse;
+        this.content = httpResponse.body() == null ? EMPTY_CONTENT : httpResponse.body();
+    }
+
+    @Override
+    public int getStatusCode() {
+        return httpResponse.statusCode();
+    }
+
+    @Override
+    public String getHeader(String headerName) {
+        return httpResponse.headers().firstValue(headerName).orElse(null);
+    }
+
+    @Override
+    public byte[] getResponse() {
+        return Arrays.copyOf(content, content.length);
+    }
+
+    @Override
+    public ByteBuffer getResponseBuffer() {
+        return ByteBuffer.wrap(content).asReadOnlyBuffer();
+    }
+
+    @Override
+    public InputStream getResponseStream() {
+        return new ByteArrayInputStream(content);
+    }
+
+    @Override
+    public String getResponseText(Charset charset) {
+        return new String(content, charset);
+    }
+
+    @Override
+    public int getResponseLength() {
+        return content.length;
+    }
+}
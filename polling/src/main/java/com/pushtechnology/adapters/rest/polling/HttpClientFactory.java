@@ -18,6 +18,8 @@ package com.pushtechnology.adapters.rest.polling;
 import javax.net.ssl.SSLContext;
 
 import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.nio.conn.NHttpClientConnectionManager;
 
 import com.pushtechnology.adapters.rest.model.latest.Model;
 
@@ -27,7 +29,12 @@ import com.pushtechnology.adapters.rest.model.latest.Model;
  */
 public interface HttpClientFactory {
     /**
-     * @return a new {@link CloseableHttpAsyncClient}
+     * @return a new {@link PoolingNHttpClientConnectionManager} limited by the services of the model
      */
-    CloseableHttpAsyncClient create(Model model, SSLContext sslContext);
+    PoolingNHttpClientConnectionManager createConnectionManager(Model model, SSLContext sslContext);
+
+    /**
+     * @return a new {@link CloseableHttpAsyncClient} that owns the connection manager
+     */
+    CloseableHttpAsyncClient create(Model model, NHttpClientConnectionManager connectionManager);
 }
@@ -15,20 +15,41 @@
 
 package com.pushtechnology.adapters.rest.polling;
 
+import static java.util.stream.Collectors.toMap;
+
+import java.util.Map;
 import java.util.concurrent.ThreadFactory;
 
 import javax.net.ssl.SSLContext;
 
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.Credentials;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.CredentialsProvider;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoute;
 import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
 import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
 import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.conn.NHttpClientConnectionManager;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.protocol.HttpContext;
 
 import com.pushtechnology.adapters.rest.model.latest.BasicAuthenticationConfig;
+import com.pushtechnology.adapters.rest.model.latest.ConnectionPoolConfig;
 import com.pushtechnology.adapters.rest.model.latest.Model;
 import com.pushtechnology.adapters.rest.model.latest.ServiceConfig;
 
@@ -38,10 +59,48 @@ import com.pushtechnology.adapters.rest.model.latest.ServiceConfig;
  * @author Push Technology Limited
  */
 public final class HttpClientFactoryImpl implements HttpClientFactory {
+    private static final int DEFAULT_MAX_CONNECTIONS = 2;
     private final ThreadFactory threadFactory = new HttpClientThreadFactory();
 
     @Override
-    public CloseableHttpAsyncClient create(Model model, SSLContext sslContext) {
+    public PoolingNHttpClientConnectionManager createConnectionManager(Model model, SSLContext sslContext) {
+        final Registry<SchemeIOSessionStrategy> sessionStrategies = RegistryBuilder
+            .<SchemeIOSessionStrategy>create()
+            .register("http", NoopIOSessionStrategy.INSTANCE)
+            .register("https", sslContext == null ?
+                SSLIOSessionStrategy.getDefaultStrategy() :
+                new SSLIOSessionStrategy(sslContext, SSLIOSessionStrategy.getDefaultHostnameVerifier()))
+            .build();
+
+        final PoolingNHttpClientConnectionManager connectionManager;
+        try {
+            connectionManager = new PoolingNHttpClientConnectionManager(
+                new DefaultConnectingIOReactor(IOReactorConfig.DEFAULT, threadFactory),
+                sessionStrategies);
+        }
+        catch (IOReactorException e) {
+            throw new IllegalStateException(e);
+        }
+
+        // The pool is shared by all services, each service is limited independently and unless the total is
+        // configured contributes its limit to the total
+        final Map<HttpRoute, Integer> maxPerRoute = model
+            .getServices()
+            .stream()
+            .collect(toMap(HttpClientFactoryImpl::getRoute, HttpClientFactoryImpl::getMaxConnections, Integer::sum));
+        maxPerRoute.forEach(connectionManager::setMaxPerRoute);
+        final int maxTotal = model.getMaxConnections() > 0 ?
+            model.getMaxConnections() :
+            maxPerRoute.values().stream().mapToInt(Integer::intValue).sum();
+        if (maxTotal > 0) {
+            connectionManager.setMaxTotal(maxTotal);
+        }
+
+        return connectionManager;
+    }
+
+    @Override
+    public CloseableHttpAsyncClient create(Model model, NHttpClientConnectionManager connectionManager) {
         final CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
 
         // Configure client with Basic authentication credentials
@@ -61,15 +120,45 @@ public final class HttpClientFactoryImpl implements HttpClientFactory {
             .custom()
             .setThreadFactory(threadFactory)
             .disableCookieManagement()
-            .setDefaultCredentialsProvider(credentialsProvider);
+            .setDefaultCredentialsProvider(credentialsProvider)
+            .setConnectionManager(connectionManager);
 
-        if (sslContext != null) {
-            builder = builder.setSSLContext(sslContext);
+        // Configure client with the keep-alive durations of the services
+        final Map<HttpHost, Long> keepAlives = model
+            .getServices()
+            .stream()
+            .filter(serviceConfig -> serviceConfig.getConnectionPool() != null)
+            .filter(serviceConfig -> serviceConfig.getConnectionPool().getKeepAlive() != null)
+            .collect(toMap(
+                HttpClientFactoryImpl::getHost,
+                serviceConfig -> serviceConfig.getConnectionPool().getKeepAlive(),
+                Math::min));
+        if (!keepAlives.isEmpty()) {
+            builder = builder.setKeepAliveStrategy(new ServiceKeepAliveStrategy(keepAlives));
         }
 
         return builder.build();
     }
 
+    private static HttpHost getHost(ServiceConfig serviceConfig) {
+        return new HttpHost(
+            serviceConfig.getHost(),
+            serviceConfig.getPort(),
+            serviceConfig.isSecure() ? "https" : "http");
+    }
+
+    private static HttpRoute getRoute(ServiceConfig serviceConfig) {
+        return new HttpRoute(getHost(serviceConfig), null, serviceConfig.isSecure());
+    }
+
+    private static int getMaxConnections(ServiceConfig serviceConfig) {
+        final ConnectionPoolConfig connectionPool = serviceConfig.getConnectionPool();
+        if (connectionPool == null || connectionPool.getMaxConnections() == null) {
+            return DEFAULT_MAX_CONNECTIONS;
+        }
+        return connectionPool.getMaxConnections();
+    }
+
     private static AuthScope getAuthScope(ServiceConfig serviceConfig) {
         return new AuthScope(serviceConfig.getHost(), serviceConfig.getPort());
     }
@@ -80,4 +169,23 @@ public final class HttpClientFactoryImpl implements HttpClientFactory {
             basicAuthenticationConfig.getPassword());
     }
 
+    /**
+     * Keep-alive strategy that uses the duration configured for a service and falls back to the Keep-Alive header.
+     */
+    private static final class ServiceKeepAliveStrategy implements ConnectionKeepAliveStrategy {
+        private final Map<HttpHost, Long> keepAlives;
+
+        ServiceKeepAliveStrategy(Map<HttpHost, Long> keepAlives) {
+            this.keepAlives = keepAlives;
+        }
+
+        @Override
+        public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+            final Long keepAlive = keepAlives.get(HttpClientContext.adapt(context).getTargetHost());
+            if (keepAlive == null) {
+                return DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            }
+            return keepAlive;
+        }
+    }
 }
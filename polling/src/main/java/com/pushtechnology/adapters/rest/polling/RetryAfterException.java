@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.polling;
+
+/**
+ * Exception indicating a service asked for a request to be retried later using a {@code Retry-After} header.
+ *
+ * @author Push Technology Limited
+ */
+public final class RetryAfterException extends Exception {
+    private static final long serialVersionUID = 1L;
+    private final long retryAfter;
+
+    /**
+     * Constructor.
+     *
+     * @param message the message
+     * @param retryAfter the time in milliseconds to wait before retrying
+     */
+    public RetryAfterException(String message, long retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return the time in milliseconds to wait before retrying
+     */
+    public long getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.polling;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Collapses concurrent calls with the same key into a single call.
+ * <p>
+ * The first caller for a key makes the call. Callers with the same key that arrive while it is in flight wait for
+ * the same result instead of making their own call. Each caller gets its own future, cancelling it only cancels the
+ * call once every caller waiting for the call has cancelled. Once the call completes the next caller for the key
+ * makes a new call.
+ *
+ * @param <K> the type of the key
+ * @param <V> the type of the result
+ * @author Push Technology Limited
+ */
+@ThreadSafe
+/*package*/ final class SingleFlight<K, V> {
+    private final ConcurrentMap<K, Flight> flights = new ConcurrentHashMap<>();
+
+    /**
+     * Make a call or wait for the call with the same key already in flight.
+     *
+     * @param key the key identifying the call
+     * @param call makes the call
+     * @return the result of the call
+     */
+    /*package*/ CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> call) {
+        final Flight flight = new Flight();
+        final Flight existingFlight = flights.putIfAbsent(key, flight);
+        if (existingFlight != null) {
+            final CompletableFuture<V> waiter = existingFlight.join();
+            // The flight may have completed but not yet been removed
+            return waiter == null ? call.get() : waiter;
+        }
+
+        final CompletableFuture<V> waiter = flight.join();
+        final CompletableFuture<V> upstream;
+        try {
+            upstream = call.get();
+        }
+        // CHECKSTYLE.OFF: IllegalCatch
+        catch (RuntimeException e) {
+            flights.remove(key, flight);
+            flight.complete(null, e);
+            throw e;
+        }
+        // CHECKSTYLE.ON: IllegalCatch
+
+        flight.start(upstream);
+        upstream.whenComplete((value, throwable) -> {
+            flights.remove(key, flight);
+            flight.complete(value, throwable);
+        });
+        return waiter;
+    }
+
+    /**
+     * @return the number of calls in flight
+     */
+    /*package*/ int size() {
+        return flights.size();
+    }
+
+    /**
+     * A call in flight and the callers waiting for it.
+     */
+    @ThreadSafe
+    private final class Flight {
+        @GuardedBy("this")
+        private final List<CompletableFuture<V>> waiters = new ArrayList<>(1);
+        @GuardedBy("this")
+        private CompletableFuture<V> upstream;
+        @GuardedBy("this")
+        private boolean isComplete;
+
+        /**
+         * @return the future for a new caller or null if the call has already completed
+         */
+        private synchronized CompletableFuture<V> join() {
+            if (isComplete) {
+                return null;
+            }
+
+            final CompletableFuture<V> waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+            waiter.whenComplete((value, throwable) -> {
+                if (waiter.isCancelled()) {
+                    leave(waiter);
+                }
+            });
+            return waiter;
+        }
+
+        private synchronized void start(CompletableFuture<V> call) {
+            upstream = call;
+            if (waiters.isEmpty()) {
+                // Every caller cancelled while the call was being made
+                call.cancel(false);
+            }
+        }
+
+        private synchronized void leave(CompletableFuture<V> waiter) {
+            waiters.remove(waiter);
+            if (waiters.isEmpty() && !isComplete && upstream != null) {
+                upstream.cancel(false);
+            }
+        }
+
+        private void complete(V value, Throwable throwable) {
+            final List<CompletableFuture<V>> completedWaiters;
+            synchronized (this) {
+                isComplete = true;
+                completedWaiters = new ArrayList<>(waiters);
+                waiters.clear();
+            }
+
+            for (final CompletableFuture<V> waiter : completedWaiters) {
+                if (throwable == null) {
+                    waiter.complete(value);
+                }
+                else if (throwable instanceof CancellationException) {
+                    waiter.cancel(false);
+                }
+                else {
+                    waiter.completeExceptionally(throwable);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.polling;
+
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+import org.apache.http.HttpHeaders;
+
+import net.jcip.annotations.Immutable;
+
+/**
+ * The validators provided by the last response from an endpoint.
+ *
+ * @author Push Technology Limited
+ */
+@Immutable
+/*package*/ final class Validators {
+    private final String entityTag;
+    private final String lastModified;
+
+    private Validators(String entityTag, String lastModified) {
+        this.entityTag = entityTag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Set the conditional request headers.
+     *
+     * @param setHeader sets a header of the request
+     */
+    /*package*/ void applyTo(BiConsumer<String, String> setHeader) {
+        if (entityTag != null) {
+            setHeader.accept(HttpHeaders.IF_NONE_MATCH, entityTag);
+        }
+        if (lastModified != null) {
+            setHeader.accept(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+        }
+    }
+
+    /**
+     * @return the validators provided by the response or null if it provided none
+     */
+    /*package*/ static Validators from(EndpointResponse response) {
+        final String entityTag = response.getHeader(HttpHeaders.ETAG);
+        final String lastModified = response.getHeader(HttpHeaders.LAST_MODIFIED);
+        if (entityTag == null && lastModified == null) {
+            return null;
+        }
+        return new Validators(entityTag, lastModified);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final Validators that = (Validators) o;
+        return Objects.equals(entityTag, that.entityTag) && Objects.equals(lastModified, that.lastModified);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hashCode(entityTag) + Objects.hashCode(lastModified);
+    }
+}
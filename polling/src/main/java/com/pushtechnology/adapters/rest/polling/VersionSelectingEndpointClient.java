@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.polling;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.pushtechnology.adapters.rest.model.latest.EndpointConfig;
+import com.pushtechnology.adapters.rest.model.latest.ServiceConfig;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Implementation of {@link EndpointClient} that selects the client to use based on the HTTP version of the service.
+ *
+ * @author Push Technology Limited
+ */
+@ThreadSafe
+public final class VersionSelectingEndpointClient implements EndpointClient {
+    private final EndpointClient http1Client;
+    private final EndpointClient http2Client;
+
+    /**
+     * Constructor.
+     */
+    public VersionSelectingEndpointClient(EndpointClient http1Client, EndpointClient http2Client) {
+        this.http1Client = http1Client;
+        this.http2Client = http2Client;
+    }
+
+    @Override
+    public CompletableFuture<EndpointResponse> request(
+            ServiceConfig serviceConfig,
+            EndpointConfig endpointConfig) {
+        return select(serviceConfig).request(serviceConfig, endpointConfig);
+    }
+
+    @Override
+    public CompletableFuture<EndpointResponse> conditionalRequest(
+            ServiceConfig serviceConfig,
+            EndpointConfig endpointConfig) {
+        return select(serviceConfig).conditionalRequest(serviceConfig, endpointConfig);
+    }
+
+    private EndpointClient select(ServiceConfig serviceConfig) {
+        return serviceConfig.isHttp2() ? http2Client : http1Client;
+    }
+
+    @Override
+    public void start() {
+        http1Client.start();
+        http2Client.start();
+    }
+
+    @Override
+    public void close() {
+        http1Client.close();
+        http2Client.close();
+    }
+}
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.polling;
+
+import static java.time.format.DateTimeFormatter.RFC_1123_DATE_TIME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.OptionalLong;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+/**
+ * Unit tests for {@link CacheHeaders}.
+ *
+ * @author Push Technology Limited
+ */
+public final class CacheHeadersTest {
+    @Mock
+    private EndpointResponse response;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+    }
+
+    @Test
+    public void noFreshness() {
+        assertFalse(CacheHeaders.getFreshness(response).isPresent());
+    }
+
+    @Test
+    public void maxAge() {
+        when(response.getHeader("cache-control")).thenReturn("public, max-age=60");
+
+        assertEquals(OptionalLong.of(60000L), CacheHeaders.getFreshness(response));
+    }
+
+    @Test
+    public void maxAgeLessAge() {
+        when(response.getHeader("cache-control")).thenReturn("max-age=60");
+        when(response.getHeader("age")).thenReturn("20");
+
+        assertEquals(OptionalLong.of(40000L), CacheHeaders.getFreshness(response));
+    }
+
+    @Test
+    public void noCache() {
+        when(response.getHeader("cache-control")).thenReturn("no-cache, max-age=60");
+
+        assertEquals(OptionalLong.of(0L), CacheHeaders.getFreshness(response));
+    }
+
+    @Test
+    public void expires() {
+        final ZonedDateTime date = ZonedDateTime.of(2021, 6, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+        when(response.getHeader("date")).thenReturn(RFC_1123_DATE_TIME.format(date));
+        when(response.getHeader("expires")).thenReturn(RFC_1123_DATE_TIME.format(date.plusMinutes(5)));
+
+        assertEquals(OptionalLong.of(300000L), CacheHeaders.getFreshness(response));
+    }
+
+    @Test
+    public void maxAgeOverridesExpires() {
+        when(response.getHeader("cache-control")).thenReturn("max-age=10");
+        when(response.getHeader("expires")).thenReturn("0");
+
+        assertEquals(OptionalLong.of(10000L), CacheHeaders.getFreshness(response));
+    }
+
+    @Test
+    public void invalidExpires() {
+        when(response.getHeader("expires")).thenReturn("0");
+
+        assertEquals(OptionalLong.of(0L), CacheHeaders.getFreshness(response));
+    }
+
+    @Test
+    public void retryAfterSeconds() {
+        assertEquals(OptionalLong.of(30000L), CacheHeaders.getRetryAfter(503, "30"));
+        assertEquals(OptionalLong.of(30000L), CacheHeaders.getRetryAfter(429, "30"));
+    }
+
+    @Test
+    public void retryAfterDate() {
+        final ZonedDateTime date = ZonedDateTime.now(ZoneOffset.UTC).plusMinutes(5);
+
+        final OptionalLong retryAfter = CacheHeaders.getRetryAfter(503, RFC_1123_DATE_TIME.format(date));
+
+        assertTrue(retryAfter.isPresent());
+        assertTrue(retryAfter.getAsLong() > 240000L);
+        assertTrue(retryAfter.getAsLong() <= 300000L);
+    }
+
+    @Test
+    public void retryAfterIgnored() {
+        assertFalse(CacheHeaders.getRetryAfter(500, "30").isPresent());
+        assertFalse(CacheHeaders.getRetryAfter(503, null).isPresent());
+        assertFalse(CacheHeaders.getRetryAfter(503, "soon").isPresent());
+    }
+}
@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.polling;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import com.pushtechnology.adapters.rest.metrics.listeners.ResponseCacheListener;
+import com.pushtechnology.adapters.rest.model.latest.EndpointConfig;
+import com.pushtechnology.adapters.rest.model.latest.ResponseCacheConfig;
+import com.pushtechnology.adapters.rest.model.latest.ServiceConfig;
+
+/**
+ * Unit tests for {@link CachingEndpointClient}.
+ *
+ * @author Push Technology Limited
+ */
+public final class CachingEndpointClientTest {
+    @Mock
+    private EndpointClient delegate;
+    @Mock
+    private ResponseCacheListener listener;
+    @Mock
+    private EndpointResponse response0;
+    @Mock
+    private EndpointResponse response1;
+
+    private final EndpointConfig endpointConfig0 = EndpointConfig
+        .builder()
+        .name("endpoint-0")
+        .url("/a/url.json")
+        .produces("json")
+        .topicPath("url")
+        .build();
+    private final EndpointConfig endpointConfig1 = EndpointConfig
+        .builder()
+        .name("endpoint-1")
+        .url("/another/url.json")
+        .produces("json")
+        .topicPath("another")
+        .build();
+    private final ServiceConfig serviceConfig0 = ServiceConfig
+        .builder()
+        .name("service-0")
+        .host("localhost")
+        .endpoints(asList(endpointConfig0, endpointConfig1))
+        .topicPathRoot("test-0")
+        .build();
+    private final ServiceConfig serviceConfig1 = ServiceConfig
+        .builder()
+        .name("service-1")
+        .host("localhost")
+        .endpoints(asList(endpointConfig0, endpointConfig1))
+        .topicPathRoot("test-1")
+        .build();
+
+    private long now;
+    private CachingEndpointClient endpointClient;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+
+        when(response0.getStatusCode()).thenReturn(200);
+        when(response0.getResponseLength()).thenReturn(10);
+        when(response1.getStatusCode()).thenReturn(200);
+        when(response1.getResponseLength()).thenReturn(10);
+        when(delegate.request(serviceConfig0, endpointConfig0)).thenReturn(completedFuture(response0));
+        when(delegate.request(serviceConfig0, endpointConfig1)).thenReturn(completedFuture(response1));
+
+        endpointClient = new CachingEndpointClient(
+            delegate,
+            ResponseCacheConfig.builder().timeToLive(1000L).maxBytes(15L).build(),
+            listener,
+            () -> now);
+    }
+
+    @After
+    public void postConditions() {
+        verifyNoMoreInteractions(delegate, listener);
+    }
+
+    @Test
+    public void startAndClose() {
+        endpointClient.start();
+        verify(delegate).start();
+
+        endpointClient.close();
+        verify(delegate).close();
+    }
+
+    @Test
+    public void requestsShareResponse() {
+        assertSame(response0, endpointClient.request(serviceConfig0, endpointConfig0).join());
+        verify(listener).onResponseCacheMiss(serviceConfig0, endpointConfig0);
+        verify(delegate).request(serviceConfig0, endpointConfig0);
+
+        assertSame(response0, endpointClient.request(serviceConfig1, endpointConfig0).join());
+        verify(listener).onResponseCacheHit(serviceConfig1, endpointConfig0);
+
+        assertEquals(10L, endpointClient.getTotalBytes());
+    }
+
+    @Test
+    public void conditionalRequestNotModified() {
+        assertSame(response0, endpointClient.request(serviceConfig0, endpointConfig0).join());
+        verify(listener).onResponseCacheMiss(serviceConfig0, endpointConfig0);
+        verify(delegate).request(serviceConfig0, endpointConfig0);
+
+        final EndpointResponse notModified = endpointClient.conditionalRequest(serviceConfig0, endpointConfig0).join();
+        verify(listener).onResponseCacheHit(serviceConfig0, endpointConfig0);
+        assertTrue(notModified.isNotModified());
+        assertEquals(0, notModified.getResponseLength());
+
+        assertSame(response0, endpointClient.conditionalRequest(serviceConfig1, endpointConfig0).join());
+        verify(listener).onResponseCacheHit(serviceConfig1, endpointConfig0);
+    }
+
+    @Test
+    public void responseExpires() {
+        endpointClient.request(serviceConfig0, endpointConfig0).join();
+        verify(listener).onResponseCacheMiss(serviceConfig0, endpointConfig0);
+
+        now += TimeUnit.MILLISECONDS.toNanos(1000L);
+
+        endpointClient.request(serviceConfig0, endpointConfig0).join();
+        verify(listener, times(2)).onResponseCacheMiss(serviceConfig0, endpointConfig0);
+        verify(delegate, times(2)).request(serviceConfig0, endpointConfig0);
+        verify(listener).onResponseCacheEviction(10);
+        assertEquals(10L, endpointClient.getTotalBytes());
+    }
+
+    @Test
+    public void expiredResponsesPurged() {
+        endpointClient = new CachingEndpointClient(
+            delegate,
+            ResponseCacheConfig.builder().timeToLive(1000L).maxBytes(100L).build(),
+            listener,
+            () -> now);
+
+        endpointClient.request(serviceConfig0, endpointConfig0).join();
+        verify(listener).onResponseCacheMiss(serviceConfig0, endpointConfig0);
+        verify(delegate).request(serviceConfig0, endpointConfig0);
+        assertEquals(10L, endpointClient.getTotalBytes());
+
+        now += TimeUnit.MILLISECONDS.toNanos(1000L);
+
+        // The expired response is purged when another response is cached
+        endpointClient.request(serviceConfig0, endpointConfig1).join();
+        verify(listener).onResponseCacheMiss(serviceConfig0, endpointConfig1);
+        verify(delegate).request(serviceConfig0, endpointConfig1);
+        verify(listener).onResponseCacheEviction(10);
+        assertEquals(10L, endpointClient.getTotalBytes());
+    }
+
+    @Test
+    public void declaredFreshness() {
+        when(response0.getHeader("cache-control")).thenReturn("max-age=0");
+
+        endpointClient.request(serviceConfig0, endpointConfig0).join();
+        endpointClient.request(serviceConfig0, endpointConfig0).join();
+
+        verify(listener, times(2)).onResponseCacheMiss(serviceConfig0, endpointConfig0);
+        verify(delegate, times(2)).request(serviceConfig0, endpointConfig0);
+        assertEquals(0L, endpointClient.getTotalBytes());
+    }
+
+    @Test
+    public void notModifiedNotCached() {
+        when(response0.getStatusCode()).thenReturn(304);
+        when(delegate.conditionalRequest(serviceConfig0, endpointConfig0)).thenReturn(completedFuture(response0));
+
+        endpointClient.conditionalRequest(serviceConfig0, endpointConfig0).join();
+        verify(listener).onResponseCacheMiss(serviceConfig0, endpointConfig0);
+        verify(delegate).conditionalRequest(serviceConfig0, endpointConfig0);
+
+        assertEquals(0L, endpointClient.getTotalBytes());
+    }
+
+    @Test
+    public void leastRecentlyUsedEvicted() {
+        endpointClient.request(serviceConfig0, endpointConfig0).join();
+        verify(listener).onResponseCacheMiss(serviceConfig0, endpointConfig0);
+        verify(delegate).request(serviceConfig0, endpointConfig0);
+
+        endpointClient.request(serviceConfig0, endpointConfig1).join();
+        verify(listener).onResponseCacheMiss(serviceConfig0, endpointConfig1);
+        verify(delegate).request(serviceConfig0, endpointConfig1);
+        verify(listener).onResponseCacheEviction(10);
+        assertEquals(10L, endpointClient.getTotalBytes());
+
+        assertSame(response1, endpointClient.request(serviceConfig1, endpointConfig1).join());
+        verify(listener).onResponseCacheHit(serviceConfig1, endpointConfig1);
+    }
+}
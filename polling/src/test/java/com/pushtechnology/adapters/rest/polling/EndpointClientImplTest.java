@@ -15,12 +15,19 @@
 
 package com.pushtechnology.adapters.rest.polling;
 
+import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.isA;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -32,17 +39,26 @@ import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpHost;
 import org.apache.http.HttpRequest;
 import org.apache.http.HttpResponse;
 import org.apache.http.StatusLine;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpGet;
 import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.conn.routing.HttpRoute;
 import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.pool.PoolStats;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -52,6 +68,7 @@ import org.mockito.Mock;
 
 import com.pushtechnology.adapters.rest.metrics.listeners.PollListener;
 import com.pushtechnology.adapters.rest.metrics.listeners.PollListener.PollCompletionListener;
+import com.pushtechnology.adapters.rest.model.latest.ConnectionPoolConfig;
 import com.pushtechnology.adapters.rest.model.latest.DiffusionConfig;
 import com.pushtechnology.adapters.rest.model.latest.EndpointConfig;
 import com.pushtechnology.adapters.rest.model.latest.MetricsConfig;
@@ -67,6 +84,8 @@ public final class EndpointClientImplTest {
     @Mock
     private HttpClientFactory clientFactory;
     @Mock
+    private PoolingNHttpClientConnectionManager connectionManager;
+    @Mock
     private CloseableHttpAsyncClient httpClient;
     @Mock
     private Future<HttpResponse> future;
@@ -80,8 +99,16 @@ public final class EndpointClientImplTest {
     private PollListener pollListener;
     @Mock
     private PollCompletionListener completionListener;
+    @Mock
+    private ScheduledExecutorService executor;
+    @Mock
+    private ScheduledFuture<?> scheduledFuture;
+    @Captor
+    private ArgumentCaptor<Runnable> runnableCaptor;
     @Captor
     private ArgumentCaptor<FutureCallback<HttpResponse>> callbackCaptor;
+    @Captor
+    private ArgumentCaptor<HttpRequest> requestCaptor;
 
     private final EndpointConfig endpointConfig = EndpointConfig
         .builder()
@@ -117,7 +144,9 @@ public final class EndpointClientImplTest {
     public void setUp() throws IOException {
         initMocks(this);
 
-        when(clientFactory.create(model, null)).thenReturn(httpClient);
+        when(clientFactory.createConnectionManager(model, null)).thenReturn(connectionManager);
+        when(clientFactory.create(model, connectionManager)).thenReturn(httpClient);
+        when(connectionManager.getStats(isA(HttpRoute.class))).thenReturn(new PoolStats(1, 0, 1, 2));
         when(httpClient.execute(isA(HttpHost.class), isA(HttpRequest.class), isA(FutureCallback.class)))
             .thenReturn(future);
         when(response.getStatusLine()).thenReturn(statusLine);
@@ -127,7 +156,10 @@ public final class EndpointClientImplTest {
         when(statusLine.getStatusCode()).thenReturn(200);
         when(pollListener.onPollRequest(serviceConfig, endpointConfig)).thenReturn(completionListener);
 
-        endpointClient = new EndpointClientImpl(model, null, clientFactory, pollListener);
+        when(executor.scheduleAtFixedRate(isA(Runnable.class), eq(1000L), eq(1000L), eq(MILLISECONDS)))
+            .thenAnswer(invocation -> scheduledFuture);
+
+        endpointClient = new EndpointClientImpl(model, null, clientFactory, executor, pollListener);
     }
 
     @After
@@ -139,8 +171,54 @@ public final class EndpointClientImplTest {
     public void start() {
         endpointClient.start();
 
-        verify(clientFactory).create(model, null);
+        verify(clientFactory).createConnectionManager(model, null);
+        verify(clientFactory).create(model, connectionManager);
+        verify(httpClient).start();
+    }
+
+    @Test
+    public void reportConnectionPools() {
+        endpointClient.start();
+
+        verify(clientFactory).createConnectionManager(model, null);
+        verify(clientFactory).create(model, connectionManager);
+        verify(httpClient).start();
+        verify(executor).scheduleAtFixedRate(runnableCaptor.capture(), eq(1000L), eq(1000L), eq(MILLISECONDS));
+
+        runnableCaptor.getValue().run();
+
+        verify(connectionManager).getStats(new HttpRoute(new HttpHost("localhost", 8080, "https"), null, true));
+        verify(pollListener).onConnectionPool(serviceConfig, 1, 0, 1);
+    }
+
+    @Test
+    public void reportConnectionPoolOfSharedHostOnce() {
+        final ServiceConfig otherServiceConfig = ServiceConfig
+            .builder()
+            .name("other")
+            .host("localhost")
+            .port(8080)
+            .endpoints(singletonList(endpointConfig))
+            .topicPathRoot("other")
+            .build();
+        final Model sharedHostModel = Model
+            .builder()
+            .services(asList(serviceConfig, otherServiceConfig))
+            .build();
+        when(clientFactory.createConnectionManager(sharedHostModel, null)).thenReturn(connectionManager);
+        when(clientFactory.create(sharedHostModel, connectionManager)).thenReturn(httpClient);
+        endpointClient = new EndpointClientImpl(sharedHostModel, null, clientFactory, executor, pollListener);
+
+        endpointClient.start();
+
+        verify(clientFactory).createConnectionManager(sharedHostModel, null);
+        verify(clientFactory).create(sharedHostModel, connectionManager);
         verify(httpClient).start();
+        verify(executor).scheduleAtFixedRate(runnableCaptor.capture(), eq(1000L), eq(1000L), eq(MILLISECONDS));
+
+        runnableCaptor.getValue().run();
+
+        verify(pollListener).onConnectionPool(serviceConfig, 1, 0, 1);
     }
 
     @SuppressWarnings("unchecked")
@@ -148,7 +226,8 @@ public final class EndpointClientImplTest {
     public void request() {
         endpointClient.start();
 
-        verify(clientFactory).create(model, null);
+        verify(clientFactory).createConnectionManager(model, null);
+        verify(clientFactory).create(model, connectionManager);
         verify(httpClient).start();
 
         final Future<?> handle =  endpointClient.request(serviceConfig, endpointConfig);
@@ -162,7 +241,8 @@ public final class EndpointClientImplTest {
     public void requestResponse() throws IOException, InterruptedException, ExecutionException, TimeoutException {
         endpointClient.start();
 
-        verify(clientFactory).create(model, null);
+        verify(clientFactory).createConnectionManager(model, null);
+        verify(clientFactory).create(model, connectionManager);
         verify(httpClient).start();
 
         final CompletableFuture<EndpointResponse> handle = endpointClient.request(serviceConfig, endpointConfig);
@@ -184,7 +264,8 @@ public final class EndpointClientImplTest {
     public void requestResponseFailed() throws InterruptedException, ExecutionException, TimeoutException {
         endpointClient.start();
 
-        verify(clientFactory).create(model, null);
+        verify(clientFactory).createConnectionManager(model, null);
+        verify(clientFactory).create(model, connectionManager);
         verify(httpClient).start();
 
         final CompletableFuture<EndpointResponse> handle = endpointClient.request(serviceConfig, endpointConfig);
@@ -204,11 +285,36 @@ public final class EndpointClientImplTest {
         assertEquals(thrown.getCause(), exception);
     }
 
+    @Test
+    public void requestResponseRetryAfter() throws InterruptedException, ExecutionException, TimeoutException {
+        when(statusLine.getStatusCode()).thenReturn(503);
+        when(response.getFirstHeader(HttpHeaders.RETRY_AFTER)).thenReturn(new BasicHeader(HttpHeaders.RETRY_AFTER, "120"));
+
+        endpointClient.start();
+
+        verify(clientFactory).createConnectionManager(model, null);
+        verify(clientFactory).create(model, connectionManager);
+        verify(httpClient).start();
+
+        final CompletableFuture<EndpointResponse> handle = endpointClient.request(serviceConfig, endpointConfig);
+
+        verify(pollListener).onPollRequest(serviceConfig, endpointConfig);
+        verify(httpClient).execute(isA(HttpHost.class), isA(HttpRequest.class), callbackCaptor.capture());
+
+        callbackCaptor.getValue().completed(response);
+        final ExecutionException thrown = assertThrows(
+            ExecutionException.class,
+            () -> handle.get(1, TimeUnit.SECONDS));
+        assertTrue(thrown.getCause() instanceof RetryAfterException);
+        assertEquals(120000L, ((RetryAfterException) thrown.getCause()).getRetryAfter());
+    }
+
     @Test
     public void requestResponseCancelled() throws InterruptedException, ExecutionException, TimeoutException {
         endpointClient.start();
 
-        verify(clientFactory).create(model, null);
+        verify(clientFactory).createConnectionManager(model, null);
+        verify(clientFactory).create(model, connectionManager);
         verify(httpClient).start();
 
         final CompletableFuture<EndpointResponse> handle = endpointClient.request(serviceConfig, endpointConfig);
@@ -225,6 +331,197 @@ public final class EndpointClientImplTest {
             () -> handle.get(1, TimeUnit.SECONDS));
     }
 
+    @Test
+    public void requestCancelledAborts() {
+        endpointClient.start();
+
+        verify(clientFactory).createConnectionManager(model, null);
+        verify(clientFactory).create(model, connectionManager);
+        verify(httpClient).start();
+
+        final CompletableFuture<EndpointResponse> handle = endpointClient.request(serviceConfig, endpointConfig);
+
+        verify(pollListener).onPollRequest(serviceConfig, endpointConfig);
+        verify(httpClient).execute(isA(HttpHost.class), isA(HttpRequest.class), isA(FutureCallback.class));
+
+        handle.cancel(false);
+        verify(future).cancel(true);
+    }
+
+    @Test
+    public void concurrentRequestsCollapsed() throws InterruptedException, ExecutionException, TimeoutException {
+        final EndpointConfig sameUrlEndpointConfig = EndpointConfig
+            .builder()
+            .name("other-endpoint")
+            .url("/a/url.json")
+            .produces("string")
+            .topicPath("other")
+            .build();
+
+        endpointClient.start();
+
+        verify(clientFactory).createConnectionManager(model, null);
+        verify(clientFactory).create(model, connectionManager);
+        verify(httpClient).start();
+
+        final CompletableFuture<EndpointResponse> handle0 = endpointClient.request(serviceConfig, endpointConfig);
+        final CompletableFuture<EndpointResponse> handle1 = endpointClient.request(serviceConfig, sameUrlEndpointConfig);
+
+        verify(pollListener).onPollRequest(serviceConfig, endpointConfig);
+        verify(httpClient).execute(isA(HttpHost.class), isA(HttpRequest.class), callbackCaptor.capture());
+
+        callbackCaptor.getValue().completed(response);
+        final EndpointResponse endpointResponse = handle0.get(1, TimeUnit.SECONDS);
+        verify(completionListener).onPollResponse(endpointResponse);
+        assertEquals(endpointResponse, handle1.get(1, TimeUnit.SECONDS));
+
+        // Once the response has been received requests are made again
+        endpointClient.request(serviceConfig, sameUrlEndpointConfig);
+        verify(pollListener).onPollRequest(serviceConfig, sameUrlEndpointConfig);
+        verify(httpClient, times(2)).execute(isA(HttpHost.class), isA(HttpRequest.class), isA(FutureCallback.class));
+    }
+
+    @Test
+    public void collapsedRequestCancelled() {
+        endpointClient.start();
+
+        verify(clientFactory).createConnectionManager(model, null);
+        verify(clientFactory).create(model, connectionManager);
+        verify(httpClient).start();
+
+        final CompletableFuture<EndpointResponse> handle0 = endpointClient.request(serviceConfig, endpointConfig);
+        final CompletableFuture<EndpointResponse> handle1 = endpointClient.request(serviceConfig, endpointConfig);
+
+        verify(pollListener).onPollRequest(serviceConfig, endpointConfig);
+        verify(httpClient).execute(isA(HttpHost.class), isA(HttpRequest.class), isA(FutureCallback.class));
+
+        // The request is only aborted once every endpoint waiting for it has cancelled
+        handle0.cancel(false);
+        verify(future, never()).cancel(true);
+        handle1.cancel(false);
+        verify(future).cancel(true);
+    }
+
+    @Test
+    public void conditionalRequestRevalidates() throws InterruptedException, ExecutionException, TimeoutException {
+        when(response.getFirstHeader(HttpHeaders.ETAG)).thenReturn(new BasicHeader(HttpHeaders.ETAG, "\"tag\""));
+
+        endpointClient.start();
+
+        verify(clientFactory).createConnectionManager(model, null);
+        verify(clientFactory).create(model, connectionManager);
+        verify(httpClient).start();
+
+        final CompletableFuture<EndpointResponse> handle = endpointClient.request(serviceConfig, endpointConfig);
+
+        verify(pollListener).onPollRequest(serviceConfig, endpointConfig);
+        verify(httpClient).execute(isA(HttpHost.class), requestCaptor.capture(), callbackCaptor.capture());
+        assertNull(requestCaptor.getValue().getFirstHeader(HttpHeaders.IF_NONE_MATCH));
+
+        callbackCaptor.getValue().completed(response);
+        verify(completionListener).onPollResponse(handle.get(1, TimeUnit.SECONDS));
+
+        endpointClient.conditionalRequest(serviceConfig, endpointConfig);
+
+        verify(pollListener, times(2)).onPollRequest(serviceConfig, endpointConfig);
+        verify(httpClient, times(2)).execute(isA(HttpHost.class), requestCaptor.capture(), callbackCaptor.capture());
+        assertEquals("\"tag\"", requestCaptor.getValue().getFirstHeader(HttpHeaders.IF_NONE_MATCH).getValue());
+        assertNull(requestCaptor.getValue().getFirstHeader(HttpHeaders.IF_MODIFIED_SINCE));
+    }
+
+    @Test
+    public void conditionalRequestOtherService() throws InterruptedException, ExecutionException, TimeoutException {
+        final ServiceConfig otherServiceConfig = ServiceConfig
+            .builder()
+            .name("other")
+            .host("localhost")
+            .port(8080)
+            .endpoints(singletonList(endpointConfig))
+            .topicPathRoot("other")
+            .build();
+        when(pollListener.onPollRequest(otherServiceConfig, endpointConfig)).thenReturn(completionListener);
+        when(response.getFirstHeader(HttpHeaders.ETAG)).thenReturn(new BasicHeader(HttpHeaders.ETAG, "\"tag\""));
+
+        endpointClient.start();
+
+        verify(clientFactory).createConnectionManager(model, null);
+        verify(clientFactory).create(model, connectionManager);
+        verify(httpClient).start();
+
+        final CompletableFuture<EndpointResponse> handle = endpointClient.request(serviceConfig, endpointConfig);
+
+        verify(pollListener).onPollRequest(serviceConfig, endpointConfig);
+        verify(httpClient).execute(isA(HttpHost.class), isA(HttpRequest.class), callbackCaptor.capture());
+
+        callbackCaptor.getValue().completed(response);
+        verify(completionListener).onPollResponse(handle.get(1, TimeUnit.SECONDS));
+
+        endpointClient.conditionalRequest(otherServiceConfig, endpointConfig);
+
+        verify(pollListener).onPollRequest(otherServiceConfig, endpointConfig);
+        verify(httpClient, times(2)).execute(isA(HttpHost.class), requestCaptor.capture(), callbackCaptor.capture());
+        assertNull(requestCaptor.getValue().getFirstHeader(HttpHeaders.IF_NONE_MATCH));
+        assertNull(requestCaptor.getValue().getFirstHeader(HttpHeaders.IF_MODIFIED_SINCE));
+    }
+
+    @Test
+    public void conditionalRequestNotModified() throws InterruptedException, ExecutionException, TimeoutException {
+        when(statusLine.getStatusCode()).thenReturn(304);
+        when(response.getEntity()).thenReturn(null);
+
+        endpointClient.start();
+
+        verify(clientFactory).createConnectionManager(model, null);
+        verify(clientFactory).create(model, connectionManager);
+        verify(httpClient).start();
+
+        final CompletableFuture<EndpointResponse> handle = endpointClient.conditionalRequest(serviceConfig, endpointConfig);
+
+        verify(pollListener).onPollRequest(serviceConfig, endpointConfig);
+        verify(httpClient).execute(isA(HttpHost.class), isA(HttpRequest.class), callbackCaptor.capture());
+
+        callbackCaptor.getValue().completed(response);
+        final EndpointResponse endpointResponse = handle.get(1, TimeUnit.SECONDS);
+        verify(completionListener).onPollNotModified();
+        assertTrue(endpointResponse.isNotModified());
+        assertEquals(0, endpointResponse.getResponseLength());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void requestWithConnectionPoolConfig() {
+        final ServiceConfig tunedServiceConfig = ServiceConfig
+            .builder()
+            .name("service")
+            .host("localhost")
+            .port(8080)
+            .secure(false)
+            .endpoints(singletonList(endpointConfig))
+            .topicPathRoot("test")
+            .connectionPool(ConnectionPoolConfig
+                .builder()
+                .connectTimeout(1000)
+                .socketTimeout(2000)
+                .build())
+            .build();
+        when(pollListener.onPollRequest(tunedServiceConfig, endpointConfig)).thenReturn(completionListener);
+
+        endpointClient.start();
+
+        verify(clientFactory).createConnectionManager(model, null);
+        verify(clientFactory).create(model, connectionManager);
+        verify(httpClient).start();
+
+        endpointClient.request(tunedServiceConfig, endpointConfig);
+
+        verify(pollListener).onPollRequest(tunedServiceConfig, endpointConfig);
+        verify(httpClient).execute(isA(HttpHost.class), requestCaptor.capture(), isA(FutureCallback.class));
+        final RequestConfig requestConfig = ((HttpGet) requestCaptor.getValue()).getConfig();
+        assertEquals(1000, requestConfig.getConnectTimeout());
+        assertEquals(2000, requestConfig.getSocketTimeout());
+        assertEquals(-1, requestConfig.getConnectionRequestTimeout());
+    }
+
     @Test(expected = IllegalStateException.class)
     public void requestBeforeStart() {
         endpointClient.request(serviceConfig, endpointConfig);
@@ -234,11 +531,13 @@ public final class EndpointClientImplTest {
     public void close() throws IOException {
         endpointClient.start();
 
-        verify(clientFactory).create(model, null);
+        verify(clientFactory).createConnectionManager(model, null);
+        verify(clientFactory).create(model, connectionManager);
         verify(httpClient).start();
 
         endpointClient.close();
 
         verify(httpClient).close();
+        verify(scheduledFuture).cancel(false);
     }
 }
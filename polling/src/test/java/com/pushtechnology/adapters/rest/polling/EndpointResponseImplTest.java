@@ -15,11 +15,17 @@
 
 package com.pushtechnology.adapters.rest.polling;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 import org.apache.http.ProtocolVersion;
 import org.apache.http.entity.BasicHttpEntity;
@@ -57,11 +63,71 @@ public final class EndpointResponseImplTest {
         assertEquals(200, response.getStatusCode());
     }
 
+    @Test
+    public void getResponseBuffer() throws IOException {
+        final ByteBuffer buffer = createResponse().getResponseBuffer();
+        assertTrue(buffer.isReadOnly());
+        assertEquals(StandardCharsets.UTF_8.encode("Hello, world!"), buffer);
+    }
+
+    @Test
+    public void getResponseStream() throws IOException {
+        final InputStream stream = createResponse().getResponseStream();
+        final byte[] content = new byte[20];
+        assertEquals(13, stream.read(content));
+        assertEquals("Hello, world!", new String(content, 0, 13, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void getResponseText() throws IOException {
+        final EndpointResponse response = createResponse();
+        assertEquals("Hello, world!", response.getResponseText(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void unknownContentLength() throws IOException {
+        final byte[] content = new byte[20000];
+        Arrays.fill(content, (byte) 'a');
+        final ProtocolVersion protocolVersion = new ProtocolVersion("HTTP", 1, 1);
+        final BasicHttpResponse httpResponse = new BasicHttpResponse(protocolVersion, 200, "OK");
+        final BasicHttpEntity httpEntity = new BasicHttpEntity();
+        httpEntity.setContent(new ByteArrayInputStream(content));
+        httpResponse.setEntity(httpEntity);
+
+        final EndpointResponse response = EndpointResponseImpl.create(httpResponse);
+        assertEquals(20000, response.getResponseLength());
+        assertArrayEquals(content, response.getResponse());
+    }
+
+    @Test
+    public void incorrectContentLength() throws IOException {
+        final ProtocolVersion protocolVersion = new ProtocolVersion("HTTP", 1, 1);
+        final BasicHttpResponse httpResponse = new BasicHttpResponse(protocolVersion, 200, "OK");
+        final BasicHttpEntity httpEntity = new BasicHttpEntity();
+        httpEntity.setContent(new ByteArrayInputStream("Hello, world!".getBytes()));
+        httpEntity.setContentLength(5);
+        httpResponse.setEntity(httpEntity);
+
+        final EndpointResponse response = EndpointResponseImpl.create(httpResponse);
+        assertEquals("Hello, world!", new String(response.getResponse(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void notModified() throws IOException {
+        final ProtocolVersion protocolVersion = new ProtocolVersion("HTTP", 1, 1);
+        final BasicHttpResponse httpResponse = new BasicHttpResponse(protocolVersion, 304, "Not Modified");
+        final EndpointResponse response = EndpointResponseImpl.create(httpResponse);
+        assertTrue(response.isNotModified());
+        assertEquals(0, response.getResponseLength());
+        assertFalse(createResponse().isNotModified());
+    }
+
     private EndpointResponse createResponse() throws IOException {
         final ProtocolVersion protocolVersion = new ProtocolVersion("HTTP", 1, 1);
         final BasicHttpResponse httpResponse = new BasicHttpResponse(protocolVersion, 200, "OK");
         final BasicHttpEntity httpEntity = new BasicHttpEntity();
         httpEntity.setContent(new ByteArrayInputStream("Hello, world!".getBytes()));
+        httpEntity.setContentLength(13);
         httpResponse.setEntity(httpEntity);
         httpResponse.addHeader("Content-Type", "text/plain");
         return EndpointResponseImpl.create(httpResponse);
@@ -0,0 +1,284 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.polling;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import com.pushtechnology.adapters.rest.metrics.listeners.PollListener;
+import com.pushtechnology.adapters.rest.metrics.listeners.PollListener.PollCompletionListener;
+import com.pushtechnology.adapters.rest.model.latest.ConnectionPoolConfig;
+import com.pushtechnology.adapters.rest.model.latest.DiffusionConfig;
+import com.pushtechnology.adapters.rest.model.latest.EndpointConfig;
+import com.pushtechnology.adapters.rest.model.latest.MetricsConfig;
+import com.pushtechnology.adapters.rest.model.latest.Model;
+import com.pushtechnology.adapters.rest.model.latest.ServiceConfig;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Unit tests for {@link Http2EndpointClientImpl}.
+ *
+ * @author Push Technology Limited
+ */
+public final class Http2EndpointClientImplTest {
+    @Mock
+    private PollListener pollListener;
+    @Mock
+    private PollCompletionListener completionListener;
+
+    private final EndpointConfig endpointConfig = EndpointConfig
+        .builder()
+        .name("endpoint")
+        .url("/a/url.json")
+        .produces("json")
+        .topicPath("url")
+        .build();
+    private final EndpointConfig missingEndpointConfig = EndpointConfig
+        .builder()
+        .name("missing")
+        .url("/missing.json")
+        .produces("json")
+        .topicPath("missing")
+        .build();
+    private final EndpointConfig slowEndpointConfig = EndpointConfig
+        .builder()
+        .name("slow")
+        .url("/slow.json")
+        .produces("json")
+        .topicPath("slow")
+        .build();
+    private final CountDownLatch slowResponse = new CountDownLatch(1);
+
+    private HttpServer server;
+    private ServiceConfig serviceConfig;
+    private Http2EndpointClientImpl endpointClient;
+
+    @Before
+    public void setUp() throws IOException {
+        initMocks(this);
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/a/url.json", this::handle);
+        server.createContext("/slow.json", this::handleSlow);
+        server.start();
+
+        serviceConfig = ServiceConfig
+            .builder()
+            .name("service")
+            .host("localhost")
+            .port(server.getAddress().getPort())
+            .secure(false)
+            .http2(true)
+            .endpoints(singletonList(endpointConfig))
+            .topicPathRoot("test")
+            .build();
+        final Model model = Model
+            .builder()
+            .diffusion(DiffusionConfig
+                .builder()
+                .host("example.com")
+                .build())
+            .services(singletonList(serviceConfig))
+            .metrics(MetricsConfig
+                .builder()
+                .build())
+            .build();
+
+        when(pollListener.onPollRequest(isA(ServiceConfig.class), isA(EndpointConfig.class)))
+            .thenReturn(completionListener);
+
+        endpointClient = new Http2EndpointClientImpl(model, null, pollListener);
+    }
+
+    @After
+    public void postConditions() {
+        slowResponse.countDown();
+        endpointClient.close();
+        server.stop(0);
+        verifyNoMoreInteractions(pollListener, completionListener);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        if ("\"tag\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+
+        final byte[] body = "{}".getBytes(UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.getResponseHeaders().add("ETag", "\"tag\"");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+
+    private void handleSlow(HttpExchange exchange) throws IOException {
+        try {
+            slowResponse.await(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        handle(exchange);
+    }
+
+    @Test
+    public void requestResponse() throws InterruptedException, ExecutionException, TimeoutException {
+        endpointClient.start();
+
+        final EndpointResponse response =
+            endpointClient.request(serviceConfig, endpointConfig).get(5, TimeUnit.SECONDS);
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals("application/json", response.getContentType());
+        assertEquals("{}", response.getResponseText(UTF_8));
+        verify(pollListener).onPollRequest(serviceConfig, endpointConfig);
+        verify(completionListener, timeout(5000)).onPollResponse(response);
+    }
+
+    @Test
+    public void conditionalRequestNotModified() throws InterruptedException, ExecutionException, TimeoutException {
+        endpointClient.start();
+
+        final EndpointResponse response =
+            endpointClient.request(serviceConfig, endpointConfig).get(5, TimeUnit.SECONDS);
+        verify(completionListener, timeout(5000)).onPollResponse(response);
+
+        final EndpointResponse notModified =
+            endpointClient.conditionalRequest(serviceConfig, endpointConfig).get(5, TimeUnit.SECONDS);
+
+        assertTrue(notModified.isNotModified());
+        assertEquals(0, notModified.getResponseLength());
+        verify(pollListener, timeout(5000).times(2)).onPollRequest(serviceConfig, endpointConfig);
+        verify(completionListener, timeout(5000)).onPollNotModified();
+    }
+
+    @Test
+    public void conditionalRequestOtherService() throws InterruptedException, ExecutionException, TimeoutException {
+        final ServiceConfig otherServiceConfig = ServiceConfig
+            .builder()
+            .name("other")
+            .host("localhost")
+            .port(server.getAddress().getPort())
+            .secure(false)
+            .http2(true)
+            .endpoints(singletonList(endpointConfig))
+            .topicPathRoot("other")
+            .build();
+
+        endpointClient.start();
+
+        final EndpointResponse response =
+            endpointClient.request(serviceConfig, endpointConfig).get(5, TimeUnit.SECONDS);
+        verify(completionListener, timeout(5000)).onPollResponse(response);
+
+        final EndpointResponse otherResponse =
+            endpointClient.conditionalRequest(otherServiceConfig, endpointConfig).get(5, TimeUnit.SECONDS);
+
+        assertFalse(otherResponse.isNotModified());
+        assertEquals("{}", otherResponse.getResponseText(UTF_8));
+        verify(pollListener).onPollRequest(serviceConfig, endpointConfig);
+        verify(pollListener).onPollRequest(otherServiceConfig, endpointConfig);
+        verify(completionListener, timeout(5000)).onPollResponse(otherResponse);
+    }
+
+    @Test
+    public void requestSocketTimeout() throws InterruptedException {
+        final ServiceConfig tunedServiceConfig = ServiceConfig
+            .builder()
+            .name("service")
+            .host("localhost")
+            .port(server.getAddress().getPort())
+            .secure(false)
+            .http2(true)
+            .endpoints(singletonList(slowEndpointConfig))
+            .topicPathRoot("test")
+            .connectionPool(ConnectionPoolConfig
+                .builder()
+                .connectTimeout(1000)
+                .socketTimeout(100)
+                .build())
+            .build();
+
+        endpointClient.start();
+
+        final ExecutionException e = assertThrows(
+            ExecutionException.class,
+            () -> endpointClient.request(tunedServiceConfig, slowEndpointConfig).get(5, TimeUnit.SECONDS));
+
+        assertTrue(e.getCause() instanceof HttpTimeoutException);
+        verify(pollListener).onPollRequest(tunedServiceConfig, slowEndpointConfig);
+        verify(completionListener, timeout(5000)).onPollFailure(isA(HttpTimeoutException.class));
+    }
+
+    @Test
+    public void cancelRequest() {
+        endpointClient.start();
+
+        final CompletableFuture<EndpointResponse> handle = endpointClient.request(serviceConfig, slowEndpointConfig);
+        verify(pollListener).onPollRequest(serviceConfig, slowEndpointConfig);
+
+        handle.cancel(false);
+        slowResponse.countDown();
+
+        assertTrue(handle.isCancelled());
+        verify(completionListener, never()).onPollResponse(isA(EndpointResponse.class));
+    }
+
+    @Test
+    public void requestNotFound() {
+        endpointClient.start();
+
+        assertThrows(
+            ExecutionException.class,
+            () -> endpointClient.request(serviceConfig, missingEndpointConfig).get(5, TimeUnit.SECONDS));
+        verify(pollListener).onPollRequest(serviceConfig, missingEndpointConfig);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void requestBeforeStart() {
+        endpointClient.request(serviceConfig, endpointConfig);
+    }
+}
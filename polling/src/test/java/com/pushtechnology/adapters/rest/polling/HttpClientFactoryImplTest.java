@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.polling;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+
+import org.apache.http.HttpHost;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.junit.Test;
+
+import com.pushtechnology.adapters.rest.model.latest.ConnectionPoolConfig;
+import com.pushtechnology.adapters.rest.model.latest.DiffusionConfig;
+import com.pushtechnology.adapters.rest.model.latest.MetricsConfig;
+import com.pushtechnology.adapters.rest.model.latest.Model;
+import com.pushtechnology.adapters.rest.model.latest.ServiceConfig;
+
+/**
+ * Unit tests for {@link HttpClientFactoryImpl}.
+ *
+ * @author Push Technology Limited
+ */
+public final class HttpClientFactoryImplTest {
+    private final ServiceConfig defaultServiceConfig = ServiceConfig
+        .builder()
+        .name("default")
+        .host("localhost")
+        .port(8080)
+        .secure(false)
+        .topicPathRoot("default")
+        .build();
+    private final ServiceConfig tunedServiceConfig = ServiceConfig
+        .builder()
+        .name("tuned")
+        .host("example.com")
+        .connectionPool(ConnectionPoolConfig
+            .builder()
+            .maxConnections(8)
+            .build())
+        .topicPathRoot("tuned")
+        .build();
+    private final Model model = Model
+        .builder()
+        .diffusion(DiffusionConfig
+            .builder()
+            .host("example.com")
+            .build())
+        .services(asList(defaultServiceConfig, tunedServiceConfig))
+        .metrics(MetricsConfig
+            .builder()
+            .build())
+        .build();
+
+    @Test
+    public void createConnectionManager() throws IOException {
+        final PoolingNHttpClientConnectionManager connectionManager =
+            new HttpClientFactoryImpl().createConnectionManager(model, null);
+
+        try {
+            assertEquals(
+                2,
+                connectionManager.getMaxPerRoute(new HttpRoute(new HttpHost("localhost", 8080, "http"), null, false)));
+            assertEquals(
+                8,
+                connectionManager.getMaxPerRoute(new HttpRoute(new HttpHost("example.com", 443, "https"), null, true)));
+            assertEquals(10, connectionManager.getMaxTotal());
+        }
+        finally {
+            connectionManager.shutdown();
+        }
+    }
+
+    @Test
+    public void createConnectionManagerWithMaxConnections() throws IOException {
+        final Model limitedModel = Model
+            .builder()
+            .services(asList(defaultServiceConfig, tunedServiceConfig))
+            .maxConnections(4)
+            .build();
+        final PoolingNHttpClientConnectionManager connectionManager =
+            new HttpClientFactoryImpl().createConnectionManager(limitedModel, null);
+
+        try {
+            assertEquals(
+                8,
+                connectionManager.getMaxPerRoute(new HttpRoute(new HttpHost("example.com", 443, "https"), null, true)));
+            assertEquals(4, connectionManager.getMaxTotal());
+        }
+        finally {
+            connectionManager.shutdown();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.polling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link SingleFlight}.
+ *
+ * @author Push Technology Limited
+ */
+public final class SingleFlightTest {
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CompletableFuture<String> upstream = new CompletableFuture<>();
+
+    private CompletableFuture<String> call() {
+        calls.incrementAndGet();
+        return upstream;
+    }
+
+    @Test
+    public void collapsesConcurrentCalls() throws Exception {
+        final CompletableFuture<String> result0 = singleFlight.execute("key", this::call);
+        final CompletableFuture<String> result1 = singleFlight.execute("key", this::call);
+
+        assertEquals(1, calls.get());
+        assertNotSame(result0, result1);
+        assertEquals(1, singleFlight.size());
+
+        upstream.complete("value");
+
+        assertEquals("value", result0.get());
+        assertEquals("value", result1.get());
+        assertEquals(0, singleFlight.size());
+    }
+
+    @Test
+    public void separatesKeys() {
+        singleFlight.execute("key0", this::call);
+        singleFlight.execute("key1", this::call);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void callsAgainAfterCompletion() {
+        singleFlight.execute("key", this::call);
+        upstream.complete("value");
+        singleFlight.execute("key", this::call);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void failure() {
+        final CompletableFuture<String> result0 = singleFlight.execute("key", this::call);
+        final CompletableFuture<String> result1 = singleFlight.execute("key", this::call);
+
+        final Exception exception = new Exception("Intentional for test");
+        upstream.completeExceptionally(exception);
+
+        assertEquals(exception, assertThrows(ExecutionException.class, result0::get).getCause());
+        assertEquals(exception, assertThrows(ExecutionException.class, result1::get).getCause());
+    }
+
+    @Test
+    public void cancelOneCaller() throws Exception {
+        final CompletableFuture<String> result0 = singleFlight.execute("key", this::call);
+        final CompletableFuture<String> result1 = singleFlight.execute("key", this::call);
+
+        result0.cancel(false);
+        assertFalse(upstream.isCancelled());
+
+        upstream.complete("value");
+        assertEquals("value", result1.get());
+    }
+
+    @Test
+    public void cancelAllCallers() {
+        final CompletableFuture<String> result0 = singleFlight.execute("key", this::call);
+        final CompletableFuture<String> result1 = singleFlight.execute("key", this::call);
+
+        result0.cancel(false);
+        result1.cancel(false);
+
+        assertTrue(upstream.isCancelled());
+        assertEquals(0, singleFlight.size());
+    }
+
+    @Test
+    public void upstreamCancelled() {
+        final CompletableFuture<String> result = singleFlight.execute("key", this::call);
+
+        upstream.cancel(false);
+
+        assertThrows(CancellationException.class, result::get);
+    }
+
+    @Test
+    public void callThrows() {
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("key", () -> {
+            throw new IllegalStateException("Intentional for test");
+        }));
+
+        assertEquals(0, singleFlight.size());
+    }
+}
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.polling;
+
+import static java.util.Collections.singletonList;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import com.pushtechnology.adapters.rest.model.latest.EndpointConfig;
+import com.pushtechnology.adapters.rest.model.latest.ServiceConfig;
+
+/**
+ * Unit tests for {@link VersionSelectingEndpointClient}.
+ *
+ * @author Push Technology Limited
+ */
+public final class VersionSelectingEndpointClientTest {
+    @Mock
+    private EndpointClient http1Client;
+    @Mock
+    private EndpointClient http2Client;
+
+    private final EndpointConfig endpointConfig = EndpointConfig
+        .builder()
+        .name("endpoint")
+        .url("/a/url.json")
+        .produces("json")
+        .topicPath("url")
+        .build();
+    private final ServiceConfig http1ServiceConfig = ServiceConfig
+        .builder()
+        .name("service-1")
+        .host("localhost")
+        .endpoints(singletonList(endpointConfig))
+        .topicPathRoot("test")
+        .build();
+    private final ServiceConfig http2ServiceConfig = ServiceConfig
+        .builder()
+        .name("service-2")
+        .host("localhost")
+        .http2(true)
+        .endpoints(singletonList(endpointConfig))
+        .topicPathRoot("test")
+        .build();
+
+    private VersionSelectingEndpointClient endpointClient;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+
+        endpointClient = new VersionSelectingEndpointClient(http1Client, http2Client);
+    }
+
+    @After
+    public void postConditions() {
+        verifyNoMoreInteractions(http1Client, http2Client);
+    }
+
+    @Test
+    public void startAndClose() {
+        endpointClient.start();
+
+        verify(http1Client).start();
+        verify(http2Client).start();
+
+        endpointClient.close();
+
+        verify(http1Client).close();
+        verify(http2Client).close();
+    }
+
+    @Test
+    public void requestHttp1() {
+        endpointClient.request(http1ServiceConfig, endpointConfig);
+        endpointClient.conditionalRequest(http1ServiceConfig, endpointConfig);
+
+        verify(http1Client).request(http1ServiceConfig, endpointConfig);
+        verify(http1Client).conditionalRequest(http1ServiceConfig, endpointConfig);
+    }
+
+    @Test
+    public void requestHttp2() {
+        endpointClient.request(http2ServiceConfig, endpointConfig);
+        endpointClient.conditionalRequest(http2ServiceConfig, endpointConfig);
+
+        verify(http2Client).request(http2ServiceConfig, endpointConfig);
+        verify(http2Client).conditionalRequest(http2ServiceConfig, endpointConfig);
+    }
+}
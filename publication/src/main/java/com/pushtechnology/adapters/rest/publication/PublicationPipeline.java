@@ -0,0 +1,310 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.publication;
+
+import static java.lang.Boolean.FALSE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.pushtechnology.adapters.rest.model.latest.PublicationConfig;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Pipeline of updates sent to a Diffusion session.
+ * <p>
+ * Updates are sent in the order they are submitted. The number of updates that have been sent but not completed is
+ * limited, the remaining updates wait in the pipeline. If there is a flush interval the waiting updates are sent as a
+ * batch at each interval, otherwise they are sent as soon as the limit allows. The pipeline is saturated while the
+ * number of updates sent or waiting reaches the limit.
+ * <p>
+ * If updates are conflated only the latest update waiting for each topic is kept. An update submitted while an
+ * earlier update to the same topic is waiting takes its place in the order and the earlier update is superseded, so
+ * the number of updates waiting is bounded by the number of topics. If updates are not conflated the number of updates
+ * waiting is limited, an update submitted while the limit is reached fails.
+ *
+ * @author Push Technology Limited
+ */
+@ThreadSafe
+public final class PublicationPipeline implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(PublicationPipeline.class);
+    private static final int DEFAULT_MAX_OUTSTANDING_UPDATES = 1000;
+    private static final int DEFAULT_MAX_WAITING_UPDATES = 10000;
+    private final int maxOutstandingUpdates;
+    private final int maxWaitingUpdates;
+    private final long flushInterval;
+    private final boolean conflate;
+    private final ScheduledExecutorService executor;
+    @GuardedBy("this")
+    private final Queue<PendingUpdate> pendingUpdates = new ArrayDeque<>();
+    @GuardedBy("this")
+    private final Map<String, PendingUpdate> pendingUpdatesByPath = new HashMap<>();
+    @GuardedBy("this")
+    private int outstandingUpdates;
+    @GuardedBy("this")
+    private boolean isFlushing;
+    @GuardedBy("this")
+    private boolean isClosed;
+    @GuardedBy("this")
+    private Future<?> flushTask;
+    private volatile boolean isSaturated;
+
+    /**
+     * Constructor.
+     */
+    public PublicationPipeline(PublicationConfig publicationConfig, ScheduledExecutorService executor) {
+        final Integer maxOutstanding = publicationConfig.getMaxOutstandingUpdates();
+        final Integer maxWaiting = publicationConfig.getMaxWaitingUpdates();
+        final Long interval = publicationConfig.getFlushInterval();
+        this.maxOutstandingUpdates = maxOutstanding == null ? DEFAULT_MAX_OUTSTANDING_UPDATES : maxOutstanding;
+        this.maxWaitingUpdates = maxWaiting == null ? DEFAULT_MAX_WAITING_UPDATES : maxWaiting;
+        this.flushInterval = interval == null ? 0L : interval;
+        this.conflate = !FALSE.equals(publicationConfig.getConflate());
+        this.executor = executor;
+
+        if (maxOutstandingUpdates <= 0) {
+            throw new IllegalArgumentException("The maximum number of outstanding updates must be positive");
+        }
+        if (maxWaitingUpdates <= 0) {
+            throw new IllegalArgumentException("The maximum number of waiting updates must be positive");
+        }
+    }
+
+    /**
+     * Start sending batches of updates at the flush interval.
+     */
+    public synchronized void start() {
+        if (flushInterval > 0 && flushTask == null && !isClosed) {
+            flushTask = executor.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, MILLISECONDS);
+        }
+    }
+
+    /**
+     * @return if the number of updates sent or waiting has reached the limit
+     */
+    public boolean isSaturated() {
+        return isSaturated;
+    }
+
+    /**
+     * Submit an update to the pipeline.
+     *
+     * @param path the path of the topic to update
+     * @param update sends the update and returns its completion
+     * @return the completion of the update, completed with false if the update was superseded before it was sent,
+     * failed if the update could not be sent
+     */
+    /*package*/ CompletableFuture<Boolean> submit(String path, Supplier<? extends CompletableFuture<?>> update) {
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        final CompletableFuture<Boolean> superseded;
+        synchronized (this) {
+            if (isClosed) {
+                result.completeExceptionally(new CancellationException("The pipeline is closed"));
+                return result;
+            }
+
+            final PendingUpdate waitingUpdate = conflate ? pendingUpdatesByPath.get(path) : null;
+            if (!conflate && pendingUpdates.size() >= maxWaitingUpdates) {
+                result.completeExceptionally(new RejectedExecutionException("Too many updates waiting to be sent"));
+                return result;
+            }
+            else if (waitingUpdate == null) {
+                final PendingUpdate pendingUpdate = new PendingUpdate(path, update, result);
+                pendingUpdates.add(pendingUpdate);
+                if (conflate) {
+                    pendingUpdatesByPath.put(path, pendingUpdate);
+                }
+                updateSaturation();
+                superseded = null;
+            }
+            else {
+                superseded = waitingUpdate.supersede(update, result);
+            }
+        }
+
+        if (superseded != null) {
+            superseded.complete(false);
+        }
+
+        if (flushInterval <= 0) {
+            flush();
+        }
+
+        return result;
+    }
+
+    /**
+     * Send the waiting updates the limit allows. Only one thread sends updates at a time so they are sent in the
+     * order they were submitted, other threads return immediately and leave their updates to it.
+     */
+    /*package*/ void flush() {
+        synchronized (this) {
+            if (isFlushing) {
+                return;
+            }
+            isFlushing = true;
+        }
+
+        while (true) {
+            final List<PendingUpdate> batch;
+            synchronized (this) {
+                batch = takeBatch();
+                if (batch.isEmpty()) {
+                    isFlushing = false;
+                    return;
+                }
+            }
+
+            batch.forEach(this::send);
+        }
+    }
+
+    @GuardedBy("this")
+    private List<PendingUpdate> takeBatch() {
+        final int available = Math.min(maxOutstandingUpdates - outstandingUpdates, pendingUpdates.size());
+        if (available <= 0) {
+            return new ArrayList<>(0);
+        }
+
+        final List<PendingUpdate> batch = new ArrayList<>(available);
+        for (int i = 0; i < available; i++) {
+            final PendingUpdate pendingUpdate = pendingUpdates.remove();
+            if (conflate) {
+                pendingUpdatesByPath.remove(pendingUpdate.path);
+            }
+            batch.add(pendingUpdate);
+        }
+        outstandingUpdates += available;
+        return batch;
+    }
+
+    private void send(PendingUpdate pendingUpdate) {
+        final CompletableFuture<?> future;
+        try {
+            future = pendingUpdate.update.get();
+        }
+        // CHECKSTYLE.OFF: IllegalCatch
+        catch (RuntimeException e) {
+            onComplete(pendingUpdate, e);
+            return;
+        }
+        // CHECKSTYLE.ON: IllegalCatch
+
+        future.whenComplete((result, e) -> onComplete(pendingUpdate, e));
+    }
+
+    private void onComplete(PendingUpdate pendingUpdate, Throwable throwable) {
+        synchronized (this) {
+            outstandingUpdates--;
+            updateSaturation();
+        }
+
+        if (throwable == null) {
+            pendingUpdate.result.complete(true);
+        }
+        else {
+            pendingUpdate.result.completeExceptionally(throwable);
+        }
+
+        if (flushInterval <= 0) {
+            flush();
+        }
+    }
+
+    @GuardedBy("this")
+    private void updateSaturation() {
+        final boolean saturated = !isClosed && outstandingUpdates + pendingUpdates.size() >= maxOutstandingUpdates;
+        if (saturated != isSaturated) {
+            isSaturated = saturated;
+            if (saturated) {
+                LOG.warn("Publication saturated, {} updates outstanding", outstandingUpdates);
+            }
+            else {
+                LOG.info("Publication no longer saturated");
+            }
+        }
+    }
+
+    /**
+     * Stop sending updates. The updates waiting to be sent fail.
+     */
+    @Override
+    public void close() {
+        final List<PendingUpdate> discarded;
+        synchronized (this) {
+            isClosed = true;
+            if (flushTask != null) {
+                flushTask.cancel(false);
+                flushTask = null;
+            }
+            discarded = new ArrayList<>(pendingUpdates);
+            pendingUpdates.clear();
+            pendingUpdatesByPath.clear();
+            updateSaturation();
+        }
+
+        discarded.forEach(pendingUpdate -> pendingUpdate.result
+            .completeExceptionally(new CancellationException("The pipeline is closed")));
+    }
+
+    /**
+     * An update waiting to be sent. The update is replaced while it is waiting if it is superseded.
+     */
+    private static final class PendingUpdate {
+        private final String path;
+        @GuardedBy("PublicationPipeline.this")
+        private Supplier<? extends CompletableFuture<?>> update;
+        @GuardedBy("PublicationPipeline.this")
+        private CompletableFuture<Boolean> result;
+
+        private PendingUpdate(
+                String path,
+                Supplier<? extends CompletableFuture<?>> update,
+                CompletableFuture<Boolean> result) {
+            this.path = path;
+            this.update = update;
+            this.result = result;
+        }
+
+        /**
+         * @return the completion of the superseded update
+         */
+        private CompletableFuture<Boolean> supersede(
+                Supplier<? extends CompletableFuture<?>> newUpdate,
+                CompletableFuture<Boolean> newResult) {
+            final CompletableFuture<Boolean> supersededResult = result;
+            update = newUpdate;
+            result = newResult;
+            return supersededResult;
+        }
+    }
+}
@@ -42,6 +42,11 @@ public interface PublishingClient {
      */
     void forService(ServiceConfig serviceConfig, Runnable task);
 
+    /**
+     * @return if too many updates are waiting to be sent and polling should pause until they have been sent
+     */
+    boolean isSaturated();
+
     /**
      * Create an update context using an exclusive updater for the service.
      */
@@ -15,9 +15,12 @@
 
 package com.pushtechnology.adapters.rest.publication;
 
+import static java.lang.Boolean.TRUE;
+
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
 
 import com.pushtechnology.adapters.rest.metrics.listeners.PublicationListener;
 import com.pushtechnology.adapters.rest.model.latest.EndpointConfig;
@@ -26,6 +29,8 @@ import com.pushtechnology.adapters.rest.session.management.EventedSessionListene
 import com.pushtechnology.diffusion.client.session.Session;
 import com.pushtechnology.diffusion.client.session.Session.SessionLock;
 import com.pushtechnology.diffusion.datatype.DataType;
+import com.pushtechnology.diffusion.datatype.binary.BinaryDelta;
+import com.pushtechnology.diffusion.datatype.json.JSON;
 
 import net.jcip.annotations.GuardedBy;
 import net.jcip.annotations.ThreadSafe;
@@ -34,14 +39,19 @@ import net.jcip.annotations.ThreadSafe;
  * Implements {@link PublishingClient}.
  * <p>
  * Synchronises access to the session. Asynchronous operations may be outstanding when the session is closed.
+ * <p>
+ * If a {@link PublicationPipeline} is provided the updates of every service are sent through it. The updates of every
+ * service published while the session is recovering are held by a single {@link RecoveryBuffer}.
  *
  * @author Push Technology Limited
  */
 @ThreadSafe
 public final class PublishingClientImpl implements PublishingClient {
+    private static final BiFunction<JSON, JSON, BinaryDelta> JSON_DIFFER = JSON::binaryDiff;
     private final Session session;
-    private final EventedSessionListener sessionListener;
     private final PublicationListener publicationListener;
+    private final RecoveryBuffer recoveryBuffer;
+    private final PublicationPipeline pipeline;
     @GuardedBy("this")
     private final Map<ServiceConfig, EventedUpdateSource> updaterSources = new HashMap<>();
     @GuardedBy("this")
@@ -53,10 +63,25 @@ public final class PublishingClientImpl implements PublishingClient {
     public PublishingClientImpl(
             Session session,
             EventedSessionListener sessionListener,
-            PublicationListener publicationListener) {
+            PublicationListener publicationListener,
+            RecoveryBuffer recoveryBuffer) {
+        this(session, sessionListener, publicationListener, recoveryBuffer, null);
+    }
+
+    /**
+     * Constructor.
+     */
+    public PublishingClientImpl(
+            Session session,
+            EventedSessionListener sessionListener,
+            PublicationListener publicationListener,
+            RecoveryBuffer recoveryBuffer,
+            PublicationPipeline pipeline) {
         this.session = session;
-        this.sessionListener = sessionListener;
         this.publicationListener = publicationListener;
+        this.recoveryBuffer = recoveryBuffer;
+        this.pipeline = pipeline;
+        sessionListener.onSessionStateChange(recoveryBuffer);
     }
 
     @Override
@@ -109,6 +134,11 @@ public final class PublishingClientImpl implements PublishingClient {
         }
     }
 
+    @Override
+    public boolean isSaturated() {
+        return pipeline != null && pipeline.isSaturated();
+    }
+
     @Override
     public synchronized <T> UpdateContext<T> createUpdateContext(
             ServiceConfig serviceConfig,
@@ -122,14 +152,26 @@ public final class PublishingClientImpl implements PublishingClient {
         }
 
         final String path = serviceConfig.getTopicPathRoot() + "/" + endpointConfig.getTopicPath();
-        final ValueUpdateContext<T> updateContext = new ValueUpdateContext<>(
+        return new ValueUpdateContext<>(
             session,
             sessionLock,
             path,
             valueType,
             dataType,
-            publicationListener);
-        sessionListener.onSessionStateChange(updateContext);
-        return updateContext;
+            publicationListener,
+            differ(endpointConfig, valueType),
+            pipeline,
+            recoveryBuffer);
+    }
+
+    /**
+     * @return the differ used to compare values published to the endpoint or null if values are not compared
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> BiFunction<T, T, BinaryDelta> differ(EndpointConfig endpointConfig, Class<T> valueType) {
+        if (TRUE.equals(endpointConfig.getDeltas()) && JSON.class.equals(valueType)) {
+            return (BiFunction<T, T, BinaryDelta>) (BiFunction<?, ?, BinaryDelta>) JSON_DIFFER;
+        }
+        return null;
     }
 }
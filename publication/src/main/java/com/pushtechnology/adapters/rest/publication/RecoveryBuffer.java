@@ -0,0 +1,364 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.publication;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.pushtechnology.adapters.rest.metrics.listeners.RecoveryListener;
+import com.pushtechnology.adapters.rest.model.latest.PublicationConfig;
+import com.pushtechnology.diffusion.client.session.Session;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Buffer of the updates published while a Diffusion session is recovering.
+ * <p>
+ * The latest update to each topic is held in the order the topics were first updated. The number of bytes held is
+ * limited, when the limit is exceeded the oldest updates are evicted and fail. After the session reconnects the
+ * updates are replayed in order at a limited rate. If the session closes the updates held fail.
+ * <p>
+ * An update to a topic published while the held update to the topic is being replayed waits for the replayed update
+ * to be sent, so the later update is always sent after it.
+ *
+ * @author Push Technology Limited
+ */
+@ThreadSafe
+public final class RecoveryBuffer implements Session.Listener, AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(RecoveryBuffer.class);
+    private static final long DEFAULT_MAX_RECOVERY_BYTES = 16L * 1024L * 1024L;
+    private static final int DEFAULT_REPLAY_RATE = 1000;
+    private static final long REPLAY_PERIOD = 100L;
+    private final Session session;
+    private final long maxRecoveryBytes;
+    private final int replayRate;
+    private final ScheduledExecutorService executor;
+    private final RecoveryListener listener;
+    @GuardedBy("this")
+    private final Map<String, BufferedUpdate> bufferedUpdates = new LinkedHashMap<>();
+    @GuardedBy("this")
+    private final Map<String, BufferedUpdate> replayingUpdates = new LinkedHashMap<>();
+    @GuardedBy("this")
+    private String replayingPath;
+    @GuardedBy("this")
+    private long bufferedBytes;
+    @GuardedBy("this")
+    private Future<?> replayTask;
+    @GuardedBy("this")
+    private long replayStart;
+    @GuardedBy("this")
+    private int replayedUpdates;
+    @GuardedBy("this")
+    private long replayAllowance;
+    private volatile boolean isEmpty = true;
+
+    /**
+     * Constructor.
+     *
+     * @param session the session updates are published to
+     * @param publicationConfig the publication configuration, may be null
+     * @param executor the executor to replay updates with
+     * @param listener the listener for recovery events
+     */
+    public RecoveryBuffer(
+            Session session,
+            PublicationConfig publicationConfig,
+            ScheduledExecutorService executor,
+            RecoveryListener listener) {
+        final Long maxBytes = publicationConfig == null ? null : publicationConfig.getMaxRecoveryBytes();
+        final Integer replayRate = publicationConfig == null ? null : publicationConfig.getReplayRate();
+        this.session = session;
+        this.maxRecoveryBytes = maxBytes == null ? DEFAULT_MAX_RECOVERY_BYTES : maxBytes;
+        this.replayRate = replayRate == null ? DEFAULT_REPLAY_RATE : replayRate;
+        this.executor = executor;
+        this.listener = listener;
+
+        if (maxRecoveryBytes <= 0) {
+            throw new IllegalArgumentException("The maximum number of recovery bytes must be positive");
+        }
+        if (this.replayRate <= 0) {
+            throw new IllegalArgumentException("The replay rate must be positive");
+        }
+    }
+
+    @Override
+    public void onSessionStateChanged(Session changedSession, Session.State oldState, Session.State newState) {
+        if (changedSession != session) {
+            return;
+        }
+
+        if (newState.isClosed()) {
+            close();
+        }
+        else if (newState.isRecovering()) {
+            stopReplay();
+        }
+        else if (oldState.isRecovering() && newState.isConnected()) {
+            startReplay();
+        }
+    }
+
+    /**
+     * Buffer an update. An update to the same topic already held is superseded.
+     *
+     * @param path the path of the topic the update is for
+     * @param update the update
+     */
+    /*package*/ void buffer(String path, BufferedUpdate update) {
+        final List<BufferedUpdate> evicted = new ArrayList<>(0);
+        final BufferedUpdate superseded;
+        final long bytes;
+        synchronized (this) {
+            superseded = bufferedUpdates.put(path, update);
+            bufferedBytes += update.getLength() - (superseded == null ? 0 : superseded.getLength());
+
+            final Iterator<BufferedUpdate> iterator = bufferedUpdates.values().iterator();
+            while (bufferedBytes > maxRecoveryBytes && iterator.hasNext()) {
+                final BufferedUpdate evictedUpdate = iterator.next();
+                iterator.remove();
+                bufferedBytes -= evictedUpdate.getLength();
+                evicted.add(evictedUpdate);
+            }
+
+            updateIsEmpty();
+            bytes = bufferedBytes;
+        }
+
+        if (superseded != null) {
+            superseded.supersede();
+        }
+        evicted.forEach(evictedUpdate -> {
+            listener.onRecoveryBufferEviction(evictedUpdate.getLength());
+            evictedUpdate.discard();
+        });
+        listener.onRecoveryBufferChange(bytes);
+    }
+
+    /**
+     * Supersede any update held for a topic. Used when a later update to the topic is published before the held
+     * update is replayed. If the held update is being replayed this waits for it to be sent.
+     *
+     * @param path the path of the topic
+     * @return if an update was held for the topic and has not been sent
+     */
+    /*package*/ boolean supersede(String path) {
+        if (isEmpty) {
+            return false;
+        }
+
+        final BufferedUpdate superseded;
+        final long bytes;
+        synchronized (this) {
+            awaitReplay(path);
+
+            final BufferedUpdate replayingUpdate = replayingUpdates.remove(path);
+            if (replayingUpdate != null) {
+                updateIsEmpty();
+                superseded = replayingUpdate;
+                bytes = -1L;
+            }
+            else {
+                superseded = bufferedUpdates.remove(path);
+                if (superseded == null) {
+                    return false;
+                }
+                bufferedBytes -= superseded.getLength();
+                updateIsEmpty();
+                bytes = bufferedBytes;
+            }
+        }
+
+        superseded.supersede();
+        if (bytes >= 0L) {
+            listener.onRecoveryBufferChange(bytes);
+        }
+        return true;
+    }
+
+    @GuardedBy("this")
+    private void awaitReplay(String path) {
+        while (path.equals(replayingPath)) {
+            try {
+                wait();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    @GuardedBy("this")
+    private void updateIsEmpty() {
+        isEmpty = bufferedUpdates.isEmpty() && replayingUpdates.isEmpty() && replayingPath == null;
+    }
+
+    private synchronized void startReplay() {
+        if (replayTask != null || bufferedUpdates.isEmpty()) {
+            return;
+        }
+
+        LOG.info("Replaying {} updates held during recovery", bufferedUpdates.size());
+        replayStart = System.currentTimeMillis();
+        replayedUpdates = 0;
+        replayAllowance = 0L;
+        replayTask = executor.scheduleAtFixedRate(this::replay, 0L, REPLAY_PERIOD, MILLISECONDS);
+    }
+
+    private synchronized void stopReplay() {
+        if (replayTask != null) {
+            replayTask.cancel(false);
+            replayTask = null;
+        }
+    }
+
+    /**
+     * Replay the next batch of updates. The number of updates replayed each period is allowed to accumulate so
+     * rates that are not a whole number of updates each period are kept.
+     */
+    /*package*/ void replay() {
+        final long bytes;
+        final boolean isComplete;
+        final int updates;
+        final long duration;
+        synchronized (this) {
+            if (replayTask == null) {
+                return;
+            }
+
+            replayAllowance += replayRate * REPLAY_PERIOD;
+            final Iterator<Map.Entry<String, BufferedUpdate>> iterator = bufferedUpdates.entrySet().iterator();
+            while (replayAllowance >= 1000L && iterator.hasNext()) {
+                final Map.Entry<String, BufferedUpdate> entry = iterator.next();
+                iterator.remove();
+                bufferedBytes -= entry.getValue().getLength();
+                replayingUpdates.put(entry.getKey(), entry.getValue());
+                replayAllowance -= 1000L;
+            }
+            if (replayingUpdates.isEmpty() && !bufferedUpdates.isEmpty()) {
+                // Less than one update is allowed this period
+                return;
+            }
+
+            replayedUpdates += replayingUpdates.size();
+            isComplete = bufferedUpdates.isEmpty();
+            bytes = bufferedBytes;
+            updates = replayedUpdates;
+            duration = System.currentTimeMillis() - replayStart;
+            if (isComplete) {
+                stopReplay();
+            }
+        }
+
+        listener.onRecoveryBufferChange(bytes);
+        replayBatch();
+
+        if (isComplete) {
+            LOG.info("Replayed {} updates held during recovery in {}ms", updates, duration);
+            listener.onRecoveryReplay(updates, duration);
+        }
+    }
+
+    /**
+     * Send the updates taken for replay one at a time. While an update is being sent later updates to its topic wait
+     * for it, updates to topics that have not been sent yet supersede them.
+     */
+    private void replayBatch() {
+        while (true) {
+            final BufferedUpdate update;
+            synchronized (this) {
+                final Iterator<Map.Entry<String, BufferedUpdate>> iterator = replayingUpdates.entrySet().iterator();
+                if (!iterator.hasNext()) {
+                    updateIsEmpty();
+                    return;
+                }
+
+                final Map.Entry<String, BufferedUpdate> entry = iterator.next();
+                iterator.remove();
+                replayingPath = entry.getKey();
+                update = entry.getValue();
+            }
+
+            try {
+                update.replay();
+            }
+            finally {
+                synchronized (this) {
+                    replayingPath = null;
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop replaying updates. The updates held fail.
+     */
+    @Override
+    public void close() {
+        final List<BufferedUpdate> discarded;
+        synchronized (this) {
+            stopReplay();
+            discarded = new ArrayList<>(bufferedUpdates.values());
+            discarded.addAll(replayingUpdates.values());
+            bufferedUpdates.clear();
+            replayingUpdates.clear();
+            bufferedBytes = 0L;
+            updateIsEmpty();
+        }
+
+        if (!discarded.isEmpty()) {
+            discarded.forEach(BufferedUpdate::discard);
+            listener.onRecoveryBufferChange(0L);
+        }
+    }
+
+    /**
+     * An update held by the buffer.
+     */
+    /*package*/ interface BufferedUpdate {
+        /**
+         * @return the length of the update in bytes
+         */
+        int getLength();
+
+        /**
+         * Publish the update.
+         */
+        void replay();
+
+        /**
+         * Notified when the update is superseded by a later update to the same topic.
+         */
+        void supersede();
+
+        /**
+         * Notified when the update is evicted or the buffer is closed without the update being replayed.
+         */
+        void discard();
+    }
+}
@@ -15,6 +15,8 @@
 
 package com.pushtechnology.adapters.rest.publication;
 
+import com.pushtechnology.adapters.rest.polling.EndpointResponse;
+
 /**
  * Update context for an endpoint.
  *
@@ -26,4 +28,12 @@ public interface UpdateContext<T> {
      * Publish an update to a Diffusion server.
      */
     void publish(T value);
+
+    /**
+     * Check if the response an update would be produced from duplicates the response the last update was produced
+     * from. A hash of the response is retained for the next check.
+     *
+     * @return true if the update would duplicate the last update and should be suppressed
+     */
+    boolean isDuplicate(EndpointResponse response);
 }
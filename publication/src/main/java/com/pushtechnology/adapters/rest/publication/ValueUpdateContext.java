@@ -17,29 +17,48 @@ package com.pushtechnology.adapters.rest.publication;
 
 import static com.pushtechnology.diffusion.client.Diffusion.updateConstraints;
 
+import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.pushtechnology.adapters.rest.metrics.listeners.PublicationListener;
 import com.pushtechnology.adapters.rest.metrics.listeners.PublicationListener.PublicationCompletionListener;
+import com.pushtechnology.adapters.rest.polling.EndpointResponse;
 import com.pushtechnology.diffusion.client.callbacks.ErrorReason;
 import com.pushtechnology.diffusion.client.features.TopicUpdate;
 import com.pushtechnology.diffusion.client.features.UpdateStream;
 import com.pushtechnology.diffusion.client.session.Session;
 import com.pushtechnology.diffusion.datatype.Bytes;
 import com.pushtechnology.diffusion.datatype.DataType;
+import com.pushtechnology.diffusion.datatype.binary.BinaryDelta;
 
 /**
  * Update context that publishes values.
+ * <p>
+ * If a differ is provided each value is compared with the last value published. Values that have not changed are
+ * suppressed and the length of the binary delta is reported for values that have.
+ * <p>
+ * If a pipeline is provided the values are sent through it, otherwise they are sent immediately. Values superseded
+ * in the pipeline by a later value are reported as conflated.
+ * <p>
+ * Values published while the session is recovering are held by the {@link RecoveryBuffer} and replayed after the
+ * session reconnects.
  *
  * @param <T> The type of updates the context accepts
  * @author Push Technology Limited
  */
-/*package*/ final class ValueUpdateContext<T> implements UpdateContext<T>, Session.Listener {
+/*package*/ final class ValueUpdateContext<T> implements UpdateContext<T> {
     private static final Logger LOG = LoggerFactory.getLogger(ValueUpdateContext.class);
-    private final AtomicReference<ValueUpdateContext.CachedRequest<T>> cachedValue = new AtomicReference<>(null);
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private final AtomicReference<Long> lastResponseHash = new AtomicReference<>(null);
+    private final AtomicReference<T> lastValue = new AtomicReference<>(null);
+    private final BiFunction<T, T, BinaryDelta> differ;
+    private final PublicationPipeline pipeline;
+    private final RecoveryBuffer recoveryBuffer;
     private final DataType<T> dataType;
     private final PublicationListener listener;
     private final UpdateStream<T> updater;
@@ -55,9 +74,15 @@ import com.pushtechnology.diffusion.datatype.DataType;
             String path,
             Class<T> valueClass,
             DataType<T> dataType,
-            PublicationListener listener) {
+            PublicationListener listener,
+            BiFunction<T, T, BinaryDelta> differ,
+            PublicationPipeline pipeline,
+            RecoveryBuffer recoveryBuffer) {
         this.dataType = dataType;
         this.listener = listener;
+        this.differ = differ;
+        this.pipeline = pipeline;
+        this.recoveryBuffer = recoveryBuffer;
         this.updater = session
             .feature(TopicUpdate.class)
             .createUpdateStream(path, valueClass, updateConstraints().locked(sessionLock));
@@ -73,9 +98,15 @@ import com.pushtechnology.diffusion.datatype.DataType;
         String path,
         Class<T> valueClass,
         DataType<T> dataType,
-        PublicationListener listener) {
+        PublicationListener listener,
+        BiFunction<T, T, BinaryDelta> differ,
+        PublicationPipeline pipeline,
+        RecoveryBuffer recoveryBuffer) {
         this.dataType = dataType;
         this.listener = listener;
+        this.differ = differ;
+        this.pipeline = pipeline;
+        this.recoveryBuffer = recoveryBuffer;
         this.updater = session
             .feature(TopicUpdate.class)
             .createUpdateStream(path, valueClass);
@@ -83,18 +114,6 @@ import com.pushtechnology.diffusion.datatype.DataType;
         this.path = path;
     }
 
-    @Override
-    public void onSessionStateChanged(Session changedSession, Session.State oldState, Session.State newState) {
-        if (changedSession == session && oldState.isRecovering() && newState.isConnected()) {
-            final ValueUpdateContext.CachedRequest<T> cachedRequest = cachedValue.getAndSet(null);
-            if (cachedRequest != null) {
-                LOG.debug("Publishing cached value on recovery");
-
-                set(cachedRequest.value, cachedRequest.completionListener);
-            }
-        }
-    }
-
     @Override
     public void publish(T value) {
         final Session.State state = session.getState();
@@ -102,19 +121,50 @@ import com.pushtechnology.diffusion.datatype.DataType;
             throw new IllegalStateException("Session closed");
         }
         else if (state.isRecovering()) {
-            LOG.debug("Caching value while in recovery");
+            LOG.debug("Buffering value while in recovery");
             final Bytes bytes = dataType.toBytes(value);
             final PublicationCompletionListener completionListener =
                 listener.onPublicationRequest(path, bytes.length());
-            cachedValue.set(new ValueUpdateContext.CachedRequest<>(value, completionListener));
+            if (differ != null) {
+                // The buffered value replaces the last value when it is replayed
+                lastValue.set(value);
+            }
+            recoveryBuffer.buffer(path, new BufferedValue(value, bytes.length(), completionListener));
         }
         else {
+            // A value buffered during recovery that has not been replayed yet is stale
+            if (recoveryBuffer.supersede(path)) {
+                // The last value was never sent, the value cannot be sent as a delta from it
+                lastValue.set(null);
+            }
             applyValue(value);
         }
     }
 
+    @Override
+    public boolean isDuplicate(EndpointResponse response) {
+        final Long responseHash = hash(response.getResponseBuffer());
+        if (responseHash.equals(lastResponseHash.getAndSet(responseHash))) {
+            listener.onPublicationSuppressed(path, response.getResponseLength());
+            return true;
+        }
+        return false;
+    }
+
     private void applyValue(T value) {
         final Bytes bytes = dataType.toBytes(value);
+        if (differ != null) {
+            final T previousValue = lastValue.getAndSet(value);
+            if (previousValue != null) {
+                final BinaryDelta delta = differ.apply(value, previousValue);
+                if (!delta.hasChanges()) {
+                    listener.onPublicationSuppressed(path, bytes.length());
+                    return;
+                }
+                listener.onPublicationDelta(path, delta.length(), bytes.length());
+            }
+        }
+
         final PublicationCompletionListener completionListener =
             listener.onPublicationRequest(path, bytes.length());
 
@@ -122,26 +172,81 @@ import com.pushtechnology.diffusion.datatype.DataType;
     }
 
     private void set(T value, PublicationCompletionListener completionListener) {
-        updater.set(value).whenComplete((result, exception) -> {
-            if (exception == null) {
-                completionListener.onPublication();
-            }
-            else {
-                completionListener.onPublicationFailed(ErrorReason.COMMUNICATION_FAILURE);
-            }
-        });
+        if (pipeline == null) {
+            updater.set(value).whenComplete((result, exception) -> onSetComplete(exception, completionListener));
+        }
+        else {
+            pipeline.submit(path, () -> updater.set(value)).whenComplete((sent, exception) -> {
+                if (exception == null && !sent) {
+                    completionListener.onPublicationConflated();
+                }
+                else {
+                    onSetComplete(exception, completionListener);
+                }
+            });
+        }
     }
 
-    private static final class CachedRequest<T> {
+    private void onSetComplete(Throwable exception, PublicationCompletionListener completionListener) {
+        if (exception == null) {
+            completionListener.onPublication();
+        }
+        else {
+            // Allow the next response to be published even if it is the same
+            lastResponseHash.set(null);
+            lastValue.set(null);
+            completionListener.onPublicationFailed(ErrorReason.COMMUNICATION_FAILURE);
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the content.
+     */
+    private static long hash(ByteBuffer content) {
+        long hash = FNV_OFFSET_BASIS;
+        while (content.hasRemaining()) {
+            hash ^= content.get() & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * A value held by the recovery buffer.
+     */
+    private final class BufferedValue implements RecoveryBuffer.BufferedUpdate {
         private final T value;
+        private final int length;
         private final PublicationCompletionListener completionListener;
 
-        private CachedRequest(
-            T value,
-            PublicationCompletionListener completionListener) {
-
+        private BufferedValue(T value, int length, PublicationCompletionListener completionListener) {
             this.value = value;
+            this.length = length;
             this.completionListener = completionListener;
         }
+
+        @Override
+        public int getLength() {
+            return length;
+        }
+
+        @Override
+        public void replay() {
+            LOG.debug("Publishing buffered value on recovery");
+            set(value, completionListener);
+        }
+
+        @Override
+        public void supersede() {
+            completionListener.onPublicationConflated();
+        }
+
+        @Override
+        public void discard() {
+            // Allow the next response to be published even if it is the same
+            lastResponseHash.set(null);
+            lastValue.set(null);
+            completionListener.onPublicationFailed(ErrorReason.COMMUNICATION_FAILURE);
+        }
     }
 }
@@ -0,0 +1,276 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.publication;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+
+import com.pushtechnology.adapters.rest.model.latest.PublicationConfig;
+
+/**
+ * Unit tests for {@link PublicationPipeline}.
+ *
+ * @author Push Technology Limited
+ */
+public final class PublicationPipelineTest {
+    @Mock
+    private ScheduledExecutorService executor;
+    @Mock
+    private ScheduledFuture<?> flushTask;
+    @Captor
+    private ArgumentCaptor<Runnable> flushCaptor;
+
+    private final AtomicInteger sent = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+    }
+
+    @After
+    public void postConditions() {
+        verifyNoMoreInteractions(executor, flushTask);
+    }
+
+    @Test
+    public void sendImmediately() {
+        final PublicationPipeline pipeline = new PublicationPipeline(PublicationConfig.builder().build(), executor);
+        pipeline.start();
+
+        final CompletableFuture<Boolean> result = pipeline.submit("topic/0", () -> {
+            sent.incrementAndGet();
+            return completedFuture(null);
+        });
+
+        assertEquals(1, sent.get());
+        assertTrue(result.isDone());
+        assertFalse(pipeline.isSaturated());
+    }
+
+    @Test
+    public void limitOutstandingUpdates() {
+        final PublicationPipeline pipeline = new PublicationPipeline(
+            PublicationConfig.builder().maxOutstandingUpdates(2).build(),
+            executor);
+        final CompletableFuture<Object> update0 = new CompletableFuture<>();
+        final CompletableFuture<Object> update1 = new CompletableFuture<>();
+        final CompletableFuture<Object> update2 = new CompletableFuture<>();
+
+        final CompletableFuture<Boolean> result0 = pipeline.submit("topic/0", () -> send(update0));
+        assertFalse(pipeline.isSaturated());
+        pipeline.submit("topic/1", () -> send(update1));
+        assertTrue(pipeline.isSaturated());
+        final CompletableFuture<Boolean> result2 = pipeline.submit("topic/2", () -> send(update2));
+        assertEquals(2, sent.get());
+
+        update0.complete(null);
+        assertTrue(result0.isDone());
+        assertEquals(3, sent.get());
+        assertTrue(pipeline.isSaturated());
+
+        update1.complete(null);
+        assertFalse(pipeline.isSaturated());
+
+        update2.complete(null);
+        assertTrue(result2.isDone());
+        assertFalse(pipeline.isSaturated());
+    }
+
+    @Test
+    public void batchAtFlushInterval() {
+        doReturn(flushTask)
+            .when(executor)
+            .scheduleWithFixedDelay(flushCaptor.capture(), eq(100L), eq(100L), eq(MILLISECONDS));
+        final PublicationPipeline pipeline = new PublicationPipeline(
+            PublicationConfig.builder().maxOutstandingUpdates(2).flushInterval(100L).build(),
+            executor);
+        pipeline.start();
+        verify(executor).scheduleWithFixedDelay(flushCaptor.capture(), eq(100L), eq(100L), eq(MILLISECONDS));
+
+        final CompletableFuture<Object> update0 = new CompletableFuture<>();
+        pipeline.submit("topic/0", () -> send(update0));
+        pipeline.submit("topic/1", () -> send(new CompletableFuture<>()));
+        pipeline.submit("topic/2", () -> send(completedFuture(null)));
+        assertEquals(0, sent.get());
+        assertTrue(pipeline.isSaturated());
+
+        flushCaptor.getValue().run();
+        assertEquals(2, sent.get());
+
+        update0.complete(null);
+        assertEquals(2, sent.get());
+        assertTrue(pipeline.isSaturated());
+
+        flushCaptor.getValue().run();
+        assertEquals(3, sent.get());
+        assertFalse(pipeline.isSaturated());
+
+        pipeline.close();
+        verify(flushTask).cancel(false);
+    }
+
+    @Test
+    public void failedUpdate() {
+        final PublicationPipeline pipeline = new PublicationPipeline(
+            PublicationConfig.builder().maxOutstandingUpdates(1).build(),
+            executor);
+        final CompletableFuture<Object> update0 = new CompletableFuture<>();
+
+        final CompletableFuture<Boolean> result0 = pipeline.submit("topic/0", () -> send(update0));
+        pipeline.submit("topic/1", () -> send(completedFuture(null)));
+        assertEquals(1, sent.get());
+
+        update0.completeExceptionally(new Exception("Intentional for test"));
+        assertTrue(result0.isCompletedExceptionally());
+        assertEquals(2, sent.get());
+        assertFalse(pipeline.isSaturated());
+    }
+
+    @Test
+    public void close() {
+        final PublicationPipeline pipeline = new PublicationPipeline(
+            PublicationConfig.builder().maxOutstandingUpdates(1).build(),
+            executor);
+
+        pipeline.submit("topic/0", () -> send(new CompletableFuture<>()));
+        final CompletableFuture<Boolean> result1 = pipeline.submit("topic/1", () -> send(completedFuture(null)));
+        assertTrue(pipeline.isSaturated());
+
+        pipeline.close();
+
+        assertThrows(CancellationException.class, result1::get);
+        assertEquals(1, sent.get());
+        assertFalse(pipeline.isSaturated());
+        assertTrue(pipeline.submit("topic/2", () -> send(completedFuture(null))).isCompletedExceptionally());
+    }
+
+    @Test
+    public void conflateWaitingUpdates() {
+        final PublicationPipeline pipeline = new PublicationPipeline(
+            PublicationConfig.builder().maxOutstandingUpdates(1).build(),
+            executor);
+        final CompletableFuture<Object> update0 = new CompletableFuture<>();
+        final CompletableFuture<Object> update1 = new CompletableFuture<>();
+        final CompletableFuture<Object> update2 = new CompletableFuture<>();
+        final AtomicInteger sentValue = new AtomicInteger();
+
+        pipeline.submit("topic/0", () -> send(update0));
+        final CompletableFuture<Boolean> result1 = pipeline.submit("topic/0", () -> {
+            sentValue.set(1);
+            return send(update1);
+        });
+        final CompletableFuture<Boolean> result2 = pipeline.submit("topic/0", () -> {
+            sentValue.set(2);
+            return send(update2);
+        });
+        assertEquals(1, sent.get());
+        assertEquals(false, result1.join());
+        assertFalse(result2.isDone());
+        assertTrue(pipeline.isSaturated());
+
+        update0.complete(null);
+        assertEquals(2, sent.get());
+        assertEquals(2, sentValue.get());
+
+        update2.complete(null);
+        assertEquals(true, result2.join());
+        assertFalse(pipeline.isSaturated());
+    }
+
+    @Test
+    public void doNotConflate() {
+        final PublicationPipeline pipeline = new PublicationPipeline(
+            PublicationConfig.builder().maxOutstandingUpdates(1).conflate(false).build(),
+            executor);
+        final CompletableFuture<Object> update0 = new CompletableFuture<>();
+
+        pipeline.submit("topic/0", () -> send(update0));
+        final CompletableFuture<Boolean> result1 = pipeline.submit("topic/0", () -> send(completedFuture(null)));
+        final CompletableFuture<Boolean> result2 = pipeline.submit("topic/0", () -> send(completedFuture(null)));
+        assertFalse(result1.isDone());
+
+        update0.complete(null);
+        assertEquals(3, sent.get());
+        assertEquals(true, result1.join());
+        assertEquals(true, result2.join());
+    }
+
+    @Test
+    public void limitWaitingUpdates() {
+        final PublicationPipeline pipeline = new PublicationPipeline(
+            PublicationConfig.builder().maxOutstandingUpdates(1).conflate(false).maxWaitingUpdates(2).build(),
+            executor);
+        final CompletableFuture<Object> update0 = new CompletableFuture<>();
+
+        pipeline.submit("topic/0", () -> send(update0));
+        final CompletableFuture<Boolean> result1 = pipeline.submit("topic/0", () -> send(completedFuture(null)));
+        final CompletableFuture<Boolean> result2 = pipeline.submit("topic/0", () -> send(completedFuture(null)));
+        final CompletableFuture<Boolean> result3 = pipeline.submit("topic/0", () -> send(completedFuture(null)));
+        assertThrows(ExecutionException.class, result3::get);
+        assertFalse(result1.isDone());
+        assertFalse(result2.isDone());
+
+        update0.complete(null);
+        assertEquals(3, sent.get());
+        assertEquals(true, result1.join());
+        assertEquals(true, result2.join());
+        assertTrue(pipeline.submit("topic/0", () -> send(completedFuture(null))).join());
+    }
+
+    @Test
+    public void conflatedUpdatesNotLimitedByWaitingUpdates() {
+        final PublicationPipeline pipeline = new PublicationPipeline(
+            PublicationConfig.builder().maxOutstandingUpdates(1).maxWaitingUpdates(1).build(),
+            executor);
+        final CompletableFuture<Object> update0 = new CompletableFuture<>();
+
+        pipeline.submit("topic/0", () -> send(update0));
+        final CompletableFuture<Boolean> result1 = pipeline.submit("topic/1", () -> send(completedFuture(null)));
+        final CompletableFuture<Boolean> result2 = pipeline.submit("topic/2", () -> send(completedFuture(null)));
+
+        update0.complete(null);
+        assertEquals(true, result1.join());
+        assertEquals(true, result2.join());
+    }
+
+    private CompletableFuture<?> send(CompletableFuture<?> update) {
+        sent.incrementAndGet();
+        return update;
+    }
+}
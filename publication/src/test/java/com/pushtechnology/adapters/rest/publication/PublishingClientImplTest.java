@@ -21,12 +21,15 @@ import static com.pushtechnology.diffusion.client.session.Session.SessionLockSco
 import static com.pushtechnology.diffusion.client.session.Session.State.CONNECTED_ACTIVE;
 import static com.pushtechnology.diffusion.client.session.Session.State.RECOVERING_RECONNECT;
 import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNotNull;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.isA;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -37,6 +40,8 @@ import static org.mockito.Mockito.when;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.function.BiConsumer;
 
 import org.junit.After;
@@ -51,6 +56,7 @@ import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 
 import com.pushtechnology.adapters.rest.metrics.listeners.PublicationListener;
+import com.pushtechnology.adapters.rest.metrics.listeners.RecoveryListener;
 import com.pushtechnology.adapters.rest.model.latest.EndpointConfig;
 import com.pushtechnology.adapters.rest.model.latest.ServiceConfig;
 import com.pushtechnology.adapters.rest.session.management.EventedSessionListener;
@@ -98,8 +104,16 @@ public final class PublishingClientImplTest {
     private UpdateStream<Binary> binaryStream;
     @Mock
     private CompletableFuture<TopicCreationResult> setFuture;
+    @Mock
+    private ScheduledExecutorService executor;
+    @Mock
+    private ScheduledFuture<?> replayTask;
+    @Mock
+    private RecoveryListener recoveryListener;
     @Captor
     private ArgumentCaptor<BiConsumer<Session.SessionLock, Throwable>> registrationHandler;
+    @Captor
+    private ArgumentCaptor<Runnable> replayCaptor;
 
     private Session.Listener sessionListener;
     private EventedSessionListener eventedListener;
@@ -160,7 +174,15 @@ public final class PublishingClientImplTest {
         verify(factory).listener(captor.capture());
         sessionListener = captor.getValue();
 
-        client = new PublishingClientImpl(session, eventedListener, publicationListener);
+        doReturn(replayTask)
+            .when(executor)
+            .scheduleAtFixedRate(replayCaptor.capture(), eq(0L), eq(100L), eq(MILLISECONDS));
+
+        client = new PublishingClientImpl(
+            session,
+            eventedListener,
+            publicationListener,
+            new RecoveryBuffer(session, null, executor, recoveryListener));
     }
 
     @After
@@ -170,7 +192,8 @@ public final class PublishingClientImplTest {
             topicUpdate,
             registration,
             binaryDataType,
-            jsonDataType);
+            jsonDataType,
+            executor);
     }
 
     @Test
@@ -299,8 +322,12 @@ public final class PublishingClientImplTest {
         verify(jsonStream, never()).set(json);
 
         sessionListener.onSessionStateChanged(session, RECOVERING_RECONNECT, CONNECTED_ACTIVE);
+        verify(executor).scheduleAtFixedRate(replayCaptor.getValue(), 0L, 100L, MILLISECONDS);
+        replayCaptor.getValue().run();
 
         verify(jsonDataType).toBytes(json);
         verify(jsonStream).set(json);
+        verify(replayTask).cancel(false);
+        verify(recoveryListener).onRecoveryReplay(eq(1), anyLong());
     }
 }
@@ -0,0 +1,293 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.publication;
+
+import static com.pushtechnology.diffusion.client.session.Session.State.CLOSED_BY_CLIENT;
+import static com.pushtechnology.diffusion.client.session.Session.State.CONNECTED_ACTIVE;
+import static com.pushtechnology.diffusion.client.session.Session.State.RECOVERING_RECONNECT;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+
+import com.pushtechnology.adapters.rest.metrics.listeners.RecoveryListener;
+import com.pushtechnology.adapters.rest.model.latest.PublicationConfig;
+import com.pushtechnology.diffusion.client.session.Session;
+
+/**
+ * Unit tests for {@link RecoveryBuffer}.
+ *
+ * @author Push Technology Limited
+ */
+public final class RecoveryBufferTest {
+    @Mock
+    private Session session;
+    @Mock
+    private Session otherSession;
+    @Mock
+    private ScheduledExecutorService executor;
+    @Mock
+    private ScheduledFuture<?> replayTask;
+    @Mock
+    private RecoveryListener listener;
+    @Mock
+    private RecoveryBuffer.BufferedUpdate update0;
+    @Mock
+    private RecoveryBuffer.BufferedUpdate update1;
+    @Mock
+    private RecoveryBuffer.BufferedUpdate update2;
+    @Captor
+    private ArgumentCaptor<Runnable> replayCaptor;
+
+    private RecoveryBuffer buffer;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+
+        when(update0.getLength()).thenReturn(10);
+        when(update1.getLength()).thenReturn(20);
+        when(update2.getLength()).thenReturn(30);
+        doReturn(replayTask)
+            .when(executor)
+            .scheduleAtFixedRate(replayCaptor.capture(), eq(0L), eq(100L), eq(MILLISECONDS));
+
+        buffer = new RecoveryBuffer(
+            session,
+            PublicationConfig.builder().maxRecoveryBytes(50L).replayRate(10).build(),
+            executor,
+            listener);
+    }
+
+    @After
+    public void postConditions() {
+        verifyNoMoreInteractions(executor, replayTask, listener);
+    }
+
+    @Test
+    public void replayInOrder() {
+        buffer.buffer("topic/0", update0);
+        buffer.buffer("topic/1", update1);
+        verify(listener).onRecoveryBufferChange(10L);
+        verify(listener).onRecoveryBufferChange(30L);
+
+        buffer.onSessionStateChanged(session, RECOVERING_RECONNECT, CONNECTED_ACTIVE);
+        verify(executor).scheduleAtFixedRate(replayCaptor.getValue(), 0L, 100L, MILLISECONDS);
+
+        final InOrder inOrder = inOrder(update0, update1);
+        replayCaptor.getValue().run();
+        inOrder.verify(update0).replay();
+        verify(listener).onRecoveryBufferChange(20L);
+
+        replayCaptor.getValue().run();
+        inOrder.verify(update1).replay();
+        verify(listener).onRecoveryBufferChange(0L);
+        verify(replayTask).cancel(false);
+        verify(listener).onRecoveryReplay(eq(2), anyLong());
+    }
+
+    @Test
+    public void supersedeHeldUpdate() {
+        buffer.buffer("topic/0", update0);
+        buffer.buffer("topic/0", update1);
+        verify(listener).onRecoveryBufferChange(10L);
+        verify(listener).onRecoveryBufferChange(20L);
+        verify(update0).supersede();
+
+        assertTrue(buffer.supersede("topic/0"));
+        verify(update1).supersede();
+        verify(listener).onRecoveryBufferChange(0L);
+
+        assertFalse(buffer.supersede("topic/0"));
+        buffer.onSessionStateChanged(session, RECOVERING_RECONNECT, CONNECTED_ACTIVE);
+    }
+
+    @Test
+    public void supersedeUpdateWaitingForReplay() {
+        final RecoveryBuffer fastBuffer = new RecoveryBuffer(
+            session,
+            PublicationConfig.builder().replayRate(20).build(),
+            executor,
+            listener);
+        fastBuffer.buffer("topic/0", update0);
+        fastBuffer.buffer("topic/1", update1);
+        verify(listener).onRecoveryBufferChange(10L);
+        verify(listener).onRecoveryBufferChange(30L);
+
+        fastBuffer.onSessionStateChanged(session, RECOVERING_RECONNECT, CONNECTED_ACTIVE);
+        verify(executor).scheduleAtFixedRate(replayCaptor.getValue(), 0L, 100L, MILLISECONDS);
+
+        // Publish to the second topic while the first is replayed
+        final AtomicBoolean superseded = new AtomicBoolean();
+        doAnswer(invocation -> {
+            superseded.set(fastBuffer.supersede("topic/1"));
+            return null;
+        }).when(update0).replay();
+
+        replayCaptor.getValue().run();
+        assertTrue(superseded.get());
+        verify(update0).replay();
+        verify(update1).supersede();
+        verify(update1, never()).replay();
+        verify(listener).onRecoveryBufferChange(0L);
+        verify(replayTask).cancel(false);
+        verify(listener).onRecoveryReplay(eq(2), anyLong());
+    }
+
+    @Test
+    public void supersedeWaitsForReplay() throws Exception {
+        buffer.buffer("topic/0", update0);
+        verify(listener).onRecoveryBufferChange(10L);
+
+        buffer.onSessionStateChanged(session, RECOVERING_RECONNECT, CONNECTED_ACTIVE);
+        verify(executor).scheduleAtFixedRate(replayCaptor.getValue(), 0L, 100L, MILLISECONDS);
+
+        // Publish to the topic from another thread while it is replayed
+        final CompletableFuture<Boolean> superseded = new CompletableFuture<>();
+        final AtomicBoolean waited = new AtomicBoolean();
+        doAnswer(invocation -> {
+            final Thread publisher = new Thread(() -> superseded.complete(buffer.supersede("topic/0")));
+            publisher.start();
+            publisher.join(200L);
+            waited.set(publisher.isAlive());
+            return null;
+        }).when(update0).replay();
+
+        replayCaptor.getValue().run();
+        verify(update0).replay();
+        verify(listener).onRecoveryBufferChange(0L);
+        verify(replayTask).cancel(false);
+        verify(listener).onRecoveryReplay(eq(1), anyLong());
+
+        // The later update is sent after the replayed update and does not supersede it
+        assertTrue(waited.get());
+        assertFalse(superseded.get());
+        verify(update0, never()).supersede();
+    }
+
+    @Test
+    public void replayAtFractionalRate() {
+        final RecoveryBuffer slowBuffer = new RecoveryBuffer(
+            session,
+            PublicationConfig.builder().replayRate(5).build(),
+            executor,
+            listener);
+        slowBuffer.buffer("topic/0", update0);
+        slowBuffer.buffer("topic/1", update1);
+        verify(listener).onRecoveryBufferChange(10L);
+        verify(listener).onRecoveryBufferChange(30L);
+
+        slowBuffer.onSessionStateChanged(session, RECOVERING_RECONNECT, CONNECTED_ACTIVE);
+        verify(executor).scheduleAtFixedRate(replayCaptor.getValue(), 0L, 100L, MILLISECONDS);
+
+        // Five updates a second is one update every other period
+        replayCaptor.getValue().run();
+        verify(update0, never()).replay();
+
+        replayCaptor.getValue().run();
+        verify(update0).replay();
+        verify(listener).onRecoveryBufferChange(20L);
+
+        replayCaptor.getValue().run();
+        verify(update1, never()).replay();
+
+        replayCaptor.getValue().run();
+        verify(update1).replay();
+        verify(listener).onRecoveryBufferChange(0L);
+        verify(replayTask).cancel(false);
+        verify(listener).onRecoveryReplay(eq(2), anyLong());
+    }
+
+    @Test
+    public void evictOldest() {
+        buffer.buffer("topic/0", update0);
+        buffer.buffer("topic/1", update1);
+        buffer.buffer("topic/2", update2);
+        verify(listener).onRecoveryBufferChange(10L);
+        verify(listener).onRecoveryBufferChange(30L);
+        verify(listener).onRecoveryBufferEviction(10);
+        verify(update0).discard();
+        verify(listener).onRecoveryBufferChange(50L);
+    }
+
+    @Test
+    public void stopReplayWhenRecovering() {
+        buffer.buffer("topic/0", update0);
+        buffer.buffer("topic/1", update1);
+        verify(listener).onRecoveryBufferChange(10L);
+        verify(listener).onRecoveryBufferChange(30L);
+
+        buffer.onSessionStateChanged(session, RECOVERING_RECONNECT, CONNECTED_ACTIVE);
+        verify(executor).scheduleAtFixedRate(replayCaptor.getValue(), 0L, 100L, MILLISECONDS);
+        replayCaptor.getValue().run();
+        verify(update0).replay();
+        verify(listener).onRecoveryBufferChange(20L);
+
+        buffer.onSessionStateChanged(session, CONNECTED_ACTIVE, RECOVERING_RECONNECT);
+        verify(replayTask).cancel(false);
+
+        replayCaptor.getValue().run();
+        verify(update1, never()).replay();
+    }
+
+    @Test
+    public void discardWhenClosed() {
+        buffer.buffer("topic/0", update0);
+        verify(listener).onRecoveryBufferChange(10L);
+
+        buffer.onSessionStateChanged(otherSession, RECOVERING_RECONNECT, CLOSED_BY_CLIENT);
+        buffer.onSessionStateChanged(session, RECOVERING_RECONNECT, CLOSED_BY_CLIENT);
+        verify(update0).discard();
+        verify(listener).onRecoveryBufferChange(0L);
+    }
+
+    @Test
+    public void invalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new RecoveryBuffer(
+            session,
+            PublicationConfig.builder().maxRecoveryBytes(0L).build(),
+            executor,
+            listener));
+        assertThrows(IllegalArgumentException.class, () -> new RecoveryBuffer(
+            session,
+            PublicationConfig.builder().replayRate(0).build(),
+            executor,
+            listener));
+    }
+}
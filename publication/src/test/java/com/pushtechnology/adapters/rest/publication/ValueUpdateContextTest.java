@@ -19,28 +19,42 @@ import static com.pushtechnology.diffusion.client.features.TopicCreationResult.E
 import static com.pushtechnology.diffusion.client.session.Session.State.CLOSED_BY_CLIENT;
 import static com.pushtechnology.diffusion.client.session.Session.State.CONNECTED_ACTIVE;
 import static com.pushtechnology.diffusion.client.session.Session.State.RECOVERING_RECONNECT;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNotNull;
 import static org.mockito.ArgumentMatchers.notNull;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.AdditionalAnswers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 
 import com.pushtechnology.adapters.rest.metrics.listeners.PublicationListener;
 import com.pushtechnology.adapters.rest.metrics.listeners.PublicationListener.PublicationCompletionListener;
+import com.pushtechnology.adapters.rest.metrics.listeners.RecoveryListener;
+import com.pushtechnology.adapters.rest.polling.EndpointResponse;
+import com.pushtechnology.diffusion.client.callbacks.ErrorReason;
 import com.pushtechnology.diffusion.client.features.TopicCreationResult;
 import com.pushtechnology.diffusion.client.features.TopicUpdate;
 import com.pushtechnology.diffusion.client.features.UpdateStream;
@@ -48,6 +62,7 @@ import com.pushtechnology.diffusion.client.session.Session;
 import com.pushtechnology.diffusion.datatype.Bytes;
 import com.pushtechnology.diffusion.datatype.DataType;
 import com.pushtechnology.diffusion.datatype.binary.Binary;
+import com.pushtechnology.diffusion.datatype.binary.BinaryDelta;
 
 /**
  * Unit tests for {@link ValueUpdateContext}.
@@ -73,7 +88,24 @@ public final class ValueUpdateContextTest {
     private UpdateStream<Binary> updateStream;
     @Mock
     private CompletableFuture<TopicCreationResult> setFuture;
+    @Mock
+    private EndpointResponse response;
+    @Mock
+    private Binary changedBinary;
+    @Mock
+    private BiFunction<Binary, Binary, BinaryDelta> differ;
+    @Mock
+    private BinaryDelta delta;
+    @Mock
+    private ScheduledExecutorService executor;
+    @Mock
+    private ScheduledFuture<?> replayTask;
+    @Mock
+    private RecoveryListener recoveryListener;
+    @Captor
+    private ArgumentCaptor<Runnable> replayCaptor;
 
+    private RecoveryBuffer recoveryBuffer;
     private ValueUpdateContext<Binary> updateContext;
 
     @Before
@@ -90,13 +122,22 @@ public final class ValueUpdateContextTest {
             return null;
         }));
         when(publicationListener.onPublicationRequest(isNotNull(), anyInt())).thenReturn(completionListener);
+        when(response.getResponseBuffer()).thenCallRealMethod();
+        doReturn(replayTask)
+            .when(executor)
+            .scheduleAtFixedRate(replayCaptor.capture(), eq(0L), eq(100L), eq(MILLISECONDS));
+
+        recoveryBuffer = new RecoveryBuffer(session, null, executor, recoveryListener);
 
         updateContext = new ValueUpdateContext<>(
             session,
             "a/topic",
             Binary.class,
             dataType,
-            publicationListener);
+            publicationListener,
+            null,
+            null,
+            recoveryBuffer);
 
         verify(session).feature(TopicUpdate.class);
         verify(topicUpdate).createUpdateStream("a/topic", Binary.class);
@@ -104,7 +145,15 @@ public final class ValueUpdateContextTest {
 
     @After
     public void postConditions() {
-        verifyNoMoreInteractions(session, topicUpdate, publicationListener, completionListener, dataType, updateStream);
+        verifyNoMoreInteractions(
+            session,
+            topicUpdate,
+            publicationListener,
+            completionListener,
+            dataType,
+            updateStream,
+            executor,
+            recoveryListener);
     }
 
     @Test
@@ -126,7 +175,14 @@ public final class ValueUpdateContextTest {
         verify(updateStream, never()).set(binary);
         verify(publicationListener).onPublicationRequest("a/topic", 0);
 
-        updateContext.onSessionStateChanged(session, RECOVERING_RECONNECT, CONNECTED_ACTIVE);
+        verify(recoveryListener).onRecoveryBufferChange(0L);
+
+        recoveryBuffer.onSessionStateChanged(session, RECOVERING_RECONNECT, CONNECTED_ACTIVE);
+        verify(executor).scheduleAtFixedRate(replayCaptor.getValue(), 0L, 100L, MILLISECONDS);
+        replayCaptor.getValue().run();
+        verify(replayTask).cancel(false);
+        verify(recoveryListener, times(2)).onRecoveryBufferChange(0L);
+        verify(recoveryListener).onRecoveryReplay(eq(1), anyLong());
 
         verify(session).getState();
         verify(dataType).toBytes(binary);
@@ -134,6 +190,167 @@ public final class ValueUpdateContextTest {
         verify(completionListener).onPublication();
     }
 
+    @Test
+    public void testRecoverySuperseded() {
+        when(session.getState()).thenReturn(RECOVERING_RECONNECT, CONNECTED_ACTIVE);
+        updateContext.publish(binary);
+        verify(publicationListener).onPublicationRequest("a/topic", 0);
+        verify(recoveryListener).onRecoveryBufferChange(0L);
+
+        updateContext.publish(binary);
+        verify(completionListener).onPublicationConflated();
+        verify(recoveryListener, times(2)).onRecoveryBufferChange(0L);
+        verify(publicationListener, times(2)).onPublicationRequest("a/topic", 0);
+
+        verify(session, times(2)).getState();
+        verify(dataType, times(2)).toBytes(binary);
+        verify(updateStream).set(binary);
+        verify(completionListener).onPublication();
+    }
+
+    @Test
+    public void testIsDuplicate() {
+        when(response.getResponse()).thenReturn(new byte[] {1, 2, 3}, new byte[] {1, 2, 3}, new byte[] {1, 2, 4});
+        when(response.getResponseLength()).thenReturn(3);
+
+        assertFalse(updateContext.isDuplicate(response));
+        assertTrue(updateContext.isDuplicate(response));
+        verify(publicationListener).onPublicationSuppressed("a/topic", 3);
+        assertFalse(updateContext.isDuplicate(response));
+    }
+
+    @Test
+    public void testIsDuplicateAfterFailure() {
+        when(response.getResponse()).thenReturn(new byte[] {1, 2, 3});
+        when(session.getState()).thenReturn(CONNECTED_ACTIVE);
+        when(setFuture.whenComplete(notNull())).then(AdditionalAnswers.answer((BiConsumer<TopicCreationResult, Throwable> consumer) -> {
+            consumer.accept(null, new Exception("Intentional for test"));
+            return null;
+        }));
+
+        assertFalse(updateContext.isDuplicate(response));
+        updateContext.publish(binary);
+
+        verify(session).getState();
+        verify(dataType).toBytes(binary);
+        verify(updateStream).set(binary);
+        verify(publicationListener).onPublicationRequest("a/topic", 0);
+        verify(completionListener).onPublicationFailed(ErrorReason.COMMUNICATION_FAILURE);
+
+        assertFalse(updateContext.isDuplicate(response));
+    }
+
+    @Test
+    public void testDeltas() {
+        when(session.getState()).thenReturn(CONNECTED_ACTIVE);
+        when(dataType.toBytes(changedBinary)).thenReturn(changedBinary);
+        when(changedBinary.length()).thenReturn(10);
+        when(differ.apply(changedBinary, binary)).thenReturn(delta);
+        when(delta.hasChanges()).thenReturn(true);
+        when(delta.length()).thenReturn(3);
+        final ValueUpdateContext<Binary> deltaContext = new ValueUpdateContext<>(
+            session,
+            "a/topic",
+            Binary.class,
+            dataType,
+            publicationListener,
+            differ,
+            null,
+            recoveryBuffer);
+        verify(session, times(2)).feature(TopicUpdate.class);
+        verify(topicUpdate, times(2)).createUpdateStream("a/topic", Binary.class);
+
+        deltaContext.publish(binary);
+        verify(updateStream).set(binary);
+        verify(publicationListener).onPublicationRequest("a/topic", 0);
+
+        deltaContext.publish(changedBinary);
+        verify(differ).apply(changedBinary, binary);
+        verify(publicationListener).onPublicationDelta("a/topic", 3, 10);
+        verify(updateStream).set(changedBinary);
+        verify(publicationListener).onPublicationRequest("a/topic", 10);
+
+        when(differ.apply(changedBinary, changedBinary)).thenReturn(delta);
+        when(delta.hasChanges()).thenReturn(false);
+        deltaContext.publish(changedBinary);
+        verify(differ).apply(changedBinary, changedBinary);
+        verify(publicationListener).onPublicationSuppressed("a/topic", 10);
+
+        verify(session, times(3)).getState();
+        verify(dataType).toBytes(binary);
+        verify(dataType, times(2)).toBytes(changedBinary);
+        verify(completionListener, times(2)).onPublication();
+        verifyNoMoreInteractions(differ);
+    }
+
+    @Test
+    public void testDeltaRecoverySuperseded() {
+        when(session.getState()).thenReturn(CONNECTED_ACTIVE, RECOVERING_RECONNECT, CONNECTED_ACTIVE);
+        when(dataType.toBytes(changedBinary)).thenReturn(changedBinary);
+        when(changedBinary.length()).thenReturn(10);
+        final ValueUpdateContext<Binary> deltaContext = new ValueUpdateContext<>(
+            session,
+            "a/topic",
+            Binary.class,
+            dataType,
+            publicationListener,
+            differ,
+            null,
+            recoveryBuffer);
+        verify(session, times(2)).feature(TopicUpdate.class);
+        verify(topicUpdate, times(2)).createUpdateStream("a/topic", Binary.class);
+
+        deltaContext.publish(binary);
+        verify(updateStream).set(binary);
+        verify(publicationListener).onPublicationRequest("a/topic", 0);
+
+        deltaContext.publish(changedBinary);
+        verify(recoveryListener).onRecoveryBufferChange(10L);
+
+        // The held value was never sent so the same value is sent in full instead of being suppressed
+        deltaContext.publish(changedBinary);
+        verify(completionListener).onPublicationConflated();
+        verify(recoveryListener).onRecoveryBufferChange(0L);
+        verify(updateStream).set(changedBinary);
+        verify(publicationListener, times(2)).onPublicationRequest("a/topic", 10);
+
+        verify(session, times(3)).getState();
+        verify(dataType).toBytes(binary);
+        verify(dataType, times(2)).toBytes(changedBinary);
+        verify(completionListener, times(2)).onPublication();
+        verifyNoMoreInteractions(differ);
+    }
+
+    @Test
+    public void testDeltaAfterFailure() {
+        when(session.getState()).thenReturn(CONNECTED_ACTIVE);
+        when(setFuture.whenComplete(notNull())).then(AdditionalAnswers.answer((BiConsumer<TopicCreationResult, Throwable> consumer) -> {
+            consumer.accept(null, new Exception("Intentional for test"));
+            return null;
+        }));
+        final ValueUpdateContext<Binary> deltaContext = new ValueUpdateContext<>(
+            session,
+            "a/topic",
+            Binary.class,
+            dataType,
+            publicationListener,
+            differ,
+            null,
+            recoveryBuffer);
+        verify(session, times(2)).feature(TopicUpdate.class);
+        verify(topicUpdate, times(2)).createUpdateStream("a/topic", Binary.class);
+
+        deltaContext.publish(binary);
+        deltaContext.publish(binary);
+
+        verify(session, times(2)).getState();
+        verify(dataType, times(2)).toBytes(binary);
+        verify(updateStream, times(2)).set(binary);
+        verify(publicationListener, times(2)).onPublicationRequest("a/topic", 0);
+        verify(completionListener, times(2)).onPublicationFailed(ErrorReason.COMMUNICATION_FAILURE);
+        verifyNoMoreInteractions(differ);
+    }
+
     @Test
     public void testClosed() {
         when(session.getState()).thenReturn(CLOSED_BY_CLIENT);
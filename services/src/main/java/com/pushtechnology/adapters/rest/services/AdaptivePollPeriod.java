@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.services;
+
+import java.util.function.LongSupplier;
+
+import com.pushtechnology.adapters.rest.model.latest.AdaptivePollingConfig;
+import com.pushtechnology.adapters.rest.polling.EndpointResponse;
+import com.pushtechnology.adapters.rest.polling.ResponseChangeListener;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * The poll period of an endpoint that adapts to how often the endpoint changes.
+ * <p>
+ * The period is doubled when the endpoint has been found unchanged by a number of polls in a row and halved when a
+ * change is found, within the configured bounds. A response is unchanged if it reports the endpoint has not been
+ * modified or if the handler of the response reports it has not changed.
+ *
+ * @author Push Technology Limited
+ */
+@ThreadSafe
+/*package*/ final class AdaptivePollPeriod implements LongSupplier, ResponseChangeListener {
+    private static final long DEFAULT_MAX_PERIOD_MULTIPLE = 10L;
+    private static final int DEFAULT_UNCHANGED_POLLS = 3;
+    private final long minPeriod;
+    private final long maxPeriod;
+    private final int unchangedPolls;
+    @GuardedBy("this")
+    private long period;
+    @GuardedBy("this")
+    private int unchangedCount;
+    @GuardedBy("this")
+    private boolean isFirstResponse = true;
+
+    /**
+     * Constructor.
+     *
+     * @param pollPeriod the configured poll period of the endpoint
+     * @param config the adaptive polling configuration of the service
+     */
+    /*package*/ AdaptivePollPeriod(long pollPeriod, AdaptivePollingConfig config) {
+        minPeriod = config.getMinPollPeriod() == null ? pollPeriod : config.getMinPollPeriod();
+        maxPeriod = Math.max(
+            minPeriod,
+            config.getMaxPollPeriod() == null ? pollPeriod * DEFAULT_MAX_PERIOD_MULTIPLE : config.getMaxPollPeriod());
+        unchangedPolls = config.getUnchangedPolls() == null || config.getUnchangedPolls() <= 0 ?
+            DEFAULT_UNCHANGED_POLLS :
+            config.getUnchangedPolls();
+        period = Math.min(Math.max(pollPeriod, minPeriod), maxPeriod);
+    }
+
+    /**
+     * @return the current poll period
+     */
+    @Override
+    public synchronized long getAsLong() {
+        return period;
+    }
+
+    /**
+     * Update the poll period from a poll response. Responses with a body are compared by their handler, which reports
+     * the result to {@link #onResponseHandled(boolean)}.
+     *
+     * @param response the response
+     */
+    /*package*/ synchronized void onResponse(EndpointResponse response) {
+        if (response.isNotModified()) {
+            onUnchanged();
+        }
+    }
+
+    @Override
+    public synchronized void onResponseHandled(boolean isChanged) {
+        if (isFirstResponse) {
+            // Nothing to compare the first response to
+            isFirstResponse = false;
+        }
+        else if (isChanged) {
+            unchangedCount = 0;
+            period = Math.max(period / 2, minPeriod);
+        }
+        else {
+            onUnchanged();
+        }
+    }
+
+    @GuardedBy("this")
+    private void onUnchanged() {
+        unchangedCount += 1;
+        if (unchangedCount >= unchangedPolls) {
+            unchangedCount = 0;
+            period = Math.min(period * 2, maxPeriod);
+        }
+    }
+}
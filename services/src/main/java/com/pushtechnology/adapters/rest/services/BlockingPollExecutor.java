@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.services;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.pushtechnology.adapters.rest.model.latest.ConnectionPoolConfig;
+import com.pushtechnology.adapters.rest.model.latest.Model;
+import com.pushtechnology.adapters.rest.model.latest.ServiceConfig;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Executor for polls that block while waiting for the response. Each poll runs on its own thread.
+ * <p>
+ * Virtual threads are used if the JVM supports them, making a blocked poll cheap. Otherwise a pool of daemon threads
+ * is used. The pool is limited to the number of blocking polls the services can have in flight at the same time,
+ * further tasks wait for a thread. Tasks submitted after the executor has been closed are discarded.
+ * <p>
+ * The number of blocking polls of a service in flight is limited by the {@code maxConcurrentPolls} of the service.
+ * If the service does not limit it, it is limited to the maximum number of connections to the service.
+ *
+ * @author Push Technology Limited
+ */
+@ThreadSafe
+public final class BlockingPollExecutor implements Executor, AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(BlockingPollExecutor.class);
+    // The default maxConnections of the connection pool of a service
+    private static final int DEFAULT_MAX_CONNECTIONS = 2;
+    private final ExecutorService executor;
+
+    /**
+     * Constructor.
+     *
+     * @param model the model of the services polled
+     */
+    public BlockingPollExecutor(Model model) {
+        executor = createExecutor(getMaxThreads(model));
+    }
+
+    /**
+     * @return the number of blocking polls of the service that can be in flight at the same time
+     */
+    /*package*/ static int getMaxConcurrentPolls(ServiceConfig serviceConfig) {
+        if (serviceConfig.getMaxConcurrentPolls() > 0) {
+            return serviceConfig.getMaxConcurrentPolls();
+        }
+
+        final ConnectionPoolConfig connectionPool = serviceConfig.getConnectionPool();
+        if (connectionPool == null || connectionPool.getMaxConnections() == null) {
+            return DEFAULT_MAX_CONNECTIONS;
+        }
+        return Math.max(1, connectionPool.getMaxConnections());
+    }
+
+    private static int getMaxThreads(Model model) {
+        final int maxServicePolls = model
+            .getServices()
+            .stream()
+            .mapToInt(BlockingPollExecutor::getMaxConcurrentPolls)
+            .sum();
+        final int maxPolls = model.getMaxConcurrentPolls() > 0 ?
+            Math.min(maxServicePolls, model.getMaxConcurrentPolls()) :
+            maxServicePolls;
+        return Math.max(1, maxPolls);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        try {
+            executor.execute(task);
+        }
+        catch (RejectedExecutionException e) {
+            LOG.debug("Discarding poll, executor closed");
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private static ExecutorService createExecutor(int maxThreads) {
+        try {
+            // Looked up reflectively as virtual threads are not part of the Java version built against
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException e) {
+            LOG.info("Virtual threads not supported, blocking polls will use platform threads");
+            final ThreadPoolExecutor threadPool = new ThreadPoolExecutor(
+                maxThreads,
+                maxThreads,
+                60L,
+                SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "Blocking poll");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            threadPool.allowCoreThreadTimeOut(true);
+            return threadPool;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.services;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.OptionalLong;
+import java.util.function.LongSupplier;
+
+import com.pushtechnology.adapters.rest.model.latest.CacheHeadersConfig;
+import com.pushtechnology.adapters.rest.polling.CacheHeaders;
+import com.pushtechnology.adapters.rest.polling.EndpointResponse;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * The delay between the polls of an endpoint that honours the caching and {@code Retry-After} headers of the
+ * responses.
+ * <p>
+ * A response that declares how long it is fresh for, or asks for requests to be retried later, defers the polls of
+ * the endpoint until that time has passed. The deferral is bounded by the configuration. Polls that are due while the
+ * endpoint is deferred should be skipped. While the endpoint is deferred the delay is the time until the deferral
+ * ends, even if that is shorter than the poll period, otherwise it is the poll period.
+ *
+ * @author Push Technology Limited
+ */
+@ThreadSafe
+/*package*/ final class CacheHeadersPollDelay implements LongSupplier {
+    private final LongSupplier pollPeriod;
+    private final long minDelay;
+    private final long maxDelay;
+    // The System.nanoTime() the endpoint is deferred until, or null if it is not deferred
+    private volatile Long deferredUntil;
+
+    /**
+     * Constructor.
+     *
+     * @param pollPeriod the poll period of the endpoint
+     * @param config the cache headers configuration of the service
+     */
+    /*package*/ CacheHeadersPollDelay(LongSupplier pollPeriod, CacheHeadersConfig config) {
+        this.pollPeriod = pollPeriod;
+        minDelay = config.getMinPollDelay() == null ? 0L : config.getMinPollDelay();
+        maxDelay = Math.max(minDelay, config.getMaxPollDelay() == null ? Long.MAX_VALUE : config.getMaxPollDelay());
+    }
+
+    @Override
+    public long getAsLong() {
+        final long remainingDeferral = getRemainingDeferral();
+        return remainingDeferral > 0L ? remainingDeferral : pollPeriod.getAsLong();
+    }
+
+    /**
+     * @return if polls of the endpoint should be skipped
+     */
+    /*package*/ boolean isDeferred() {
+        return getRemainingDeferral() > 0L;
+    }
+
+    /**
+     * Defer the endpoint until the response expires.
+     *
+     * @param response the response
+     */
+    /*package*/ void onResponse(EndpointResponse response) {
+        final OptionalLong freshness = CacheHeaders.getFreshness(response);
+        if (freshness.isPresent()) {
+            defer(freshness.getAsLong());
+        }
+    }
+
+    /**
+     * Defer the endpoint as requested by a {@code Retry-After} header.
+     *
+     * @param retryAfter the time in milliseconds to wait
+     */
+    /*package*/ void onRetryAfter(long retryAfter) {
+        defer(retryAfter);
+    }
+
+    private void defer(long delay) {
+        final long boundedDelay = Math.min(Math.max(delay, minDelay), maxDelay);
+        // Limit the deferral so the deadline does not overflow
+        deferredUntil = System.nanoTime() + Math.min(MILLISECONDS.toNanos(boundedDelay), Long.MAX_VALUE / 2);
+    }
+
+    private long getRemainingDeferral() {
+        final Long until = deferredUntil;
+        if (until == null) {
+            return 0L;
+        }
+
+        final long remaining = until - System.nanoTime();
+        return remaining > 0L ? NANOSECONDS.toMillis(remaining) : 0L;
+    }
+}
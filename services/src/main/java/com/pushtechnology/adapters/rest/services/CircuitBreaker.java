@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.services;
+
+import static com.pushtechnology.adapters.rest.metrics.event.listeners.CircuitBreakerState.CLOSED;
+import static com.pushtechnology.adapters.rest.metrics.event.listeners.CircuitBreakerState.HALF_OPEN;
+import static com.pushtechnology.adapters.rest.metrics.event.listeners.CircuitBreakerState.OPEN;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.function.Consumer;
+
+import com.pushtechnology.adapters.rest.metrics.event.listeners.CircuitBreakerState;
+import com.pushtechnology.adapters.rest.model.latest.CircuitBreakerConfig;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * A circuit breaker that backs off requests to a failing host or endpoint.
+ * <p>
+ * The breaker opens after a number of consecutive failures and suppresses requests until its backoff has expired.
+ * It then becomes half-open and allows a single request to probe the host or endpoint, other requests are suppressed
+ * until the probe completes. The success of the probe closes the breaker and its failure opens it again with the
+ * backoff doubled, up to the maximum backoff. If the probe has not completed within the backoff another probe is
+ * allowed.
+ * <p>
+ * The listener is notified of state changes while the breaker is locked so it should not block.
+ *
+ * @author Push Technology Limited
+ */
+@ThreadSafe
+/*package*/ final class CircuitBreaker {
+    private static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    private static final long DEFAULT_INITIAL_BACKOFF = 5000L;
+    private static final long DEFAULT_MAX_BACKOFF = 300000L;
+    private final int failureThreshold;
+    private final long initialBackoff;
+    private final long maxBackoff;
+    private final Consumer<CircuitBreakerState> listener;
+    @GuardedBy("this")
+    private CircuitBreakerState state = CLOSED;
+    @GuardedBy("this")
+    private int consecutiveFailures;
+    @GuardedBy("this")
+    private int opens;
+    // The System.nanoTime() the backoff, or the wait for a probe to complete, expires at
+    @GuardedBy("this")
+    private long openUntil;
+    @GuardedBy("this")
+    private long backoff;
+
+    /**
+     * Constructor.
+     *
+     * @param config the circuit breaker configuration of the service
+     * @param listener the listener for state changes
+     */
+    /*package*/ CircuitBreaker(CircuitBreakerConfig config, Consumer<CircuitBreakerState> listener) {
+        failureThreshold = Math.max(
+            1,
+            config.getFailureThreshold() == null ? DEFAULT_FAILURE_THRESHOLD : config.getFailureThreshold());
+        initialBackoff = getInitialBackoff(config);
+        maxBackoff = getMaxBackoff(config);
+        this.listener = listener;
+    }
+
+    /**
+     * @return if a request is allowed
+     */
+    /*package*/ synchronized boolean allowRequest() {
+        if (state == CLOSED) {
+            return true;
+        }
+
+        final long now = System.nanoTime();
+        if (openUntil - now > 0L) {
+            return false;
+        }
+
+        // Allow a probe and wait for it to complete
+        openUntil = now + backoff;
+        if (state == OPEN) {
+            changeState(HALF_OPEN);
+        }
+        return true;
+    }
+
+    /**
+     * Notify the breaker that a request succeeded.
+     */
+    /*package*/ synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        if (state != CLOSED) {
+            opens = 0;
+            changeState(CLOSED);
+        }
+    }
+
+    /**
+     * Notify the breaker that a request failed.
+     */
+    /*package*/ synchronized void onFailure() {
+        if (state == OPEN) {
+            return;
+        }
+
+        consecutiveFailures += 1;
+        if (state == HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            opens += 1;
+            // Limit the backoff so the deadline does not overflow
+            backoff = Math.min(
+                MILLISECONDS.toNanos(getBackoff(initialBackoff, maxBackoff, opens)),
+                Long.MAX_VALUE / 2);
+            openUntil = System.nanoTime() + backoff;
+            changeState(OPEN);
+        }
+    }
+
+    /**
+     * @return the current state of the breaker
+     */
+    /*package*/ synchronized CircuitBreakerState getState() {
+        return state;
+    }
+
+    @GuardedBy("this")
+    private void changeState(CircuitBreakerState newState) {
+        state = newState;
+        listener.accept(newState);
+    }
+
+    /**
+     * @param config the circuit breaker configuration
+     * @return the first backoff in milliseconds
+     */
+    /*package*/ static long getInitialBackoff(CircuitBreakerConfig config) {
+        return Math.max(0L, config.getInitialBackoff() == null ? DEFAULT_INITIAL_BACKOFF : config.getInitialBackoff());
+    }
+
+    /**
+     * @param config the circuit breaker configuration
+     * @return the longest backoff in milliseconds
+     */
+    /*package*/ static long getMaxBackoff(CircuitBreakerConfig config) {
+        return Math.max(
+            getInitialBackoff(config),
+            config.getMaxBackoff() == null ? DEFAULT_MAX_BACKOFF : config.getMaxBackoff());
+    }
+
+    /**
+     * @param initialBackoff the first backoff
+     * @param maxBackoff the longest backoff
+     * @param attempt the number of the backoff, starting from 1
+     * @return the backoff doubled for each attempt after the first, limited to the longest backoff
+     */
+    /*package*/ static long getBackoff(long initialBackoff, long maxBackoff, int attempt) {
+        final int doublings = Math.min(Math.max(attempt - 1, 0), Long.SIZE - 2);
+        if (initialBackoff > maxBackoff >> doublings) {
+            return maxBackoff;
+        }
+        return initialBackoff << doublings;
+    }
+}
@@ -0,0 +1,399 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.services;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Implementation of {@link PollScheduler} using a hashed timing wheel.
+ * <p>
+ * Scheduled tasks are held in the bucket of the wheel for the tick they are due in. Scheduling and cancelling a task
+ * take constant time regardless of the number of tasks. A single thread advances the wheel once per tick and runs all
+ * the tasks that are due in a batch. Tasks are run on this thread so should not block. Tasks run at the end of the
+ * tick they are due in, so may be late by up to the tick duration.
+ * <p>
+ * The thread is started when the first task is scheduled.
+ *
+ * @author Push Technology Limited
+ */
+@ThreadSafe
+public final class HashedWheelPollScheduler implements PollScheduler {
+    private static final Logger LOG = LoggerFactory.getLogger(HashedWheelPollScheduler.class);
+    private static final long DEFAULT_TICK_DURATION = 10L;
+    private static final int DEFAULT_WHEEL_SIZE = 512;
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<WheelTask> pendingTasks = new ConcurrentLinkedQueue<>();
+    private final Queue<WheelTask> cancelledTasks = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    @GuardedBy("this")
+    private State state = State.INIT;
+    private volatile long startTime;
+    private volatile boolean isClosed;
+
+    /**
+     * Constructor. Creates a wheel of 512 ticks of 10 milliseconds.
+     */
+    public HashedWheelPollScheduler() {
+        this(DEFAULT_TICK_DURATION, MILLISECONDS, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param tickDuration the duration of a tick
+     * @param unit the unit of the tick duration
+     * @param wheelSize the number of ticks in a revolution of the wheel, rounded up to a power of two
+     */
+    public HashedWheelPollScheduler(long tickDuration, TimeUnit unit, int wheelSize) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("The tick duration must be positive");
+        }
+        if (wheelSize <= 0 || wheelSize > 1 << 30) {
+            throw new IllegalArgumentException("The wheel size must be between 1 and 2^30");
+        }
+
+        tickNanos = unit.toNanos(tickDuration);
+        final int size = Integer.bitCount(wheelSize) == 1 ? wheelSize : Integer.highestOneBit(wheelSize) << 1;
+        wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        mask = size - 1;
+
+        worker = new Thread(new Worker(), "Poll scheduler");
+        worker.setDaemon(true);
+    }
+
+    @Override
+    public Future<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        return schedule(new WheelTask(task, null, unit), delay, unit);
+    }
+
+    @Override
+    public Future<?> scheduleWithFixedDelay(Runnable task, long initialDelay, long delay, TimeUnit unit) {
+        if (delay <= 0) {
+            throw new IllegalArgumentException("The delay must be positive");
+        }
+
+        return scheduleWithDynamicDelay(task, initialDelay, () -> delay, unit);
+    }
+
+    @Override
+    public Future<?> scheduleWithDynamicDelay(Runnable task, long initialDelay, LongSupplier delay, TimeUnit unit) {
+        return schedule(new WheelTask(task, delay, unit), initialDelay, unit);
+    }
+
+    private Future<?> schedule(WheelTask wheelTask, long initialDelay, TimeUnit unit) {
+        start();
+
+        wheelTask.deadline = System.nanoTime() - startTime + unit.toNanos(Math.max(initialDelay, 0L));
+        pendingTasks.add(wheelTask);
+        return wheelTask;
+    }
+
+    private synchronized void start() {
+        if (state == State.INIT) {
+            startTime = System.nanoTime();
+            state = State.STARTED;
+            worker.start();
+        }
+        else if (state == State.CLOSED) {
+            throw new IllegalStateException("Scheduler closed");
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (state == State.CLOSED) {
+                return;
+            }
+            final boolean wasStarted = state == State.STARTED;
+            state = State.CLOSED;
+            isClosed = true;
+            if (!wasStarted) {
+                return;
+            }
+        }
+
+        worker.interrupt();
+    }
+
+    private void addToWheel(WheelTask task, long currentTick) {
+        final long calculated = task.deadline / tickNanos;
+        task.remainingRounds = (calculated - currentTick) / wheel.length;
+        // Tasks that are already due are run in the current tick
+        final long ticks = Math.max(calculated, currentTick);
+        wheel[(int) (ticks & mask)].add(task);
+    }
+
+    /**
+     * The state of the scheduler.
+     */
+    private enum State {
+        INIT,
+        STARTED,
+        CLOSED
+    }
+
+    /**
+     * Advances the wheel.
+     */
+    private final class Worker implements Runnable {
+        private final List<WheelTask> dueTasks = new ArrayList<>();
+        private long tick;
+
+        @Override
+        public void run() {
+            try {
+                while (!isClosed) {
+                    final long tickEnd = waitForNextTick();
+                    if (tickEnd < 0) {
+                        break;
+                    }
+
+                    removeCancelledTasks();
+                    transferPendingTasks();
+                    wheel[(int) (tick & mask)].expire(tickEnd, dueTasks);
+                    tick += 1;
+                    runDueTasks();
+                }
+            }
+            finally {
+                cancelAll();
+            }
+        }
+
+        /**
+         * @return the time of the end of the tick or -1 if the scheduler has been closed
+         */
+        private long waitForNextTick() {
+            final long tickEnd = tickNanos * (tick + 1);
+
+            while (true) {
+                final long sleepNanos = tickEnd - (System.nanoTime() - startTime);
+                if (sleepNanos <= 0) {
+                    return tickEnd;
+                }
+
+                try {
+                    Thread.sleep(MILLISECONDS.convert(sleepNanos + 999_999L, TimeUnit.NANOSECONDS));
+                }
+                catch (InterruptedException e) {
+                    if (isClosed) {
+                        return -1L;
+                    }
+                }
+            }
+        }
+
+        private void removeCancelledTasks() {
+            WheelTask task = cancelledTasks.poll();
+            while (task != null) {
+                if (task.bucket != null) {
+                    task.bucket.remove(task);
+                }
+                task = cancelledTasks.poll();
+            }
+        }
+
+        private void transferPendingTasks() {
+            WheelTask task = pendingTasks.poll();
+            while (task != null) {
+                if (!task.isDone()) {
+                    addToWheel(task, tick);
+                }
+                task = pendingTasks.poll();
+            }
+        }
+
+        private void runDueTasks() {
+            for (final WheelTask task : dueTasks) {
+                if (task.runTask()) {
+                    task.deadline = System.nanoTime() - startTime + task.nextDelayNanos();
+                    addToWheel(task, tick);
+                }
+            }
+            dueTasks.clear();
+        }
+
+        private void cancelAll() {
+            for (final Bucket bucket : wheel) {
+                bucket.cancelAll();
+            }
+            WheelTask task = pendingTasks.poll();
+            while (task != null) {
+                task.cancel(false);
+                task = pendingTasks.poll();
+            }
+            cancelledTasks.clear();
+        }
+    }
+
+    /**
+     * The tasks due in a tick of the wheel. Only accessed by the worker thread.
+     */
+    private static final class Bucket {
+        private WheelTask head;
+        private WheelTask tail;
+
+        void add(WheelTask task) {
+            task.bucket = this;
+            if (head == null) {
+                head = task;
+                tail = task;
+            }
+            else {
+                tail.next = task;
+                task.prev = tail;
+                tail = task;
+            }
+        }
+
+        void remove(WheelTask task) {
+            if (task.prev == null) {
+                head = task.next;
+            }
+            else {
+                task.prev.next = task.next;
+            }
+            if (task.next == null) {
+                tail = task.prev;
+            }
+            else {
+                task.next.prev = task.prev;
+            }
+            task.bucket = null;
+            task.prev = null;
+            task.next = null;
+        }
+
+        /**
+         * Remove the tasks due by the deadline and add them to the list of due tasks.
+         */
+        void expire(long deadline, List<WheelTask> dueTasks) {
+            WheelTask task = head;
+            while (task != null) {
+                final WheelTask next = task.next;
+                if (task.isDone()) {
+                    remove(task);
+                }
+                else if (task.remainingRounds <= 0) {
+                    remove(task);
+                    assert task.deadline <= deadline : "Task expired before its deadline";
+                    dueTasks.add(task);
+                }
+                else {
+                    task.remainingRounds -= 1;
+                }
+                task = next;
+            }
+        }
+
+        void cancelAll() {
+            WheelTask task = head;
+            while (task != null) {
+                final WheelTask next = task.next;
+                remove(task);
+                task.cancel(false);
+                task = next;
+            }
+        }
+    }
+
+    /**
+     * A scheduled task. The future of a periodic task is only completed when the task is cancelled or throws an
+     * exception. The future of a one-shot task is also completed when the task has run.
+     */
+    private final class WheelTask extends CompletableFuture<Void> {
+        private final Runnable task;
+        // Null for one-shot tasks
+        private final LongSupplier delay;
+        private final TimeUnit unit;
+        // Accessed by the scheduling thread before the task is published and then only by the worker thread
+        private long deadline;
+        private long remainingRounds;
+        private Bucket bucket;
+        private WheelTask prev;
+        private WheelTask next;
+
+        WheelTask(Runnable task, LongSupplier delay, TimeUnit unit) {
+            this.task = task;
+            this.delay = delay;
+            this.unit = unit;
+        }
+
+        /**
+         * @return the delay before the next run, tasks with a delay that is not positive run in the next tick
+         */
+        long nextDelayNanos() {
+            return unit.toNanos(Math.max(delay.getAsLong(), 0L));
+        }
+
+        /**
+         * @return if the task should run again
+         */
+        boolean runTask() {
+            if (isDone()) {
+                return false;
+            }
+
+            try {
+                task.run();
+            }
+            // CHECKSTYLE.OFF: IllegalCatch
+            catch (RuntimeException e) {
+                LOG.error("Runtime exception thrown by poll task", e);
+                completeExceptionally(e);
+                return false;
+            }
+            // CHECKSTYLE.ON: IllegalCatch
+
+            if (delay == null) {
+                complete(null);
+                return false;
+            }
+
+            return !isDone();
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            final boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                cancelledTasks.add(this);
+            }
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.services;
+
+/**
+ * What to do when a poll of an endpoint is due while the previous poll of the endpoint is still in flight.
+ *
+ * @author Push Technology Limited
+ */
+/*package*/ enum InFlightPolicy {
+    /**
+     * Make the poll, allowing the polls of the endpoint to overlap.
+     */
+    OVERLAP("overlap"),
+    /**
+     * Skip the poll.
+     */
+    SKIP("skip"),
+    /**
+     * Make a single poll once the poll in flight completes, however many polls were due while it was in flight.
+     */
+    COALESCE("coalesce"),
+    /**
+     * Cancel the poll in flight and make the poll.
+     */
+    CANCEL("cancel");
+
+    private final String identifier;
+
+    InFlightPolicy(String identifier) {
+        this.identifier = identifier;
+    }
+
+    /**
+     * @return the policy for the identifier, {@link #OVERLAP} if the identifier is null
+     * @throws IllegalArgumentException if the identifier is not known
+     */
+    /*package*/ static InFlightPolicy from(String identifier) {
+        if (identifier == null) {
+            return OVERLAP;
+        }
+
+        for (final InFlightPolicy policy : values()) {
+            if (policy.identifier.equals(identifier)) {
+                return policy;
+            }
+        }
+        throw new IllegalArgumentException("Unknown in-flight policy " + identifier);
+    }
+}
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.services;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Executor that runs a limited number of tasks at the same time on another executor.
+ * <p>
+ * Tasks submitted while the limit is reached wait in the order they were submitted until a running task completes.
+ * A waiting task does not hold a thread of the other executor.
+ *
+ * @author Push Technology Limited
+ */
+@ThreadSafe
+/*package*/ final class LimitedExecutor implements Executor {
+    private final Executor executor;
+    private final int limit;
+    @GuardedBy("this")
+    private final Queue<Runnable> waitingTasks = new ArrayDeque<>();
+    @GuardedBy("this")
+    private int runningTasks;
+
+    /**
+     * Constructor.
+     *
+     * @param executor the executor to run the tasks on
+     * @param limit the number of tasks that can run at the same time
+     */
+    /*package*/ LimitedExecutor(Executor executor, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("The limit must be positive");
+        }
+
+        this.executor = executor;
+        this.limit = limit;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        synchronized (this) {
+            if (runningTasks >= limit) {
+                waitingTasks.add(task);
+                return;
+            }
+            runningTasks += 1;
+        }
+
+        run(task);
+    }
+
+    private void run(Runnable task) {
+        executor.execute(() -> {
+            try {
+                task.run();
+            }
+            finally {
+                onComplete();
+            }
+        });
+    }
+
+    private void onComplete() {
+        final Runnable nextTask;
+        synchronized (this) {
+            nextTask = waitingTasks.poll();
+            if (nextTask == null) {
+                runningTasks -= 1;
+                return;
+            }
+        }
+
+        run(nextTask);
+    }
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.services;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Scheduler for the tasks that poll endpoints.
+ *
+ * @author Push Technology Limited
+ */
+public interface PollScheduler extends AutoCloseable {
+    /**
+     * Schedule a task to run once after a delay.
+     *
+     * @param task the task
+     * @param delay the delay before the task is run
+     * @param unit the unit of the delay
+     * @return a handle to the task that can be used to cancel it
+     */
+    Future<?> schedule(Runnable task, long delay, TimeUnit unit);
+
+    /**
+     * Schedule a task to run periodically. The task is run after the initial delay and then again after each delay
+     * from the completion of the previous run. If the task throws an exception it is not run again.
+     *
+     * @param task the task
+     * @param initialDelay the delay before the first run
+     * @param delay the delay between the completion of a run and the start of the next
+     * @param unit the unit of the delays
+     * @return a handle to the task that can be used to cancel it
+     */
+    Future<?> scheduleWithFixedDelay(Runnable task, long initialDelay, long delay, TimeUnit unit);
+
+    /**
+     * Schedule a task to run periodically with a delay that can change. The task is run after the initial delay and
+     * then again after each delay from the completion of the previous run. The delay is obtained from the supplier
+     * after each run. If the task throws an exception it is not run again.
+     *
+     * @param task the task
+     * @param initialDelay the delay before the first run
+     * @param delay the supplier of the delay between the completion of a run and the start of the next
+     * @param unit the unit of the delays
+     * @return a handle to the task that can be used to cancel it
+     */
+    Future<?> scheduleWithDynamicDelay(Runnable task, long initialDelay, LongSupplier delay, TimeUnit unit);
+
+    /**
+     * Stop the scheduler. Any scheduled tasks are cancelled.
+     */
+    @Override
+    void close();
+}
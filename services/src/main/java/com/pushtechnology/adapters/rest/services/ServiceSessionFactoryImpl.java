@@ -15,7 +15,8 @@
 
 package com.pushtechnology.adapters.rest.services;
 
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 
 import com.pushtechnology.adapters.rest.metrics.event.listeners.ServiceEventListener;
 import com.pushtechnology.adapters.rest.model.latest.ServiceConfig;
@@ -30,7 +31,10 @@ import com.pushtechnology.adapters.rest.topic.management.TopicManagementClient;
  * @author Push Technology Limited
  */
 public final class ServiceSessionFactoryImpl implements ServiceSessionFactory {
-    private final ScheduledExecutorService executor;
+    private final PollScheduler pollScheduler;
+    private final ShardedExecutor workers;
+    private final Executor blockingPolls;
+    private final Semaphore globalPollPermits;
     private final EndpointClient endpointClient;
     private final EndpointPollHandlerFactory handlerFactory;
     private final TopicManagementClient topicManagementClient;
@@ -40,14 +44,22 @@ public final class ServiceSessionFactoryImpl implements ServiceSessionFactory {
     /**
      * Constructor.
      */
+    // CHECKSTYLE.OFF: ParameterNumber
     public ServiceSessionFactoryImpl(
-            ScheduledExecutorService executor,
+            PollScheduler pollScheduler,
+            ShardedExecutor workers,
+            Executor blockingPolls,
+            Semaphore globalPollPermits,
             EndpointClient endpointClient,
             EndpointPollHandlerFactory handlerFactory,
             TopicManagementClient topicManagementClient,
             PublishingClient publishingClient,
             ServiceEventListener serviceListener) {
-        this.executor = executor;
+    // CHECKSTYLE.ON: ParameterNumber
+        this.pollScheduler = pollScheduler;
+        this.workers = workers;
+        this.blockingPolls = blockingPolls;
+        this.globalPollPermits = globalPollPermits;
         this.endpointClient = endpointClient;
         this.handlerFactory = handlerFactory;
         this.topicManagementClient = topicManagementClient;
@@ -58,7 +70,10 @@ public final class ServiceSessionFactoryImpl implements ServiceSessionFactory {
     @Override
     public ServiceSession create(ServiceConfig serviceConfig) {
         return ServiceSessionImpl.create(
-            executor,
+            pollScheduler,
+            workers,
+            blockingPolls,
+            globalPollPermits,
             endpointClient,
             serviceConfig,
             handlerFactory,
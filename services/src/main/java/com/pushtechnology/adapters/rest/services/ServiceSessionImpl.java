@@ -20,14 +20,23 @@ import static com.pushtechnology.adapters.rest.endpoints.EndpointType.from;
 import static com.pushtechnology.adapters.rest.endpoints.EndpointType.inferFromContentType;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,11 +44,15 @@ import org.slf4j.LoggerFactory;
 import com.pushtechnology.adapters.rest.adapter.ValidateContentType;
 import com.pushtechnology.adapters.rest.endpoints.EndpointType;
 import com.pushtechnology.adapters.rest.metrics.event.listeners.ServiceEventListener;
+import com.pushtechnology.adapters.rest.model.latest.AdaptivePollingConfig;
+import com.pushtechnology.adapters.rest.model.latest.CacheHeadersConfig;
+import com.pushtechnology.adapters.rest.model.latest.CircuitBreakerConfig;
 import com.pushtechnology.adapters.rest.model.latest.EndpointConfig;
 import com.pushtechnology.adapters.rest.model.latest.ServiceConfig;
 import com.pushtechnology.adapters.rest.polling.EndpointClient;
 import com.pushtechnology.adapters.rest.polling.EndpointPollHandlerFactory;
 import com.pushtechnology.adapters.rest.polling.EndpointResponse;
+import com.pushtechnology.adapters.rest.polling.RetryAfterException;
 import com.pushtechnology.adapters.rest.publication.PublishingClient;
 import com.pushtechnology.adapters.rest.topic.management.TopicManagementClient;
 
@@ -50,6 +63,29 @@ import kotlin.Pair;
 
 /**
  * Implementation of {@link ServiceSession}. Access to the endpoints is synchronised.
+ * <p>
+ * When the service becomes active the topics of the endpoints whose topic type is configured are added together
+ * before their first requests. If the first request of such an endpoint fails its topic is removed again. The topics
+ * of endpoints that infer their type are added after their first response. The first response is published by the
+ * handler of the endpoint, so a later poll that finds the same response is suppressed.
+ * <p>
+ * Polling does not take the lock. Each polled endpoint has a {@link PollHandle} holding its state atomically, so
+ * polling one endpoint never waits on another endpoint of the service. Poll responses are handled on the shard of the
+ * worker executor assigned to the topic of the endpoint. The responses for a topic are handled in order and the
+ * responses for different topics are handled concurrently.
+ * <p>
+ * If a blocking poll executor is provided each poll instead runs as a single blocking flow of request, parse and
+ * publish on a thread of that executor.
+ * <p>
+ * The {@link InFlightPolicy} of the service decides what happens when a poll of an endpoint is due while the previous
+ * poll is still in flight. The number of polls in flight at the same time can be limited for the service and across
+ * all services. In the asynchronous mode a poll that cannot get a permit is skipped, in the blocking mode it waits.
+ * Polls are also skipped while the publishing client is saturated, until the updates waiting to be sent have been
+ * sent.
+ * <p>
+ * If the service has a circuit breaker configuration each endpoint and the host of the service have a
+ * {@link CircuitBreaker}. Polls are skipped while either breaker is open. Endpoints that fail to initialise are
+ * retried with an exponential backoff.
  *
  * @author Push Technology Limited
  */
@@ -60,13 +96,26 @@ public final class ServiceSessionImpl implements ServiceSession {
     private final Map<EndpointConfig, PollHandle> endpointPollers = new HashMap<>();
     @GuardedBy("this")
     private final Set<EndpointConfig> failedEndpoints = new HashSet<>(0);
-    private final ScheduledExecutorService executor;
+    @GuardedBy("this")
+    private final Map<EndpointConfig, Integer> initialisationAttempts = new HashMap<>(0);
+    @GuardedBy("this")
+    private final Map<EndpointConfig, Future<?>> initialisationRetries = new HashMap<>(0);
+    private final PollScheduler pollScheduler;
+    private final ShardedExecutor workers;
+    private final Executor blockingPolls;
+    private final Executor serviceBlockingPolls;
+    private final Semaphore globalPollPermits;
+    private final Semaphore pollPermits;
+    private final InFlightPolicy inFlightPolicy;
     private final EndpointClient endpointClient;
     private final ServiceConfig serviceConfig;
     private final EndpointPollHandlerFactory handlerFactory;
     private final TopicManagementClient topicManagementClient;
     private final PublishingClient publishingClient;
     private final ServiceEventListener serviceListener;
+    private final CircuitBreaker hostBreaker;
+    // The position of each endpoint in the service by name, used to spread the first polls
+    private final Map<String, Integer> endpointIndexes;
     @GuardedBy("this")
     private boolean isRunning;
     private boolean wasRunning;
@@ -75,16 +124,24 @@ public final class ServiceSessionImpl implements ServiceSession {
     /**
      * Factory method for service sessions.
      */
+    // CHECKSTYLE.OFF: ParameterNumber
     public static ServiceSession create(
-            ScheduledExecutorService executor,
+            PollScheduler pollScheduler,
+            ShardedExecutor workers,
+            Executor blockingPolls,
+            Semaphore globalPollPermits,
             EndpointClient endpointClient,
             ServiceConfig serviceConfig,
             EndpointPollHandlerFactory handlerFactory,
             TopicManagementClient topicManagementClient,
             PublishingClient publishingClient,
             ServiceEventListener serviceListener) {
+    // CHECKSTYLE.ON: ParameterNumber
         final ServiceSessionImpl serviceSession = new ServiceSessionImpl(
-            executor,
+            pollScheduler,
+            workers,
+            blockingPolls,
+            globalPollPermits,
             endpointClient,
             serviceConfig,
             handlerFactory,
@@ -104,22 +161,52 @@ public final class ServiceSessionImpl implements ServiceSession {
     /**
      * Constructor.
      */
+    // CHECKSTYLE.OFF: ParameterNumber
     /*package*/ ServiceSessionImpl(
-            ScheduledExecutorService executor,
+            PollScheduler pollScheduler,
+            ShardedExecutor workers,
+            Executor blockingPolls,
+            Semaphore globalPollPermits,
             EndpointClient endpointClient,
             ServiceConfig serviceConfig,
             EndpointPollHandlerFactory handlerFactory,
             TopicManagementClient topicManagementClient,
             PublishingClient publishingClient,
             ServiceEventListener serviceListener) {
+    // CHECKSTYLE.ON: ParameterNumber
 
-        this.executor = executor;
+        this.pollScheduler = pollScheduler;
+        this.workers = workers;
+        this.blockingPolls = blockingPolls;
+        this.globalPollPermits = globalPollPermits;
+        if (blockingPolls == null) {
+            serviceBlockingPolls = null;
+            pollPermits = serviceConfig.getMaxConcurrentPolls() > 0 ?
+                new Semaphore(serviceConfig.getMaxConcurrentPolls()) :
+                null;
+        }
+        else {
+            // Blocking polls of the service wait for a running poll without holding a thread
+            serviceBlockingPolls =
+                new LimitedExecutor(blockingPolls, BlockingPollExecutor.getMaxConcurrentPolls(serviceConfig));
+            pollPermits = null;
+        }
+        inFlightPolicy = InFlightPolicy.from(serviceConfig.getInFlightPolicy());
         this.endpointClient = endpointClient;
         this.serviceConfig = serviceConfig;
         this.handlerFactory = handlerFactory;
         this.topicManagementClient = topicManagementClient;
         this.publishingClient = publishingClient;
         this.serviceListener = serviceListener;
+        final CircuitBreakerConfig circuitBreaker = serviceConfig.getCircuitBreaker();
+        hostBreaker = circuitBreaker == null ?
+            null :
+            new CircuitBreaker(circuitBreaker, state -> serviceListener.onServiceCircuitBreaker(serviceConfig, state));
+        final List<EndpointConfig> endpoints = serviceConfig.getEndpoints();
+        endpointIndexes = new HashMap<>(endpoints.size() * 2);
+        for (int i = 0; i < endpoints.size(); i++) {
+            endpointIndexes.putIfAbsent(endpoints.get(i).getName(), i);
+        }
     }
 
     /*package*/ synchronized void onStandby() {
@@ -136,13 +223,57 @@ public final class ServiceSessionImpl implements ServiceSession {
 
         LOG.info("Service {} active", serviceConfig);
 
-        serviceConfig
-            .getEndpoints()
-            .forEach(endpointConfig -> initialiseEndpoint(serviceConfig, endpointConfig));
+        final List<EndpointConfig> topicEndpoints = new ArrayList<>();
+        for (final EndpointConfig endpointConfig : serviceConfig.getEndpoints()) {
+            if (hasKnownTopic(endpointConfig)) {
+                topicEndpoints.add(endpointConfig);
+            }
+            else {
+                initialiseEndpoint(serviceConfig, endpointConfig, false);
+            }
+        }
+
+        if (!topicEndpoints.isEmpty()) {
+            topicManagementClient
+                .addEndpoints(serviceConfig, topicEndpoints)
+                .thenAccept(failures -> onTopicsAdded(topicEndpoints, failures))
+                .exceptionally(e -> {
+                    LOG.error("Failed to initialise the endpoints of service {}", serviceConfig, e);
+                    return null;
+                });
+        }
 
         serviceListener.onActive(serviceConfig);
     }
 
+    /**
+     * @return if the topic of the endpoint is known before its first response
+     */
+    private static boolean hasKnownTopic(EndpointConfig endpointConfig) {
+        return endpointConfig.getFanOut() == null && !"auto".equals(endpointConfig.getProduces());
+    }
+
+    /**
+     * Initialise the endpoints whose topics were added together on activation.
+     */
+    private void onTopicsAdded(List<EndpointConfig> topicEndpoints, Map<EndpointConfig, Throwable> failures) {
+        LOG.info(
+            "Topics of {} endpoints of service {} added, {} failed",
+            topicEndpoints.size() - failures.size(),
+            serviceConfig,
+            failures.size());
+
+        for (final EndpointConfig endpointConfig : topicEndpoints) {
+            final Throwable failure = failures.get(endpointConfig);
+            if (failure == null) {
+                initialiseEndpoint(serviceConfig, endpointConfig, true);
+            }
+            else {
+                onTopicCreationFailed(endpointConfig, failure);
+            }
+        }
+    }
+
     /*package*/ synchronized void onClose() {
         LOG.info("Service {} closed", serviceConfig);
         serviceListener.onRemove(serviceConfig, wasRunning);
@@ -150,7 +281,8 @@ public final class ServiceSessionImpl implements ServiceSession {
 
     private void initialiseEndpoint(
         ServiceConfig service,
-        EndpointConfig endpointConfig) {
+        EndpointConfig endpointConfig,
+        boolean isTopicAdded) {
         endpointClient
             .request(service, endpointConfig)
             .thenApply(result -> new Pair<>(resolveEndpointConfig(endpointConfig, result), result))
@@ -159,17 +291,65 @@ public final class ServiceSessionImpl implements ServiceSession {
                 service,
                 from(configAndResult.getFirst().getProduces()),
                 configAndResult.getFirst(),
-                configAndResult.getSecond())))
+                configAndResult.getSecond(),
+                isTopicAdded)))
             .exceptionally(e -> {
+                if (isTopicAdded) {
+                    // Do not leave behind a topic added on activation for an endpoint that has not been initialised
+                    topicManagementClient.removeEndpoint(service, endpointConfig);
+                }
                 serviceListener.onEndpointFail(serviceConfig, endpointConfig);
                 synchronized (this) {
                     failedEndpoints.add(endpointConfig);
+                    retryInitialisation(endpointConfig);
                 }
                 LOG.warn("Endpoint {} not initialised. First request failed. {}", endpointConfig, e.getMessage());
                 return null;
             });
     }
 
+    /**
+     * Schedule another attempt to initialise a failed endpoint if the service has a circuit breaker configuration.
+     */
+    @GuardedBy("this")
+    private void retryInitialisation(EndpointConfig endpointConfig) {
+        final CircuitBreakerConfig circuitBreaker = serviceConfig.getCircuitBreaker();
+        if (circuitBreaker == null || !isRunning) {
+            return;
+        }
+
+        final int attempt = initialisationAttempts.merge(endpointConfig, 1, Integer::sum);
+        final long backoff = CircuitBreaker.getBackoff(
+            CircuitBreaker.getInitialBackoff(circuitBreaker),
+            CircuitBreaker.getMaxBackoff(circuitBreaker),
+            attempt);
+
+        LOG.info("Retrying initialisation of endpoint {} in {}ms", endpointConfig, backoff);
+        initialisationRetries.put(
+            endpointConfig,
+            pollScheduler.schedule(() -> retryEndpoint(endpointConfig), backoff, MILLISECONDS));
+    }
+
+    private void retryEndpoint(EndpointConfig endpointConfig) {
+        synchronized (this) {
+            if (initialisationRetries.remove(endpointConfig) == null ||
+                !isRunning ||
+                !failedEndpoints.remove(endpointConfig)) {
+                return;
+            }
+        }
+
+        serviceListener.onEndpointRemove(serviceConfig, endpointConfig, false);
+        initialiseEndpoint(serviceConfig, endpointConfig, false);
+    }
+
+    @GuardedBy("this")
+    private void cancelInitialisationRetries() {
+        initialisationRetries.values().forEach(retry -> retry.cancel(false));
+        initialisationRetries.clear();
+        initialisationAttempts.clear();
+    }
+
     private EndpointConfig resolveEndpointConfig(EndpointConfig endpointConfig, EndpointResponse response) {
         final String produces = endpointConfig.getProduces();
         if ("auto".equals(produces)) {
@@ -180,6 +360,9 @@ public final class ServiceSessionImpl implements ServiceSession {
                 .url(endpointConfig.getUrl())
                 .produces(inferFromContentType(response.getContentType()).getIdentifier())
                 .pollPeriod(endpointConfig.getPollPeriod())
+                .projection(endpointConfig.getProjection())
+                .fanOut(endpointConfig.getFanOut())
+                .deltas(endpointConfig.getDeltas())
                 .build();
         }
         else {
@@ -192,58 +375,143 @@ public final class ServiceSessionImpl implements ServiceSession {
         ServiceConfig service,
         EndpointType<T> endpointType,
         EndpointConfig endpointConfig,
-        EndpointResponse response) throws Exception {
+        EndpointResponse response,
+        boolean isTopicAdded) throws Exception {
 
-        final T value = endpointType.getParser().transform(response);
-        topicManagementClient
-            .addEndpoint(service, endpointConfig)
+        if (endpointConfig.getFanOut() != null) {
+            handleFanOutResponse(service, endpointType, endpointConfig, response);
+            return;
+        }
+
+        // Parse the first response to check the endpoint produces the type, its handler publishes it
+        endpointType.getParser(endpointConfig.getProjection()).transform(response);
+        final CompletableFuture<Void> topicAdded = isTopicAdded ?
+            CompletableFuture.completedFuture(null) :
+            topicManagementClient.addEndpoint(service, endpointConfig);
+        topicAdded
             .thenRun(() -> {
                 // If the service has been closed it will have been removed from the publishing client
                 publishingClient.forService(service, () -> {
                     LOG.info("Endpoint {} exists, adding endpoint to service session", endpointConfig);
-                    addEndpoint(endpointConfig);
-                    publishingClient.createUpdateContext(
-                        service,
-                        endpointConfig,
-                        endpointType.getValueType(),
-                        endpointType.getDataType()).publish(value);
+                    addEndpoint(endpointConfig, response);
                 });
             })
             .exceptionally(ex -> {
-                serviceListener.onEndpointFail(serviceConfig, endpointConfig);
-                synchronized (this) {
-                    failedEndpoints.add(endpointConfig);
-                }
-                LOG.warn("Topic creation failed for {} because {}", endpointConfig, ex.getMessage());
+                onTopicCreationFailed(endpointConfig, ex);
                 return null;
             });
     }
 
+    private void onTopicCreationFailed(EndpointConfig endpointConfig, Throwable ex) {
+        serviceListener.onEndpointFail(serviceConfig, endpointConfig);
+        synchronized (this) {
+            failedEndpoints.add(endpointConfig);
+            retryInitialisation(endpointConfig);
+        }
+        LOG.warn("Topic creation failed for {} because {}", endpointConfig, ex.getMessage());
+    }
+
+    /**
+     * The topics of a fan-out endpoint are added by its handler as elements appear in the responses, so the endpoint
+     * is added without a topic and the first response is passed to its handler.
+     */
+    private void handleFanOutResponse(
+        ServiceConfig service,
+        EndpointType<?> endpointType,
+        EndpointConfig endpointConfig,
+        EndpointResponse response) {
+
+        if (endpointType != EndpointType.JSON_ENDPOINT_TYPE) {
+            throw new IllegalArgumentException("The fan-out endpoint " + endpointConfig + " does not produce JSON");
+        }
+
+        // If the service has been closed it will have been removed from the publishing client
+        publishingClient.forService(service, () -> {
+            LOG.info("Fan-out endpoint {} initialised, adding endpoint to service session", endpointConfig);
+            addEndpoint(endpointConfig, response);
+        });
+    }
+
     @Override
-    public synchronized void addEndpoint(EndpointConfig endpointConfig) {
+    public void addEndpoint(EndpointConfig endpointConfig) {
+        addEndpoint(endpointConfig, null);
+    }
+
+    private synchronized void addEndpoint(EndpointConfig endpointConfig, EndpointResponse initialResponse) {
         if (endpointPollers.containsKey(endpointConfig)) {
             return;
         }
 
-        endpointPollers.put(endpointConfig, isRunning ? startEndpoint(endpointConfig) : null);
+        initialisationAttempts.remove(endpointConfig);
+        endpointPollers.put(endpointConfig, isRunning ? startEndpoint(endpointConfig, initialResponse) : null);
     }
 
     private PollHandle startEndpoint(EndpointConfig endpointConfig) {
+        return startEndpoint(endpointConfig, null);
+    }
+
+    private PollHandle startEndpoint(EndpointConfig endpointConfig, EndpointResponse initialResponse) {
         assert endpointPollers.get(endpointConfig) == null : "The endpoint has already been started";
 
         serviceListener.onEndpointAdd(serviceConfig, endpointConfig);
 
-        final BiConsumer<EndpointResponse, Throwable> handler =
-            new PollResultHandler(handlerFactory.create(serviceConfig, endpointConfig));
-
         final Long endpointPollPeriod = endpointConfig.getPollPeriod();
         final long pollPeriod = endpointPollPeriod == null ? serviceConfig.getPollPeriod() : endpointPollPeriod;
+        final AdaptivePollingConfig adaptivePolling = serviceConfig.getAdaptivePolling();
+        final AdaptivePollPeriod adaptivePollPeriod = pollPeriod > 0 && adaptivePolling != null ?
+            new AdaptivePollPeriod(pollPeriod, adaptivePolling) :
+            null;
+        final LongSupplier basePollPeriod = adaptivePollPeriod == null ? () -> pollPeriod : adaptivePollPeriod;
+        final CacheHeadersConfig cacheHeaders = serviceConfig.getCacheHeaders();
+        final CacheHeadersPollDelay cacheHeadersPollDelay = pollPeriod > 0 && cacheHeaders != null ?
+            new CacheHeadersPollDelay(basePollPeriod, cacheHeaders) :
+            null;
+
+        final CircuitBreakerConfig circuitBreaker = serviceConfig.getCircuitBreaker();
+        final CircuitBreaker endpointBreaker = circuitBreaker == null ?
+            null :
+            new CircuitBreaker(
+                circuitBreaker,
+                state -> serviceListener.onEndpointCircuitBreaker(serviceConfig, endpointConfig, state));
+
+        final PollHandle pollHandle = new PollHandle(
+            adaptivePollPeriod,
+            cacheHeadersPollDelay,
+            endpointBreaker,
+            hostBreaker);
+        final BiConsumer<EndpointResponse, Throwable> handler = adaptivePollPeriod == null ?
+            handlerFactory.create(serviceConfig, endpointConfig) :
+            handlerFactory.create(serviceConfig, endpointConfig, adaptivePollPeriod);
+        final Executor worker;
+        final Runnable pollingTask;
+        if (blockingPolls == null) {
+            worker = workers.shardFor(serviceConfig.getTopicPathRoot() + "/" + endpointConfig.getTopicPath());
+            pollingTask = new PollingTask(
+                endpointConfig,
+                new PollResultHandler(handler, worker, pollHandle),
+                pollHandle);
+        }
+        else {
+            worker = blockingPolls;
+            pollingTask = new BlockingPollingTask(endpointConfig, handler, pollHandle);
+        }
+
+        if (initialResponse != null) {
+            worker.execute(() -> handler.accept(initialResponse, null));
+        }
 
         final Future<?> future;
-        if (pollPeriod > 0) {
-            future = executor.scheduleWithFixedDelay(
-                new PollingTask(endpointConfig, handler),
-                    pollPeriod,
+        if (cacheHeadersPollDelay != null || adaptivePollPeriod != null) {
+            future = pollScheduler.scheduleWithDynamicDelay(
+                pollingTask,
+                getInitialDelay(endpointConfig, basePollPeriod.getAsLong()),
+                cacheHeadersPollDelay == null ? basePollPeriod : cacheHeadersPollDelay,
+                MILLISECONDS);
+        }
+        else if (pollPeriod > 0) {
+            future = pollScheduler.scheduleWithFixedDelay(
+                pollingTask,
+                    getInitialDelay(endpointConfig, pollPeriod),
                     pollPeriod,
                     MILLISECONDS);
         }
@@ -251,17 +519,30 @@ public final class ServiceSessionImpl implements ServiceSession {
             future = CompletableFuture.completedFuture(new Object());
         }
 
-        return new PollHandle(future);
+        pollHandle.taskHandle = future;
+        return pollHandle;
+    }
+
+    /**
+     * The delay before the first poll of an endpoint. The first polls of the endpoints of the service are spread
+     * evenly across the poll period, with optional random jitter, so they do not all happen at the same time.
+     */
+    private long getInitialDelay(EndpointConfig endpointConfig, long pollPeriod) {
+        // Match by name as the configuration of an endpoint may have been resolved from the one in the service
+        final Integer index = endpointIndexes.get(endpointConfig.getName());
+        final long phase = index == null ? 0L : pollPeriod * index / serviceConfig.getEndpoints().size();
+
+        final long pollJitter = serviceConfig.getPollJitter();
+        final long jitter = pollJitter > 0 ? ThreadLocalRandom.current().nextLong(pollJitter) : 0;
+
+        return pollPeriod + phase + jitter;
     }
 
     private void stopEndpoint(EndpointConfig endpointConfig, PollHandle pollHandle) {
         topicManagementClient.removeEndpoint(serviceConfig, endpointConfig);
         if (pollHandle != null) {
             serviceListener.onEndpointRemove(serviceConfig, endpointConfig, true);
-            pollHandle.taskHandle.cancel(false);
-            if (pollHandle.currentPollHandle != null) {
-                pollHandle.currentPollHandle.cancel(false);
-            }
+            pollHandle.stop();
         }
     }
 
@@ -275,6 +556,7 @@ public final class ServiceSessionImpl implements ServiceSession {
         });
         failedEndpoints.forEach(endpointConfig ->
             serviceListener.onEndpointRemove(serviceConfig, endpointConfig, false));
+        cancelInitialisationRetries();
 
         LOG.debug("Stopping service session {}", serviceConfig);
     }
@@ -282,10 +564,7 @@ public final class ServiceSessionImpl implements ServiceSession {
     private void releaseEndpoint(EndpointConfig endpointConfig, PollHandle pollHandle) {
         if (pollHandle != null) {
             serviceListener.onEndpointRemove(serviceConfig, endpointConfig, true);
-            pollHandle.taskHandle.cancel(false);
-            if (pollHandle.currentPollHandle != null) {
-                pollHandle.currentPollHandle.cancel(false);
-            }
+            pollHandle.stop();
         }
     }
 
@@ -299,69 +578,473 @@ public final class ServiceSessionImpl implements ServiceSession {
         });
         failedEndpoints.forEach(endpointConfig ->
             serviceListener.onEndpointRemove(serviceConfig, endpointConfig, false));
+        cancelInitialisationRetries();
 
         LOG.debug("Releasing service session {}", serviceConfig);
     }
 
     /**
-     * The polling task. Triggers an asynchronous poll request.
+     * @return if a permit to poll was acquired without waiting
+     */
+    private boolean tryAcquirePollPermit() {
+        if (pollPermits != null && !pollPermits.tryAcquire()) {
+            return false;
+        }
+        if (globalPollPermits != null && !globalPollPermits.tryAcquire()) {
+            if (pollPermits != null) {
+                pollPermits.release();
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Acquire a permit to poll, waiting until one is available. The permit of the service is acquired first so a
+     * poll waiting for the service does not hold a permit that polls of other services could use.
+     */
+    private void acquirePollPermit() throws InterruptedException {
+        if (pollPermits != null) {
+            pollPermits.acquire();
+        }
+        if (globalPollPermits != null) {
+            try {
+                globalPollPermits.acquire();
+            }
+            catch (InterruptedException e) {
+                if (pollPermits != null) {
+                    pollPermits.release();
+                }
+                throw e;
+            }
+        }
+    }
+
+    private void releasePollPermit() {
+        if (globalPollPermits != null) {
+            globalPollPermits.release();
+        }
+        if (pollPermits != null) {
+            pollPermits.release();
+        }
+    }
+
+    /**
+     * The polling task. Triggers an asynchronous poll request, applying the in-flight policy if the previous poll of
+     * the endpoint is still in flight.
      */
     private final class PollingTask implements Runnable {
         private final EndpointConfig endpointConfig;
         private final BiConsumer<EndpointResponse, Throwable> handler;
+        private final PollHandle pollHandle;
 
-        PollingTask(EndpointConfig endpointConfig, BiConsumer<EndpointResponse, Throwable> handler) {
+        PollingTask(
+                EndpointConfig endpointConfig,
+                BiConsumer<EndpointResponse, Throwable> handler,
+                PollHandle pollHandle) {
             this.endpointConfig = endpointConfig;
             this.handler = handler;
+            this.pollHandle = pollHandle;
         }
 
         @Override
         public void run() {
-            synchronized (ServiceSessionImpl.this) {
-                final PollHandle pollHandle = endpointPollers
-                    .get(endpointConfig);
-                final CompletableFuture<EndpointResponse> request = endpointClient
-                    .request(
-                        serviceConfig,
-                        endpointConfig);
-                pollHandle
-                    .currentPollHandle = request
-                    .whenComplete(handler);
+            if (!pollHandle.isActive() || !pollHandle.allowPoll()) {
+                return;
+            }
+            if (publishingClient.isSaturated()) {
+                serviceListener.onPollSkipped(serviceConfig, endpointConfig);
+                return;
+            }
+
+            switch (inFlightPolicy) {
+                case SKIP:
+                    if (!pollHandle.tryStartPoll()) {
+                        serviceListener.onPollSkipped(serviceConfig, endpointConfig);
+                        return;
+                    }
+                    break;
+                case COALESCE:
+                    if (!pollHandle.tryStartPoll() && pollHandle.coalescePoll()) {
+                        serviceListener.onPollCoalesced(serviceConfig, endpointConfig);
+                        return;
+                    }
+                    break;
+                case CANCEL:
+                    pollHandle.cancelCurrentRequest();
+                    break;
+                default:
+                    break;
+            }
+
+            poll();
+        }
+
+        private void poll() {
+            if (!tryAcquirePollPermit()) {
+                pollHandle.endPoll();
+                serviceListener.onPollSkipped(serviceConfig, endpointConfig);
+                return;
+            }
+
+            final CompletableFuture<EndpointResponse> request;
+            try {
+                request = endpointClient.conditionalRequest(serviceConfig, endpointConfig);
+            }
+            // CHECKSTYLE.OFF: IllegalCatch
+            catch (RuntimeException e) {
+                releasePollPermit();
+                pollHandle.endPoll();
+                throw e;
+            }
+            // CHECKSTYLE.ON: IllegalCatch
+
+            pollHandle.setCurrentPoll(request, request.whenComplete(this::onPollComplete));
+        }
+
+        private void onPollComplete(EndpointResponse response, Throwable throwable) {
+            releasePollPermit();
+            try {
+                handler.accept(response, throwable);
+            }
+            finally {
+                if (inFlightPolicy == InFlightPolicy.SKIP || inFlightPolicy == InFlightPolicy.COALESCE) {
+                    pollHandle.endPoll();
+                    if (pollHandle.takeCoalescedPoll()) {
+                        poll();
+                    }
+                }
             }
         }
     }
 
     /**
-     * The handler for the polling result. Notifies the publishing client of the new data.
+     * The polling task used for blocking polls. Runs the request, the parsing and the publication of a poll on a
+     * thread of the blocking poll executor, waiting for the response. If the previous poll of the endpoint is still
+     * running the poll is coalesced with it if the in-flight policy is to coalesce. If the policy is to cancel the
+     * request of the previous poll is cancelled and the poll is made by its thread once the request returns.
+     * Otherwise the poll is skipped.
+     */
+    private final class BlockingPollingTask implements Runnable {
+        private final EndpointConfig endpointConfig;
+        private final BiConsumer<EndpointResponse, Throwable> handler;
+        private final PollHandle pollHandle;
+
+        BlockingPollingTask(
+                EndpointConfig endpointConfig,
+                BiConsumer<EndpointResponse, Throwable> handler,
+                PollHandle pollHandle) {
+            this.endpointConfig = endpointConfig;
+            this.handler = handler;
+            this.pollHandle = pollHandle;
+        }
+
+        @Override
+        public void run() {
+            if (!pollHandle.isActive() || !pollHandle.allowPoll()) {
+                return;
+            }
+            if (publishingClient.isSaturated()) {
+                serviceListener.onPollSkipped(serviceConfig, endpointConfig);
+                return;
+            }
+            if (!pollHandle.tryStartPoll()) {
+                if (inFlightPolicy == InFlightPolicy.COALESCE) {
+                    if (pollHandle.coalescePoll()) {
+                        serviceListener.onPollCoalesced(serviceConfig, endpointConfig);
+                        return;
+                    }
+                }
+                else if (inFlightPolicy == InFlightPolicy.CANCEL) {
+                    if (pollHandle.coalescePoll()) {
+                        // The thread of the poll in flight makes the poll once the cancelled request returns
+                        pollHandle.cancelCurrentRequest();
+                        return;
+                    }
+                }
+                else {
+                    serviceListener.onPollSkipped(serviceConfig, endpointConfig);
+                    return;
+                }
+            }
+
+            serviceBlockingPolls.execute(() -> {
+                do {
+                    try {
+                        pollWithPermit();
+                    }
+                    finally {
+                        pollHandle.endPoll();
+                    }
+                } while (pollHandle.takeCoalescedPoll());
+            });
+        }
+
+        private void pollWithPermit() {
+            try {
+                acquirePollPermit();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            try {
+                poll();
+            }
+            finally {
+                releasePollPermit();
+            }
+        }
+
+        private void poll() {
+            if (!pollHandle.isActive()) {
+                return;
+            }
+
+            final CompletableFuture<EndpointResponse> request = endpointClient
+                .conditionalRequest(
+                    serviceConfig,
+                    endpointConfig);
+            pollHandle.setCurrentPoll(request, request);
+
+            EndpointResponse response = null;
+            Throwable throwable = null;
+            try {
+                response = request.get();
+            }
+            catch (ExecutionException e) {
+                throwable = e.getCause();
+            }
+            catch (CancellationException e) {
+                return;
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (!pollHandle.isActive() || pollHandle.onRetryAfter(throwable)) {
+                return;
+            }
+            pollHandle.onPollResult(response);
+            if (response != null) {
+                pollHandle.onResponse(response);
+                if (response.isNotModified()) {
+                    return;
+                }
+            }
+
+            try {
+                handler.accept(response, throwable);
+            }
+            // CHECKSTYLE.OFF: IllegalCatch
+            catch (RuntimeException e) {
+                LOG.warn("Failed to handle poll response for service {}", serviceConfig, e);
+            }
+            // CHECKSTYLE.ON: IllegalCatch
+        }
+    }
+
+    /**
+     * The handler for the polling result. Notifies the publishing client of the new data. Responses that report the
+     * endpoint has not been modified are not passed on as there is nothing new to publish. The result is handed off
+     * to the worker of the endpoint so parsing and publication do not happen on the I/O thread that completed the
+     * request.
      */
     private final class PollResultHandler implements BiConsumer<EndpointResponse, Throwable> {
         private final BiConsumer<EndpointResponse, Throwable> delegate;
+        private final Executor worker;
+        private final PollHandle pollHandle;
 
-        private PollResultHandler(BiConsumer<EndpointResponse, Throwable> delegate) {
+        private PollResultHandler(
+                BiConsumer<EndpointResponse, Throwable> delegate,
+                Executor worker,
+                PollHandle pollHandle) {
             this.delegate = delegate;
+            this.worker = worker;
+            this.pollHandle = pollHandle;
         }
 
         @Override
         public void accept(EndpointResponse response, Throwable throwable) {
-            synchronized (ServiceSessionImpl.this) {
-                if (isRunning) {
+            if (throwable instanceof CancellationException || pollHandle.onRetryAfter(throwable)) {
+                return;
+            }
+            pollHandle.onPollResult(response);
+            if (response != null && response.isNotModified()) {
+                pollHandle.onResponse(response);
+                return;
+            }
+
+            worker.execute(() -> {
+                if (!pollHandle.isActive()) {
+                    return;
+                }
+                if (response != null) {
+                    pollHandle.onResponse(response);
+                }
+
+                try {
                     delegate.accept(response, throwable);
                 }
-            }
+                // CHECKSTYLE.OFF: IllegalCatch
+                catch (RuntimeException e) {
+                    LOG.warn("Failed to handle poll response for service {}", serviceConfig, e);
+                }
+                // CHECKSTYLE.ON: IllegalCatch
+            });
         }
     }
 
     /**
-     * Represent a poll. Holds a handle to the task triggering a poll and a handle to the outstanding poll.
+     * Represent a poll. Holds a handle to the task triggering a poll, a handle to the outstanding poll, whether the
+     * endpoint is still being polled, how the delay between polls changes, if it does, and the circuit breakers
+     * guarding the polls. The state is held atomically so polling does not need the lock of the session.
      */
+    @ThreadSafe
     private static final class PollHandle {
-        private final Future<?> taskHandle;
-        @GuardedBy("ServiceSession.this")
-        private Future<?> currentPollHandle;
+        private final AtomicBoolean isActive = new AtomicBoolean(true);
+        private final AtomicBoolean isPolling = new AtomicBoolean(false);
+        private final AtomicBoolean isPollCoalesced = new AtomicBoolean(false);
+        private final AtomicReference<Future<?>> currentRequest = new AtomicReference<>();
+        private final AtomicReference<Future<?>> currentPollHandle = new AtomicReference<>();
+        private final AdaptivePollPeriod adaptivePollPeriod;
+        private final CacheHeadersPollDelay cacheHeadersPollDelay;
+        private final CircuitBreaker endpointBreaker;
+        private final CircuitBreaker hostBreaker;
+        private volatile Future<?> taskHandle;
 
-        private PollHandle(Future<?> taskHandle) {
-            this.taskHandle = taskHandle;
-            currentPollHandle = null;
+        private PollHandle(
+                AdaptivePollPeriod adaptivePollPeriod,
+                CacheHeadersPollDelay cacheHeadersPollDelay,
+                CircuitBreaker endpointBreaker,
+                CircuitBreaker hostBreaker) {
+            this.adaptivePollPeriod = adaptivePollPeriod;
+            this.cacheHeadersPollDelay = cacheHeadersPollDelay;
+            this.endpointBreaker = endpointBreaker;
+            this.hostBreaker = hostBreaker;
+        }
+
+        private boolean isActive() {
+            return isActive.get();
+        }
+
+        private void onResponse(EndpointResponse response) {
+            if (adaptivePollPeriod != null) {
+                adaptivePollPeriod.onResponse(response);
+            }
+            if (cacheHeadersPollDelay != null) {
+                cacheHeadersPollDelay.onResponse(response);
+            }
+        }
+
+        /**
+         * @return if the poll failure was a request to retry later that has been honoured
+         */
+        private boolean onRetryAfter(Throwable throwable) {
+            if (cacheHeadersPollDelay != null && throwable instanceof RetryAfterException) {
+                cacheHeadersPollDelay.onRetryAfter(((RetryAfterException) throwable).getRetryAfter());
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * @return if the endpoint can be polled, it cannot while deferred or while a circuit breaker is open
+         */
+        private boolean allowPoll() {
+            if (cacheHeadersPollDelay != null && cacheHeadersPollDelay.isDeferred()) {
+                return false;
+            }
+            return (hostBreaker == null || hostBreaker.allowRequest()) &&
+                (endpointBreaker == null || endpointBreaker.allowRequest());
+        }
+
+        /**
+         * Notify the circuit breakers of the result of a poll.
+         *
+         * @param response the response or null if the poll failed
+         */
+        private void onPollResult(EndpointResponse response) {
+            if (endpointBreaker == null) {
+                return;
+            }
+
+            if (response == null) {
+                hostBreaker.onFailure();
+                endpointBreaker.onFailure();
+            }
+            else {
+                hostBreaker.onSuccess();
+                endpointBreaker.onSuccess();
+            }
+        }
+
+        private boolean tryStartPoll() {
+            return isPolling.compareAndSet(false, true);
+        }
+
+        private void endPoll() {
+            isPolling.set(false);
+        }
+
+        /**
+         * Coalesce a poll with the poll in flight. If the poll in flight has completed in the meantime the poll is
+         * started instead.
+         *
+         * @return if the poll was coalesced, if not the caller has started the poll
+         */
+        private boolean coalescePoll() {
+            isPollCoalesced.set(true);
+            if (tryStartPoll()) {
+                isPollCoalesced.set(false);
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * Called after a poll has ended.
+         *
+         * @return if a coalesced poll should be made, if so the caller has started the poll
+         */
+        private boolean takeCoalescedPoll() {
+            return isPollCoalesced.getAndSet(false) && isActive() && tryStartPoll();
+        }
+
+        /**
+         * @param request the request of the poll
+         * @param pollHandle the handle of the poll, cancelling it stops the response from being handled
+         */
+        private void setCurrentPoll(Future<?> request, Future<?> pollHandle) {
+            currentRequest.set(request);
+            currentPollHandle.set(pollHandle);
+            if (!isActive()) {
+                // Stopped while the poll was being requested
+                cancelCurrentPoll();
+            }
+        }
+
+        private void stop() {
+            if (isActive.compareAndSet(true, false)) {
+                taskHandle.cancel(false);
+                cancelCurrentPoll();
+            }
+        }
+
+        private void cancelCurrentRequest() {
+            final Future<?> request = currentRequest.getAndSet(null);
+            if (request != null) {
+                request.cancel(false);
+            }
+        }
+
+        private void cancelCurrentPoll() {
+            final Future<?> pollHandle = currentPollHandle.getAndSet(null);
+            if (pollHandle != null) {
+                pollHandle.cancel(false);
+            }
         }
     }
 }
@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.services;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Executor that runs tasks on a fixed number of shards. Tasks are assigned to a shard by a key. Tasks run on the same
+ * shard run one at a time in the order they were submitted. Tasks run on different shards may run concurrently.
+ *
+ * @author Push Technology Limited
+ */
+public interface ShardedExecutor extends AutoCloseable {
+    /**
+     * @param key the key of the tasks
+     * @return the executor for the shard the key is assigned to
+     */
+    Executor shardFor(Object key);
+
+    /**
+     * Stop the executor. Tasks that have not started are discarded.
+     */
+    @Override
+    void close();
+}
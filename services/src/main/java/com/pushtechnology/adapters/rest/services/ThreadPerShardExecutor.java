@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.services;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Implementation of {@link ShardedExecutor} with a thread for each shard.
+ * <p>
+ * Keys are hashed to shards so the same key is always assigned to the same shard. Tasks submitted after the executor
+ * has been closed are discarded.
+ *
+ * @author Push Technology Limited
+ */
+@ThreadSafe
+public final class ThreadPerShardExecutor implements ShardedExecutor {
+    private final ThreadPoolExecutor[] shards;
+
+    /**
+     * Constructor.
+     *
+     * @param shardCount the number of shards
+     */
+    public ThreadPerShardExecutor(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("The number of shards must be positive");
+        }
+
+        shards = new ThreadPoolExecutor[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            final String name = "Poll worker " + i;
+            shards[i] = new ThreadPoolExecutor(
+                1,
+                1,
+                0L,
+                MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, name);
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+        }
+    }
+
+    @Override
+    public Executor shardFor(Object key) {
+        final int hash = key.hashCode();
+        return shards[Math.floorMod(hash ^ (hash >>> 16), shards.length)];
+    }
+
+    @Override
+    public void close() {
+        for (final ThreadPoolExecutor shard : shards) {
+            shard.shutdown();
+            shard.getQueue().clear();
+        }
+    }
+}
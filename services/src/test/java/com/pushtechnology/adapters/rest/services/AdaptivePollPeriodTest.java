@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import com.pushtechnology.adapters.rest.model.latest.AdaptivePollingConfig;
+import com.pushtechnology.adapters.rest.polling.EndpointResponse;
+
+/**
+ * Unit tests for {@link AdaptivePollPeriod}.
+ *
+ * @author Push Technology Limited
+ */
+public final class AdaptivePollPeriodTest {
+    @Mock
+    private EndpointResponse notModifiedResponse;
+
+    private final AdaptivePollingConfig config = AdaptivePollingConfig
+        .builder()
+        .minPollPeriod(1000L)
+        .maxPollPeriod(8000L)
+        .unchangedPolls(2)
+        .build();
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+
+        when(notModifiedResponse.isNotModified()).thenReturn(true);
+    }
+
+    @Test
+    public void initialPeriod() {
+        assertEquals(2000L, new AdaptivePollPeriod(2000L, config).getAsLong());
+        assertEquals(1000L, new AdaptivePollPeriod(500L, config).getAsLong());
+        assertEquals(8000L, new AdaptivePollPeriod(10000L, config).getAsLong());
+    }
+
+    @Test
+    public void defaults() {
+        final AdaptivePollPeriod period = new AdaptivePollPeriod(2000L, AdaptivePollingConfig.builder().build());
+
+        assertEquals(2000L, period.getAsLong());
+        for (int i = 0; i < 3; i++) {
+            period.onResponse(notModifiedResponse);
+        }
+        assertEquals(4000L, period.getAsLong());
+        for (int i = 0; i < 12; i++) {
+            period.onResponse(notModifiedResponse);
+        }
+        assertEquals(20000L, period.getAsLong());
+    }
+
+    @Test
+    public void lengthensWhenNotModified() {
+        final AdaptivePollPeriod period = new AdaptivePollPeriod(2000L, config);
+
+        period.onResponse(notModifiedResponse);
+        assertEquals(2000L, period.getAsLong());
+        period.onResponse(notModifiedResponse);
+        assertEquals(4000L, period.getAsLong());
+        period.onResponse(notModifiedResponse);
+        period.onResponse(notModifiedResponse);
+        assertEquals(8000L, period.getAsLong());
+        period.onResponse(notModifiedResponse);
+        period.onResponse(notModifiedResponse);
+        assertEquals(8000L, period.getAsLong());
+    }
+
+    @Test
+    public void lengthensWhenUnchanged() {
+        final AdaptivePollPeriod period = new AdaptivePollPeriod(2000L, config);
+
+        period.onResponseHandled(true);
+        period.onResponseHandled(false);
+        assertEquals(2000L, period.getAsLong());
+        period.onResponseHandled(false);
+        assertEquals(4000L, period.getAsLong());
+    }
+
+    @Test
+    public void shortensWhenChanged() {
+        final AdaptivePollPeriod period = new AdaptivePollPeriod(4000L, config);
+
+        period.onResponseHandled(true);
+        period.onResponseHandled(true);
+        assertEquals(2000L, period.getAsLong());
+        period.onResponseHandled(true);
+        assertEquals(1000L, period.getAsLong());
+        period.onResponseHandled(true);
+        assertEquals(1000L, period.getAsLong());
+    }
+
+    @Test
+    public void changeResetsUnchangedPolls() {
+        final AdaptivePollPeriod period = new AdaptivePollPeriod(4000L, config);
+
+        period.onResponseHandled(true);
+        period.onResponseHandled(false);
+        period.onResponseHandled(true);
+        assertEquals(2000L, period.getAsLong());
+        period.onResponseHandled(false);
+        assertEquals(2000L, period.getAsLong());
+    }
+
+    @Test
+    public void notModifiedAndUnchanged() {
+        final AdaptivePollPeriod period = new AdaptivePollPeriod(2000L, config);
+
+        period.onResponseHandled(true);
+        period.onResponse(notModifiedResponse);
+        period.onResponseHandled(false);
+        assertEquals(4000L, period.getAsLong());
+    }
+}
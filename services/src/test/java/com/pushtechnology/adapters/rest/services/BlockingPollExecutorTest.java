@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.services;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.pushtechnology.adapters.rest.model.latest.ConnectionPoolConfig;
+import com.pushtechnology.adapters.rest.model.latest.Model;
+import com.pushtechnology.adapters.rest.model.latest.ServiceConfig;
+
+/**
+ * Unit tests for {@link BlockingPollExecutor}.
+ *
+ * @author Push Technology Limited
+ */
+public final class BlockingPollExecutorTest {
+    private final ServiceConfig serviceConfig = ServiceConfig
+        .builder()
+        .name("service")
+        .host("localhost")
+        .topicPathRoot("test")
+        .endpoints(emptyList())
+        .build();
+    private final BlockingPollExecutor executor = new BlockingPollExecutor(Model
+        .builder()
+        .services(asList(serviceConfig, serviceConfig))
+        .build());
+
+    @After
+    public void postConditions() {
+        executor.close();
+    }
+
+    @Test
+    public void tasksRunConcurrently() throws InterruptedException {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch completed = new CountDownLatch(2);
+
+        executor.execute(() -> {
+            try {
+                blocked.await();
+                completed.countDown();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        executor.execute(() -> {
+            blocked.countDown();
+            completed.countDown();
+        });
+
+        assertTrue(completed.await(5, SECONDS));
+    }
+
+    @Test
+    public void maxConcurrentPolls() {
+        assertEquals(2, BlockingPollExecutor.getMaxConcurrentPolls(serviceConfig));
+        assertEquals(5, BlockingPollExecutor.getMaxConcurrentPolls(ServiceConfig
+            .builder()
+            .name("service")
+            .host("localhost")
+            .topicPathRoot("test")
+            .connectionPool(ConnectionPoolConfig.builder().maxConnections(5).build())
+            .build()));
+        assertEquals(3, BlockingPollExecutor.getMaxConcurrentPolls(ServiceConfig
+            .builder()
+            .name("service")
+            .host("localhost")
+            .topicPathRoot("test")
+            .maxConcurrentPolls(3)
+            .connectionPool(ConnectionPoolConfig.builder().maxConnections(5).build())
+            .build()));
+    }
+
+    @Test
+    public void runsOnDaemonThread() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final boolean[] isDaemon = new boolean[1];
+
+        executor.execute(() -> {
+            isDaemon[0] = Thread.currentThread().isDaemon();
+            latch.countDown();
+        });
+
+        assertTrue(latch.await(5, SECONDS));
+        assertTrue(isDaemon[0]);
+    }
+
+    @Test
+    public void discardedAfterClose() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        executor.close();
+        executor.execute(latch::countDown);
+
+        assertFalse(latch.await(100, MILLISECONDS));
+    }
+}
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import com.pushtechnology.adapters.rest.model.latest.CacheHeadersConfig;
+import com.pushtechnology.adapters.rest.polling.EndpointResponse;
+
+/**
+ * Unit tests for {@link CacheHeadersPollDelay}.
+ *
+ * @author Push Technology Limited
+ */
+public final class CacheHeadersPollDelayTest {
+    @Mock
+    private EndpointResponse response;
+
+    private final CacheHeadersConfig config = CacheHeadersConfig
+        .builder()
+        .minPollDelay(1000L)
+        .maxPollDelay(600000L)
+        .build();
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+    }
+
+    @Test
+    public void notDeferred() {
+        final CacheHeadersPollDelay delay = new CacheHeadersPollDelay(() -> 5000L, config);
+
+        delay.onResponse(response);
+
+        assertFalse(delay.isDeferred());
+        assertEquals(5000L, delay.getAsLong());
+    }
+
+    @Test
+    public void deferredUntilExpiry() {
+        when(response.getHeader("cache-control")).thenReturn("max-age=300");
+        final CacheHeadersPollDelay delay = new CacheHeadersPollDelay(() -> 5000L, config);
+
+        delay.onResponse(response);
+
+        assertTrue(delay.isDeferred());
+        assertTrue(delay.getAsLong() > 290000L);
+        assertTrue(delay.getAsLong() <= 300000L);
+    }
+
+    @Test
+    public void shortFreshnessSchedulesAtExpiry() {
+        when(response.getHeader("cache-control")).thenReturn("max-age=0");
+        final CacheHeadersPollDelay delay = new CacheHeadersPollDelay(() -> 5000L, config);
+
+        delay.onResponse(response);
+
+        // The freshness is raised to the minimum delay, which is shorter than the poll period
+        assertTrue(delay.isDeferred());
+        assertTrue(delay.getAsLong() > 900L);
+        assertTrue(delay.getAsLong() <= 1000L);
+    }
+
+    @Test
+    public void expiredFreshnessUsesPollPeriod() {
+        when(response.getHeader("cache-control")).thenReturn("max-age=0");
+        final CacheHeadersPollDelay delay =
+            new CacheHeadersPollDelay(() -> 5000L, CacheHeadersConfig.builder().minPollDelay(0L).build());
+
+        delay.onResponse(response);
+
+        assertFalse(delay.isDeferred());
+        assertEquals(5000L, delay.getAsLong());
+    }
+
+    @Test
+    public void retryAfterBounded() {
+        final CacheHeadersPollDelay delay = new CacheHeadersPollDelay(() -> 5000L, config);
+
+        delay.onRetryAfter(3600000L);
+
+        assertTrue(delay.isDeferred());
+        assertTrue(delay.getAsLong() > 590000L);
+        assertTrue(delay.getAsLong() <= 600000L);
+    }
+}
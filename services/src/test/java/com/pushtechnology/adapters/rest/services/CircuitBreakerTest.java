@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.services;
+
+import static com.pushtechnology.adapters.rest.metrics.event.listeners.CircuitBreakerState.CLOSED;
+import static com.pushtechnology.adapters.rest.metrics.event.listeners.CircuitBreakerState.HALF_OPEN;
+import static com.pushtechnology.adapters.rest.metrics.event.listeners.CircuitBreakerState.OPEN;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.util.function.Consumer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import com.pushtechnology.adapters.rest.metrics.event.listeners.CircuitBreakerState;
+import com.pushtechnology.adapters.rest.model.latest.CircuitBreakerConfig;
+
+/**
+ * Unit tests for {@link CircuitBreaker}.
+ *
+ * @author Push Technology Limited
+ */
+public final class CircuitBreakerTest {
+    @Mock
+    private Consumer<CircuitBreakerState> listener;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+    }
+
+    @After
+    public void postConditions() {
+        verifyNoMoreInteractions(listener);
+    }
+
+    @Test
+    public void opensAfterConsecutiveFailures() {
+        final CircuitBreaker breaker = new CircuitBreaker(
+            CircuitBreakerConfig.builder().failureThreshold(2).initialBackoff(60000L).build(),
+            listener);
+
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        assertTrue(breaker.allowRequest());
+        assertEquals(CLOSED, breaker.getState());
+
+        breaker.onFailure();
+        verify(listener).accept(OPEN);
+        assertEquals(OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    public void halfOpenSuccessCloses() {
+        final CircuitBreaker breaker = new CircuitBreaker(
+            CircuitBreakerConfig.builder().failureThreshold(1).initialBackoff(0L).build(),
+            listener);
+
+        breaker.onFailure();
+        verify(listener).accept(OPEN);
+
+        assertTrue(breaker.allowRequest());
+        verify(listener).accept(HALF_OPEN);
+        assertEquals(HALF_OPEN, breaker.getState());
+
+        breaker.onSuccess();
+        verify(listener).accept(CLOSED);
+        assertEquals(CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void halfOpenFailureReopens() {
+        final CircuitBreaker breaker = new CircuitBreaker(
+            CircuitBreakerConfig.builder().failureThreshold(5).initialBackoff(0L).build(),
+            listener);
+
+        for (int i = 0; i < 5; i++) {
+            breaker.onFailure();
+        }
+        verify(listener).accept(OPEN);
+
+        assertTrue(breaker.allowRequest());
+        verify(listener).accept(HALF_OPEN);
+
+        // A single failure while half-open opens the breaker again
+        breaker.onFailure();
+        verify(listener, times(2)).accept(OPEN);
+        assertEquals(OPEN, breaker.getState());
+    }
+
+    @Test
+    public void halfOpenAllowsSingleProbe() throws InterruptedException {
+        final CircuitBreaker breaker = new CircuitBreaker(
+            CircuitBreakerConfig.builder().failureThreshold(1).initialBackoff(200L).build(),
+            listener);
+
+        breaker.onFailure();
+        verify(listener).accept(OPEN);
+        assertFalse(breaker.allowRequest());
+
+        Thread.sleep(250L);
+        assertTrue(breaker.allowRequest());
+        verify(listener).accept(HALF_OPEN);
+
+        // Other requests are suppressed until the probe completes
+        assertFalse(breaker.allowRequest());
+        assertFalse(breaker.allowRequest());
+        assertEquals(HALF_OPEN, breaker.getState());
+
+        breaker.onSuccess();
+        verify(listener).accept(CLOSED);
+        assertTrue(breaker.allowRequest());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void halfOpenProbeExpires() throws InterruptedException {
+        final CircuitBreaker breaker = new CircuitBreaker(
+            CircuitBreakerConfig.builder().failureThreshold(1).initialBackoff(200L).build(),
+            listener);
+
+        breaker.onFailure();
+        verify(listener).accept(OPEN);
+
+        Thread.sleep(250L);
+        assertTrue(breaker.allowRequest());
+        verify(listener).accept(HALF_OPEN);
+        assertFalse(breaker.allowRequest());
+
+        // A probe that has not completed within the backoff is replaced
+        Thread.sleep(250L);
+        assertTrue(breaker.allowRequest());
+        assertFalse(breaker.allowRequest());
+        assertEquals(HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    public void backoff() {
+        assertEquals(1000L, CircuitBreaker.getBackoff(1000L, 10000L, 1));
+        assertEquals(2000L, CircuitBreaker.getBackoff(1000L, 10000L, 2));
+        assertEquals(8000L, CircuitBreaker.getBackoff(1000L, 10000L, 4));
+        assertEquals(10000L, CircuitBreaker.getBackoff(1000L, 10000L, 5));
+        assertEquals(10000L, CircuitBreaker.getBackoff(1000L, 10000L, Integer.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, CircuitBreaker.getBackoff(1000L, Long.MAX_VALUE, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void defaults() {
+        final CircuitBreakerConfig config = CircuitBreakerConfig.builder().build();
+
+        assertEquals(5000L, CircuitBreaker.getInitialBackoff(config));
+        assertEquals(300000L, CircuitBreaker.getMaxBackoff(config));
+    }
+}
@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.services;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link HashedWheelPollScheduler}.
+ *
+ * @author Push Technology Limited
+ */
+public final class HashedWheelPollSchedulerTest {
+    private HashedWheelPollScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        scheduler = new HashedWheelPollScheduler(1L, MILLISECONDS, 8);
+    }
+
+    @After
+    public void postConditions() {
+        scheduler.close();
+    }
+
+    @Test
+    public void runsPeriodically() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(3);
+
+        scheduler.scheduleWithFixedDelay(latch::countDown, 0L, 5L, MILLISECONDS);
+
+        assertTrue(latch.await(5, SECONDS));
+    }
+
+    @Test
+    public void runsWithDynamicDelay() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(3);
+        final AtomicInteger delays = new AtomicInteger();
+
+        scheduler.scheduleWithDynamicDelay(latch::countDown, 0L, () -> delays.incrementAndGet() * 5L, MILLISECONDS);
+
+        assertTrue(latch.await(5, SECONDS));
+        assertTrue(delays.get() >= 2);
+    }
+
+    @Test
+    public void runsOnce() throws Exception {
+        final AtomicInteger runs = new AtomicInteger();
+
+        final Future<?> future = scheduler.schedule(runs::incrementAndGet, 5L, MILLISECONDS);
+
+        future.get(5, SECONDS);
+        Thread.sleep(20L);
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    public void waitsForInitialDelayBeyondWheel() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final long start = System.nanoTime();
+
+        scheduler.scheduleWithFixedDelay(latch::countDown, 30L, 1000L, MILLISECONDS);
+
+        assertTrue(latch.await(5, SECONDS));
+        assertTrue(NANOSECONDS.toMillis(System.nanoTime() - start) >= 30L);
+    }
+
+    @Test
+    public void cancel() throws InterruptedException {
+        final AtomicInteger runs = new AtomicInteger();
+
+        final Future<?> future = scheduler.scheduleWithFixedDelay(runs::incrementAndGet, 10L, 10L, MILLISECONDS);
+        assertTrue(future.cancel(false));
+
+        Thread.sleep(50L);
+        assertEquals(0, runs.get());
+        assertTrue(future.isCancelled());
+    }
+
+    @Test
+    public void exceptionStopsTask() throws InterruptedException {
+        final AtomicInteger runs = new AtomicInteger();
+
+        final Future<?> future = scheduler.scheduleWithFixedDelay(
+            () -> {
+                runs.incrementAndGet();
+                throw new IllegalStateException("for test");
+            },
+            0L,
+            1L,
+            MILLISECONDS);
+
+        assertThrows(ExecutionException.class, () -> future.get(5, SECONDS));
+        Thread.sleep(20L);
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    public void closeCancelsTasks() {
+        final Future<?> future = scheduler.scheduleWithFixedDelay(() -> { }, 1L, 1L, SECONDS);
+
+        scheduler.close();
+
+        assertThrows(CancellationException.class, () -> future.get(5, SECONDS));
+        assertThrows(
+            IllegalStateException.class,
+            () -> scheduler.scheduleWithFixedDelay(() -> { }, 1L, 1L, SECONDS));
+    }
+
+    @Test
+    public void closeBeforeStart() {
+        scheduler.close();
+
+        assertThrows(
+            IllegalStateException.class,
+            () -> scheduler.scheduleWithFixedDelay(() -> { }, 1L, 1L, SECONDS));
+    }
+
+    @Test
+    public void isNotDoneWhileScheduled() {
+        final Future<?> future = scheduler.scheduleWithFixedDelay(() -> { }, 0L, 1L, MILLISECONDS);
+
+        assertFalse(future.isDone());
+    }
+}
@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link InFlightPolicy}.
+ *
+ * @author Push Technology Limited
+ */
+public final class InFlightPolicyTest {
+    @Test
+    public void from() {
+        assertEquals(InFlightPolicy.OVERLAP, InFlightPolicy.from(null));
+        assertEquals(InFlightPolicy.OVERLAP, InFlightPolicy.from("overlap"));
+        assertEquals(InFlightPolicy.SKIP, InFlightPolicy.from("skip"));
+        assertEquals(InFlightPolicy.COALESCE, InFlightPolicy.from("coalesce"));
+        assertEquals(InFlightPolicy.CANCEL, InFlightPolicy.from("cancel"));
+    }
+
+    @Test
+    public void fromUnknown() {
+        assertThrows(IllegalArgumentException.class, () -> InFlightPolicy.from("queue"));
+    }
+}
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.services;
+
+import static org.junit.Assert.assertThrows;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.util.concurrent.Executor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+
+/**
+ * Unit tests for {@link LimitedExecutor}.
+ *
+ * @author Push Technology Limited
+ */
+public final class LimitedExecutorTest {
+    @Mock
+    private Executor executor;
+    @Mock
+    private Runnable task0;
+    @Mock
+    private Runnable task1;
+    @Mock
+    private Runnable task2;
+    @Captor
+    private ArgumentCaptor<Runnable> runnableCaptor;
+
+    private LimitedExecutor limitedExecutor;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+
+        limitedExecutor = new LimitedExecutor(executor, 2);
+    }
+
+    @After
+    public void postConditions() {
+        verifyNoMoreInteractions(executor, task0, task1, task2);
+    }
+
+    @Test
+    public void runWithinLimit() {
+        limitedExecutor.execute(task0);
+        limitedExecutor.execute(task1);
+        verify(executor, times(2)).execute(runnableCaptor.capture());
+
+        runnableCaptor.getAllValues().forEach(Runnable::run);
+        verify(task0).run();
+        verify(task1).run();
+    }
+
+    @Test
+    public void waitForRunningTask() {
+        limitedExecutor.execute(task0);
+        limitedExecutor.execute(task1);
+        limitedExecutor.execute(task2);
+        verify(executor, times(2)).execute(runnableCaptor.capture());
+        verify(task2, never()).run();
+
+        runnableCaptor.getAllValues().get(0).run();
+        verify(task0).run();
+        verify(executor, times(3)).execute(runnableCaptor.capture());
+
+        runnableCaptor.getValue().run();
+        verify(task2).run();
+
+        runnableCaptor.getAllValues().get(1).run();
+        verify(task1).run();
+    }
+
+    @Test
+    public void waitForFailedTask() {
+        final Runnable failingTask = mock(Runnable.class);
+        doThrow(new IllegalStateException("Intentional for test")).when(failingTask).run();
+        limitedExecutor = new LimitedExecutor(executor, 1);
+
+        limitedExecutor.execute(failingTask);
+        limitedExecutor.execute(task0);
+        verify(executor).execute(runnableCaptor.capture());
+
+        assertThrows(IllegalStateException.class, () -> runnableCaptor.getValue().run());
+        verify(failingTask).run();
+        verify(executor, times(2)).execute(runnableCaptor.capture());
+
+        runnableCaptor.getValue().run();
+        verify(task0).run();
+    }
+
+    @Test
+    public void invalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> new LimitedExecutor(executor, 0));
+    }
+}
@@ -22,7 +22,6 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Consumer;
 
 import org.junit.After;
@@ -48,7 +47,9 @@ import com.pushtechnology.diffusion.client.session.Session;
  */
 public final class ServiceSessionFactoryImplTest {
     @Mock
-    private ScheduledExecutorService executor;
+    private PollScheduler pollScheduler;
+    @Mock
+    private ShardedExecutor workers;
     @Mock
     private EndpointClient endpointClient;
     @Mock
@@ -89,7 +90,10 @@ public final class ServiceSessionFactoryImplTest {
         when(source.onClose(isNotNull())).thenReturn(source);
 
         serviceSessionFactory = new ServiceSessionFactoryImpl(
-            executor,
+            pollScheduler,
+            workers,
+            null,
+            null,
             endpointClient,
             handlerFactory,
             topicManagementClient,
@@ -100,7 +104,8 @@ public final class ServiceSessionFactoryImplTest {
     @After
     public void postConditions() {
         verifyNoMoreInteractions(
-            executor,
+            pollScheduler,
+            workers,
             endpointClient,
             handlerFactory,
             topicManagementClient,
@@ -15,14 +15,23 @@
 
 package com.pushtechnology.adapters.rest.services;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.AdditionalAnswers.answer;
 import static org.mockito.ArgumentMatchers.isNotNull;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.isA;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -30,12 +39,18 @@ import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 
 import org.junit.After;
 import org.junit.Before;
@@ -44,12 +59,17 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 
+import com.pushtechnology.adapters.rest.metrics.event.listeners.CircuitBreakerState;
 import com.pushtechnology.adapters.rest.metrics.event.listeners.ServiceEventListener;
+import com.pushtechnology.adapters.rest.model.latest.AdaptivePollingConfig;
+import com.pushtechnology.adapters.rest.model.latest.CacheHeadersConfig;
+import com.pushtechnology.adapters.rest.model.latest.CircuitBreakerConfig;
 import com.pushtechnology.adapters.rest.model.latest.EndpointConfig;
 import com.pushtechnology.adapters.rest.model.latest.ServiceConfig;
 import com.pushtechnology.adapters.rest.polling.EndpointClient;
 import com.pushtechnology.adapters.rest.polling.EndpointPollHandlerFactory;
 import com.pushtechnology.adapters.rest.polling.EndpointResponse;
+import com.pushtechnology.adapters.rest.polling.RetryAfterException;
 import com.pushtechnology.adapters.rest.publication.EventedUpdateSource;
 import com.pushtechnology.adapters.rest.publication.PublishingClient;
 import com.pushtechnology.adapters.rest.publication.UpdateContext;
@@ -65,7 +85,11 @@ import com.pushtechnology.diffusion.datatype.json.JSON;
  */
 public final class ServiceSessionTest {
     @Mock
-    private ScheduledExecutorService executor;
+    private PollScheduler pollScheduler;
+    @Mock
+    private ShardedExecutor workers;
+    @Mock
+    private Executor worker;
     @Mock
     private EndpointClient endpointClient;
     @Mock
@@ -73,7 +97,7 @@ public final class ServiceSessionTest {
     @Mock
     private EndpointPollHandlerFactory handlerFactory;
     @Mock
-    private ScheduledFuture taskFuture;
+    private Future taskFuture;
     @Mock
     private CompletableFuture pollFuture0;
     @Mock
@@ -90,6 +114,10 @@ public final class ServiceSessionTest {
     private UpdateContext<JSON> updateContext;
     @Captor
     private ArgumentCaptor<Runnable> runnableCaptor;
+    @Captor
+    private ArgumentCaptor<Long> delayCaptor;
+    @Captor
+    private ArgumentCaptor<LongSupplier> delaySupplierCaptor;
 
     private final EndpointConfig endpointConfig = EndpointConfig
         .builder()
@@ -146,25 +174,32 @@ public final class ServiceSessionTest {
     public void setUp() {
         initMocks(this);
 
-        serviceSession = new ServiceSessionImpl(executor, endpointClient, serviceConfig, handlerFactory, topicManagementClient, publishingClient, serviceListener);
-        when(executor
+        when(workers.shardFor(isNotNull())).thenReturn(Runnable::run);
+        serviceSession = new ServiceSessionImpl(pollScheduler, workers, null, null, endpointClient, serviceConfig, handlerFactory, topicManagementClient, publishingClient, serviceListener);
+        when(pollScheduler
             .scheduleWithFixedDelay(isA(Runnable.class), isA(Long.class), isA(Long.class), isA(TimeUnit.class)))
             .thenReturn(taskFuture);
         when(endpointClient
             .request(isA(ServiceConfig.class), isA(EndpointConfig.class)))
-            .thenReturn(CompletableFuture.completedFuture(endpointResponse), pollFuture0, pollFuture1);
+            .thenReturn(CompletableFuture.completedFuture(endpointResponse));
+        when(endpointClient
+            .conditionalRequest(isA(ServiceConfig.class), isA(EndpointConfig.class)))
+            .thenReturn(pollFuture0, pollFuture1);
         when(handlerFactory.create(serviceConfig, endpointConfig)).thenReturn(handler);
         when(handlerFactory.create(serviceConfig, fastEndpointConfig)).thenReturn(handler);
 
-        when(executor
+        when(pollScheduler
                  .scheduleWithFixedDelay(isA(Runnable.class), isA(Long.class), isA(Long.class), isA(TimeUnit.class)))
             .thenReturn(taskFuture);
         when(handlerFactory.create(serviceConfig, endpointConfig)).thenReturn(handler);
 
         when(endpointResponse.getContentType()).thenCallRealMethod();
+        when(endpointResponse.getResponseText(isA(Charset.class))).thenCallRealMethod();
+        when(endpointResponse.getResponseStream()).thenCallRealMethod();
         when(endpointResponse.getHeader("content-type")).thenReturn("application/json; charset=utf-8");
         when(endpointResponse.getResponse()).thenReturn("{}".getBytes(Charset.forName("UTF-8")));
         when(topicManagementClient.addEndpoint(isNotNull(), isNotNull())).thenReturn(CompletableFuture.completedFuture(null));
+        when(topicManagementClient.addEndpoints(isNotNull(), isNotNull())).thenReturn(CompletableFuture.completedFuture(emptyMap()));
         when(publishingClient.createUpdateContext(isNotNull(), isNotNull(), isNotNull(), eq(Diffusion.dataTypes().json()))).thenReturn(updateContext);
         doAnswer(answer((ServiceConfig service, Runnable task) -> { task.run(); return null; })).when(publishingClient).forService(
             isNotNull(), isNotNull());
@@ -172,7 +207,7 @@ public final class ServiceSessionTest {
 
     @After
     public void postConditions() {
-        verifyNoMoreInteractions(executor, endpointClient, handlerFactory, taskFuture, topicManagementClient, serviceListener);
+        verifyNoMoreInteractions(pollScheduler, endpointClient, handlerFactory, taskFuture, topicManagementClient, serviceListener);
     }
 
     @Test
@@ -197,68 +232,229 @@ public final class ServiceSessionTest {
     @Test
     public void startSuccessfulPoll() {
         when(endpointClient.request(eq(serviceConfig), eq(endpointConfig))).thenReturn(completedFuture(endpointResponse));
+        when(endpointClient.conditionalRequest(eq(serviceConfig), eq(endpointConfig))).thenReturn(completedFuture(endpointResponse));
 
         serviceSession.onActive();
         serviceSession.addEndpoint(endpointConfig);
         verify(handlerFactory).create(serviceConfig, endpointConfig);
         verify(serviceListener).onActive(serviceConfig);
 
-        verify(executor).scheduleWithFixedDelay(runnableCaptor.capture(), eq(5000L), eq(5000L), eq(MILLISECONDS));
+        verify(pollScheduler).scheduleWithFixedDelay(runnableCaptor.capture(), eq(5000L), eq(5000L), eq(MILLISECONDS));
         verify(serviceListener).onEndpointAdd(serviceConfig, endpointConfig);
-        verify(topicManagementClient).addEndpoint(serviceConfig, endpointConfig);
+        verify(topicManagementClient).addEndpoints(serviceConfig, singletonList(endpointConfig));
 
         final Runnable runnable = runnableCaptor.getValue();
 
         runnable.run();
 
-        verify(endpointClient, times(2)).request(eq(serviceConfig), eq(endpointConfig));
+        verify(endpointClient).request(eq(serviceConfig), eq(endpointConfig));
+        verify(endpointClient).conditionalRequest(eq(serviceConfig), eq(endpointConfig));
+        // The first response and the poll response are both passed to the handler
+        verify(handler, times(2)).accept(endpointResponse, null);
+    }
+
+    @Test
+    public void startSuccessfulPollOnWorker() {
+        when(workers.shardFor("test/url")).thenReturn(worker);
+        when(endpointClient.request(eq(serviceConfig), eq(endpointConfig))).thenReturn(completedFuture(endpointResponse));
+        when(endpointClient.conditionalRequest(eq(serviceConfig), eq(endpointConfig))).thenReturn(completedFuture(endpointResponse));
+
+        serviceSession.onActive();
+        serviceSession.addEndpoint(endpointConfig);
+        verify(handlerFactory).create(serviceConfig, endpointConfig);
+        verify(serviceListener).onActive(serviceConfig);
+
+        verify(pollScheduler).scheduleWithFixedDelay(runnableCaptor.capture(), eq(5000L), eq(5000L), eq(MILLISECONDS));
+        verify(serviceListener).onEndpointAdd(serviceConfig, endpointConfig);
+        verify(topicManagementClient).addEndpoints(serviceConfig, singletonList(endpointConfig));
+        final Runnable pollingTask = runnableCaptor.getValue();
+
+        verify(worker).execute(runnableCaptor.capture());
+        runnableCaptor.getValue().run();
+        verify(handler).accept(endpointResponse, null);
+
+        pollingTask.run();
+
+        verify(endpointClient).request(eq(serviceConfig), eq(endpointConfig));
+        verify(endpointClient).conditionalRequest(eq(serviceConfig), eq(endpointConfig));
         verify(handler).accept(endpointResponse, null);
+
+        verify(worker, times(2)).execute(runnableCaptor.capture());
+        runnableCaptor.getValue().run();
+
+        verify(handler, times(2)).accept(endpointResponse, null);
+    }
+
+    @Test
+    public void firstIdenticalPollSuppressed() {
+        final List<EndpointResponse> published = new ArrayList<>();
+        final BiConsumer<EndpointResponse, Throwable> deduplicatingHandler = (response, throwable) -> {
+            if (published.isEmpty() ||
+                !Arrays.equals(published.get(published.size() - 1).getResponse(), response.getResponse())) {
+                published.add(response);
+            }
+        };
+        final EndpointResponse identicalResponse = mock(EndpointResponse.class);
+        when(identicalResponse.getResponse()).thenReturn("{}".getBytes(Charset.forName("UTF-8")));
+        when(handlerFactory.create(serviceConfig, endpointConfig)).thenReturn(deduplicatingHandler);
+        when(endpointClient.request(eq(serviceConfig), eq(endpointConfig))).thenReturn(completedFuture(endpointResponse));
+        when(endpointClient.conditionalRequest(eq(serviceConfig), eq(endpointConfig))).thenReturn(completedFuture(identicalResponse));
+
+        serviceSession.onActive();
+        verify(handlerFactory).create(serviceConfig, endpointConfig);
+        verify(serviceListener).onActive(serviceConfig);
+        verify(serviceListener).onEndpointAdd(serviceConfig, endpointConfig);
+        verify(endpointClient).request(eq(serviceConfig), eq(endpointConfig));
+        verify(topicManagementClient).addEndpoints(serviceConfig, singletonList(endpointConfig));
+        verify(pollScheduler).scheduleWithFixedDelay(runnableCaptor.capture(), eq(5000L), eq(5000L), eq(MILLISECONDS));
+
+        runnableCaptor.getValue().run();
+        verify(endpointClient).conditionalRequest(eq(serviceConfig), eq(endpointConfig));
+
+        // The first response is published by the handler so the first poll is a duplicate of it
+        assertEquals(singletonList(endpointResponse), published);
+        verify(publishingClient, never()).createUpdateContext(isNotNull(), isNotNull(), isNotNull(), isNotNull());
+    }
+
+    @Test
+    public void startNotModifiedPoll() {
+        final EndpointResponse notModifiedResponse = mock(EndpointResponse.class);
+        when(notModifiedResponse.isNotModified()).thenReturn(true);
+        when(endpointClient.request(eq(serviceConfig), eq(endpointConfig))).thenReturn(completedFuture(endpointResponse));
+        when(endpointClient.conditionalRequest(eq(serviceConfig), eq(endpointConfig))).thenReturn(completedFuture(notModifiedResponse));
+
+        serviceSession.onActive();
+        serviceSession.addEndpoint(endpointConfig);
+        verify(handlerFactory).create(serviceConfig, endpointConfig);
+        verify(serviceListener).onActive(serviceConfig);
+
+        verify(pollScheduler).scheduleWithFixedDelay(runnableCaptor.capture(), eq(5000L), eq(5000L), eq(MILLISECONDS));
+        verify(serviceListener).onEndpointAdd(serviceConfig, endpointConfig);
+        verify(topicManagementClient).addEndpoints(serviceConfig, singletonList(endpointConfig));
+
+        final Runnable runnable = runnableCaptor.getValue();
+
+        runnable.run();
+
+        verify(endpointClient).request(eq(serviceConfig), eq(endpointConfig));
+        verify(endpointClient).conditionalRequest(eq(serviceConfig), eq(endpointConfig));
+        verify(handler, never()).accept(notModifiedResponse, null);
     }
 
     @Test
     public void startSuccessfulPollThenClose() {
         when(endpointClient.request(eq(serviceConfig), eq(endpointConfig))).thenReturn(completedFuture(endpointResponse));
+        when(endpointClient.conditionalRequest(eq(serviceConfig), eq(endpointConfig))).thenReturn(completedFuture(endpointResponse));
 
         serviceSession.onActive();
         serviceSession.addEndpoint(endpointConfig);
         verify(handlerFactory).create(serviceConfig, endpointConfig);
         verify(serviceListener).onActive(serviceConfig);
         verify(serviceListener).onEndpointAdd(serviceConfig, endpointConfig);
-        verify(topicManagementClient).addEndpoint(serviceConfig, endpointConfig);
+        verify(topicManagementClient).addEndpoints(serviceConfig, singletonList(endpointConfig));
 
-        verify(executor).scheduleWithFixedDelay(runnableCaptor.capture(), eq(5000L), eq(5000L), eq(MILLISECONDS));
+        verify(pollScheduler).scheduleWithFixedDelay(runnableCaptor.capture(), eq(5000L), eq(5000L), eq(MILLISECONDS));
 
         final Runnable runnable = runnableCaptor.getValue();
 
         runnable.run();
 
-        verify(endpointClient, times(2)).request(eq(serviceConfig), eq(endpointConfig));
-        verify(handler).accept(endpointResponse, null);
+        verify(endpointClient).request(eq(serviceConfig), eq(endpointConfig));
+        verify(endpointClient).conditionalRequest(eq(serviceConfig), eq(endpointConfig));
+        // The first response and the poll response are both passed to the handler
+        verify(handler, times(2)).accept(endpointResponse, null);
 
         serviceSession.onClose();
         verify(serviceListener).onRemove(serviceConfig, true);
     }
 
+    @Test
+    public void startSpreadsPolls() {
+        final EndpointConfig secondEndpointConfig = EndpointConfig
+            .builder()
+            .name("endpoint-1")
+            .url("/b/url")
+            .produces("json")
+            .topicPath("url-1")
+            .build();
+        final ServiceConfig serviceWithEndpoints = ServiceConfig
+            .builder()
+            .name("service")
+            .host("localhost")
+            .topicPathRoot("test")
+            .port(80)
+            .pollPeriod(5000L)
+            .endpoints(asList(endpointConfig, secondEndpointConfig))
+            .build();
+        when(handlerFactory.create(eq(serviceWithEndpoints), isA(EndpointConfig.class))).thenReturn(handler);
+
+        serviceSession = new ServiceSessionImpl(pollScheduler, workers, null, null, endpointClient, serviceWithEndpoints, handlerFactory, topicManagementClient, publishingClient, serviceListener);
+
+        serviceSession.onActive();
+        verify(serviceListener).onActive(serviceWithEndpoints);
+        verify(endpointClient).request(serviceWithEndpoints, endpointConfig);
+        verify(endpointClient).request(serviceWithEndpoints, secondEndpointConfig);
+        verify(topicManagementClient).addEndpoints(serviceWithEndpoints, asList(endpointConfig, secondEndpointConfig));
+        verify(handlerFactory).create(serviceWithEndpoints, endpointConfig);
+        verify(handlerFactory).create(serviceWithEndpoints, secondEndpointConfig);
+        verify(serviceListener).onEndpointAdd(serviceWithEndpoints, endpointConfig);
+        verify(serviceListener).onEndpointAdd(serviceWithEndpoints, secondEndpointConfig);
+
+        verify(pollScheduler).scheduleWithFixedDelay(isA(Runnable.class), eq(5000L), eq(5000L), eq(MILLISECONDS));
+        verify(pollScheduler).scheduleWithFixedDelay(isA(Runnable.class), eq(7500L), eq(5000L), eq(MILLISECONDS));
+    }
+
+    @Test
+    public void startJittersPolls() {
+        final ServiceConfig serviceWithJitter = ServiceConfig
+            .builder()
+            .name("service")
+            .host("localhost")
+            .topicPathRoot("test")
+            .port(80)
+            .pollPeriod(5000L)
+            .pollJitter(1000L)
+            .endpoints(singletonList(endpointConfig))
+            .build();
+        when(handlerFactory.create(serviceWithJitter, endpointConfig)).thenReturn(handler);
+
+        serviceSession = new ServiceSessionImpl(pollScheduler, workers, null, null, endpointClient, serviceWithJitter, handlerFactory, topicManagementClient, publishingClient, serviceListener);
+
+        serviceSession.onActive();
+        verify(serviceListener).onActive(serviceWithJitter);
+        verify(endpointClient).request(serviceWithJitter, endpointConfig);
+        verify(topicManagementClient).addEndpoints(serviceWithJitter, singletonList(endpointConfig));
+        verify(handlerFactory).create(serviceWithJitter, endpointConfig);
+        verify(serviceListener).onEndpointAdd(serviceWithJitter, endpointConfig);
+
+        verify(pollScheduler).scheduleWithFixedDelay(isA(Runnable.class), delayCaptor.capture(), eq(5000L), eq(MILLISECONDS));
+        final long initialDelay = delayCaptor.getValue();
+        assertTrue(initialDelay >= 5000L && initialDelay < 6000L);
+    }
+
     @Test
     public void startSuccessfulPollWithFastPoll() {
+        when(handlerFactory.create(serviceWithFastEndpointConfig, fastEndpointConfig)).thenReturn(handler);
         when(endpointClient.request(eq(serviceWithFastEndpointConfig), eq(fastEndpointConfig))).thenReturn(completedFuture(endpointResponse));
+        when(endpointClient.conditionalRequest(eq(serviceWithFastEndpointConfig), eq(fastEndpointConfig))).thenReturn(completedFuture(endpointResponse));
 
-        serviceSession = new ServiceSessionImpl(executor, endpointClient, serviceWithFastEndpointConfig, handlerFactory, topicManagementClient, publishingClient, serviceListener);
+        serviceSession = new ServiceSessionImpl(pollScheduler, workers, null, null, endpointClient, serviceWithFastEndpointConfig, handlerFactory, topicManagementClient, publishingClient, serviceListener);
 
         serviceSession.onActive();
         serviceSession.addEndpoint(fastEndpointConfig);
         verify(handlerFactory).create(serviceWithFastEndpointConfig, fastEndpointConfig);
         verify(serviceListener).onActive(serviceWithFastEndpointConfig);
         verify(serviceListener).onEndpointAdd(serviceWithFastEndpointConfig, fastEndpointConfig);
-        verify(topicManagementClient).addEndpoint(serviceWithFastEndpointConfig, fastEndpointConfig);
+        verify(topicManagementClient).addEndpoints(serviceWithFastEndpointConfig, singletonList(fastEndpointConfig));
 
-        verify(executor).scheduleWithFixedDelay(runnableCaptor.capture(), eq(1000L), eq(1000L), eq(MILLISECONDS));
+        verify(pollScheduler).scheduleWithFixedDelay(runnableCaptor.capture(), eq(1000L), eq(1000L), eq(MILLISECONDS));
 
         final Runnable runnable = runnableCaptor.getValue();
 
         runnable.run();
 
-        verify(endpointClient, times(2)).request(eq(serviceWithFastEndpointConfig), eq(fastEndpointConfig));
+        verify(endpointClient).request(eq(serviceWithFastEndpointConfig), eq(fastEndpointConfig));
+        verify(endpointClient).conditionalRequest(eq(serviceWithFastEndpointConfig), eq(fastEndpointConfig));
     }
 
     @Test
@@ -267,6 +463,7 @@ public final class ServiceSessionTest {
         final CompletableFuture<EndpointResponse> future = new CompletableFuture<>();
         future.completeExceptionally(ex);
         when(endpointClient.request(eq(serviceConfig), eq(endpointConfig))).thenReturn(future);
+        when(endpointClient.conditionalRequest(eq(serviceConfig), eq(endpointConfig))).thenReturn(future);
 
         serviceSession.onActive();
         serviceSession.addEndpoint(endpointConfig);
@@ -274,28 +471,470 @@ public final class ServiceSessionTest {
         verify(serviceListener).onActive(serviceConfig);
         verify(serviceListener).onEndpointFail(serviceConfig, endpointConfig);
         verify(serviceListener).onEndpointAdd(serviceConfig, endpointConfig);
+        verify(topicManagementClient).addEndpoints(serviceConfig, singletonList(endpointConfig));
+        // The topic added on activation is removed when the first request fails
+        verify(topicManagementClient).removeEndpoint(serviceConfig, endpointConfig);
 
-        verify(executor).scheduleWithFixedDelay(runnableCaptor.capture(), eq(5000L), eq(5000L), eq(MILLISECONDS));
+        verify(pollScheduler).scheduleWithFixedDelay(runnableCaptor.capture(), eq(5000L), eq(5000L), eq(MILLISECONDS));
 
         final Runnable runnable = runnableCaptor.getValue();
 
         runnable.run();
 
-        verify(endpointClient, times(2)).request(eq(serviceConfig), eq(endpointConfig));
+        verify(endpointClient).request(eq(serviceConfig), eq(endpointConfig));
+        verify(endpointClient).conditionalRequest(eq(serviceConfig), eq(endpointConfig));
+        verify(handler).accept(null, ex);
+    }
+
+    @Test
+    public void failedTopicCreationOnActive() {
+        when(topicManagementClient.addEndpoints(isNotNull(), isNotNull()))
+            .thenReturn(completedFuture(singletonMap(endpointConfig, new Exception("Intentional exception"))));
+
+        serviceSession.onActive();
+        verify(topicManagementClient).addEndpoints(serviceConfig, singletonList(endpointConfig));
+        verify(serviceListener).onEndpointFail(serviceConfig, endpointConfig);
+        verify(serviceListener).onActive(serviceConfig);
+        verify(endpointClient, never()).request(serviceConfig, endpointConfig);
+    }
+
+    @Test
+    public void startAdaptivePoll() {
+        final ServiceConfig adaptiveService = ServiceConfig
+            .builder()
+            .name("service")
+            .host("localhost")
+            .topicPathRoot("test")
+            .port(80)
+            .pollPeriod(5000L)
+            .adaptivePolling(AdaptivePollingConfig.builder().minPollPeriod(1000L).build())
+            .endpoints(singletonList(endpointConfig))
+            .build();
+        when(handlerFactory.create(eq(adaptiveService), eq(endpointConfig), isA(AdaptivePollPeriod.class)))
+            .thenReturn(handler);
+        when(endpointClient.request(eq(adaptiveService), eq(endpointConfig))).thenReturn(completedFuture(endpointResponse));
+        serviceSession = new ServiceSessionImpl(pollScheduler, workers, null, null, endpointClient, adaptiveService, handlerFactory, topicManagementClient, publishingClient, serviceListener);
+
+        serviceSession.onActive();
+        // The handler reports if responses have changed to the adaptive poll period
+        verify(handlerFactory).create(eq(adaptiveService), eq(endpointConfig), isA(AdaptivePollPeriod.class));
+        verify(serviceListener).onActive(adaptiveService);
+        verify(serviceListener).onEndpointAdd(adaptiveService, endpointConfig);
+        verify(endpointClient).request(eq(adaptiveService), eq(endpointConfig));
+        verify(topicManagementClient).addEndpoints(adaptiveService, singletonList(endpointConfig));
+
+        verify(pollScheduler).scheduleWithDynamicDelay(isA(Runnable.class), eq(5000L), delaySupplierCaptor.capture(), eq(MILLISECONDS));
+        assertEquals(5000L, delaySupplierCaptor.getValue().getAsLong());
+    }
+
+    @Test
+    public void retryAfterDefersPolls() {
+        final ServiceConfig cacheHeadersService = ServiceConfig
+            .builder()
+            .name("service")
+            .host("localhost")
+            .topicPathRoot("test")
+            .port(80)
+            .pollPeriod(5000L)
+            .cacheHeaders(CacheHeadersConfig.builder().build())
+            .endpoints(singletonList(endpointConfig))
+            .build();
+        final CompletableFuture<EndpointResponse> future = new CompletableFuture<>();
+        future.completeExceptionally(new RetryAfterException("Received response 503", 60000L));
+        when(handlerFactory.create(cacheHeadersService, endpointConfig)).thenReturn(handler);
+        when(endpointClient.request(eq(cacheHeadersService), eq(endpointConfig))).thenReturn(completedFuture(endpointResponse));
+        when(endpointClient.conditionalRequest(eq(cacheHeadersService), eq(endpointConfig))).thenReturn(future);
+        serviceSession = new ServiceSessionImpl(pollScheduler, workers, null, null, endpointClient, cacheHeadersService, handlerFactory, topicManagementClient, publishingClient, serviceListener);
+
+        serviceSession.onActive();
+        verify(handlerFactory).create(cacheHeadersService, endpointConfig);
+        verify(serviceListener).onActive(cacheHeadersService);
+        verify(serviceListener).onEndpointAdd(cacheHeadersService, endpointConfig);
+        verify(endpointClient).request(eq(cacheHeadersService), eq(endpointConfig));
+        verify(topicManagementClient).addEndpoints(cacheHeadersService, singletonList(endpointConfig));
+
+        verify(pollScheduler).scheduleWithDynamicDelay(runnableCaptor.capture(), eq(5000L), delaySupplierCaptor.capture(), eq(MILLISECONDS));
+        assertEquals(5000L, delaySupplierCaptor.getValue().getAsLong());
+
+        runnableCaptor.getValue().run();
+        verify(endpointClient).conditionalRequest(eq(cacheHeadersService), eq(endpointConfig));
+        verify(handler, never()).accept(isNull(), isNotNull());
+        assertTrue(delaySupplierCaptor.getValue().getAsLong() > 55000L);
+
+        // Polls are skipped until the deferral has passed
+        runnableCaptor.getValue().run();
+    }
+
+    @Test
+    public void failedPollsOpenCircuitBreaker() {
+        final ServiceConfig circuitBreakerService = ServiceConfig
+            .builder()
+            .name("service")
+            .host("localhost")
+            .topicPathRoot("test")
+            .port(80)
+            .pollPeriod(5000L)
+            .circuitBreaker(CircuitBreakerConfig.builder().failureThreshold(1).initialBackoff(60000L).build())
+            .endpoints(singletonList(endpointConfig))
+            .build();
+        final Exception ex = new Exception("Intentional exception");
+        final CompletableFuture<EndpointResponse> future = new CompletableFuture<>();
+        future.completeExceptionally(ex);
+        when(handlerFactory.create(circuitBreakerService, endpointConfig)).thenReturn(handler);
+        when(endpointClient.conditionalRequest(eq(circuitBreakerService), eq(endpointConfig))).thenReturn(future);
+        serviceSession = new ServiceSessionImpl(pollScheduler, workers, null, null, endpointClient, circuitBreakerService, handlerFactory, topicManagementClient, publishingClient, serviceListener);
+
+        serviceSession.onActive();
+        verify(handlerFactory).create(circuitBreakerService, endpointConfig);
+        verify(serviceListener).onActive(circuitBreakerService);
+        verify(serviceListener).onEndpointAdd(circuitBreakerService, endpointConfig);
+        verify(endpointClient).request(eq(circuitBreakerService), eq(endpointConfig));
+        verify(topicManagementClient).addEndpoints(circuitBreakerService, singletonList(endpointConfig));
+
+        verify(pollScheduler).scheduleWithFixedDelay(runnableCaptor.capture(), eq(5000L), eq(5000L), eq(MILLISECONDS));
+
+        runnableCaptor.getValue().run();
+        verify(endpointClient).conditionalRequest(eq(circuitBreakerService), eq(endpointConfig));
+        verify(handler).accept(null, ex);
+        verify(serviceListener).onServiceCircuitBreaker(circuitBreakerService, CircuitBreakerState.OPEN);
+        verify(serviceListener).onEndpointCircuitBreaker(circuitBreakerService, endpointConfig, CircuitBreakerState.OPEN);
+
+        // Polls are skipped while the circuit breakers are open
+        runnableCaptor.getValue().run();
+    }
+
+    @Test
+    public void retryFailedInitialisation() {
+        final ServiceConfig circuitBreakerService = ServiceConfig
+            .builder()
+            .name("service")
+            .host("localhost")
+            .topicPathRoot("test")
+            .port(80)
+            .pollPeriod(5000L)
+            .circuitBreaker(CircuitBreakerConfig.builder().build())
+            .endpoints(singletonList(endpointConfig))
+            .build();
+        final CompletableFuture<EndpointResponse> future = new CompletableFuture<>();
+        future.completeExceptionally(new Exception("Intentional exception"));
+        when(handlerFactory.create(circuitBreakerService, endpointConfig)).thenReturn(handler);
+        when(endpointClient.request(eq(circuitBreakerService), eq(endpointConfig)))
+            .thenReturn(future, completedFuture(endpointResponse));
+        when(pollScheduler.schedule(isA(Runnable.class), isA(Long.class), isA(TimeUnit.class)))
+            .thenReturn(mock(Future.class));
+        serviceSession = new ServiceSessionImpl(pollScheduler, workers, null, null, endpointClient, circuitBreakerService, handlerFactory, topicManagementClient, publishingClient, serviceListener);
+
+        serviceSession.onActive();
+        verify(serviceListener).onActive(circuitBreakerService);
+        verify(topicManagementClient).addEndpoints(circuitBreakerService, singletonList(endpointConfig));
+        verify(endpointClient).request(eq(circuitBreakerService), eq(endpointConfig));
+        verify(topicManagementClient).removeEndpoint(circuitBreakerService, endpointConfig);
+        verify(serviceListener).onEndpointFail(circuitBreakerService, endpointConfig);
+        verify(pollScheduler).schedule(runnableCaptor.capture(), eq(5000L), eq(MILLISECONDS));
+
+        runnableCaptor.getValue().run();
+        verify(serviceListener).onEndpointRemove(circuitBreakerService, endpointConfig, false);
+        verify(endpointClient, times(2)).request(eq(circuitBreakerService), eq(endpointConfig));
+        verify(topicManagementClient).addEndpoint(circuitBreakerService, endpointConfig);
+        verify(handlerFactory).create(circuitBreakerService, endpointConfig);
+        verify(serviceListener).onEndpointAdd(circuitBreakerService, endpointConfig);
+        verify(pollScheduler).scheduleWithFixedDelay(isA(Runnable.class), eq(5000L), eq(5000L), eq(MILLISECONDS));
+    }
+
+    @Test
+    public void startBlockingPoll() {
+        serviceSession = new ServiceSessionImpl(pollScheduler, workers, Runnable::run, null, endpointClient, serviceConfig, handlerFactory, topicManagementClient, publishingClient, serviceListener);
+        when(endpointClient.request(eq(serviceConfig), eq(endpointConfig))).thenReturn(completedFuture(endpointResponse));
+        when(endpointClient.conditionalRequest(eq(serviceConfig), eq(endpointConfig))).thenReturn(completedFuture(endpointResponse));
+
+        serviceSession.onActive();
+        serviceSession.addEndpoint(endpointConfig);
+        verify(handlerFactory).create(serviceConfig, endpointConfig);
+        verify(serviceListener).onActive(serviceConfig);
+        verify(serviceListener).onEndpointAdd(serviceConfig, endpointConfig);
+        verify(topicManagementClient).addEndpoints(serviceConfig, singletonList(endpointConfig));
+
+        verify(pollScheduler).scheduleWithFixedDelay(runnableCaptor.capture(), eq(5000L), eq(5000L), eq(MILLISECONDS));
+
+        runnableCaptor.getValue().run();
+
+        verify(endpointClient).request(eq(serviceConfig), eq(endpointConfig));
+        verify(endpointClient).conditionalRequest(eq(serviceConfig), eq(endpointConfig));
+        // The first response and the poll response are both passed to the handler
+        verify(handler, times(2)).accept(endpointResponse, null);
+    }
+
+    @Test
+    public void startFailedBlockingPoll() {
+        final Exception ex = new Exception("Intentional exception");
+        final CompletableFuture<EndpointResponse> future = new CompletableFuture<>();
+        future.completeExceptionally(ex);
+        serviceSession = new ServiceSessionImpl(pollScheduler, workers, Runnable::run, null, endpointClient, serviceConfig, handlerFactory, topicManagementClient, publishingClient, serviceListener);
+        when(endpointClient.request(eq(serviceConfig), eq(endpointConfig))).thenReturn(completedFuture(endpointResponse));
+        when(endpointClient.conditionalRequest(eq(serviceConfig), eq(endpointConfig))).thenReturn(future);
+
+        serviceSession.onActive();
+        serviceSession.addEndpoint(endpointConfig);
+        verify(handlerFactory).create(serviceConfig, endpointConfig);
+        verify(serviceListener).onActive(serviceConfig);
+        verify(serviceListener).onEndpointAdd(serviceConfig, endpointConfig);
+        verify(topicManagementClient).addEndpoints(serviceConfig, singletonList(endpointConfig));
+
+        verify(pollScheduler).scheduleWithFixedDelay(runnableCaptor.capture(), eq(5000L), eq(5000L), eq(MILLISECONDS));
+
+        runnableCaptor.getValue().run();
+
+        verify(endpointClient).request(eq(serviceConfig), eq(endpointConfig));
+        verify(endpointClient).conditionalRequest(eq(serviceConfig), eq(endpointConfig));
         verify(handler).accept(null, ex);
     }
 
+    @Test
+    public void blockingPollNotOverlapped() {
+        final ServiceConfig serviceWithLimit = ServiceConfig
+            .builder()
+            .name("service")
+            .host("localhost")
+            .topicPathRoot("test")
+            .port(80)
+            .pollPeriod(5000L)
+            .maxConcurrentPolls(1)
+            .endpoints(singletonList(endpointConfig))
+            .build();
+        when(handlerFactory.create(serviceWithLimit, endpointConfig)).thenReturn(handler);
+        serviceSession = new ServiceSessionImpl(pollScheduler, workers, worker, null, endpointClient, serviceWithLimit, handlerFactory, topicManagementClient, publishingClient, serviceListener);
+        when(endpointClient.request(eq(serviceWithLimit), eq(endpointConfig))).thenReturn(completedFuture(endpointResponse));
+        when(endpointClient.conditionalRequest(eq(serviceWithLimit), eq(endpointConfig))).thenReturn(completedFuture(endpointResponse));
+
+        serviceSession.onActive();
+        verify(handlerFactory).create(serviceWithLimit, endpointConfig);
+        verify(serviceListener).onActive(serviceWithLimit);
+        verify(serviceListener).onEndpointAdd(serviceWithLimit, endpointConfig);
+        verify(endpointClient).request(eq(serviceWithLimit), eq(endpointConfig));
+        verify(topicManagementClient).addEndpoints(serviceWithLimit, singletonList(endpointConfig));
+
+        verify(pollScheduler).scheduleWithFixedDelay(runnableCaptor.capture(), eq(5000L), eq(5000L), eq(MILLISECONDS));
+        final Runnable pollingTask = runnableCaptor.getValue();
+
+        pollingTask.run();
+        pollingTask.run();
+
+        // The second tick is skipped as the first poll has not run
+        verify(serviceListener).onPollSkipped(serviceWithLimit, endpointConfig);
+        // The first response and the first poll are executed
+        verify(worker, times(2)).execute(runnableCaptor.capture());
+        runnableCaptor.getValue().run();
+
+        verify(endpointClient).conditionalRequest(eq(serviceWithLimit), eq(endpointConfig));
+        verify(handler).accept(endpointResponse, null);
+
+        pollingTask.run();
+
+        verify(worker, times(3)).execute(isA(Runnable.class));
+    }
+
+    @Test
+    public void skipPollInFlight() {
+        final ServiceConfig skipService = serviceWithInFlightPolicy("skip");
+        final CompletableFuture<EndpointResponse> future0 = new CompletableFuture<>();
+        when(handlerFactory.create(skipService, endpointConfig)).thenReturn(handler);
+        when(endpointClient.conditionalRequest(eq(skipService), eq(endpointConfig)))
+            .thenReturn(future0, new CompletableFuture<>());
+        serviceSession = new ServiceSessionImpl(pollScheduler, workers, null, null, endpointClient, skipService, handlerFactory, topicManagementClient, publishingClient, serviceListener);
+
+        final Runnable pollingTask = startInFlightPolicyService(skipService);
+
+        pollingTask.run();
+        pollingTask.run();
+        verify(endpointClient).conditionalRequest(eq(skipService), eq(endpointConfig));
+        verify(serviceListener).onPollSkipped(skipService, endpointConfig);
+
+        future0.complete(endpointResponse);
+        verify(handler, times(2)).accept(endpointResponse, null);
+
+        pollingTask.run();
+        verify(endpointClient, times(2)).conditionalRequest(eq(skipService), eq(endpointConfig));
+    }
+
+    @Test
+    public void coalescePollInFlight() {
+        final ServiceConfig coalesceService = serviceWithInFlightPolicy("coalesce");
+        final CompletableFuture<EndpointResponse> future0 = new CompletableFuture<>();
+        when(handlerFactory.create(coalesceService, endpointConfig)).thenReturn(handler);
+        when(endpointClient.conditionalRequest(eq(coalesceService), eq(endpointConfig)))
+            .thenReturn(future0, new CompletableFuture<>());
+        serviceSession = new ServiceSessionImpl(pollScheduler, workers, null, null, endpointClient, coalesceService, handlerFactory, topicManagementClient, publishingClient, serviceListener);
+
+        final Runnable pollingTask = startInFlightPolicyService(coalesceService);
+
+        pollingTask.run();
+        pollingTask.run();
+        pollingTask.run();
+        verify(endpointClient).conditionalRequest(eq(coalesceService), eq(endpointConfig));
+        verify(serviceListener, times(2)).onPollCoalesced(coalesceService, endpointConfig);
+
+        // The coalesced polls are made as a single poll when the poll in flight completes
+        future0.complete(endpointResponse);
+        verify(handler, times(2)).accept(endpointResponse, null);
+        verify(endpointClient, times(2)).conditionalRequest(eq(coalesceService), eq(endpointConfig));
+    }
+
+    @Test
+    public void cancelPollInFlight() {
+        final ServiceConfig cancelService = serviceWithInFlightPolicy("cancel");
+        final CompletableFuture<EndpointResponse> future0 = new CompletableFuture<>();
+        when(handlerFactory.create(cancelService, endpointConfig)).thenReturn(handler);
+        when(endpointClient.conditionalRequest(eq(cancelService), eq(endpointConfig)))
+            .thenReturn(future0, new CompletableFuture<>());
+        serviceSession = new ServiceSessionImpl(pollScheduler, workers, null, null, endpointClient, cancelService, handlerFactory, topicManagementClient, publishingClient, serviceListener);
+
+        final Runnable pollingTask = startInFlightPolicyService(cancelService);
+
+        pollingTask.run();
+        pollingTask.run();
+        verify(endpointClient, times(2)).conditionalRequest(eq(cancelService), eq(endpointConfig));
+        assertTrue(future0.isCancelled());
+        verify(handler, never()).accept(isNull(), isNotNull());
+    }
+
+    @Test
+    public void skipPollEndsAfterHandlerFailure() {
+        final ServiceConfig skipService = serviceWithInFlightPolicy("skip");
+        final CompletableFuture<EndpointResponse> future0 = new CompletableFuture<>();
+        when(workers.shardFor("test/url")).thenReturn(worker);
+        doNothing().doThrow(new RejectedExecutionException("Intentional exception")).when(worker).execute(isA(Runnable.class));
+        when(handlerFactory.create(skipService, endpointConfig)).thenReturn(handler);
+        when(endpointClient.conditionalRequest(eq(skipService), eq(endpointConfig)))
+            .thenReturn(future0, new CompletableFuture<>());
+        serviceSession = new ServiceSessionImpl(pollScheduler, workers, null, null, endpointClient, skipService, handlerFactory, topicManagementClient, publishingClient, serviceListener);
+
+        serviceSession.onActive();
+        verify(handlerFactory).create(skipService, endpointConfig);
+        verify(serviceListener).onActive(skipService);
+        verify(serviceListener).onEndpointAdd(skipService, endpointConfig);
+        verify(endpointClient).request(eq(skipService), eq(endpointConfig));
+        verify(topicManagementClient).addEndpoints(skipService, singletonList(endpointConfig));
+        verify(pollScheduler).scheduleWithFixedDelay(runnableCaptor.capture(), eq(5000L), eq(5000L), eq(MILLISECONDS));
+        final Runnable pollingTask = runnableCaptor.getValue();
+
+        pollingTask.run();
+        future0.complete(endpointResponse);
+        verify(worker, times(2)).execute(isA(Runnable.class));
+
+        // The poll ended even though handling the response failed
+        pollingTask.run();
+        verify(endpointClient, times(2)).conditionalRequest(eq(skipService), eq(endpointConfig));
+    }
+
+    @Test
+    public void cancelBlockingPollInFlight() throws InterruptedException {
+        final ServiceConfig cancelService = serviceWithInFlightPolicy("cancel");
+        final CompletableFuture<EndpointResponse> future0 = new CompletableFuture<>();
+        when(handlerFactory.create(cancelService, endpointConfig)).thenReturn(handler);
+        when(endpointClient.conditionalRequest(eq(cancelService), eq(endpointConfig)))
+            .thenReturn(future0, completedFuture(endpointResponse));
+        serviceSession = new ServiceSessionImpl(pollScheduler, workers, worker, null, endpointClient, cancelService, handlerFactory, topicManagementClient, publishingClient, serviceListener);
+
+        serviceSession.onActive();
+        verify(handlerFactory).create(cancelService, endpointConfig);
+        verify(serviceListener).onActive(cancelService);
+        verify(serviceListener).onEndpointAdd(cancelService, endpointConfig);
+        verify(endpointClient).request(eq(cancelService), eq(endpointConfig));
+        verify(topicManagementClient).addEndpoints(cancelService, singletonList(endpointConfig));
+        verify(pollScheduler).scheduleWithFixedDelay(runnableCaptor.capture(), eq(5000L), eq(5000L), eq(MILLISECONDS));
+        final Runnable pollingTask = runnableCaptor.getValue();
+
+        pollingTask.run();
+        // The first response and the first poll are executed
+        verify(worker, times(2)).execute(runnableCaptor.capture());
+        final Thread pollThread = new Thread(runnableCaptor.getValue());
+        pollThread.start();
+        while (pollThread.isAlive() && pollThread.getState() != Thread.State.WAITING) {
+            Thread.sleep(10L);
+        }
+
+        // The poll in flight is cancelled and its thread makes the poll
+        pollingTask.run();
+        pollThread.join(5000L);
+
+        assertTrue(future0.isCancelled());
+        verify(endpointClient, times(2)).conditionalRequest(eq(cancelService), eq(endpointConfig));
+        verify(handler).accept(endpointResponse, null);
+        verify(worker, times(2)).execute(isA(Runnable.class));
+    }
+
+    @Test
+    public void globalPollLimit() {
+        final Semaphore globalPollPermits = new Semaphore(1);
+        final CompletableFuture<EndpointResponse> future0 = new CompletableFuture<>();
+        when(endpointClient.conditionalRequest(eq(serviceConfig), eq(endpointConfig))).thenReturn(future0);
+        serviceSession = new ServiceSessionImpl(pollScheduler, workers, null, globalPollPermits, endpointClient, serviceConfig, handlerFactory, topicManagementClient, publishingClient, serviceListener);
+
+        final Runnable pollingTask = startInFlightPolicyService(serviceConfig);
+
+        pollingTask.run();
+        pollingTask.run();
+        verify(endpointClient).conditionalRequest(eq(serviceConfig), eq(endpointConfig));
+        verify(serviceListener).onPollSkipped(serviceConfig, endpointConfig);
+        assertEquals(0, globalPollPermits.availablePermits());
+
+        future0.complete(endpointResponse);
+        verify(handler, times(2)).accept(endpointResponse, null);
+        assertEquals(1, globalPollPermits.availablePermits());
+    }
+
+    @Test
+    public void pauseWhenPublicationSaturated() {
+        final CompletableFuture<EndpointResponse> future0 = new CompletableFuture<>();
+        when(endpointClient.conditionalRequest(eq(serviceConfig), eq(endpointConfig))).thenReturn(future0);
+        when(publishingClient.isSaturated()).thenReturn(true, false);
+
+        final Runnable pollingTask = startInFlightPolicyService(serviceConfig);
+
+        pollingTask.run();
+        verify(serviceListener).onPollSkipped(serviceConfig, endpointConfig);
+
+        pollingTask.run();
+        verify(endpointClient).conditionalRequest(eq(serviceConfig), eq(endpointConfig));
+    }
+
+    private ServiceConfig serviceWithInFlightPolicy(String inFlightPolicy) {
+        return ServiceConfig
+            .builder()
+            .name("service")
+            .host("localhost")
+            .topicPathRoot("test")
+            .port(80)
+            .pollPeriod(5000L)
+            .inFlightPolicy(inFlightPolicy)
+            .endpoints(singletonList(endpointConfig))
+            .build();
+    }
+
+    private Runnable startInFlightPolicyService(ServiceConfig service) {
+        serviceSession.onActive();
+        verify(handlerFactory).create(service, endpointConfig);
+        verify(serviceListener).onActive(service);
+        verify(serviceListener).onEndpointAdd(service, endpointConfig);
+        verify(endpointClient).request(eq(service), eq(endpointConfig));
+        verify(topicManagementClient).addEndpoints(service, singletonList(endpointConfig));
+        verify(handler).accept(endpointResponse, null);
+
+        verify(pollScheduler).scheduleWithFixedDelay(runnableCaptor.capture(), eq(5000L), eq(5000L), eq(MILLISECONDS));
+        return runnableCaptor.getValue();
+    }
+
     @Test
     public void stop() {
         serviceSession.onActive();
         serviceSession.addEndpoint(endpointConfig);
         verify(handlerFactory).create(serviceConfig, endpointConfig);
         verify(endpointClient).request(serviceConfig, endpointConfig);
-        verify(topicManagementClient).addEndpoint(serviceConfig, endpointConfig);
+        verify(topicManagementClient).addEndpoints(serviceConfig, singletonList(endpointConfig));
         verify(serviceListener).onActive(serviceConfig);
         verify(serviceListener).onEndpointAdd(serviceConfig, endpointConfig);
 
-        verify(executor).scheduleWithFixedDelay(runnableCaptor.capture(), eq(5000L), eq(5000L), eq(MILLISECONDS));
+        verify(pollScheduler).scheduleWithFixedDelay(runnableCaptor.capture(), eq(5000L), eq(5000L), eq(MILLISECONDS));
 
         serviceSession.stop();
 
@@ -310,11 +949,11 @@ public final class ServiceSessionTest {
         serviceSession.addEndpoint(endpointConfig);
         verify(handlerFactory).create(serviceConfig, endpointConfig);
         verify(endpointClient).request(serviceConfig, endpointConfig);
-        verify(topicManagementClient).addEndpoint(serviceConfig, endpointConfig);
+        verify(topicManagementClient).addEndpoints(serviceConfig, singletonList(endpointConfig));
         verify(serviceListener).onActive(serviceConfig);
         verify(serviceListener).onEndpointAdd(serviceConfig, endpointConfig);
 
-        verify(executor).scheduleWithFixedDelay(runnableCaptor.capture(), eq(5000L), eq(5000L), eq(MILLISECONDS));
+        verify(pollScheduler).scheduleWithFixedDelay(runnableCaptor.capture(), eq(5000L), eq(5000L), eq(MILLISECONDS));
 
         serviceSession.release();
 
@@ -328,17 +967,18 @@ public final class ServiceSessionTest {
         serviceSession.addEndpoint(endpointConfig);
         verify(handlerFactory).create(serviceConfig, endpointConfig);
         verify(endpointClient).request(serviceConfig, endpointConfig);
-        verify(topicManagementClient).addEndpoint(serviceConfig, endpointConfig);
+        verify(topicManagementClient).addEndpoints(serviceConfig, singletonList(endpointConfig));
         verify(serviceListener).onActive(serviceConfig);
         verify(serviceListener).onEndpointAdd(serviceConfig, endpointConfig);
 
-        verify(executor).scheduleWithFixedDelay(runnableCaptor.capture(), eq(5000L), eq(5000L), eq(MILLISECONDS));
+        verify(pollScheduler).scheduleWithFixedDelay(runnableCaptor.capture(), eq(5000L), eq(5000L), eq(MILLISECONDS));
 
         final Runnable runnable = runnableCaptor.getValue();
 
         runnable.run();
 
-        verify(endpointClient, times(2)).request(eq(serviceConfig), eq(endpointConfig));
+        verify(endpointClient).request(eq(serviceConfig), eq(endpointConfig));
+        verify(endpointClient).conditionalRequest(eq(serviceConfig), eq(endpointConfig));
 
         serviceSession.stop();
 
@@ -354,21 +994,22 @@ public final class ServiceSessionTest {
         serviceSession.addEndpoint(endpointConfig);
         verify(handlerFactory).create(serviceConfig, endpointConfig);
         verify(endpointClient).request(serviceConfig, endpointConfig);
-        verify(topicManagementClient).addEndpoint(serviceConfig, endpointConfig);
+        verify(topicManagementClient).addEndpoints(serviceConfig, singletonList(endpointConfig));
         verify(serviceListener).onActive(serviceConfig);
         verify(serviceListener).onEndpointAdd(serviceConfig, endpointConfig);
 
-        verify(executor).scheduleWithFixedDelay(runnableCaptor.capture(), eq(5000L), eq(5000L), eq(MILLISECONDS));
+        verify(pollScheduler).scheduleWithFixedDelay(runnableCaptor.capture(), eq(5000L), eq(5000L), eq(MILLISECONDS));
 
         final Runnable runnable = runnableCaptor.getValue();
 
         runnable.run();
 
-        verify(endpointClient, times(2)).request(eq(serviceConfig), eq(endpointConfig));
+        verify(endpointClient).request(eq(serviceConfig), eq(endpointConfig));
+        verify(endpointClient).conditionalRequest(eq(serviceConfig), eq(endpointConfig));
 
         runnable.run();
 
-        verify(endpointClient, times(3)).request(eq(serviceConfig), eq(endpointConfig));
+        verify(endpointClient, times(2)).conditionalRequest(eq(serviceConfig), eq(endpointConfig));
 
         serviceSession.stop();
 
@@ -382,6 +1023,7 @@ public final class ServiceSessionTest {
     public void stopDuringPoll() {
         final CompletableFuture<EndpointResponse> future = new CompletableFuture<>();
         when(endpointClient.request(eq(serviceConfig), eq(endpointConfig))).thenReturn(future);
+        when(endpointClient.conditionalRequest(eq(serviceConfig), eq(endpointConfig))).thenReturn(future);
 
         serviceSession.onActive();
         serviceSession.addEndpoint(endpointConfig);
@@ -389,13 +1031,14 @@ public final class ServiceSessionTest {
         verify(serviceListener).onActive(serviceConfig);
         verify(serviceListener).onEndpointAdd(serviceConfig, endpointConfig);
 
-        verify(executor).scheduleWithFixedDelay(runnableCaptor.capture(), eq(5000L), eq(5000L), eq(MILLISECONDS));
+        verify(pollScheduler).scheduleWithFixedDelay(runnableCaptor.capture(), eq(5000L), eq(5000L), eq(MILLISECONDS));
 
         final Runnable runnable = runnableCaptor.getValue();
 
         runnable.run();
 
-        verify(endpointClient, times(2)).request(eq(serviceConfig), eq(endpointConfig));
+        verify(endpointClient).request(eq(serviceConfig), eq(endpointConfig));
+        verify(endpointClient).conditionalRequest(eq(serviceConfig), eq(endpointConfig));
 
         serviceSession.stop();
         verify(topicManagementClient).removeEndpoint(serviceConfig, endpointConfig);
@@ -403,7 +1046,29 @@ public final class ServiceSessionTest {
         verify(serviceListener).onEndpointRemove(serviceConfig, endpointConfig, true);
 
         future.complete(endpointResponse);
-        verify(topicManagementClient).addEndpoint(serviceConfig, endpointConfig);
+        verify(topicManagementClient).addEndpoints(serviceConfig, singletonList(endpointConfig));
+    }
+
+    @Test
+    public void pollAfterStop() {
+        serviceSession.onActive();
+        serviceSession.addEndpoint(endpointConfig);
+        verify(handlerFactory).create(serviceConfig, endpointConfig);
+        verify(endpointClient).request(serviceConfig, endpointConfig);
+        verify(topicManagementClient).addEndpoints(serviceConfig, singletonList(endpointConfig));
+        verify(serviceListener).onActive(serviceConfig);
+        verify(serviceListener).onEndpointAdd(serviceConfig, endpointConfig);
+
+        verify(pollScheduler).scheduleWithFixedDelay(runnableCaptor.capture(), eq(5000L), eq(5000L), eq(MILLISECONDS));
+
+        serviceSession.stop();
+
+        verify(topicManagementClient).removeEndpoint(serviceConfig, endpointConfig);
+        verify(taskFuture).cancel(false);
+        verify(serviceListener).onEndpointRemove(serviceConfig, endpointConfig, true);
+
+        // The task may already be running when it is cancelled
+        runnableCaptor.getValue().run();
     }
 
 
@@ -413,32 +1078,32 @@ public final class ServiceSessionTest {
 
         serviceSession.onActive();
 
-        verify(executor).scheduleWithFixedDelay(isA(Runnable.class), eq(serviceConfig.getPollPeriod()), eq(serviceConfig.getPollPeriod()), eq(MILLISECONDS));
+        verify(pollScheduler).scheduleWithFixedDelay(isA(Runnable.class), eq(serviceConfig.getPollPeriod()), eq(serviceConfig.getPollPeriod()), eq(MILLISECONDS));
         verify(endpointClient).request(eq(serviceConfig), eq(endpointConfig));
         verify(serviceListener).onActive(serviceConfig);
 
         verify(endpointResponse, times(2)).getHeader("content-type");
         verify(endpointResponse, times(2)).getContentType();
         verify(endpointResponse).getResponse();
-        verify(topicManagementClient).addEndpoint(
-            eq(serviceConfig),
-            eq(endpointConfig));
-        verify(publishingClient).createUpdateContext(eq(serviceConfig), eq(endpointConfig), isNotNull(), isNotNull());
-        verify(updateContext).publish(isNotNull());
+        verify(topicManagementClient).addEndpoints(serviceConfig, singletonList(endpointConfig));
         verify(handlerFactory).create(serviceConfig, endpointConfig);
+        // The first response is published by the handler that publishes the polls
+        verify(handler).accept(endpointResponse, null);
+        verify(publishingClient, never()).createUpdateContext(isNotNull(), isNotNull(), isNotNull(), isNotNull());
         verify(publishingClient).forService(eq(serviceConfig), isNotNull());
         verify(serviceListener).onEndpointAdd(serviceConfig, endpointConfig);
     }
 
     @Test
     public void initialiseEndpointInfer() {
-        serviceSession = new ServiceSessionImpl(executor, endpointClient, serviceWithInferedEndpoint, handlerFactory, topicManagementClient, publishingClient, serviceListener);
+        when(handlerFactory.create(eq(serviceWithInferedEndpoint), isA(EndpointConfig.class))).thenReturn(handler);
+        serviceSession = new ServiceSessionImpl(pollScheduler, workers, null, null, endpointClient, serviceWithInferedEndpoint, handlerFactory, topicManagementClient, publishingClient, serviceListener);
 
         when(endpointClient.request(eq(serviceWithInferedEndpoint), eq(inferEndpointConfig))).thenReturn(completedFuture(endpointResponse));
 
         serviceSession.onActive();
 
-        verify(executor).scheduleWithFixedDelay(isA(Runnable.class), eq(serviceWithInferedEndpoint.getPollPeriod()), eq(serviceWithInferedEndpoint.getPollPeriod()), eq(MILLISECONDS));
+        verify(pollScheduler).scheduleWithFixedDelay(isA(Runnable.class), eq(serviceWithInferedEndpoint.getPollPeriod()), eq(serviceWithInferedEndpoint.getPollPeriod()), eq(MILLISECONDS));
         verify(endpointClient).request(eq(serviceWithInferedEndpoint), eq(inferEndpointConfig));
         verify(serviceListener).onActive(serviceWithInferedEndpoint);
 
@@ -454,9 +1119,9 @@ public final class ServiceSessionTest {
             .produces("json")
             .build();
         verify(topicManagementClient).addEndpoint(serviceWithInferedEndpoint, inferredEndpoint);
-        verify(publishingClient).createUpdateContext(eq(serviceWithInferedEndpoint), eq(inferredEndpoint), isNotNull(), isNotNull());
-        verify(updateContext).publish(isNotNull());
         verify(handlerFactory).create(serviceWithInferedEndpoint, inferredEndpoint);
+        verify(handler).accept(endpointResponse, null);
+        verify(publishingClient, never()).createUpdateContext(isNotNull(), isNotNull(), isNotNull(), isNotNull());
         verify(publishingClient).forService(eq(serviceWithInferedEndpoint), isNotNull());
         verify(serviceListener).onEndpointAdd(serviceWithInferedEndpoint, inferredEndpoint);
     }
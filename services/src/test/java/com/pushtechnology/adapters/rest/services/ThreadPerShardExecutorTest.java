@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (C) 2021 Push Technology Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pushtechnology.adapters.rest.services;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ThreadPerShardExecutor}.
+ *
+ * @author Push Technology Limited
+ */
+public final class ThreadPerShardExecutorTest {
+    private final ThreadPerShardExecutor executor = new ThreadPerShardExecutor(4);
+
+    @After
+    public void postConditions() {
+        executor.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void noShards() {
+        new ThreadPerShardExecutor(0);
+    }
+
+    @Test
+    public void sameKeySameShard() {
+        assertSame(executor.shardFor("a/topic"), executor.shardFor("a/topic"));
+    }
+
+    @Test
+    public void tasksRunInOrder() throws InterruptedException {
+        final Executor shard = executor.shardFor("a/topic");
+        final List<Integer> results = new ArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(100);
+
+        for (int i = 0; i < 100; i++) {
+            final int value = i;
+            shard.execute(() -> {
+                results.add(value);
+                latch.countDown();
+            });
+        }
+
+        assertTrue(latch.await(5, SECONDS));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, (int) results.get(i));
+        }
+    }
+
+    @Test
+    public void runsOnWorkerThread() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Thread[] thread = new Thread[1];
+
+        executor.shardFor("a/topic").execute(() -> {
+            thread[0] = Thread.currentThread();
+            latch.countDown();
+        });
+
+        assertTrue(latch.await(5, SECONDS));
+        assertTrue(thread[0].getName().startsWith("Poll worker "));
+        assertTrue(thread[0].isDaemon());
+    }
+
+    @Test
+    public void discardedAfterClose() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        executor.close();
+        executor.shardFor("a/topic").execute(latch::countDown);
+
+        assertFalse(latch.await(100, MILLISECONDS));
+    }
+}
@@ -15,6 +15,8 @@
 
 package com.pushtechnology.adapters.rest.topic.management;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 import com.pushtechnology.adapters.rest.model.latest.EndpointConfig;
@@ -34,6 +36,17 @@ public interface TopicManagementClient {
      */
     CompletableFuture<Void> addEndpoint(ServiceConfig serviceConfig, EndpointConfig endpointConfig);
 
+    /**
+     * Start managing the topics for several REST endpoints of a service.
+     * @param serviceConfig the service of the endpoints
+     * @param endpointConfigs the endpoints
+     * @return a future completed when the topics of all the endpoints have been added or failed, with the endpoints
+     * whose topics could not be added mapped to the reason
+     */
+    CompletableFuture<Map<EndpointConfig, Throwable>> addEndpoints(
+        ServiceConfig serviceConfig,
+        Collection<EndpointConfig> endpointConfigs);
+
     /**
      * Remove the topic for a REST endpoint.
      * @param serviceConfig the service of the endpoint
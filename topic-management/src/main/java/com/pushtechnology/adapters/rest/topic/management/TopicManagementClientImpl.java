@@ -16,14 +16,24 @@
 package com.pushtechnology.adapters.rest.topic.management;
 
 import static java.lang.String.format;
+import static java.util.stream.Collectors.joining;
 
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
 import com.pushtechnology.adapters.rest.endpoints.EndpointType;
 import com.pushtechnology.adapters.rest.metrics.listeners.TopicCreationListener;
 import com.pushtechnology.adapters.rest.metrics.listeners.TopicCreationListener.TopicCreationCompletionListener;
 import com.pushtechnology.adapters.rest.model.latest.EndpointConfig;
+import com.pushtechnology.adapters.rest.model.latest.PublicationConfig;
 import com.pushtechnology.adapters.rest.model.latest.ServiceConfig;
 import com.pushtechnology.diffusion.client.features.control.topics.TopicAddFailReason;
 import com.pushtechnology.diffusion.client.features.control.topics.TopicControl;
@@ -31,21 +41,61 @@ import com.pushtechnology.diffusion.client.session.Session;
 import com.pushtechnology.diffusion.client.topics.details.TopicSpecification;
 import com.pushtechnology.diffusion.client.topics.details.TopicType;
 
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.Immutable;
+import net.jcip.annotations.ThreadSafe;
+
 /**
  * Topic management client to control Diffusion topic tree.
+ * <p>
+ * The number of topics being added at the same time is limited, the remaining topics wait and are added in the order
+ * they were requested as earlier topics complete.
+ * <p>
+ * Topic specifications are cached by topic type and removal policy. A client is created for each session so the
+ * cached specifications are discarded when the session changes.
  *
  * @author Push Technology Limited
  */
+@ThreadSafe
 public final class TopicManagementClientImpl implements TopicManagementClient {
+    private static final int DEFAULT_MAX_OUTSTANDING_TOPICS = 100;
     private final TopicCreationListener topicCreationListener;
     private final Session session;
+    private final int maxOutstandingTopics;
+    private final Map<SpecificationKey, TopicSpecification> specifications = new ConcurrentHashMap<>();
+    @GuardedBy("this")
+    private final Queue<PendingTopic> pendingTopics = new ArrayDeque<>();
+    @GuardedBy("this")
+    private int outstandingTopics;
+    @GuardedBy("this")
+    private boolean isSending;
 
     /**
      * Constructor.
      */
     public TopicManagementClientImpl(TopicCreationListener topicCreationListener, Session session) {
+        this(topicCreationListener, session, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param topicCreationListener the listener for topic creation events
+     * @param session the session
+     * @param publicationConfig the publication configuration, may be null
+     */
+    public TopicManagementClientImpl(
+            TopicCreationListener topicCreationListener,
+            Session session,
+            PublicationConfig publicationConfig) {
+        final Integer maxOutstanding = publicationConfig == null ? null : publicationConfig.getMaxOutstandingTopics();
         this.topicCreationListener = topicCreationListener;
         this.session = session;
+        this.maxOutstandingTopics = maxOutstanding == null ? DEFAULT_MAX_OUTSTANDING_TOPICS : maxOutstanding;
+
+        if (maxOutstandingTopics <= 0) {
+            throw new IllegalArgumentException("The maximum number of outstanding topics must be positive");
+        }
     }
 
     @Override
@@ -53,28 +103,154 @@ public final class TopicManagementClientImpl implements TopicManagementClient {
             ServiceConfig serviceConfig,
             EndpointConfig endpointConfig) {
 
-        final String produces = endpointConfig.getProduces();
-        final String topicPath = serviceConfig.getTopicPathRoot() + "/" + endpointConfig.getTopicPath();
-        final TopicType topicType = EndpointType.from(produces).getTopicType();
+        return addTopic(topicPath(serviceConfig, endpointConfig), specification(serviceConfig, endpointConfig));
+    }
 
-        final TopicSpecification specification = session
-            .feature(TopicControl.class)
-            .newSpecification(topicType)
-            .withProperty(
-                TopicSpecification.REMOVAL,
-                format("when no session has \"$Principal eq '%s'\" for 1m", session.getPrincipal()));
+    @Override
+    public CompletableFuture<Map<EndpointConfig, Throwable>> addEndpoints(
+            ServiceConfig serviceConfig,
+            Collection<EndpointConfig> endpointConfigs) {
 
-        return addTopic(topicPath, specification);
+        final Map<EndpointConfig, Throwable> failures = new ConcurrentHashMap<>();
+        final CompletableFuture<?>[] completions = new CompletableFuture<?>[endpointConfigs.size()];
+        int index = 0;
+        for (final EndpointConfig endpointConfig : endpointConfigs) {
+            final TopicSpecification specification;
+            try {
+                specification = specification(serviceConfig, endpointConfig);
+            }
+            catch (IllegalArgumentException e) {
+                // The endpoint produces an unknown type, fail it without affecting the other endpoints
+                failures.put(endpointConfig, e);
+                completions[index++] = CompletableFuture.completedFuture(null);
+                continue;
+            }
+
+            completions[index] = addTopic(topicPath(serviceConfig, endpointConfig), specification)
+                .whenComplete((x, t) -> {
+                    if (t != null) {
+                        failures.put(endpointConfig, t);
+                    }
+                });
+            index++;
+        }
+
+        return CompletableFuture
+            .allOf(completions)
+            .handle((x, t) -> failures);
     }
 
     @Override
     public void removeEndpoint(ServiceConfig serviceConfig, EndpointConfig endpointConfig) {
+        final String topicPath = serviceConfig.getTopicPathRoot() + "/" + endpointConfig.getTopicPath();
         session
             .feature(TopicControl.class)
-            .removeTopics(serviceConfig.getTopicPathRoot() + "/" + endpointConfig.getTopicPath());
+            .removeTopics(endpointConfig.getFanOut() == null ? topicPath : descendantsSelector(topicPath));
+    }
+
+    private static String topicPath(ServiceConfig serviceConfig, EndpointConfig endpointConfig) {
+        return serviceConfig.getTopicPathRoot() + "/" + endpointConfig.getTopicPath();
+    }
+
+    private static TopicType topicType(EndpointConfig endpointConfig) {
+        return EndpointType.from(endpointConfig.getProduces()).getTopicType();
+    }
+
+    private TopicSpecification specification(ServiceConfig serviceConfig, EndpointConfig endpointConfig) {
+        final SpecificationKey key = new SpecificationKey(topicType(endpointConfig), serviceConfig.getTopicRemoval());
+        return specifications.computeIfAbsent(key, this::newSpecification);
+    }
+
+    private TopicSpecification newSpecification(SpecificationKey key) {
+        final String removal = key.removal == null ?
+            format("when no session has \"$Principal eq '%s'\" for 1m", session.getPrincipal()) :
+            key.removal;
+
+        return session
+            .feature(TopicControl.class)
+            .newSpecification(key.topicType)
+            .withProperty(TopicSpecification.REMOVAL, removal);
+    }
+
+    /**
+     * @return a selector for a topic path and all the topics below it
+     */
+    private static String descendantsSelector(String topicPath) {
+        return Arrays
+            .stream(topicPath.split("/"))
+            .map(Pattern::quote)
+            .collect(joining("/", "?", "//"));
     }
 
     private CompletableFuture<Void> addTopic(String path, TopicSpecification specification) {
+        final PendingTopic pendingTopic = new PendingTopic(path, specification);
+        synchronized (this) {
+            pendingTopics.add(pendingTopic);
+        }
+
+        sendPendingTopics();
+
+        return pendingTopic.result;
+    }
+
+    /**
+     * Send the waiting topics the limit allows. Only one thread sends topics at a time so they are sent in the order
+     * they were requested, other threads return immediately and leave their topics to it.
+     */
+    private void sendPendingTopics() {
+        synchronized (this) {
+            if (isSending) {
+                return;
+            }
+            isSending = true;
+        }
+
+        while (true) {
+            final PendingTopic pendingTopic;
+            synchronized (this) {
+                if (outstandingTopics >= maxOutstandingTopics || pendingTopics.isEmpty()) {
+                    isSending = false;
+                    return;
+                }
+                pendingTopic = pendingTopics.remove();
+                outstandingTopics++;
+            }
+
+            send(pendingTopic);
+        }
+    }
+
+    private void send(PendingTopic pendingTopic) {
+        final CompletableFuture<Void> future;
+        try {
+            future = sendTopic(pendingTopic.path, pendingTopic.specification);
+        }
+        // CHECKSTYLE.OFF: IllegalCatch
+        catch (RuntimeException e) {
+            onComplete(pendingTopic, e);
+            return;
+        }
+        // CHECKSTYLE.ON: IllegalCatch
+
+        future.whenComplete((x, t) -> onComplete(pendingTopic, t));
+    }
+
+    private void onComplete(PendingTopic pendingTopic, Throwable throwable) {
+        synchronized (this) {
+            outstandingTopics--;
+        }
+
+        if (throwable == null) {
+            pendingTopic.result.complete(null);
+        }
+        else {
+            pendingTopic.result.completeExceptionally(throwable);
+        }
+
+        sendPendingTopics();
+    }
+
+    private CompletableFuture<Void> sendTopic(String path, TopicSpecification specification) {
         final TopicCreationCompletionListener completionListener =
             topicCreationListener.onTopicCreationRequest(path, specification.getType());
         return session
@@ -105,4 +281,49 @@ public final class TopicManagementClientImpl implements TopicManagementClient {
                 }
             });
     }
+
+    /**
+     * A topic waiting to be added.
+     */
+    private static final class PendingTopic {
+        private final String path;
+        private final TopicSpecification specification;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        private PendingTopic(String path, TopicSpecification specification) {
+            this.path = path;
+            this.specification = specification;
+        }
+    }
+
+    /**
+     * The topic type and removal policy of a topic specification. A null removal policy is the default policy.
+     */
+    @Immutable
+    private static final class SpecificationKey {
+        private final TopicType topicType;
+        private final String removal;
+
+        SpecificationKey(TopicType topicType, String removal) {
+            this.topicType = topicType;
+            this.removal = removal;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final SpecificationKey that = (SpecificationKey) o;
+            return topicType == that.topicType && Objects.equals(removal, that.removal);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * topicType.hashCode() + Objects.hashCode(removal);
+        }
+    }
 }
@@ -17,13 +17,21 @@ package com.pushtechnology.adapters.rest.topic.management;
 
 import static com.pushtechnology.diffusion.client.topics.details.TopicSpecification.REMOVAL;
 import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNotNull;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 
@@ -36,6 +44,8 @@ import org.mockito.Mock;
 import com.pushtechnology.adapters.rest.metrics.listeners.TopicCreationListener;
 import com.pushtechnology.adapters.rest.metrics.listeners.TopicCreationListener.TopicCreationCompletionListener;
 import com.pushtechnology.adapters.rest.model.latest.EndpointConfig;
+import com.pushtechnology.adapters.rest.model.latest.FanOutConfig;
+import com.pushtechnology.adapters.rest.model.latest.PublicationConfig;
 import com.pushtechnology.adapters.rest.model.latest.ServiceConfig;
 import com.pushtechnology.diffusion.client.features.control.topics.TopicAddFailReason;
 import com.pushtechnology.diffusion.client.features.control.topics.TopicControl;
@@ -169,6 +179,149 @@ public final class TopicManagementClientImplTest {
         verify(topicControl).removeTopics("service/jsonEndpoint");
     }
 
+    @Test
+    public void removeFanOutEndpoint() {
+        final EndpointConfig fanOutEndpointConfig = EndpointConfig
+            .builder()
+            .name("fanOutEndpoint")
+            .url("endpoint")
+            .topicPath("fan/out")
+            .produces("json")
+            .fanOut(FanOutConfig.builder().keyField("id").build())
+            .build();
+
+        topicManagementClient.removeEndpoint(serviceConfig, fanOutEndpointConfig);
+
+        verify(topicControl).removeTopics("?\\Qservice\\E/\\Qfan\\E/\\Qout\\E//");
+    }
+
+    @Test
+    public void addEndpoints() {
+        final EndpointConfig secondJsonEndpointConfig = EndpointConfig
+            .builder()
+            .name("secondJsonEndpoint")
+            .url("endpoint")
+            .topicPath("secondJsonEndpoint")
+            .produces("json")
+            .build();
+        when(specification.getType()).thenReturn(TopicType.JSON);
+        when(topicControl.addTopic(eq("service/jsonEndpoint"), ArgumentMatchers.<TopicSpecification>isNotNull()))
+            .thenReturn(completedFuture(TopicControl.AddTopicResult.CREATED));
+        when(topicControl.addTopic(eq("service/secondJsonEndpoint"), ArgumentMatchers.<TopicSpecification>isNotNull()))
+            .thenReturn(cf(new SessionDisconnectedException()));
+
+        final CompletableFuture<Map<EndpointConfig, Throwable>> result =
+            topicManagementClient.addEndpoints(serviceConfig, asList(jsonEndpointConfig, secondJsonEndpointConfig));
+
+        verify(topicControl).newSpecification(TopicType.JSON);
+        verify(specification).withProperty(REMOVAL, "when no session has \"$Principal eq 'adapter'\" for 1m");
+        verify(topicCreationListener).onTopicCreationRequest("service/jsonEndpoint", TopicType.JSON);
+        verify(topicCreationListener).onTopicCreationRequest("service/secondJsonEndpoint", TopicType.JSON);
+        verify(topicControl).addTopic("service/jsonEndpoint", specification);
+        verify(topicControl).addTopic("service/secondJsonEndpoint", specification);
+        verify(specification, times(2)).getType();
+        verify(topicCreationCompletionListener).onTopicCreated();
+        verify(topicCreationCompletionListener).onTopicCreationFailed(TopicAddFailReason.UNEXPECTED_ERROR);
+
+        assertTrue(result.isDone());
+        assertEquals(singleton(secondJsonEndpointConfig), result.join().keySet());
+    }
+
+    @Test
+    public void addEndpointsUnknownType() {
+        final EndpointConfig unknownEndpointConfig = EndpointConfig
+            .builder()
+            .name("unknownEndpoint")
+            .url("endpoint")
+            .topicPath("unknownEndpoint")
+            .produces("unknown")
+            .build();
+        when(specification.getType()).thenReturn(TopicType.JSON);
+        when(topicControl.addTopic(eq("service/jsonEndpoint"), ArgumentMatchers.<TopicSpecification>isNotNull()))
+            .thenReturn(completedFuture(TopicControl.AddTopicResult.CREATED));
+
+        final CompletableFuture<Map<EndpointConfig, Throwable>> result =
+            topicManagementClient.addEndpoints(serviceConfig, asList(unknownEndpointConfig, jsonEndpointConfig));
+
+        verify(topicControl).newSpecification(TopicType.JSON);
+        verify(specification).withProperty(REMOVAL, "when no session has \"$Principal eq 'adapter'\" for 1m");
+        verify(topicCreationListener).onTopicCreationRequest("service/jsonEndpoint", TopicType.JSON);
+        verify(topicControl).addTopic("service/jsonEndpoint", specification);
+        verify(specification).getType();
+        verify(topicCreationCompletionListener).onTopicCreated();
+
+        assertTrue(result.isDone());
+        assertEquals(singleton(unknownEndpointConfig), result.join().keySet());
+        assertTrue(result.join().get(unknownEndpointConfig) instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void cacheSpecifications() {
+        final ServiceConfig serviceWithRemoval = ServiceConfig
+            .builder()
+            .name("service-with-removal")
+            .host("localhost")
+            .port(80)
+            .pollPeriod(5000)
+            .topicPathRoot("removal")
+            .endpoints(asList(jsonEndpointConfig, binaryEndpointConfig, stringEndpointConfig))
+            .topicRemoval("when no updates for 1h")
+            .build();
+        when(specification.getType()).thenReturn(TopicType.JSON);
+        when(topicControl.addTopic(isNotNull(), ArgumentMatchers.<TopicSpecification>isNotNull()))
+            .thenReturn(completedFuture(TopicControl.AddTopicResult.CREATED));
+
+        topicManagementClient.addEndpoint(serviceConfig, jsonEndpointConfig);
+        topicManagementClient.addEndpoint(serviceConfig, jsonEndpointConfig);
+        topicManagementClient.addEndpoint(serviceWithRemoval, jsonEndpointConfig);
+
+        verify(topicControl, times(2)).newSpecification(TopicType.JSON);
+        verify(specification).withProperty(REMOVAL, "when no session has \"$Principal eq 'adapter'\" for 1m");
+        verify(specification).withProperty(REMOVAL, "when no updates for 1h");
+        verify(topicCreationListener, times(2)).onTopicCreationRequest("service/jsonEndpoint", TopicType.JSON);
+        verify(topicCreationListener).onTopicCreationRequest("removal/jsonEndpoint", TopicType.JSON);
+        verify(topicControl, times(2)).addTopic("service/jsonEndpoint", specification);
+        verify(topicControl).addTopic("removal/jsonEndpoint", specification);
+        verify(specification, times(3)).getType();
+        verify(topicCreationCompletionListener, times(3)).onTopicCreated();
+    }
+
+    @Test
+    public void limitOutstandingTopics() {
+        final CompletableFuture<TopicControl.AddTopicResult> firstTopic = new CompletableFuture<>();
+        topicManagementClient = new TopicManagementClientImpl(
+            topicCreationListener,
+            session,
+            PublicationConfig.builder().maxOutstandingTopics(1).build());
+        when(specification.getType()).thenReturn(TopicType.JSON, TopicType.BINARY);
+        when(topicControl.addTopic(eq("service/jsonEndpoint"), ArgumentMatchers.<TopicSpecification>isNotNull()))
+            .thenReturn(firstTopic);
+        when(topicControl.addTopic(eq("service/binaryEndpoint"), ArgumentMatchers.<TopicSpecification>isNotNull()))
+            .thenReturn(completedFuture(TopicControl.AddTopicResult.CREATED));
+
+        final CompletableFuture<Map<EndpointConfig, Throwable>> result =
+            topicManagementClient.addEndpoints(serviceConfig, asList(jsonEndpointConfig, binaryEndpointConfig));
+
+        verify(topicControl).newSpecification(TopicType.JSON);
+        verify(topicControl).newSpecification(TopicType.BINARY);
+        verify(specification, times(2))
+            .withProperty(REMOVAL, "when no session has \"$Principal eq 'adapter'\" for 1m");
+        verify(topicCreationListener).onTopicCreationRequest("service/jsonEndpoint", TopicType.JSON);
+        verify(topicControl).addTopic("service/jsonEndpoint", specification);
+        verify(specification).getType();
+        assertFalse(result.isDone());
+
+        firstTopic.complete(TopicControl.AddTopicResult.CREATED);
+
+        verify(topicCreationListener).onTopicCreationRequest("service/binaryEndpoint", TopicType.BINARY);
+        verify(topicControl).addTopic("service/binaryEndpoint", specification);
+        verify(specification, times(2)).getType();
+        verify(topicCreationCompletionListener, times(2)).onTopicCreated();
+
+        assertTrue(result.isDone());
+        assertTrue(result.join().isEmpty());
+    }
+
     private static CompletableFuture<TopicControl.AddTopicResult> cf(Exception exception) {
         final CompletableFuture<TopicControl.AddTopicResult> result = new CompletableFuture<>();
         result.completeExceptionally(new CompletionException(exception));